@@ -0,0 +1,71 @@
+package io.github.fabripat.jreflex.benchmarks;
+
+import io.github.fabripat.jreflex.benchmarks.shapes.BuilderDto;
+import io.github.fabripat.jreflex.benchmarks.shapes.ImmutableDto;
+import io.github.fabripat.jreflex.benchmarks.shapes.PlainDto;
+import io.github.fabripat.jreflex.discovery.BeanDiscovery;
+import io.github.fabripat.jreflex.index.BeanIndexEntry;
+import io.github.fabripat.jreflex.scanner.ClassFileHeader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering of a class from its class file header, and computation of its excluded fields either from
+ * the header, as the discovery does, or reflecting over the loaded class.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassFilterBenchmark {
+
+    public enum Shape {
+        PLAIN(PlainDto.class), BUILDER(BuilderDto.class), IMMUTABLE(ImmutableDto.class);
+
+        private final Class<?> type;
+
+        Shape(Class<?> type) {
+            this.type = type;
+        }
+
+        Class<?> getType() {
+            return type;
+        }
+    }
+
+    @Param({"PLAIN", "BUILDER", "IMMUTABLE"})
+    public Shape shape;
+
+    private byte[] bytecode;
+    private ClassFileHeader header;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String resourceName = shape.type.getName().replace('.', '/') + ".class";
+        try (InputStream in = shape.type.getClassLoader().getResourceAsStream(resourceName)) {
+            bytecode = in.readAllBytes();
+        }
+        header = ClassFileHeader.read(new ByteArrayInputStream(bytecode));
+    }
+
+    @Benchmark
+    public boolean filterClass() throws IOException {
+        return BeanDiscovery.isTestableClass(ClassFileHeader.read(new ByteArrayInputStream(bytecode)));
+    }
+
+    @Benchmark
+    public BeanIndexEntry excludedFieldsFromHeader() {
+        return BeanIndexEntry.of(header);
+    }
+
+    @Benchmark
+    public BeanIndexEntry excludedFieldsFromReflection() {
+        return BeanIndexEntry.of(shape.type);
+    }
+}
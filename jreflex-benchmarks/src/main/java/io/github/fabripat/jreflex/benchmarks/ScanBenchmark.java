@@ -0,0 +1,69 @@
+package io.github.fabripat.jreflex.benchmarks;
+
+import io.github.fabripat.jreflex.discovery.BeanDiscovery;
+import io.github.fabripat.jreflex.index.BeanIndexEntry;
+import io.github.fabripat.jreflex.scanner.ClassFile;
+import io.github.fabripat.jreflex.scanner.ClasspathScanner;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scanning and discovery of synthetic classpath roots of growing size, exploded or packaged in a jar, jars being
+ * read through their central directory or through their persisted class name index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScanBenchmark {
+
+    public enum Layout {
+        DIRECTORY, JAR
+    }
+
+    private static final List<String> PACKAGES = List.of(SyntheticClasspath.PACKAGE_PATH);
+
+    @Param({"1000", "10000", "50000"})
+    public int classCount;
+
+    @Param({"DIRECTORY", "JAR"})
+    public Layout layout;
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    @Param({"false", "true"})
+    public boolean classNameIndex;
+
+    private Path root;
+    private ClasspathScanner scanner;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        root = SyntheticClasspath.create(layout, classCount);
+        scanner = ClasspathScanner.of(List.of(root));
+        if (classNameIndex)
+            scanner = scanner.withClassNameIndexes(root.getParent().resolve("indexes"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticClasspath.delete(root);
+    }
+
+    @Benchmark
+    public List<ClassFile> scan() {
+        return scanner.scan(PACKAGES);
+    }
+
+    @Benchmark
+    public List<BeanIndexEntry> discover() {
+        return new BeanDiscovery(scanner, parallelism).discover(PACKAGES);
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.fabripat.jreflex.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * <p>
+ * Generates classpath roots of synthetic class files under the {@value #PACKAGE_PATH} package, spread
+ * over nested sub-packages of {@value #CLASSES_PER_PACKAGE} classes.
+ * </p>
+ * <p>
+ * Every class file declares a public class extending {@code Object}, without fields nor methods, which
+ * is all the discovery reads. One class out of ten is an interface, so that filtering has work to do.
+ * </p>
+ */
+final class SyntheticClasspath {
+
+    static final String PACKAGE_PATH = "bench/synthetic";
+
+    private static final int CLASSES_PER_PACKAGE = 100;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_SUPER = 0x0020;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    private SyntheticClasspath() {
+    }
+
+    static Path create(ScanBenchmark.Layout layout, int classCount) throws IOException {
+        Path tempDirectory = Files.createTempDirectory("jreflex-bench");
+
+        if (layout == ScanBenchmark.Layout.DIRECTORY) {
+            Path root = Files.createDirectory(tempDirectory.resolve("classes"));
+            for (int i = 0; i < classCount; i++) {
+                Path file = root.resolve(resourceName(i));
+                Files.createDirectories(file.getParent());
+                Files.write(file, classFile(i));
+            }
+            return root;
+        }
+
+        Path jar = tempDirectory.resolve("classes.jar");
+        try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jarOut = new JarOutputStream(out)) {
+            for (int i = 0; i < classCount; i++) {
+                jarOut.putNextEntry(new JarEntry(resourceName(i)));
+                jarOut.write(classFile(i));
+                jarOut.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    static void delete(Path root) throws IOException {
+        Path tempDirectory = root.getParent();
+        Files.walkFileTree(tempDirectory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static String resourceName(int index) {
+        int packageIndex = index / CLASSES_PER_PACKAGE;
+        return PACKAGE_PATH + "/p" + (packageIndex % 10) + "/p" + packageIndex + "/Bean" + index + ".class";
+    }
+
+    private static byte[] classFile(int index) {
+        String className = resourceName(index).substring(0, resourceName(index).length() - ".class".length());
+        boolean isInterface = index % 10 == 0;
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(55);
+            out.writeShort(5);
+            out.writeByte(1);
+            out.writeUTF(className);
+            out.writeByte(7);
+            out.writeShort(1);
+            out.writeByte(1);
+            out.writeUTF("java/lang/Object");
+            out.writeByte(7);
+            out.writeShort(3);
+            out.writeShort(isInterface ? ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT : ACC_PUBLIC | ACC_SUPER);
+            out.writeShort(2);
+            out.writeShort(4);
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(0);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
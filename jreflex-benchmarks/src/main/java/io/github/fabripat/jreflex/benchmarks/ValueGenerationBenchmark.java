@@ -0,0 +1,45 @@
+package io.github.fabripat.jreflex.benchmarks;
+
+import io.github.fabripat.jreflex.benchmarks.shapes.OrderDto;
+import io.github.fabripat.jreflex.verification.RandomValues;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation of the date and time values, formerly registered as bean-matchers generators, and of a graph of
+ * nested beans built through their memoized plans.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueGenerationBenchmark {
+
+    private RandomValues values;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        values = new RandomValues(RandomSource.XO_RO_SHI_RO_128_PP.create(42L));
+    }
+
+    @Benchmark
+    public Object localDate() {
+        return values.next(LocalDate.class);
+    }
+
+    @Benchmark
+    public Object localDateTime() {
+        return values.next(LocalDateTime.class);
+    }
+
+    @Benchmark
+    public Object orderGraph() {
+        return values.next(OrderDto.class);
+    }
+}
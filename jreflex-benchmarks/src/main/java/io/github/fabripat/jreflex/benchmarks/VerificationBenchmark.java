@@ -0,0 +1,37 @@
+package io.github.fabripat.jreflex.benchmarks;
+
+import io.github.fabripat.jreflex.verification.BeanVerifier;
+import io.github.fabripat.jreflex.verification.RandomValues;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full verification of representative bean shapes, descriptors being computed once as in a test run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerificationBenchmark {
+
+    @Param({"PLAIN", "BUILDER", "IMMUTABLE"})
+    public ClassFilterBenchmark.Shape shape;
+
+    private BeanVerifier verifier;
+    private Class<?> type;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        verifier = new BeanVerifier(new RandomValues(RandomSource.XO_RO_SHI_RO_128_PP.create(42L)), BeanVerifier.DEFAULT_ITERATIONS);
+        type = shape.getType();
+    }
+
+    @Benchmark
+    public void verify() {
+        verifier.verify(type);
+    }
+}
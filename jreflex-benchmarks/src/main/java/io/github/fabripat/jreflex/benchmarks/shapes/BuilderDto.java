@@ -0,0 +1,28 @@
+package io.github.fabripat.jreflex.benchmarks.shapes;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A Lombok bean with a builder.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuilderDto {
+    private Long id;
+    private String name;
+    private BigDecimal amount;
+    private LocalDate date;
+    private LocalDateTime timestamp;
+    private boolean active;
+    private List<String> tags;
+}
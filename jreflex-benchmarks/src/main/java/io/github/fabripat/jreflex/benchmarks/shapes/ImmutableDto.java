@@ -0,0 +1,24 @@
+package io.github.fabripat.jreflex.benchmarks.shapes;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A Lombok bean with final fields only.
+ */
+@Data
+@NoArgsConstructor(force = true)
+public class ImmutableDto {
+    private final Long id;
+    private final String name;
+    private final BigDecimal amount;
+    private final LocalDate date;
+    private final LocalDateTime timestamp;
+    private final boolean active;
+    private final List<String> tags;
+}
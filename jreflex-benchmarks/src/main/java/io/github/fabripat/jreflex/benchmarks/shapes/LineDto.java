@@ -0,0 +1,12 @@
+package io.github.fabripat.jreflex.benchmarks.shapes;
+
+import lombok.Data;
+
+/**
+ * A Lombok bean nested in an {@link OrderDto}.
+ */
+@Data
+public class LineDto {
+    private ProductDto product;
+    private int quantity;
+}
@@ -0,0 +1,16 @@
+package io.github.fabripat.jreflex.benchmarks.shapes;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A Lombok bean holding a graph of nested beans.
+ */
+@Data
+public class OrderDto {
+    private Long id;
+    private LocalDateTime placedAt;
+    private List<LineDto> lines;
+}
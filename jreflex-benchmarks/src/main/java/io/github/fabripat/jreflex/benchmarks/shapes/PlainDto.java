@@ -0,0 +1,101 @@
+package io.github.fabripat.jreflex.benchmarks.shapes;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A hand-written bean, as found in code bases not using Lombok.
+ */
+public class PlainDto {
+    private Long id;
+    private String name;
+    private BigDecimal amount;
+    private LocalDate date;
+    private LocalDateTime timestamp;
+    private boolean active;
+    private List<String> tags;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PlainDto that = (PlainDto) o;
+        return active == that.active
+                && Objects.equals(id, that.id)
+                && Objects.equals(name, that.name)
+                && Objects.equals(amount, that.amount)
+                && Objects.equals(date, that.date)
+                && Objects.equals(timestamp, that.timestamp)
+                && Objects.equals(tags, that.tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, amount, date, timestamp, active, tags);
+    }
+
+    @Override
+    public String toString() {
+        return "PlainDto{id=" + id + ", name=" + name + ", amount=" + amount + ", date=" + date
+                + ", timestamp=" + timestamp + ", active=" + active + ", tags=" + tags + "}";
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.fabripat.jreflex.benchmarks.shapes;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * A Lombok bean nested in a {@link LineDto}.
+ */
+@Data
+public class ProductDto {
+    private String code;
+    private String name;
+    private BigDecimal price;
+}
@@ -0,0 +1,134 @@
+package io.github.fabripat.jreflex.engine;
+
+import io.github.fabripat.jreflex.scanner.ClassNameMatcher;
+import io.github.fabripat.jreflex.verification.BeanCheck;
+import org.junit.platform.engine.EngineDiscoveryRequest;
+import org.junit.platform.engine.Filter;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.discovery.ClassNameFilter;
+import org.junit.platform.engine.discovery.ClassSelector;
+import org.junit.platform.engine.discovery.PackageNameFilter;
+import org.junit.platform.engine.discovery.PackageSelector;
+import org.junit.platform.engine.discovery.UniqueIdSelector;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * The beans selected by a discovery request, as class name patterns resolved by the discovery without loading
+ * any class: a pattern per {@link ClassSelector}, e.g. {@code com.acme.OrderDto}, and per {@link PackageSelector},
+ * e.g. {@code com.acme.**}, and a pattern per bean of a {@link UniqueIdSelector}, restricted to the selected check
+ * if the unique id has a check segment.
+ * </p>
+ * <p>
+ * Classes and packages are only resolved within the classes matched by the patterns of the engine configuration,
+ * so that the test classes selected by a build tool are never verified as beans, while the unique ids, which only
+ * come from a previous run of the engine, are always resolved. The {@link ClassNameFilter}s and
+ * {@link PackageNameFilter}s of the request apply to every bean.
+ * </p>
+ */
+final class BeanSelection {
+
+    private final ClassNameMatcher classFilter;
+    private final ClassNameMatcher selectedClasses;
+    private final ClassNameMatcher configuredClasses;
+    private final Map<String, Set<BeanCheck>> checksByUniqueIdClass;
+    private final Predicate<String> requestFilter;
+
+    private BeanSelection(ClassNameMatcher classFilter, ClassNameMatcher selectedClasses, ClassNameMatcher configuredClasses,
+                          Map<String, Set<BeanCheck>> checksByUniqueIdClass, Predicate<String> requestFilter) {
+        this.classFilter = classFilter;
+        this.selectedClasses = selectedClasses;
+        this.configuredClasses = configuredClasses;
+        this.checksByUniqueIdClass = checksByUniqueIdClass;
+        this.requestFilter = requestFilter;
+    }
+
+    /**
+     * @param request           the discovery request
+     * @param engineId          the unique id of the engine
+     * @param classPatterns     the patterns of the classes resolved from class and package selectors, none
+     *                          resolving only unique ids
+     * @return the selection of the request
+     */
+    static BeanSelection of(EngineDiscoveryRequest request, UniqueId engineId, List<String> classPatterns) {
+        List<String> selectorPatterns = new ArrayList<>();
+        if (!classPatterns.isEmpty()) {
+            request.getSelectorsByType(ClassSelector.class).forEach(s -> selectorPatterns.add(s.getClassName()));
+            request.getSelectorsByType(PackageSelector.class).forEach(s -> selectorPatterns.add(
+                    s.getPackageName().isEmpty() ? "**" : s.getPackageName() + ".**"));
+        }
+
+        Map<String, Set<BeanCheck>> checksByUniqueIdClass = new HashMap<>();
+        for (UniqueIdSelector selector : request.getSelectorsByType(UniqueIdSelector.class))
+            selectUniqueId(selector.getUniqueId(), engineId, checksByUniqueIdClass);
+
+        List<String> patterns = new ArrayList<>(selectorPatterns);
+        patterns.addAll(checksByUniqueIdClass.keySet());
+
+        Predicate<String> classNameFilter = Filter.composeFilters(request.getFiltersByType(ClassNameFilter.class)).toPredicate();
+        Predicate<String> packageNameFilter = Filter.composeFilters(request.getFiltersByType(PackageNameFilter.class)).toPredicate();
+
+        return new BeanSelection(
+                patterns.isEmpty() ? null : ClassNameMatcher.compile(patterns),
+                selectorPatterns.isEmpty() ? null : ClassNameMatcher.compile(selectorPatterns),
+                ClassNameMatcher.compile(classPatterns),
+                checksByUniqueIdClass,
+                className -> classNameFilter.test(className) && packageNameFilter.test(getPackageName(className))
+        );
+    }
+
+    private static void selectUniqueId(UniqueId uniqueId, UniqueId engineId, Map<String, Set<BeanCheck>> checksByClass) {
+        List<UniqueId.Segment> segments = uniqueId.getSegments();
+        if (!uniqueId.hasPrefix(engineId) || segments.size() < 2
+                || !segments.get(1).getType().equals(BeanTestDescriptor.SEGMENT_TYPE))
+            return;
+
+        Set<BeanCheck> checks = checksByClass.computeIfAbsent(segments.get(1).getValue(), c -> EnumSet.noneOf(BeanCheck.class));
+        if (segments.size() < 3 || !segments.get(2).getType().equals(CheckTestDescriptor.SEGMENT_TYPE)) {
+            checks.addAll(EnumSet.allOf(BeanCheck.class));
+            return;
+        }
+
+        Arrays.stream(BeanCheck.values())
+                .filter(c -> c.name().equals(segments.get(2).getValue()))
+                .forEach(checks::add);
+    }
+
+    /**
+     * @return whether no bean can be selected, so that the classpath is not scanned at all
+     */
+    boolean isEmpty() {
+        return classFilter == null;
+    }
+
+    /**
+     * @return the filter of the classes to discover, whose base packages are the only ones scanned
+     */
+    ClassNameMatcher getClassFilter() {
+        return classFilter;
+    }
+
+    /**
+     * @param className the name of a discovered bean
+     * @param checks    the checks run by the verifier, in order
+     * @return the selected checks of the bean, empty if the bean is not selected
+     */
+    List<BeanCheck> getChecks(String className, List<BeanCheck> checks) {
+        if (!requestFilter.test(className))
+            return List.of();
+
+        if (selectedClasses != null && selectedClasses.matches(className) && configuredClasses.matches(className))
+            return checks;
+
+        Set<BeanCheck> selectedChecks = checksByUniqueIdClass.getOrDefault(className, Set.of());
+        return checks.stream().filter(selectedChecks::contains).collect(Collectors.toList());
+    }
+
+    private static String getPackageName(String className) {
+        int lastDot = className.lastIndexOf('.');
+        return lastDot < 0 ? "" : className.substring(0, lastDot);
+    }
+}
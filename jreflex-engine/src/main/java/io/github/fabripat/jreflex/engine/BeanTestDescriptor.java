@@ -0,0 +1,57 @@
+package io.github.fabripat.jreflex.engine;
+
+import io.github.fabripat.jreflex.index.BeanIndexEntry;
+import io.github.fabripat.jreflex.verification.BeanCheck;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+
+import java.util.Collection;
+
+/**
+ * <p>
+ * The container of the checks of a bean, identified by the segment {@code [bean:<class name>]}.
+ * </p>
+ * <p>
+ * The descriptor only holds the index entry of the bean class, so that the class is loaded when the bean is
+ * verified and never for the beans filtered out after the discovery.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class BeanTestDescriptor extends AbstractTestDescriptor {
+
+    /**
+     * The type of the unique id segment of a bean.
+     */
+    public static final String SEGMENT_TYPE = "bean";
+
+    private final BeanIndexEntry entry;
+
+    BeanTestDescriptor(UniqueId parentId, BeanIndexEntry entry, Collection<BeanCheck> checks) {
+        super(parentId.append(SEGMENT_TYPE, entry.getClassName()), entry.getClassName(), ClassSource.from(entry.getClassName()));
+        this.entry = entry;
+
+        for (BeanCheck check : checks)
+            addChild(new CheckTestDescriptor(getUniqueId(), entry.getClassName(), check));
+    }
+
+    /**
+     * @return the binary name of the bean class
+     */
+    public String getClassName() {
+        return entry.getClassName();
+    }
+
+    /**
+     * @return the index entry of the bean class, produced by the discovery
+     */
+    public BeanIndexEntry getEntry() {
+        return entry;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.CONTAINER;
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.fabripat.jreflex.engine;
+
+import io.github.fabripat.jreflex.verification.BeanCheck;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+
+/**
+ * A check of a bean, identified by the segment {@code [check:<check name>]}, e.g. {@code [check:EQUALS]}, and
+ * displayed with the name of the check, e.g. {@code hasValidBeanEquals}.
+ *
+ * @author Fabrizio Patruno
+ */
+public final class CheckTestDescriptor extends AbstractTestDescriptor {
+
+    /**
+     * The type of the unique id segment of a check.
+     */
+    public static final String SEGMENT_TYPE = "check";
+
+    private final BeanCheck check;
+
+    CheckTestDescriptor(UniqueId beanId, String className, BeanCheck check) {
+        super(beanId.append(SEGMENT_TYPE, check.name()), check.getDisplayName(), ClassSource.from(className));
+        this.check = check;
+    }
+
+    /**
+     * @return the check run by this test
+     */
+    public BeanCheck getCheck() {
+        return check;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.TEST;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.fabripat.jreflex.engine;
+
+import io.github.fabripat.jreflex.scanner.ClassSource;
+import io.github.fabripat.jreflex.verification.BeanVerifier;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+
+/**
+ * The root of the beans discovered by the {@link JReflexTestEngine}, holding the source the beans are loaded
+ * from and the verifier running their checks, from the discovery to the execution.
+ */
+final class JReflexEngineDescriptor extends EngineDescriptor {
+
+    private final ClassSource classSource;
+    private final BeanVerifier verifier;
+
+    JReflexEngineDescriptor(UniqueId uniqueId, ClassSource classSource, BeanVerifier verifier) {
+        super(uniqueId, "jReflex");
+        this.classSource = classSource;
+        this.verifier = verifier;
+    }
+
+    ClassSource getClassSource() {
+        return classSource;
+    }
+
+    BeanVerifier getVerifier() {
+        return verifier;
+    }
+}
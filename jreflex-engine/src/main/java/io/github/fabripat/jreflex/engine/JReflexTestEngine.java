@@ -0,0 +1,214 @@
+package io.github.fabripat.jreflex.engine;
+
+import io.github.fabripat.jreflex.descriptor.BeanDescriptor;
+import io.github.fabripat.jreflex.discovery.BeanDiscovery;
+import io.github.fabripat.jreflex.index.BeanIndex;
+import io.github.fabripat.jreflex.index.BeanIndexEntry;
+import io.github.fabripat.jreflex.scanner.ClassSource;
+import io.github.fabripat.jreflex.verification.BeanCheck;
+import io.github.fabripat.jreflex.verification.BeanVerifier;
+import org.junit.platform.commons.util.UnrecoverableExceptions;
+import org.junit.platform.engine.*;
+
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * This JUnit Platform test engine verifies the beans selected by the discovery request, without the
+ * {@code AbstractReflectionBeanTest} and its parameterized test: every bean is a container identified by
+ * {@code [engine:jreflex]/[bean:<class name>]}, holding a test per check identified by
+ * {@code [check:<check name>]}, e.g. {@code [check:EQUALS]}.
+ * </p>
+ * <p>
+ * Beans are resolved from {@code ClassSelector}s, {@code PackageSelector}s and {@code UniqueIdSelector}s during
+ * the discovery, reading only the class files of the selected classes and packages, so that rerunning a single
+ * bean or check from an IDE does not scan the whole classpath. Only the classes matched by the
+ * {@value #CLASS_PATTERNS_PROPERTY} configuration parameter, comma separated glob patterns as in the
+ * {@code classPatterns} attribute of {@code EnableAutomatedBeanTesting}, are resolved from class and package
+ * selectors. Classes are loaded when their bean is executed.
+ * </p>
+ * <p>
+ * Checks run with the {@link BeanVerifier#seeded() seeded} verifier, measuring the hash code distribution when
+ * the {@value #MIN_HASH_CODE_QUALITY_PROPERTY} configuration parameter is set, and the cost per call of the bean
+ * methods when {@value #MAX_NANOS_PER_CALL_PROPERTY} or {@value #MAX_BYTES_PER_CALL_PROPERTY} is set. Serializable
+ * beans are serialized and deserialized when {@value #SERIALIZATION_SAMPLES_PROPERTY} is set.
+ * </p>
+ * <p>
+ * A check failing with an {@link AssertionError} fails its test only. A check aborted by any other error, e.g. a
+ * {@link LinkageError} of a dependency of the bean or a {@link StackOverflowError} of a recursive {@code toString},
+ * fails the bean too, and a bean whose class cannot be loaded fails without running its checks. Either way the
+ * other beans are still verified, only the unrecoverable errors of the JVM abort the run.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class JReflexTestEngine implements TestEngine {
+
+    /**
+     * The id of the engine.
+     */
+    public static final String ENGINE_ID = "jreflex";
+
+    /**
+     * The configuration parameter of the patterns of the classes resolved from class and package selectors.
+     */
+    public static final String CLASS_PATTERNS_PROPERTY = "jreflex.classPatterns";
+
+    /**
+     * The configuration parameter of the minimum quality of the hash code distribution, {@code 0} by default.
+     */
+    public static final String MIN_HASH_CODE_QUALITY_PROPERTY = "jreflex.minHashCodeQuality";
+
+    /**
+     * The configuration parameter of the number of beans sampled to measure the hash code distribution.
+     */
+    public static final String HASH_CODE_SAMPLES_PROPERTY = "jreflex.hashCodeSamples";
+
+    /**
+     * The configuration parameter of the maximum average time of a call of the bean methods, {@code 0} by default.
+     */
+    public static final String MAX_NANOS_PER_CALL_PROPERTY = "jreflex.maxNanosPerCall";
+
+    /**
+     * The configuration parameter of the maximum average bytes allocated by a call of the bean methods,
+     * {@code 0} by default.
+     */
+    public static final String MAX_BYTES_PER_CALL_PROPERTY = "jreflex.maxBytesPerCall";
+
+    /**
+     * The configuration parameter of the number of instances of every serializable bean serialized and
+     * deserialized, {@code 0} by default.
+     */
+    public static final String SERIALIZATION_SAMPLES_PROPERTY = "jreflex.serializationSamples";
+
+    /**
+     * The configuration parameter of the maximum size of a serialized bean, {@code 0} by default.
+     */
+    public static final String MAX_SERIALIZED_BYTES_PROPERTY = "jreflex.maxSerializedBytes";
+
+    private static final Logger log = Logger.getLogger(JReflexTestEngine.class.getName());
+
+    @Override
+    public String getId() {
+        return ENGINE_ID;
+    }
+
+    @Override
+    public Optional<String> getGroupId() {
+        return Optional.of("io.github.fabri-pat");
+    }
+
+    @Override
+    public Optional<String> getArtifactId() {
+        return Optional.of("jreflex-engine");
+    }
+
+    @Override
+    public TestDescriptor discover(EngineDiscoveryRequest request, UniqueId uniqueId) {
+        ConfigurationParameters configuration = request.getConfigurationParameters();
+        JReflexEngineDescriptor engine = new JReflexEngineDescriptor(uniqueId, ClassSource.of(getClassLoader()), getVerifier(configuration));
+
+        BeanSelection selection = BeanSelection.of(request, uniqueId, getClassPatterns(configuration));
+        if (selection.isEmpty())
+            return engine;
+
+        BeanDiscovery discovery = new BeanDiscovery(engine.getClassSource().getScanner().withClassFilter(selection.getClassFilter()), 1);
+        Set<String> discoveredClasses = new HashSet<>();
+
+        try (Stream<BeanIndexEntry> entries = discovery.stream(selection.getClassFilter().getBasePackagePaths())) {
+            entries.forEach(entry -> {
+                List<BeanCheck> checks = selection.getChecks(entry.getClassName(), engine.getVerifier().getChecks());
+                if (checks.isEmpty() || !discoveredClasses.add(entry.getClassName()))
+                    return;
+
+                engine.addChild(new BeanTestDescriptor(uniqueId, entry, checks));
+            });
+        }
+
+        log.fine(() -> String.format("Discovered %d selected beans", discoveredClasses.size()));
+        return engine;
+    }
+
+    @Override
+    public void execute(ExecutionRequest request) {
+        JReflexEngineDescriptor engine = (JReflexEngineDescriptor) request.getRootTestDescriptor();
+        EngineExecutionListener listener = request.getEngineExecutionListener();
+
+        listener.executionStarted(engine);
+        for (TestDescriptor child : engine.getChildren())
+            executeBean(engine, (BeanTestDescriptor) child, listener);
+        listener.executionFinished(engine, TestExecutionResult.successful());
+    }
+
+    private static void executeBean(JReflexEngineDescriptor engine, BeanTestDescriptor bean, EngineExecutionListener listener) {
+        listener.executionStarted(bean);
+
+        BeanDescriptor descriptor;
+        try {
+            Class<?> clazz = engine.getClassSource().loadClass(bean.getClassName());
+            BeanIndex.register(clazz, bean.getEntry());
+            descriptor = BeanDescriptor.of(clazz);
+        } catch (Throwable t) {
+            UnrecoverableExceptions.rethrowIfUnrecoverable(t);
+            listener.executionFinished(bean, TestExecutionResult.failed(t));
+            return;
+        }
+
+        List<Throwable> abortedChecks = new ArrayList<>();
+        for (TestDescriptor child : bean.getChildren()) {
+            CheckTestDescriptor check = (CheckTestDescriptor) child;
+            listener.executionStarted(check);
+            try {
+                check.getCheck().verify(engine.getVerifier(), descriptor);
+                listener.executionFinished(check, TestExecutionResult.successful());
+            } catch (Throwable t) {
+                UnrecoverableExceptions.rethrowIfUnrecoverable(t);
+                if (!(t instanceof AssertionError))
+                    abortedChecks.add(t);
+                listener.executionFinished(check, TestExecutionResult.failed(t));
+            }
+        }
+        listener.executionFinished(bean, getBeanResult(bean, abortedChecks));
+    }
+
+    private static TestExecutionResult getBeanResult(BeanTestDescriptor bean, List<Throwable> abortedChecks) {
+        if (abortedChecks.isEmpty())
+            return TestExecutionResult.successful();
+
+        IllegalStateException failure = new IllegalStateException(String.format("%d checks of { %s } aborted, first: %s",
+                abortedChecks.size(), bean.getClassName(), abortedChecks.get(0)), abortedChecks.get(0));
+        abortedChecks.subList(1, abortedChecks.size()).forEach(failure::addSuppressed);
+        return TestExecutionResult.failed(failure);
+    }
+
+    private static BeanVerifier getVerifier(ConfigurationParameters configuration) {
+        double minQuality = configuration.get(MIN_HASH_CODE_QUALITY_PROPERTY, Double::parseDouble).orElse(0.0);
+        int samples = configuration.get(HASH_CODE_SAMPLES_PROPERTY, Integer::parseInt).orElse(BeanVerifier.DEFAULT_HASH_CODE_SAMPLES);
+        long maxNanos = configuration.get(MAX_NANOS_PER_CALL_PROPERTY, Long::parseLong).orElse(0L);
+        long maxBytes = configuration.get(MAX_BYTES_PER_CALL_PROPERTY, Long::parseLong).orElse(0L);
+        int serializationSamples = configuration.get(SERIALIZATION_SAMPLES_PROPERTY, Integer::parseInt).orElse(0);
+        long maxSerializedBytes = configuration.get(MAX_SERIALIZED_BYTES_PROPERTY, Long::parseLong).orElse(0L);
+
+        return BeanVerifier.seeded()
+                .withHashCodeDistribution(minQuality, samples)
+                .withPerformanceBudget(maxNanos, maxBytes)
+                .withSerialization(serializationSamples, maxSerializedBytes);
+    }
+
+    private static List<String> getClassPatterns(ConfigurationParameters configuration) {
+        return configuration.get(CLASS_PATTERNS_PROPERTY)
+                .map(patterns -> Arrays.stream(patterns.split(","))
+                        .map(String::trim)
+                        .filter(p -> !p.isEmpty())
+                        .collect(Collectors.toList()))
+                .orElse(List.of());
+    }
+
+    private static ClassLoader getClassLoader() {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return contextClassLoader != null ? contextClassLoader : ClassLoader.getSystemClassLoader();
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.fabripat.jreflex.engine;
+
+import io.github.fabripat.jreflex.engine.testdomain.OtherValidBean;
+import io.github.fabripat.jreflex.engine.testdomain.ValidBean;
+import io.github.fabripat.jreflex.engine.testdomain.broken.BrokenEqualsBean;
+import io.github.fabripat.jreflex.engine.testdomain.broken.RecursiveToStringBean;
+import io.github.fabripat.jreflex.engine.testdomain.broken.UnloadableBean;
+import io.github.fabripat.jreflex.verification.BeanCheck;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.Filter;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.discovery.ClassNameFilter;
+import org.junit.platform.engine.discovery.PackageNameFilter;
+import org.junit.platform.testkit.engine.EngineExecutionResults;
+import org.junit.platform.testkit.engine.EngineTestKit;
+import org.junit.platform.testkit.engine.Event;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.*;
+
+class JReflexTestEngineTest {
+
+    private static final String TEST_DOMAIN = ValidBean.class.getPackageName();
+    private static final String BROKEN_TEST_DOMAIN = BrokenEqualsBean.class.getPackageName();
+    private static final List<BeanCheck> CHECKS = List.of(BeanCheck.CONSTRUCTOR, BeanCheck.GETTERS_AND_SETTERS,
+            BeanCheck.EQUALS, BeanCheck.HASH_CODE, BeanCheck.TO_STRING);
+
+    private static EngineExecutionResults execute(String classPatterns, List<? extends DiscoverySelector> selectors,
+                                                  Filter<?>... filters) {
+        EngineTestKit.Builder builder = EngineTestKit.engine(JReflexTestEngine.ENGINE_ID)
+                .selectors(selectors.toArray(new DiscoverySelector[0]))
+                .filters(filters);
+        if (classPatterns != null)
+            builder.configurationParameter(JReflexTestEngine.CLASS_PATTERNS_PROPERTY, classPatterns);
+
+        return builder.execute();
+    }
+
+    private static Map<String, TestExecutionResult.Status> getBeanResults(EngineExecutionResults results) {
+        return results.containerEvents().finished().stream()
+                .filter(e -> e.getTestDescriptor() instanceof BeanTestDescriptor)
+                .collect(Collectors.toMap(
+                        e -> ((BeanTestDescriptor) e.getTestDescriptor()).getClassName(),
+                        JReflexTestEngineTest::getStatus
+                ));
+    }
+
+    private static Set<String> getTests(EngineExecutionResults results, TestExecutionResult.Status status) {
+        return results.testEvents().finished().stream()
+                .filter(e -> getStatus(e) == status)
+                .map(Event::getTestDescriptor)
+                .map(JReflexTestEngineTest::getTestName)
+                .collect(Collectors.toSet());
+    }
+
+    private static String getTestName(TestDescriptor descriptor) {
+        UniqueId uniqueId = descriptor.getUniqueId();
+        List<UniqueId.Segment> segments = uniqueId.getSegments();
+        return segments.get(1).getValue() + "#" + segments.get(2).getValue();
+    }
+
+    private static Set<String> getTests(Class<?> beanClass, List<BeanCheck> checks) {
+        return checks.stream().map(c -> beanClass.getName() + "#" + c.name()).collect(Collectors.toSet());
+    }
+
+    private static TestExecutionResult.Status getStatus(Event event) {
+        return event.getPayload(TestExecutionResult.class).orElseThrow().getStatus();
+    }
+
+    @Test
+    void shouldVerifyEveryCheckOfSelectedClass() {
+        EngineExecutionResults results = execute(TEST_DOMAIN + ".*", List.of(selectClass(ValidBean.class)));
+
+        assertEquals(getTests(ValidBean.class, CHECKS), getTests(results, TestExecutionResult.Status.SUCCESSFUL));
+        assertEquals(Map.of(ValidBean.class.getName(), TestExecutionResult.Status.SUCCESSFUL), getBeanResults(results));
+    }
+
+    @Test
+    void shouldVerifyEveryBeanOfSelectedPackage() {
+        EngineExecutionResults results = execute(TEST_DOMAIN + ".*", List.of(selectPackage(TEST_DOMAIN)));
+
+        assertEquals(Set.of(ValidBean.class.getName(), OtherValidBean.class.getName()), getBeanResults(results).keySet());
+        results.testEvents().assertStatistics(s -> s.started(2 * CHECKS.size()).succeeded(2 * CHECKS.size()));
+    }
+
+    @Test
+    void shouldVerifyOnlyCheckOfSelectedUniqueId() {
+        UniqueId uniqueId = UniqueId.forEngine(JReflexTestEngine.ENGINE_ID)
+                .append(BeanTestDescriptor.SEGMENT_TYPE, ValidBean.class.getName())
+                .append(CheckTestDescriptor.SEGMENT_TYPE, BeanCheck.EQUALS.name());
+
+        EngineExecutionResults results = execute(null, List.of(selectUniqueId(uniqueId)));
+
+        assertEquals(getTests(ValidBean.class, List.of(BeanCheck.EQUALS)), getTests(results, TestExecutionResult.Status.SUCCESSFUL));
+    }
+
+    @Test
+    void shouldVerifyEveryCheckOfSelectedBeanUniqueId() {
+        UniqueId uniqueId = UniqueId.forEngine(JReflexTestEngine.ENGINE_ID)
+                .append(BeanTestDescriptor.SEGMENT_TYPE, OtherValidBean.class.getName());
+
+        EngineExecutionResults results = execute(null, List.of(selectUniqueId(uniqueId)));
+
+        assertEquals(getTests(OtherValidBean.class, CHECKS), getTests(results, TestExecutionResult.Status.SUCCESSFUL));
+    }
+
+    @Test
+    void shouldNotResolveClassesAndPackagesWithoutMatchingClassPatterns() {
+        List<DiscoverySelector> selectors = List.of(selectClass(ValidBean.class), selectPackage(TEST_DOMAIN));
+
+        assertTrue(getBeanResults(execute(null, selectors)).isEmpty());
+        assertTrue(getBeanResults(execute("com.my.other.**", selectors)).isEmpty());
+        assertEquals(Set.of(ValidBean.class.getName()), getBeanResults(execute("**.ValidBean", selectors)).keySet());
+    }
+
+    @Test
+    void shouldApplyClassNameFilters() {
+        EngineExecutionResults results = execute(TEST_DOMAIN + ".**", List.of(selectPackage(TEST_DOMAIN)),
+                ClassNameFilter.includeClassNamePatterns(".*\\.Other.*"));
+
+        assertEquals(Set.of(OtherValidBean.class.getName()), getBeanResults(results).keySet());
+    }
+
+    @Test
+    void shouldApplyPackageNameFilters() {
+        EngineExecutionResults results = execute(TEST_DOMAIN + ".**", List.of(selectPackage(TEST_DOMAIN)),
+                PackageNameFilter.excludePackageNames(BROKEN_TEST_DOMAIN));
+
+        assertEquals(Set.of(ValidBean.class.getName(), OtherValidBean.class.getName()), getBeanResults(results).keySet());
+    }
+
+    @Test
+    void shouldReportFailingCheckWithoutAbortingOtherBeans() {
+        EngineExecutionResults results = execute(TEST_DOMAIN + ".**",
+                List.of(selectClass(BrokenEqualsBean.class), selectClass(ValidBean.class)));
+
+        assertTrue(getTests(results, TestExecutionResult.Status.FAILED).contains(BrokenEqualsBean.class.getName() + "#" + BeanCheck.EQUALS.name()));
+        assertEquals(getTests(ValidBean.class, CHECKS), getTests(results, TestExecutionResult.Status.SUCCESSFUL).stream()
+                .filter(t -> t.startsWith(ValidBean.class.getName() + "#"))
+                .collect(Collectors.toSet()));
+        assertEquals(Map.of(
+                BrokenEqualsBean.class.getName(), TestExecutionResult.Status.SUCCESSFUL,
+                ValidBean.class.getName(), TestExecutionResult.Status.SUCCESSFUL
+        ), getBeanResults(results));
+    }
+
+    @Test
+    void shouldFailBeanOfAbortedCheckWithoutAbortingOtherBeans() {
+        EngineExecutionResults results = execute(TEST_DOMAIN + ".**",
+                List.of(selectClass(RecursiveToStringBean.class), selectClass(ValidBean.class)));
+
+        Event toString = results.testEvents().finished().stream()
+                .filter(e -> getTestName(e.getTestDescriptor()).equals(RecursiveToStringBean.class.getName() + "#" + BeanCheck.TO_STRING.name()))
+                .findFirst()
+                .orElseThrow();
+        assertInstanceOf(StackOverflowError.class, toString.getPayload(TestExecutionResult.class).orElseThrow().getThrowable().orElseThrow());
+        assertEquals(Map.of(
+                RecursiveToStringBean.class.getName(), TestExecutionResult.Status.FAILED,
+                ValidBean.class.getName(), TestExecutionResult.Status.SUCCESSFUL
+        ), getBeanResults(results));
+        results.containerEvents().assertStatistics(s -> s.started(3).finished(3));
+    }
+
+    @Test
+    void shouldFailBeanWhoseClassCannotBeLoadedWithoutAbortingOtherBeans() {
+        Thread currentThread = Thread.currentThread();
+        ClassLoader contextClassLoader = currentThread.getContextClassLoader();
+        currentThread.setContextClassLoader(new ClassLoader(contextClassLoader) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (name.equals(UnloadableBean.class.getName()))
+                    throw new NoClassDefFoundError(name.replace('.', '/'));
+                return super.loadClass(name, resolve);
+            }
+        });
+
+        EngineExecutionResults results;
+        try {
+            results = execute(TEST_DOMAIN + ".**", List.of(selectClass(UnloadableBean.class), selectClass(ValidBean.class)));
+        } finally {
+            currentThread.setContextClassLoader(contextClassLoader);
+        }
+
+        assertEquals(Map.of(
+                UnloadableBean.class.getName(), TestExecutionResult.Status.FAILED,
+                ValidBean.class.getName(), TestExecutionResult.Status.SUCCESSFUL
+        ), getBeanResults(results));
+        assertTrue(getTests(results, TestExecutionResult.Status.SUCCESSFUL).containsAll(getTests(ValidBean.class, CHECKS)));
+        results.containerEvents().assertStatistics(s -> s.started(3).finished(3));
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.fabripat.jreflex.engine.testdomain.broken;
+
+import java.util.Objects;
+
+public class UnloadableBean {
+    private String name;
+    private Integer count;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        UnloadableBean that = (UnloadableBean) o;
+        return Objects.equals(name, that.name) && Objects.equals(count, that.count);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, count);
+    }
+
+    @Override
+    public String toString() {
+        return "UnloadableBean(name=" + name + ", count=" + count + ")";
+    }
+}
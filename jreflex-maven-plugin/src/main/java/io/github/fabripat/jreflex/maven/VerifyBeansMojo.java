@@ -0,0 +1,286 @@
+package io.github.fabripat.jreflex.maven;
+
+import io.github.fabripat.jreflex.discovery.BeanDiscovery;
+import io.github.fabripat.jreflex.index.BeanIndexEntry;
+import io.github.fabripat.jreflex.scanner.ClassNameMatcher;
+import io.github.fabripat.jreflex.scanner.ClassSource;
+import io.github.fabripat.jreflex.verification.BeanVerifier;
+import io.github.fabripat.jreflex.verification.RandomStreams;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * This goal verifies the JavaBeans of a module in-process at build time, without the JUnit platform nor a
+ * surefire fork: the testable classes are discovered by the {@link BeanDiscovery} over the output directory of
+ * the module and verified by the {@link BeanVerifier}, loaded by an indexed {@link ClassSource} over the runtime
+ * classpath of the module.
+ * </p>
+ * <p>
+ * Packages and class patterns, exclusions included, are configured as with the {@code EnableAutomatedBeanTesting}
+ * annotation. Every bean is verified, and the goal fails once at the end with the failures of every bean.
+ * </p>
+ * <p>
+ * The goal is thread-safe: every module of a parallel reactor build is verified by its own builder thread,
+ * with its own class loader. The values of every bean are drawn from its own {@link RandomStreams stream}, so that
+ * a failure is replayed by setting the seed logged with it.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+@Mojo(
+        name = "verify-beans",
+        defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        requiresDependencyResolution = ResolutionScope.RUNTIME,
+        threadSafe = true
+)
+public class VerifyBeansMojo extends AbstractMojo {
+
+    /**
+     * The module to verify.
+     */
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * The directory of the compiled classes of the module.
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File classesDirectory;
+
+    /**
+     * The root package of the beans, every package is scanned when not set.
+     */
+    @Parameter(property = "jreflex.sourceRootPath", defaultValue = "")
+    private String sourceRootPath;
+
+    /**
+     * The sub-packages of the root package to scan, the whole root package is scanned when not set.
+     */
+    @Parameter
+    private String[] packagesToScan;
+
+    /**
+     * The patterns of the beans to verify, e.g. {@code com.acme.**.dto.*}, and the patterns of the excluded
+     * ones starting with {@code !}, every bean is verified when not set. When no package is configured only the
+     * packages of the patterns are scanned.
+     */
+    @Parameter(property = "jreflex.classPatterns")
+    private String[] classPatterns;
+
+    /**
+     * The number of threads discovering the testable classes.
+     */
+    @Parameter(property = "jreflex.parallelism", defaultValue = "1")
+    private int parallelism;
+
+    /**
+     * The minimum quality of the hash code distribution of every bean, from 0 to 1, 0 not measuring it.
+     */
+    @Parameter(property = "jreflex.minHashCodeQuality", defaultValue = "0")
+    private double minHashCodeQuality;
+
+    /**
+     * The number of beans sampled to measure the hash code distribution.
+     */
+    @Parameter(property = "jreflex.hashCodeSamples", defaultValue = "4096")
+    private int hashCodeSamples;
+
+    /**
+     * The maximum average time, in nanoseconds, of a call of toString, equals and hashCode, 0 for no limit.
+     */
+    @Parameter(property = "jreflex.maxNanosPerCall", defaultValue = "0")
+    private long maxNanosPerCall;
+
+    /**
+     * The maximum average number of bytes allocated by a call of toString, equals and hashCode, 0 for no limit.
+     */
+    @Parameter(property = "jreflex.maxBytesPerCall", defaultValue = "0")
+    private long maxBytesPerCall;
+
+    /**
+     * The number of instances of every Serializable bean serialized and deserialized, 0 not serializing them.
+     */
+    @Parameter(property = "jreflex.serializationSamples", defaultValue = "0")
+    private int serializationSamples;
+
+    /**
+     * The maximum size of a serialized bean, in bytes, 0 for no limit.
+     */
+    @Parameter(property = "jreflex.maxSerializedBytes", defaultValue = "0")
+    private long maxSerializedBytes;
+
+    /**
+     * Skips the verification of the beans.
+     */
+    @Parameter(property = "jreflex.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Skipping bean verification");
+            return;
+        }
+
+        if (!classesDirectory.isDirectory()) {
+            getLog().info(String.format("No classes to verify in { %s }", classesDirectory));
+            return;
+        }
+
+        BeanVerifier verifier = getVerifier();
+        ClassNameMatcher classFilter = getClassFilter(classPatterns);
+        List<String> packagePaths = getPackagePaths(sourceRootPath, packagesToScan, classFilter);
+        Path classesPath = classesDirectory.toPath().toAbsolutePath().normalize();
+        long start = System.nanoTime();
+        Map<String, Throwable> failures = new TreeMap<>();
+        int verifiedBeans = 0;
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader contextClassLoader = currentThread.getContextClassLoader();
+
+        try (ClassSource classSource = ClassSource.indexed(getRuntimeClasspath(classesPath), getClass().getClassLoader());
+             Stream<BeanIndexEntry> entries = discover(classSource, classesPath, classFilter, packagePaths)) {
+            currentThread.setContextClassLoader(classSource.getClassLoader());
+
+            for (Iterator<BeanIndexEntry> it = entries.iterator(); it.hasNext(); verifiedBeans++) {
+                String className = it.next().getClassName();
+                try {
+                    verifier.verify(classSource.loadClass(className));
+                } catch (AssertionError | RuntimeException | LinkageError | ClassNotFoundException e) {
+                    getLog().error(String.format("{ %s } breaks the JavaBeans contract: %s", className, e.getMessage()));
+                    failures.put(className, e);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw new MojoExecutionException("Cannot verify the beans of " + project.getId(), e);
+        } finally {
+            currentThread.setContextClassLoader(contextClassLoader);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        getLog().info(String.format("Verified %d beans of %s in %d ms, %d failed",
+                verifiedBeans, project.getId(), elapsedMillis, failures.size()));
+
+        if (!failures.isEmpty())
+            throw new MojoFailureException(getFailureReport(failures, verifiedBeans));
+    }
+
+    private BeanVerifier getVerifier() throws MojoExecutionException {
+        try {
+            return BeanVerifier.seeded()
+                    .withHashCodeDistribution(minHashCodeQuality, hashCodeSamples)
+                    .withPerformanceBudget(maxNanosPerCall, maxBytesPerCall)
+                    .withSerialization(serializationSamples, maxSerializedBytes);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    private Stream<BeanIndexEntry> discover(ClassSource classSource, Path classesPath, ClassNameMatcher classFilter,
+                                            List<String> packagePaths) {
+        return new BeanDiscovery(classSource.getScanner().filter(classesPath::equals).withClassFilter(classFilter), parallelism)
+                .stream(packagePaths);
+    }
+
+    /**
+     * The beans and their dependencies are loaded by an indexed class source, child of the plugin class loader,
+     * so that jReflex and its annotations are shared with the verifier while every bean is resolved by a single
+     * lookup in the index of the runtime classpath.
+     */
+    private List<Path> getRuntimeClasspath(Path classesPath) throws MojoExecutionException {
+        try {
+            return getRuntimeClasspath(classesPath, project.getRuntimeClasspathElements());
+        } catch (DependencyResolutionRequiredException e) {
+            throw new MojoExecutionException("Cannot resolve the runtime classpath of " + project.getId(), e);
+        }
+    }
+
+    /**
+     * @param classPatterns the configured class patterns, {@code null} if not set
+     * @return the matcher of the classes to verify, every class when no pattern is set
+     * @throws MojoExecutionException if a pattern is not valid
+     */
+    static ClassNameMatcher getClassFilter(String[] classPatterns) throws MojoExecutionException {
+        try {
+            return classPatterns == null
+                    ? ClassNameMatcher.all()
+                    : ClassNameMatcher.compile(Arrays.asList(classPatterns));
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resolves the packages to scan as with the {@code EnableAutomatedBeanTesting} annotation: the sub-packages of
+     * the root package, or the root package itself. When neither is set only the packages of the class patterns
+     * are scanned.
+     *
+     * @param sourceRootPath the root package, {@code null} or empty for every package
+     * @param packagesToScan the sub-packages of the root package, {@code null} or empty for the whole root package
+     * @param classFilter    the matcher of the classes to verify
+     * @return the packages to scan, expressed as paths
+     */
+    static List<String> getPackagePaths(String sourceRootPath, String[] packagesToScan, ClassNameMatcher classFilter) {
+        String rootPath = sourceRootPath == null ? "" : sourceRootPath.replace(".", "/");
+
+        List<String> packagePaths = packagesToScan == null || packagesToScan.length == 0
+                ? List.of(rootPath)
+                : Arrays.stream(packagesToScan)
+                .map(p -> rootPath.isEmpty() ? p.replace(".", "/") : rootPath.concat("/").concat(p.replace(".", "/")))
+                .collect(Collectors.toList());
+
+        return packagePaths.equals(List.of("")) ? classFilter.getBasePackagePaths() : packagePaths;
+    }
+
+    /**
+     * The runtime classpath of the module already holds its classes directory: roots are normalized, so that the
+     * classes directory is listed once and matched by the discovery.
+     *
+     * @param classesPath              the normalized absolute path of the classes directory
+     * @param runtimeClasspathElements the runtime classpath elements of the module
+     * @return the roots of the runtime classpath, the classes directory first
+     */
+    static List<Path> getRuntimeClasspath(Path classesPath, List<String> runtimeClasspathElements) {
+        Set<Path> rootPaths = new LinkedHashSet<>();
+        rootPaths.add(classesPath);
+        for (String element : runtimeClasspathElements)
+            rootPaths.add(Paths.get(element).toAbsolutePath().normalize());
+
+        return new ArrayList<>(rootPaths);
+    }
+
+    /**
+     * @param failures      the failure of every bean breaking the JavaBeans contract, by class name
+     * @param verifiedBeans the number of verified beans
+     * @return the report of the failures, ending with the replay seed
+     */
+    static String getFailureReport(Map<String, Throwable> failures, int verifiedBeans) {
+        StringBuilder report = new StringBuilder(String.format("%d of %d beans break the JavaBeans contract:",
+                failures.size(), verifiedBeans));
+
+        failures.forEach((className, failure) -> report
+                .append(System.lineSeparator())
+                .append("  - ").append(className).append(": ").append(failure.getMessage()));
+
+        report.append(System.lineSeparator())
+                .append(String.format("Replay with -D%s=%d", RandomStreams.SEED_PROPERTY, RandomStreams.getSeed()));
+
+        return report.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.fabripat.jreflex.maven;
+
+import io.github.fabripat.jreflex.maven.testdomain.BrokenEqualsBean;
+import io.github.fabripat.jreflex.maven.testdomain.ValidBean;
+import io.github.fabripat.jreflex.verification.RandomStreams;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.testing.AbstractMojoTestCase;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.net.URISyntaxException;
+
+/**
+ * Runs the {@code verify-beans} goal, configured as by a build, over the compiled test domain holding a valid bean
+ * and a bean breaking the equals contract. The testing harness runs on JUnit 3, so its tests are named
+ * {@code test*}.
+ */
+public class VerifyBeansMojoHarnessTest extends AbstractMojoTestCase {
+
+    private static final String TEST_DOMAIN = ValidBean.class.getPackageName();
+
+    private VerifyBeansMojo lookupMojo(File classesDirectory) throws Exception {
+        MavenProject project = new MavenProject();
+        project.setGroupId("com.my.test");
+        project.setArtifactId("beans");
+        project.setVersion("1.0.0");
+        project.getBuild().setOutputDirectory(classesDirectory.getPath());
+
+        VerifyBeansMojo mojo = (VerifyBeansMojo) lookupConfiguredMojo(project, "verify-beans");
+        setVariableValueToObject(mojo, "sourceRootPath", TEST_DOMAIN);
+        return mojo;
+    }
+
+    private static File getTestClassesDirectory() throws URISyntaxException {
+        return new File(ValidBean.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    public void testShouldFailWithReportOfEveryBrokenBean() throws Exception {
+        VerifyBeansMojo mojo = lookupMojo(getTestClassesDirectory());
+
+        MojoFailureException failure = assertThrows(MojoFailureException.class, mojo::execute);
+
+        assertTrue(failure.getMessage(), failure.getMessage().startsWith("1 of 2 beans break the JavaBeans contract:"));
+        assertTrue(failure.getMessage(), failure.getMessage().contains("  - " + BrokenEqualsBean.class.getName() + ": "));
+        assertFalse(failure.getMessage(), failure.getMessage().contains(ValidBean.class.getName()));
+        assertTrue(failure.getMessage(), failure.getMessage().endsWith("Replay with -D" + RandomStreams.SEED_PROPERTY + "=" + RandomStreams.getSeed()));
+    }
+
+    public void testShouldVerifyOnlyBeansMatchingClassPatterns() throws Exception {
+        VerifyBeansMojo mojo = lookupMojo(getTestClassesDirectory());
+        setVariableValueToObject(mojo, "sourceRootPath", "");
+        setVariableValueToObject(mojo, "classPatterns", new String[]{TEST_DOMAIN + ".*", "!**.Broken*"});
+
+        mojo.execute();
+    }
+
+    public void testShouldNotVerifyBeansWhenSkipped() throws Exception {
+        VerifyBeansMojo mojo = lookupMojo(getTestClassesDirectory());
+        setVariableValueToObject(mojo, "skip", true);
+
+        mojo.execute();
+    }
+
+    public void testShouldNotVerifyBeansOfMissingClassesDirectory() throws Exception {
+        lookupMojo(new File(getTestClassesDirectory(), "missing")).execute();
+    }
+
+    private static <T extends Throwable> T assertThrows(Class<T> type, Executable executable) {
+        try {
+            executable.execute();
+        } catch (Throwable t) {
+            if (type.isInstance(t))
+                return type.cast(t);
+            throw new AssertionError("Expected " + type.getName() + " but was: " + t, t);
+        }
+        throw new AssertionError("Expected " + type.getName() + " to be thrown");
+    }
+
+    private interface Executable {
+        void execute() throws Exception;
+    }
+}
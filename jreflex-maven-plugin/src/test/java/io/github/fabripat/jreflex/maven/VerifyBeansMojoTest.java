@@ -0,0 +1,104 @@
+package io.github.fabripat.jreflex.maven;
+
+import io.github.fabripat.jreflex.scanner.ClassNameMatcher;
+import io.github.fabripat.jreflex.verification.RandomStreams;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifyBeansMojoTest {
+
+    @Nested
+    class getPackagePathsMethod {
+
+        @Test
+        void shouldScanSubPackagesOfRootPackage() {
+            assertEquals(
+                    List.of("com/my/test/dto", "com/my/test/entity"),
+                    VerifyBeansMojo.getPackagePaths("com.my.test", new String[]{"dto", "entity"}, ClassNameMatcher.all())
+            );
+        }
+
+        @Test
+        void shouldScanRootPackageWithoutSubPackages() {
+            assertEquals(List.of("com/my/test"), VerifyBeansMojo.getPackagePaths("com.my.test", null, ClassNameMatcher.all()));
+            assertEquals(List.of("com/my/test"), VerifyBeansMojo.getPackagePaths("com.my.test", new String[0], ClassNameMatcher.all()));
+        }
+
+        @Test
+        void shouldScanPackagesOfClassPatternsWithoutPackages() throws MojoExecutionException {
+            ClassNameMatcher classFilter = VerifyBeansMojo.getClassFilter(new String[]{"com.my.test.dto.*", "com.my.other.**", "!**.Excluded*"});
+
+            assertEquals(List.of("com/my/other", "com/my/test/dto"), VerifyBeansMojo.getPackagePaths(null, null, classFilter));
+            assertEquals(List.of("com/my/other", "com/my/test/dto"), VerifyBeansMojo.getPackagePaths("", null, classFilter));
+        }
+
+        @Test
+        void shouldScanEveryPackageWithoutPackagesNorClassPatterns() throws MojoExecutionException {
+            assertEquals(List.of(""), VerifyBeansMojo.getPackagePaths(null, null, VerifyBeansMojo.getClassFilter(null)));
+        }
+    }
+
+    @Nested
+    class getClassFilterMethod {
+
+        @Test
+        void shouldMatchIncludedAndNotExcludedClasses() throws MojoExecutionException {
+            ClassNameMatcher classFilter = VerifyBeansMojo.getClassFilter(new String[]{"com.my.test.**", "!**.internal.**"});
+
+            assertTrue(classFilter.matches("com.my.test.dto.Dto"));
+            assertFalse(classFilter.matches("com.my.test.internal.Dto"));
+            assertFalse(classFilter.matches("com.my.other.Dto"));
+        }
+
+        @Test
+        void shouldThrowMojoExecutionExceptionForInvalidPattern() {
+            assertThrows(MojoExecutionException.class, () -> VerifyBeansMojo.getClassFilter(new String[]{"com..test"}));
+        }
+    }
+
+    @Nested
+    class getRuntimeClasspathMethod {
+
+        @TempDir
+        Path tempDir;
+
+        @Test
+        void shouldListClassesDirectoryOnceAndFirst() {
+            Path classes = tempDir.resolve("target/classes").toAbsolutePath().normalize();
+            Path dependency = tempDir.resolve("lib/dependency.jar").toAbsolutePath().normalize();
+
+            List<Path> result = VerifyBeansMojo.getRuntimeClasspath(classes, List.of(
+                    dependency.toString(),
+                    tempDir.resolve("target/../target/classes").toString(),
+                    classes.toString()
+            ));
+
+            assertEquals(List.of(classes, dependency), result);
+        }
+    }
+
+    @Test
+    void shouldReportEveryFailureWithReplaySeed() {
+        Map<String, Throwable> failures = new TreeMap<>();
+        failures.put("com.my.test.BrokenDto", new AssertionError("equals is not symmetric"));
+        failures.put("com.my.test.OtherBrokenDto", new IllegalStateException("no public constructor"));
+
+        String report = VerifyBeansMojo.getFailureReport(failures, 5);
+
+        assertEquals(String.join(System.lineSeparator(),
+                "2 of 5 beans break the JavaBeans contract:",
+                "  - com.my.test.BrokenDto: equals is not symmetric",
+                "  - com.my.test.OtherBrokenDto: no public constructor",
+                "Replay with -D" + RandomStreams.SEED_PROPERTY + "=" + RandomStreams.getSeed()
+        ), report);
+    }
+}
@@ -1,24 +1,26 @@
 package io.github.fabripat.jreflex;
 
-import com.google.code.beanmatchers.BeanMatchers;
-import io.github.fabripat.jreflex.annotations.ExcludeFieldBeanTesting;
+import io.github.fabripat.jreflex.annotations.EnableAutomatedBeanTesting;
+import io.github.fabripat.jreflex.incremental.IncrementalBeanStore;
 import io.github.fabripat.jreflex.provider.ClassTestProvider;
-import org.apache.commons.rng.UniformRandomProvider;
-import org.apache.commons.rng.simple.RandomSource;
-import org.junit.jupiter.api.BeforeAll;
+import io.github.fabripat.jreflex.provider.DynamicBeanTests;
+import io.github.fabripat.jreflex.provider.ExtensionContextParameterResolver;
+import io.github.fabripat.jreflex.verification.BeanVerifier;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ArgumentsSource;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.util.Arrays;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
-import static com.google.code.beanmatchers.BeanMatchers.*;
-import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
 /**
  * <p>
@@ -34,51 +36,66 @@ import static org.hamcrest.MatcherAssert.assertThat;
  * The class provides a framework for automating the testing of JavaBeans, allowing developers to
  * easily write tests for JavaBeans without manual intervention.
  * </p>
+ * <p>
+ * Beans are verified by the {@link BeanVerifier}, through accessors linked once per class. By default
+ * every bean is verified by one invocation of a parameterized test, with dynamic tests enabled every check
+ * of every bean is reported as its own dynamic test, and can run concurrently.
+ * </p>
+ * <p>
+ * With incremental bean testing enabled, the result of every verification is recorded in the
+ * {@link IncrementalBeanStore} and the verification of up to date beans is skipped.
+ * </p>
+ * <p>
+ * With sharding enabled, only the beans of the shard set by the annotation or by the system properties are verified.
+ * </p>
  */
+@ExtendWith(ExtensionContextParameterResolver.class)
 public abstract class AbstractReflectionBeanTest {
 
     private static final Logger log = Logger.getLogger(AbstractReflectionBeanTest.class.getName());
-    private static final UniformRandomProvider RANDOM = RandomSource.XO_RO_SHI_RO_128_PP.create();
-
-    @BeforeAll
-    static void setup() {
-        log.info(() -> String.format("Setting up value generator for { %s }...", LocalDateTime.class.getName()));
-        BeanMatchers.registerValueGenerator(() -> {
-            long max = LocalDateTime.MAX.toEpochSecond(ZoneOffset.UTC) - LocalDateTime.MIN.toEpochSecond(ZoneOffset.UTC);
-            long randomSeconds = RANDOM.nextLong(0, max);
-            return LocalDateTime.MIN.plusSeconds(randomSeconds);
-        }, LocalDateTime.class);
-
-        log.info(() -> String.format("Setting up value generator for { %s }...", LocalDate.class.getName()));
-        BeanMatchers.registerValueGenerator(() -> {
-            long randomDateTime = RANDOM.nextLong(LocalDate.MIN.toEpochDay(), LocalDate.MAX.toEpochDay());
-            return LocalDate.ofEpochDay(randomDateTime);
-        }, LocalDate.class);
-    }
 
     @ParameterizedTest
     @ArgumentsSource(ClassTestProvider.class)
+    @DisabledIf("isDynamicTestsEnabled")
     void beanTest(Class<?> clazz) {
-        String[] excludedFields = Arrays.stream(clazz.getDeclaredFields())
-                .filter(f -> f.isAnnotationPresent(ExcludeFieldBeanTesting.class)
-                        || Modifier.isFinal(f.getModifiers()))
-                .map(Field::getName)
-                .toArray(String[]::new);
+        assumeFalse(clazz == getClass(), "No bean to test");
 
-        String[] finalFields = Arrays.stream(clazz.getDeclaredFields())
-                .filter(f -> Modifier.isFinal(f.getModifiers()))
-                .map(Field::getName)
-                .toArray(String[]::new);
+        EnableAutomatedBeanTesting annotation = getClass().getAnnotation(EnableAutomatedBeanTesting.class);
 
-        assertThat(clazz, hasValidBeanConstructor());
+        BeanVerifier verifier = ClassTestProvider.getBeanVerifier(annotation);
 
-        assertThat(clazz, hasValidGettersAndSettersExcluding(finalFields));
+        if (annotation == null || !annotation.incremental()) {
+            verify(verifier, clazz);
+            return;
+        }
 
-        assertThat(clazz, hasValidBeanEqualsExcluding(excludedFields));
+        IncrementalBeanStore store = IncrementalBeanStore.ofDefaultFile();
+        assumeFalse(store.isUpToDate(clazz, verifier.getFingerprint()), () -> String.format("{ %s } is up to date", clazz.getName()));
+
+        try {
+            verify(verifier, clazz);
+        } catch (AssertionError | RuntimeException e) {
+            store.record(clazz, verifier.getFingerprint(), false);
+            throw e;
+        }
+        store.record(clazz, verifier.getFingerprint(), true);
+    }
 
-        assertThat(clazz, hasValidBeanHashCodeExcluding(excludedFields));
+    @TestFactory
+    @Execution(ExecutionMode.CONCURRENT)
+    @EnabledIf("isDynamicTestsEnabled")
+    Stream<DynamicNode> beanTests(ExtensionContext context) {
+        return DynamicBeanTests.of(context);
+    }
+
+    static boolean isDynamicTestsEnabled(ExtensionContext context) {
+        EnableAutomatedBeanTesting annotation = context.getRequiredTestClass().getAnnotation(EnableAutomatedBeanTesting.class);
+        return annotation != null && annotation.dynamicTests();
+    }
 
-        assertThat(clazz, hasValidBeanToStringExcluding(excludedFields));
+    private static void verify(BeanVerifier verifier, Class<?> clazz) {
+        log.fine(() -> String.format("Verifying bean { %s }...", clazz.getName()));
+        verifier.verify(clazz);
     }
 
 }
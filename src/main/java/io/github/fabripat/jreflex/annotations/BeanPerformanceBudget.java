@@ -0,0 +1,32 @@
+package io.github.fabripat.jreflex.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * <p>
+ * The budget of the annotated bean class per call of its {@code toString(), equals(), hashCode()} methods,
+ * replacing the global budget set on {@link EnableAutomatedBeanTesting}.
+ * </p>
+ * <p>
+ * Pay attention, the budget is only checked when the performance budgets are enabled, i.e. when
+ * {@link EnableAutomatedBeanTesting#maxNanosPerCall()} or {@link EnableAutomatedBeanTesting#maxBytesPerCall()}
+ * is set. Use it to loosen the budget of a bean known to be expensive, e.g. holding a large collection, or to
+ * tighten the one of a bean used as a key of hot maps.
+ * </p>
+ * @author Fabrizio Patruno
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface BeanPerformanceBudget {
+
+    /**
+     * @return The maximum average time of a call, in nanoseconds, {@code 0} for no limit.
+     */
+    long maxNanosPerCall() default 0;
+
+    /**
+     * @return The maximum average number of bytes allocated by a call, {@code 0} for no limit.
+     */
+    long maxBytesPerCall() default 0;
+}
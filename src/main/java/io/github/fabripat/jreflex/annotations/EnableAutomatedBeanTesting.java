@@ -22,6 +22,42 @@ import java.lang.annotation.*;
  * You can also specify individual sub-packages to scan for beans using the {@code packagesToScan} attribute.<br>
  * If this attribute will not be specified the system will scan all sub-packages get by {@code sourceRootPath} attribute.
  * </p>
+ * <p>
+ * You can also verify the beans of many projects in the same test using the {@code sourceRootPaths} attribute,
+ * select the beans through include and exclude glob patterns of their class names using the {@code classPatterns}
+ * attribute, e.g. {@code "**.dto.*"} and {@code "!**.internal.**"}, and scan only the classpath roots whose file
+ * name matches the {@code classpathRoots} attribute, e.g. {@code "acme-*-model-*.jar"}.
+ * </p>
+ * <p>
+ * You can also specify the number of threads used to discover the beans using the {@code parallelism} attribute.<br>
+ * If this attribute will not be specified the discovery will run sequentially.
+ * </p>
+ * <p>
+ * You can also cache the result of the discovery on disk using the {@code cacheDiscovery} attribute, so that
+ * the JVMs forked by the build do not scan again the classpath roots that did not change.
+ * </p>
+ * <p>
+ * You can also test only the beans changed since their last successful verification using the
+ * {@code incremental} attribute.
+ * </p>
+ * <p>
+ * You can also report every check of every bean as its own dynamic test using the {@code dynamicTests} attribute,
+ * and verify the beans on a dedicated pool of threads using the {@code verificationParallelism} attribute.
+ * </p>
+ * <p>
+ * You can also export the time taken by the discovery and by every check of every bean as a JSON report
+ * using the {@code report} attribute.
+ * </p>
+ * <p>
+ * You can also split the beans across JVM forks or CI nodes using the {@code shardCount} and {@code shardIndex}
+ * attributes, or the {@code jreflex.shard.count} and {@code jreflex.shard.index} system properties, and balance
+ * the shards by the check times of a previous run using the {@code balanceShards} attribute and the
+ * {@code jreflex.shard.costs} system property.
+ * </p>
+ * <p>
+ * You can also fail the beans whose hash codes crowd the buckets of a {@code HashMap} using the
+ * {@code minHashCodeQuality} attribute, measured over the number of beans set by the {@code hashCodeSamples} attribute.
+ * </p>
  *
  * @author Fabrizio Patruno
  */
@@ -36,7 +72,44 @@ public @interface EnableAutomatedBeanTesting {
      *
      * @return The root path of the project.
      */
-    String sourceRootPath();
+    String sourceRootPath() default "";
+
+    /**
+     * <p>
+     * The root paths of other projects, whose beans are tested together with the beans of {@code sourceRootPath}.
+     * </p>
+     * <p>
+     * The {@code packagesToScan} are resolved against every root path. Without any root path, the packages
+     * containing the classes matched by {@code classPatterns} are scanned.
+     * </p>
+     *
+     * @return The root paths of other projects.
+     */
+    String[] sourceRootPaths() default {};
+
+    /**
+     * <p>
+     * The glob patterns of the binary names of the beans to test: {@code **} matches any number of packages,
+     * {@code *} any characters within a package or class name. Patterns starting with {@code !} exclude the
+     * beans they match, e.g. {@code {"**.dto.*", "!**.internal.**"}}.
+     * </p>
+     * <p>
+     * Patterns are matched while the classpath is scanned, so that the excluded packages are never walked.
+     * </p>
+     *
+     * @return The patterns of the beans to test.
+     */
+    String[] classPatterns() default {};
+
+    /**
+     * <p>
+     * The glob patterns of the file names of the classpath roots to scan, e.g. {@code "acme-*-model-*.jar"} or
+     * {@code "classes"}. Every root is scanned when not set.
+     * </p>
+     *
+     * @return The patterns of the classpath roots to scan.
+     */
+    String[] classpathRoots() default {};
 
     /**
      * <p>
@@ -49,4 +122,217 @@ public @interface EnableAutomatedBeanTesting {
      * @return The packages to scan for beans.
      */
     String[] packagesToScan() default {};
+
+    /**
+     * <p>
+     * The number of threads used to discover the beans to test.
+     * </p>
+     * <p>
+     * With {@code 1}, the default, packages are scanned sequentially. With a greater value every package
+     * directory is scanned by a fork-join task and class files are filtered in parallel. With {@code 0}
+     * the number of available processors is used.
+     * </p>
+     *
+     * @return The number of threads used to discover the beans.
+     */
+    int parallelism() default 1;
+
+    /**
+     * <p>
+     * Whether the discovered beans are cached on disk, by default under {@code target/jreflex/discovery-cache}
+     * or in the directory set by the {@code jreflex.cache.dir} system property.
+     * </p>
+     * <p>
+     * Every classpath root is cached on its own and scanned again only when its fingerprint changes:
+     * the size and last modified time of a jar, or the class files of the scanned packages of a directory.
+     * </p>
+     *
+     * @return Whether the discovered beans are cached on disk.
+     */
+    boolean cacheDiscovery() default false;
+
+    /**
+     * <p>
+     * Whether only the beans changed since their last successful verification are tested.
+     * </p>
+     * <p>
+     * The hash of the bytecode of every tested bean, superclasses included, is stored together with the
+     * result of the verification, by default in {@code target/jreflex/incremental-store.idx} or in the file
+     * set by the {@code jreflex.incremental.store} system property. New, changed and previously failing beans
+     * are tested, the others are not. Setting the {@code jreflex.incremental.full} system property to
+     * {@code true} forces a full run.
+     * </p>
+     *
+     * @return Whether only the changed beans are tested.
+     */
+    boolean incremental() default false;
+
+    /**
+     * <p>
+     * Whether every check of every bean is reported as its own dynamic test, grouped by bean, instead of
+     * a single parameterized test invocation per bean.
+     * </p>
+     * <p>
+     * Dynamic tests run with {@code ExecutionMode.CONCURRENT}, so that they are executed in parallel when
+     * JUnit parallel execution is enabled, e.g. through {@code junit.jupiter.execution.parallel.enabled}.
+     * </p>
+     *
+     * @return Whether every check of every bean is reported as its own dynamic test.
+     */
+    boolean dynamicTests() default false;
+
+    /**
+     * <p>
+     * The number of threads of the dedicated pool verifying the beans when {@code dynamicTests} is enabled.
+     * </p>
+     * <p>
+     * With {@code 1}, the default, every check runs in the thread executing its dynamic test. With a greater
+     * value the checks are submitted upfront to a {@code ForkJoinPool} and dynamic tests report their outcome.
+     * With {@code 0} the number of available processors is used.
+     * </p>
+     *
+     * @return The number of threads verifying the beans.
+     */
+    int verificationParallelism() default 1;
+
+    /**
+     * <p>
+     * Whether a JSON report of the bean testing is written at the end of the test run, by default to
+     * {@code target/jreflex-report.json} or to the file set by the {@code jreflex.report.file} system property.
+     * </p>
+     * <p>
+     * The report holds the scan time of every package of every classpath root, the number of testable classes
+     * loaded, the time taken by every check of every bean, slowest beans first, and the number of random values
+     * generated per type. The same measures are emitted as JFR events of the {@code jReflex} category whatever
+     * the value of this attribute.
+     * </p>
+     *
+     * @return Whether a JSON report of the bean testing is written.
+     */
+    boolean report() default false;
+
+    /**
+     * <p>
+     * The number of shards the beans are split in, every shard being verified by its own JVM fork or CI node.
+     * </p>
+     * <p>
+     * With {@code 1}, the default, every bean is verified. The {@code jreflex.shard.count} system property
+     * overrides this attribute.
+     * </p>
+     *
+     * @return The number of shards.
+     */
+    int shardCount() default 1;
+
+    /**
+     * <p>
+     * The index of the shard to verify, from {@code 0} to {@code shardCount} excluded.
+     * </p>
+     * <p>
+     * Every bean belongs to the shard given by a stable hash of its class name, so that every node assigns
+     * the beans the same way. The {@code jreflex.shard.index} system property overrides this attribute.
+     * </p>
+     *
+     * @return The index of the shard to verify.
+     */
+    int shardIndex() default 0;
+
+    /**
+     * <p>
+     * Whether the shards are balanced by the check times recorded in the report of a previous run instead of
+     * by the hash of the class names.
+     * </p>
+     * <p>
+     * The report is read from the file set by the {@code jreflex.shard.costs} system property, and must be the
+     * same on every node, e.g. restored from the cache of the pipeline. The default report is never read, and a
+     * sharded run never writes its report over the costs. Without report, or when a bean has no recorded check
+     * time, the shards are not balanced.
+     * </p>
+     *
+     * @return Whether the shards are balanced by the check times of a previous run.
+     */
+    boolean balanceShards() default false;
+
+    /**
+     * <p>
+     * The minimum quality of the distribution of the hash codes of every bean, from {@code 0} to {@code 1}.
+     * </p>
+     * <p>
+     * With {@code 0}, the default, the distribution is not measured. Otherwise {@code hashCodeSamples} beans are
+     * created from random values, and the quality is the lowest of their bucket occupancy across the table sizes
+     * of a {@code HashMap} holding them and of the rate at which changing a single property moves a bean to another
+     * bucket, both relative to random hash codes. Hash codes as good as random ones are close to {@code 1}, a
+     * threshold around {@code 0.8} tolerates the randomness of the sample.
+     * </p>
+     *
+     * @return The minimum quality of the hash code distribution, {@code 0} to disable the check.
+     */
+    double minHashCodeQuality() default 0;
+
+    /**
+     * The number of beans created from random values to measure the hash code distribution, equal beans being
+     * counted once.
+     *
+     * @return The number of beans sampled per bean class.
+     */
+    int hashCodeSamples() default 4096;
+
+    /**
+     * <p>
+     * The maximum average time, in nanoseconds, of a call of the {@code toString(), equals(), hashCode()} methods
+     * of every bean.
+     * </p>
+     * <p>
+     * With {@code 0}, the default, the time is not limited. When this attribute or {@code maxBytesPerCall} is set,
+     * every method is called on a bean created from random values until warmed up, then its average cost per call
+     * is measured. Beans annotated with {@link BeanPerformanceBudget} are measured against their own budget instead.
+     * Times depend on the machine running the tests, the budget should leave room for the slowest CI node.
+     * </p>
+     *
+     * @return The maximum average time of a call, {@code 0} for no limit.
+     */
+    long maxNanosPerCall() default 0;
+
+    /**
+     * <p>
+     * The maximum average number of bytes allocated by a call of the {@code toString(), equals(), hashCode()}
+     * methods of every bean, as accounted by the JVM for the thread running the call.
+     * </p>
+     * <p>
+     * With {@code 0}, the default, the allocations are not limited. JVMs without thread allocation accounting
+     * only check the time.
+     * </p>
+     *
+     * @return The maximum average number of bytes allocated by a call, {@code 0} for no limit.
+     */
+    long maxBytesPerCall() default 0;
+
+    /**
+     * <p>
+     * The number of instances of every {@code Serializable} bean serialized and deserialized, every deserialized
+     * bean having to be equal to the serialized one.
+     * </p>
+     * <p>
+     * With {@code 0}, the default, beans are not serialized. The instances are created from random values and
+     * serialized in a single batch, through an {@code ObjectOutputStream} reused across beans, so that a handful
+     * of instances per bean stays cheap over thousands of beans. The size of every serialized bean is recorded in
+     * the report.
+     * </p>
+     *
+     * @return The number of instances serialized per bean class, {@code 0} to disable the check.
+     */
+    int serializationSamples() default 0;
+
+    /**
+     * <p>
+     * The maximum size, in bytes, of a serialized bean.
+     * </p>
+     * <p>
+     * With {@code 0}, the default, the size is not limited. Only checked when {@code serializationSamples} is set,
+     * it catches heavy fields, e.g. caches or parents, that should be transient.
+     * </p>
+     *
+     * @return The maximum size of a serialized bean, {@code 0} for no limit.
+     */
+    long maxSerializedBytes() default 0;
 }
@@ -0,0 +1,184 @@
+package io.github.fabripat.jreflex.descriptor;
+
+import io.github.fabripat.jreflex.index.BeanKind;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Creates the beans whose properties are all set at once, as described by their {@link BeanKind}: records and
+ * immutable classes through the constructor taking every instance field in declaration order, beans with a
+ * builder through their static {@code builder()} method, a fluent method per property and {@code build()}.
+ * </p>
+ * <p>
+ * The constructor is linked once into a spreading {@link MethodHandle} of type {@code (Object[])Object}, the
+ * builder into a handle per step, all invoked through {@code invokeExact}. A bean whose creator cannot be linked,
+ * e.g. an immutable class without a constructor taking every field, has no creator and is verified as a
+ * mutable bean.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class BeanCreator {
+
+    private static final Logger log = Logger.getLogger(BeanCreator.class.getName());
+
+    private final Class<?> beanClass;
+    private final List<BeanProperty> parameters;
+    private final MethodHandle constructor;
+    private final MethodHandle builderFactory;
+    private final MethodHandle[] builderSteps;
+    private final MethodHandle build;
+
+    private BeanCreator(Class<?> beanClass, List<BeanProperty> parameters, MethodHandle constructor,
+                        MethodHandle builderFactory, MethodHandle[] builderSteps, MethodHandle build) {
+        this.beanClass = beanClass;
+        this.parameters = parameters;
+        this.constructor = constructor;
+        this.builderFactory = builderFactory;
+        this.builderSteps = builderSteps;
+        this.build = build;
+    }
+
+    /**
+     * @return the properties set by the creator, in the order of the values passed to {@link #create(Object...)}
+     */
+    public List<BeanProperty> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Creates a bean with every property set at once.
+     *
+     * @param values the boxed values of the {@link #getParameters() parameters}, in their order
+     * @return the new bean
+     * @throws IllegalArgumentException if the number of values differs from the number of parameters
+     */
+    public Object create(Object... values) {
+        if (values.length != parameters.size())
+            throw new IllegalArgumentException(String.format("{ %s } is created from %d values, was: %d",
+                    beanClass.getName(), parameters.size(), values.length));
+
+        try {
+            if (constructor != null)
+                return constructor.invokeExact(values);
+
+            Object builder = builderFactory.invokeExact();
+            for (int i = 0; i < builderSteps.length; i++)
+                builder = builderSteps[i].invokeExact(builder, values[i]);
+
+            return build.invokeExact(builder);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create bean: " + beanClass.getName(), e);
+        }
+    }
+
+    /**
+     * Links the creator of a bean of the provided kind.
+     *
+     * @param clazz      the bean class
+     * @param kind       the kind of the bean
+     * @param properties the properties of the bean, by name
+     * @return the creator, {@code null} if the bean is mutable or its creator cannot be linked
+     */
+    static BeanCreator link(Class<?> clazz, BeanKind kind, Map<String, BeanProperty> properties) {
+        if (!kind.isCreatedAtOnce() || Modifier.isAbstract(clazz.getModifiers()))
+            return null;
+
+        List<Field> fields = getInstanceFields(clazz);
+        List<BeanProperty> parameters = new ArrayList<>(fields.size());
+        for (Field field : fields) {
+            BeanProperty property = properties.get(field.getName());
+            if (property == null || property.getType() != field.getType()) {
+                log.fine(() -> String.format("Cannot link the creator of { %s }, field { %s } has no property of the same type",
+                        clazz.getName(), field.getName()));
+                return null;
+            }
+            parameters.add(property);
+        }
+
+        try {
+            return kind == BeanKind.BUILDER
+                    ? linkBuilder(clazz, Collections.unmodifiableList(parameters))
+                    : linkConstructor(clazz, Collections.unmodifiableList(parameters));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            log.fine(() -> String.format("Cannot link the %s creator of { %s }: %s", kind, clazz.getName(), e));
+            return null;
+        }
+    }
+
+    private static BeanCreator linkConstructor(Class<?> clazz, List<BeanProperty> parameters)
+            throws NoSuchMethodException, IllegalAccessException {
+        Class<?>[] parameterTypes = parameters.stream().map(BeanProperty::getType).toArray(Class<?>[]::new);
+        Constructor<?> constructor = clazz.getConstructor(parameterTypes);
+        constructor.trySetAccessible();
+
+        MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor)
+                .asType(MethodType.methodType(Object.class, parameterTypes).generic())
+                .asSpreader(Object[].class, parameterTypes.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+
+        return new BeanCreator(clazz, parameters, handle, null, null, null);
+    }
+
+    private static BeanCreator linkBuilder(Class<?> clazz, List<BeanProperty> parameters)
+            throws NoSuchMethodException, IllegalAccessException {
+        Method builderMethod = clazz.getMethod("builder");
+        if (!Modifier.isStatic(builderMethod.getModifiers()))
+            throw new NoSuchMethodException(clazz.getName() + ".builder() is not static");
+
+        Class<?> builderType = builderMethod.getReturnType();
+        Method buildMethod = builderType.getMethod("build");
+        if (!clazz.isAssignableFrom(buildMethod.getReturnType()))
+            throw new NoSuchMethodException(builderType.getName() + ".build() does not return " + clazz.getName());
+
+        MethodHandle[] steps = new MethodHandle[parameters.size()];
+        for (int i = 0; i < steps.length; i++) {
+            BeanProperty parameter = parameters.get(i);
+            Method step = builderType.getMethod(parameter.getName(), parameter.getType());
+            steps[i] = unreflect(step).asType(MethodType.methodType(Object.class, Object.class, Object.class));
+        }
+
+        return new BeanCreator(
+                clazz,
+                parameters,
+                null,
+                unreflect(builderMethod).asType(MethodType.methodType(Object.class)),
+                steps,
+                unreflect(buildMethod).asType(MethodType.methodType(Object.class, Object.class))
+        );
+    }
+
+    /**
+     * The fields are expected in declaration order, as returned by HotSpot, since the order of the record
+     * components cannot be read without the Java 16 reflection API.
+     */
+    static List<Field> getInstanceFields(Class<?> clazz) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+                fields.add(field);
+        }
+        return fields;
+    }
+
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        method.trySetAccessible();
+        return MethodHandles.lookup().unreflect(method);
+    }
+
+    @Override
+    public String toString() {
+        return beanClass.getName() + parameters;
+    }
+}
@@ -0,0 +1,274 @@
+package io.github.fabripat.jreflex.descriptor;
+
+import io.github.fabripat.jreflex.index.BeanIndex;
+import io.github.fabripat.jreflex.index.BeanIndexEntry;
+import io.github.fabripat.jreflex.index.BeanKind;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * This class describes a bean class once, so that the discovery and the verification of the bean
+ * never reflect over the class again: its public no-args constructor, its properties with their
+ * getter and setter handles, its {@link BeanCreator} and its excluded and final fields.
+ * </p>
+ * <p>
+ * Kind, excluded and final fields are taken from the {@link BeanIndexEntry} of the class, shared with the
+ * discovery, while constructor and accessors are looked up with a single {@link Class#getMethods()}
+ * and {@link Class#getConstructors()} call, then linked into method handles and lambdas. The properties
+ * of a record are read through its component accessors, e.g. {@code name()}.
+ * </p>
+ * <p>
+ * Descriptors are cached in a {@link ClassValue}, so that they never outlive their class, through
+ * soft references, so that the cache is bounded by the available memory: a descriptor reclaimed by
+ * the garbage collector is computed again on the next lookup.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class BeanDescriptor {
+
+    private static final ClassValue<SoftReference<BeanDescriptor>> DESCRIPTORS_BY_CLASS = new ClassValue<>() {
+        @Override
+        protected SoftReference<BeanDescriptor> computeValue(Class<?> type) {
+            return new SoftReference<>(compute(type));
+        }
+    };
+
+    private final Class<?> beanClass;
+    private final BeanKind kind;
+    private final MethodHandle constructor;
+    private final Supplier<Object> instantiator;
+    private final BeanCreator creator;
+    private final List<BeanProperty> properties;
+    private final String[] excludedFields;
+    private final String[] finalFields;
+
+    private BeanDescriptor(Class<?> beanClass, BeanKind kind, MethodHandle constructor, Supplier<Object> instantiator,
+                           BeanCreator creator, List<BeanProperty> properties, String[] excludedFields, String[] finalFields) {
+        this.beanClass = beanClass;
+        this.kind = kind;
+        this.constructor = constructor;
+        this.instantiator = instantiator;
+        this.creator = creator;
+        this.properties = properties;
+        this.excludedFields = excludedFields;
+        this.finalFields = finalFields;
+    }
+
+    /**
+     * Returns the descriptor of the provided class, computed once per class as long as the memory allows it.
+     *
+     * @param clazz the bean class
+     * @return the descriptor of the class
+     */
+    public static BeanDescriptor of(Class<?> clazz) {
+        BeanDescriptor descriptor = DESCRIPTORS_BY_CLASS.get(clazz).get();
+        if (descriptor != null)
+            return descriptor;
+
+        DESCRIPTORS_BY_CLASS.remove(clazz);
+        return Objects.requireNonNullElseGet(DESCRIPTORS_BY_CLASS.get(clazz).get(), () -> compute(clazz));
+    }
+
+    /**
+     * @return the described bean class
+     */
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * @return the kind of the bean, as chosen by the discovery
+     */
+    public BeanKind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the creator setting every property at once, empty if the bean is mutable or its creator
+     * cannot be linked
+     */
+    public Optional<BeanCreator> getCreator() {
+        return Optional.ofNullable(creator);
+    }
+
+    /**
+     * @return the handle of the public no-args constructor, of type {@code ()Bean}, empty if the class has none
+     */
+    public Optional<MethodHandle> getConstructor() {
+        return Optional.ofNullable(constructor);
+    }
+
+    /**
+     * @return the public no-args constructor as a supplier of new beans, empty if the class has none
+     */
+    public Optional<Supplier<Object>> getInstantiator() {
+        return Optional.ofNullable(instantiator);
+    }
+
+    /**
+     * @return the properties of the bean, sorted by name
+     */
+    public List<BeanProperty> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @param name the name of the property
+     * @return the property, empty if the bean has no such property
+     */
+    public Optional<BeanProperty> getProperty(String name) {
+        return properties.stream().filter(p -> p.getName().equals(name)).findFirst();
+    }
+
+    /**
+     * @return the fields excluded from the verification
+     */
+    public String[] getExcludedFields() {
+        return excludedFields.clone();
+    }
+
+    /**
+     * @return the final fields
+     */
+    public String[] getFinalFields() {
+        return finalFields.clone();
+    }
+
+    private static BeanDescriptor compute(Class<?> clazz) {
+        BeanIndexEntry entry = BeanIndex.getEntry(clazz);
+        Set<String> excludedFields = Set.of(entry.getExcludedFields());
+        Set<String> finalFields = Set.of(entry.getFinalFields());
+        Set<String> recordComponents = getRecordComponents(clazz, entry.getKind());
+
+        Map<String, Method> getters = new TreeMap<>();
+        Map<String, List<Method>> setters = new HashMap<>();
+
+        for (Method method : clazz.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.getDeclaringClass() == Object.class)
+                continue;
+
+            String name = method.getName();
+            if (method.getParameterCount() == 0 && recordComponents.contains(name)) {
+                getters.put(name, method);
+            } else if (method.getParameterCount() == 0 && method.getReturnType() != void.class && recordComponents.isEmpty()) {
+                if (name.startsWith("get") && name.length() > 3)
+                    getters.put(toPropertyName(name, 3), method);
+                else if (name.startsWith("is") && name.length() > 2 && method.getReturnType() == boolean.class)
+                    getters.putIfAbsent(toPropertyName(name, 2), method);
+            } else if (method.getParameterCount() == 1 && name.startsWith("set") && name.length() > 3) {
+                setters.computeIfAbsent(toPropertyName(name, 3), n -> new ArrayList<>()).add(method);
+            }
+        }
+
+        List<BeanProperty> properties = new ArrayList<>();
+        for (Map.Entry<String, Method> getter : getters.entrySet()) {
+            String name = getter.getKey();
+            Class<?> type = getter.getValue().getReturnType();
+
+            Method setter = setters.getOrDefault(name, Collections.emptyList()).stream()
+                    .filter(s -> s.getParameterTypes()[0] == type)
+                    .findFirst()
+                    .orElse(null);
+
+            MethodHandle getterHandle = unreflect(getter.getValue(), MethodType.methodType(type, clazz));
+            MethodHandle setterHandle = setter == null ? null : unreflect(setter, MethodType.methodType(void.class, clazz, type));
+
+            properties.add(new BeanProperty(
+                    name,
+                    type,
+                    getter.getValue().getGenericReturnType(),
+                    getterHandle,
+                    setterHandle,
+                    LambdaAccessors.reader(getter.getValue(), getterHandle),
+                    setter == null ? null : LambdaAccessors.writer(setter, setterHandle),
+                    excludedFields.contains(name),
+                    finalFields.contains(name)
+            ));
+        }
+
+        Map<String, BeanProperty> propertiesByName = new HashMap<>();
+        properties.forEach(p -> propertiesByName.put(p.getName(), p));
+
+        Constructor<?> constructor = findConstructor(clazz);
+        MethodHandle constructorHandle = constructor == null ? null : unreflectConstructor(constructor);
+
+        return new BeanDescriptor(
+                clazz,
+                entry.getKind(),
+                constructorHandle,
+                constructor == null ? null : LambdaAccessors.instantiator(constructor, constructorHandle),
+                BeanCreator.link(clazz, entry.getKind(), propertiesByName),
+                Collections.unmodifiableList(properties),
+                entry.getExcludedFields(),
+                entry.getFinalFields()
+        );
+    }
+
+    /**
+     * @return the names of the components of a record, which are the names of its instance fields and of
+     * their accessors, empty for the other kinds
+     */
+    private static Set<String> getRecordComponents(Class<?> clazz, BeanKind kind) {
+        if (kind != BeanKind.RECORD)
+            return Collections.emptySet();
+
+        Set<String> components = new HashSet<>();
+        for (Field field : BeanCreator.getInstanceFields(clazz))
+            components.add(field.getName());
+        return components;
+    }
+
+    private static Constructor<?> findConstructor(Class<?> clazz) {
+        if (Modifier.isAbstract(clazz.getModifiers()))
+            return null;
+
+        for (Constructor<?> constructor : clazz.getConstructors()) {
+            if (constructor.getParameterCount() == 0)
+                return constructor;
+        }
+        return null;
+    }
+
+    private static MethodHandle unreflectConstructor(Constructor<?> constructor) {
+        try {
+            constructor.trySetAccessible();
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(constructor.getDeclaringClass()));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access constructor: " + constructor, e);
+        }
+    }
+
+    private static MethodHandle unreflect(Method method, MethodType type) {
+        try {
+            method.trySetAccessible();
+            return MethodHandles.lookup().unreflect(method).asType(type);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access method: " + method, e);
+        }
+    }
+
+    private static String toPropertyName(String methodName, int prefixLength) {
+        String name = methodName.substring(prefixLength);
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1)))
+            return name;
+
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    @Override
+    public String toString() {
+        return beanClass.getName() + properties;
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.fabripat.jreflex.descriptor;
+
+import io.github.fabripat.jreflex.annotations.ExcludeFieldBeanTesting;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Type;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * A property of a bean described by a {@link BeanDescriptor}: a public getter, or the accessor of a
+ * record component, optionally paired with a public setter of the same type.
+ * </p>
+ * <p>
+ * Accessors are linked once into {@link MethodHandle}s, the getter having type
+ * {@code (Bean)PropertyType} and the setter {@code (Bean,PropertyType)void}, and into a reader
+ * {@link Function} and a writer {@link BiConsumer} spun through the {@code LambdaMetafactory},
+ * so that the verification invokes them through call sites the JIT can inline.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class BeanProperty {
+
+    private final String name;
+    private final Class<?> type;
+    private final Type genericType;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final Function<Object, Object> reader;
+    private final BiConsumer<Object, Object> writer;
+    private final boolean excluded;
+    private final boolean finalField;
+
+    BeanProperty(String name, Class<?> type, Type genericType, MethodHandle getter, MethodHandle setter,
+                 Function<Object, Object> reader, BiConsumer<Object, Object> writer,
+                 boolean excluded, boolean finalField) {
+        this.name = name;
+        this.type = type;
+        this.genericType = genericType;
+        this.getter = getter;
+        this.setter = setter;
+        this.reader = reader;
+        this.writer = writer;
+        this.excluded = excluded;
+        this.finalField = finalField;
+    }
+
+    /**
+     * @return the name of the property, e.g. {@code integerField}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the type of the property
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return the generic type of the property as returned by its getter, e.g. {@code List<LineDto>}, the
+     * {@link #getType() type} itself if the property is not generic
+     */
+    public Type getGenericType() {
+        return genericType;
+    }
+
+    /**
+     * @return the handle of the getter
+     */
+    public MethodHandle getGetter() {
+        return getter;
+    }
+
+    /**
+     * @return the handle of the setter, empty if the property is read-only
+     */
+    public Optional<MethodHandle> getSetter() {
+        return Optional.ofNullable(setter);
+    }
+
+    /**
+     * @return the getter as a function taking the bean and returning the boxed value of the property
+     */
+    public Function<Object, Object> getReader() {
+        return reader;
+    }
+
+    /**
+     * @return the setter as a consumer taking the bean and the boxed value of the property,
+     * empty if the property is read-only
+     */
+    public Optional<BiConsumer<Object, Object>> getWriter() {
+        return Optional.ofNullable(writer);
+    }
+
+    /**
+     * @return {@code true} if the backing field is annotated with {@link ExcludeFieldBeanTesting}, or final
+     * in a mutable bean
+     */
+    public boolean isExcluded() {
+        return excluded;
+    }
+
+    /**
+     * @return {@code true} if the backing field is final
+     */
+    public boolean isFinal() {
+        return finalField;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.fabripat.jreflex.descriptor;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * This class spins the accessors of a bean into functional interface instances through the
+ * {@link LambdaMetafactory}, so that a getter is invoked as a {@link Function}, a setter as a
+ * {@link BiConsumer} and a constructor as a {@link Supplier}, without reflection nor boxing of
+ * the arguments array.
+ * </p>
+ * <p>
+ * The factory only links members accessible from this package, e.g. public members of public
+ * classes, whose types are visible from the class loader of jReflex, since the spun classes are
+ * defined by it. Other members, e.g. of beans loaded by a child class loader, fall back to a lambda
+ * invoking the already linked method handle.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+final class LambdaAccessors {
+
+    private LambdaAccessors() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> reader(Method getter, MethodHandle getterHandle) {
+        if (isVisible(getter.getDeclaringClass(), getter.getReturnType())) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                CallSite callSite = LambdaMetafactory.metafactory(
+                        lookup,
+                        "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        lookup.unreflect(getter),
+                        MethodType.methodType(wrap(getter.getReturnType()), getter.getDeclaringClass())
+                );
+                return (Function<Object, Object>) callSite.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // falls back to the method handle
+            }
+        }
+
+        MethodHandle handle = getterHandle.asType(MethodType.methodType(Object.class, Object.class));
+        return bean -> {
+            try {
+                return handle.invokeExact(bean);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Cannot invoke getter: " + getter, ex);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> writer(Method setter, MethodHandle setterHandle) {
+        if (isVisible(setter.getDeclaringClass(), setter.getParameterTypes()[0])) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                CallSite callSite = LambdaMetafactory.metafactory(
+                        lookup,
+                        "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        lookup.unreflect(setter),
+                        MethodType.methodType(void.class, setter.getDeclaringClass(), wrap(setter.getParameterTypes()[0]))
+                );
+                return (BiConsumer<Object, Object>) callSite.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // falls back to the method handle
+            }
+        }
+
+        MethodHandle handle = setterHandle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (bean, value) -> {
+            try {
+                handle.invokeExact(bean, value);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Cannot invoke setter: " + setter, ex);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> instantiator(Constructor<?> constructor, MethodHandle constructorHandle) {
+        if (isVisible(constructor.getDeclaringClass())) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                CallSite callSite = LambdaMetafactory.metafactory(
+                        lookup,
+                        "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        lookup.unreflectConstructor(constructor),
+                        MethodType.methodType(constructor.getDeclaringClass())
+                );
+                return (Supplier<Object>) callSite.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // falls back to the method handle
+            }
+        }
+
+        MethodHandle handle = constructorHandle.asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                return handle.invokeExact();
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Cannot invoke constructor: " + constructor, ex);
+            }
+        };
+    }
+
+    private static boolean isVisible(Class<?>... types) {
+        for (Class<?> type : types) {
+            while (type.isArray())
+                type = type.getComponentType();
+
+            if (!isAncestor(type.getClassLoader(), LambdaAccessors.class.getClassLoader()))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean isAncestor(ClassLoader ancestor, ClassLoader classLoader) {
+        if (ancestor == null)
+            return true;
+
+        for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent()) {
+            if (loader == ancestor)
+                return true;
+        }
+        return false;
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+}
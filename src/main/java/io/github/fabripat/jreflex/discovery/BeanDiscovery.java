@@ -0,0 +1,412 @@
+package io.github.fabripat.jreflex.discovery;
+
+import io.github.fabripat.jreflex.annotations.ExcludeBeanTesting;
+import io.github.fabripat.jreflex.index.BeanIndex;
+import io.github.fabripat.jreflex.index.BeanIndexEntry;
+import io.github.fabripat.jreflex.metrics.BeanTestMetrics;
+import io.github.fabripat.jreflex.metrics.BeanTestMetrics.ScanSource;
+import io.github.fabripat.jreflex.scanner.ClassFile;
+import io.github.fabripat.jreflex.scanner.ClassFileHeader;
+import io.github.fabripat.jreflex.scanner.ClassNameMatcher;
+import io.github.fabripat.jreflex.scanner.ClasspathScanner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>
+ * This class discovers the testable bean classes contained in a set of packages, together with
+ * their excluded and final fields, without depending on the JUnit APIs.
+ * </p>
+ * <p>
+ * Classpath roots shipping a {@link BeanIndex} are resolved reading the index, unless the index of a
+ * directory does not match its class files, e.g. after an incremental compilation. The other roots
+ * are scanned deciding on the header of each class file, so that non-testable classes are never
+ * loaded nor initialized. Inner classes, enums, abstract classes, and classes annotated
+ * with {@link ExcludeBeanTesting} are not testable. The {@link io.github.fabripat.jreflex.index.BeanKind}
+ * of every testable class is chosen from its header too.
+ * </p>
+ * <p>
+ * With a parallelism greater than one the scan runs on a dedicated {@link ForkJoinPool}: package
+ * directories are walked and class file headers are parsed concurrently. Whatever the parallelism,
+ * the discovery is deterministic.
+ * </p>
+ * <p>
+ * Classes can be discovered at once, sorted by name, or streamed lazily as the classpath roots are
+ * resolved, so that the consumer of the first classes does not wait for the whole classpath.
+ * </p>
+ * <p>
+ * Only the classes matched by the {@link ClassNameMatcher} of the scanner are discovered, whether read from
+ * an index, from the cache or scanned.
+ * </p>
+ * <p>
+ * With a {@link DiscoveryCache} the roots without index are looked up in the cache first, and only
+ * the roots missing from the cache or changed since they were cached are scanned, then cached. The jars are
+ * scanned through their {@link io.github.fabripat.jreflex.scanner.ClassNameIndex}, persisted in the directory
+ * of the cache, so that scanning other packages or with another class filter does not read their central
+ * directory again.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class BeanDiscovery {
+
+    private static final Logger log = Logger.getLogger(BeanDiscovery.class.getName());
+
+    private final ClasspathScanner scanner;
+    private final int parallelism;
+    private final DiscoveryCache cache;
+
+    /**
+     * @param scanner     the scanner of the classpath to discover
+     * @param parallelism the number of threads scanning the classpath: {@code 1} scans on the calling
+     *                    thread, {@code 0} uses the number of available processors
+     * @throws IllegalArgumentException if the parallelism is negative
+     */
+    public BeanDiscovery(ClasspathScanner scanner, int parallelism) {
+        this(scanner, parallelism, null);
+    }
+
+    /**
+     * @param scanner     the scanner of the classpath to discover
+     * @param parallelism the number of threads scanning the classpath: {@code 1} scans on the calling
+     *                    thread, {@code 0} uses the number of available processors
+     * @param cache       the cache of the scanned roots, {@code null} to always scan
+     * @throws IllegalArgumentException if the parallelism is negative
+     */
+    public BeanDiscovery(ClasspathScanner scanner, int parallelism, DiscoveryCache cache) {
+        if (parallelism < 0)
+            throw new IllegalArgumentException("Parallelism must be positive or zero, was: " + parallelism);
+
+        this.scanner = cache == null ? scanner : scanner.withClassNameIndexes(cache.getDirectory());
+        this.parallelism = parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+        this.cache = cache;
+    }
+
+    /**
+     * Discovers the testable classes of the provided packages and of their sub-packages. When a class
+     * is found in more than one classpath root, the first root wins.
+     *
+     * @param packagePaths the packages to discover expressed as paths, e.g. {@code io/github/fabripat}
+     * @return the entries of the testable classes, sorted by class name
+     * @throws java.io.UncheckedIOException if the classpath cannot be read
+     */
+    public List<BeanIndexEntry> discover(Collection<String> packagePaths) {
+        Map<String, BeanIndexEntry> entriesByClassName = new TreeMap<>();
+
+        try (Stream<BeanIndexEntry> entries = stream(packagePaths)) {
+            entries.forEach(e -> entriesByClassName.put(e.getClassName(), e));
+        }
+        return new ArrayList<>(entriesByClassName.values());
+    }
+
+    /**
+     * <p>
+     * Discovers lazily the testable classes of the provided packages and of their sub-packages. When a class
+     * is found in more than one classpath root, the first root wins.
+     * </p>
+     * <p>
+     * Roots are resolved one at a time while the stream is consumed, so that the first entries can be
+     * processed while the rest of the classpath is still undiscovered. With a parallelism of one the class
+     * files of a scanned root are read one at a time too, otherwise the root is scanned at once on a
+     * dedicated {@link ForkJoinPool}. Entries are returned in classpath order, then sorted by class name
+     * within each root unless read from its index.
+     * </p>
+     * <p>
+     * The stream must be closed to release the root being scanned and the pool when it is not fully consumed.
+     * </p>
+     *
+     * @param packagePaths the packages to discover expressed as paths, e.g. {@code io/github/fabripat}
+     * @return the sequential stream of the entries of the testable classes
+     * @throws java.io.UncheckedIOException while consuming the stream, if the classpath cannot be read
+     */
+    public Stream<BeanIndexEntry> stream(Collection<String> packagePaths) {
+        EntrySpliterator spliterator = new EntrySpliterator(ClasspathScanner.normalizePackagePaths(packagePaths));
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    private List<BeanIndexEntry> filter(List<BeanIndexEntry> entries) {
+        ClassNameMatcher classFilter = scanner.getClassFilter();
+        if (classFilter.isMatchingAll())
+            return entries;
+
+        return entries.stream()
+                .filter(e -> classFilter.matches(e.getClassName()))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isUpToDate(BeanIndex index, Path root, Collection<String> packagePaths) {
+        if (index.isUpToDate(root, packagePaths))
+            return true;
+
+        log.info(() -> "Bean index of classpath root " + root + " does not match its class files, scanning the root");
+        return false;
+    }
+
+    private List<BeanIndexEntry> scan(Path root, Collection<String> packagePaths, ForkJoinPool pool) {
+        ClasspathScanner rootScanner = scanner.filter(root::equals);
+        List<BeanIndexEntry> entries = Collections.synchronizedList(new ArrayList<>());
+
+        for (String packagePath : packagePaths) {
+            long start = System.nanoTime();
+            int testableClasses = entries.size();
+
+            int classFilesRead = rootScanner.scan(List.of(packagePath), classFile -> {
+                ClassFileHeader header = ClassFileHeader.read(classFile);
+                if (isTestableClass(header))
+                    entries.add(BeanIndexEntry.of(header));
+            }, pool);
+
+            BeanTestMetrics.recordScan(root, List.of(packagePath), ScanSource.SCAN,
+                    classFilesRead, entries.size() - testableClasses, System.nanoTime() - start);
+        }
+
+        entries.sort(Comparator.comparing(BeanIndexEntry::getClassName));
+        return entries;
+    }
+
+    /**
+     * Sequential spliterator over the entries of the classpath roots, resolving a root only once the
+     * entries of the previous roots have been consumed.
+     */
+    private final class EntrySpliterator implements Spliterator<BeanIndexEntry> {
+
+        private final Collection<String> packagePaths;
+        private final Deque<Path> roots;
+        private final Set<String> discoveredClassNames = new HashSet<>();
+        private final Deque<BeanIndexEntry> resolvedEntries = new ArrayDeque<>();
+
+        private RootScan rootScan;
+        private ForkJoinPool pool;
+        private int resolvedRoots;
+        private int scannedRoots;
+
+        EntrySpliterator(Collection<String> packagePaths) {
+            this.packagePaths = packagePaths;
+            this.roots = new ArrayDeque<>(scanner.getRoots());
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super BeanIndexEntry> action) {
+            for (BeanIndexEntry entry = nextEntry(); entry != null; entry = nextEntry()) {
+                if (discoveredClassNames.add(entry.getClassName())) {
+                    action.accept(entry);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private BeanIndexEntry nextEntry() {
+            while (true) {
+                if (!resolvedEntries.isEmpty())
+                    return resolvedEntries.pop();
+
+                if (rootScan != null) {
+                    BeanIndexEntry entry = rootScan.next();
+                    if (entry != null)
+                        return entry;
+
+                    rootScan = null;
+                } else if (roots.isEmpty()) {
+                    return null;
+                } else {
+                    resolve(roots.pop());
+                }
+            }
+        }
+
+        private void resolve(Path root) {
+            long start = System.nanoTime();
+            ScanSource source = ScanSource.INDEX;
+            Optional<List<BeanIndexEntry>> entries = BeanIndex.read(root)
+                    .filter(index -> isUpToDate(index, root, packagePaths))
+                    .map(index -> filter(index.getEntries(packagePaths)));
+
+            String fingerprint = null;
+            if (entries.isEmpty() && cache != null) {
+                source = ScanSource.CACHE;
+                fingerprint = cache.fingerprint(root, packagePaths);
+                entries = cache.read(root, packagePaths, scanner.getClassFilter(), fingerprint);
+            }
+
+            if (entries.isPresent()) {
+                BeanTestMetrics.recordScan(root, packagePaths, source, 0, entries.get().size(), System.nanoTime() - start);
+                resolvedRoots++;
+                resolvedEntries.addAll(entries.get());
+                return;
+            }
+
+            scannedRoots++;
+            if (parallelism == 1) {
+                rootScan = new RootScan(root, fingerprint);
+                return;
+            }
+
+            if (pool == null)
+                pool = new ForkJoinPool(parallelism);
+
+            List<BeanIndexEntry> scannedEntries = scan(root, packagePaths, pool);
+            if (cache != null)
+                cache.write(root, packagePaths, scanner.getClassFilter(), fingerprint, scannedEntries);
+
+            resolvedEntries.addAll(scannedEntries);
+        }
+
+        @Override
+        public Spliterator<BeanIndexEntry> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL;
+        }
+
+        void close() {
+            try {
+                if (rootScan != null)
+                    rootScan.close();
+            } finally {
+                if (pool != null)
+                    pool.shutdown();
+            }
+
+            log.fine(() -> String.format("Resolved %d classpath roots through their bean index or the cache, scanned %d with parallelism %d",
+                    (long) resolvedRoots, (long) scannedRoots, (long) parallelism));
+        }
+
+        /**
+         * The class files of a root read one at a time, package by package, cached once every class file
+         * has been read. Only the time spent reading the root is measured, not the time spent by the consumer
+         * of the entries.
+         */
+        private final class RootScan {
+
+            private final Path root;
+            private final String fingerprint;
+            private final ClasspathScanner rootScanner;
+            private final Deque<String> remainingPackagePaths;
+            private final List<BeanIndexEntry> scannedEntries = new ArrayList<>();
+
+            private String packagePath;
+            private Stream<ClassFile> classFiles;
+            private Iterator<ClassFile> iterator;
+            private int classFilesRead;
+            private int testableClasses;
+            private long nanos;
+            private long start;
+
+            RootScan(Path root, String fingerprint) {
+                this.root = root;
+                this.fingerprint = fingerprint;
+                this.rootScanner = scanner.filter(root::equals);
+                this.remainingPackagePaths = new ArrayDeque<>(packagePaths);
+            }
+
+            BeanIndexEntry next() {
+                start = System.nanoTime();
+                try {
+                    return nextEntry();
+                } finally {
+                    nanos += System.nanoTime() - start;
+                }
+            }
+
+            private BeanIndexEntry nextEntry() {
+                while (true) {
+                    if (iterator == null) {
+                        if (remainingPackagePaths.isEmpty()) {
+                            if (cache != null) {
+                                scannedEntries.sort(Comparator.comparing(BeanIndexEntry::getClassName));
+                                cache.write(root, packagePaths, scanner.getClassFilter(), fingerprint, scannedEntries);
+                            }
+                            return null;
+                        }
+                        openPackage(remainingPackagePaths.pop());
+                    }
+
+                    while (iterator.hasNext()) {
+                        ClassFile classFile = iterator.next();
+                        classFilesRead++;
+
+                        ClassFileHeader header;
+                        try {
+                            header = ClassFileHeader.read(classFile);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("Cannot read class file: " + classFile + " of classpath root: " + root, e);
+                        }
+
+                        if (isTestableClass(header)) {
+                            BeanIndexEntry entry = BeanIndexEntry.of(header);
+                            scannedEntries.add(entry);
+                            testableClasses++;
+                            return entry;
+                        }
+                    }
+                    closePackage();
+                }
+            }
+
+            private void openPackage(String packagePath) {
+                this.packagePath = packagePath;
+                this.classFiles = rootScanner.stream(List.of(packagePath));
+                this.iterator = classFiles.iterator();
+                this.classFilesRead = 0;
+                this.testableClasses = 0;
+                this.nanos = 0;
+                this.start = System.nanoTime();
+            }
+
+            private void closePackage() {
+                classFiles.close();
+                iterator = null;
+
+                long end = System.nanoTime();
+                nanos += end - start;
+                start = end;
+                BeanTestMetrics.recordScan(root, List.of(packagePath), ScanSource.SCAN, classFilesRead, testableClasses, nanos);
+            }
+
+            void close() {
+                if (classFiles != null)
+                    classFiles.close();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This method takes the header of a class file and tells whether the class is testable.
+     * </p>
+     * <p>
+     * The method serves as a utility for excluding non-testable classes like (interface, enum,
+     * inner class, abstract class and class annotated with {@link ExcludeBeanTesting})
+     * without loading them.
+     * </p>
+     *
+     * @param header the header of the class file
+     * @return {@code true} if the class is testable
+     */
+    public static boolean isTestableClass(final ClassFileHeader header) {
+        return !header.isInterface()
+                && !header.isNestedClass()
+                && !header.isEnum()
+                && !header.isAbstract()
+                && !header.isSynthetic()
+                && !header.isAnnotationPresent(ExcludeBeanTesting.class);
+    }
+}
@@ -0,0 +1,220 @@
+package io.github.fabripat.jreflex.discovery;
+
+import io.github.fabripat.jreflex.index.BeanIndex;
+import io.github.fabripat.jreflex.index.BeanIndexEntry;
+import io.github.fabripat.jreflex.scanner.ClassNameMatcher;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * This class represents the on-disk cache of the discovery, shared by every JVM running the
+ * bean tests of the same build, e.g. the forks of surefire.
+ * </p>
+ * <p>
+ * The cache keeps one file per classpath root, set of packages and class filter, listing the testable classes
+ * found in the root together with their kind, excluded and final fields, in the {@link BeanIndex} format.
+ * Every file records the fingerprint of its root: the size and the last modified time of a jar, or
+ * a hash of the path, size and last modified time of every class file of the scanned packages of a
+ * directory. A root whose fingerprint changed is scanned again, the other roots are not. Files written in
+ * a previous format of the cache are considered missing.
+ * </p>
+ * <p>
+ * Files are written to a temporary file first and then atomically moved in place, so that
+ * concurrent JVMs never read a partially written file. Unreadable or malformed files are
+ * considered missing.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class DiscoveryCache {
+
+    /**
+     * The system property overriding the directory of the cache.
+     */
+    public static final String CACHE_DIRECTORY_PROPERTY = "jreflex.cache.dir";
+
+    /**
+     * The default directory of the cache, relative to the working directory of the build.
+     */
+    public static final String DEFAULT_CACHE_DIRECTORY = "target/jreflex/discovery-cache";
+
+    private static final Logger log = Logger.getLogger(DiscoveryCache.class.getName());
+
+    private static final String FORMAT_HEADER = "#format=2";
+    private static final String ROOT_HEADER = "#root=";
+    private static final String PACKAGES_HEADER = "#packages=";
+    private static final String FINGERPRINT_HEADER = "#fingerprint=";
+
+    private final Path directory;
+
+    /**
+     * @param directory the directory storing the cache files, created when missing
+     */
+    public DiscoveryCache(Path directory) {
+        this.directory = Objects.requireNonNull(directory);
+    }
+
+    /**
+     * @return the cache stored in the directory named by the {@value #CACHE_DIRECTORY_PROPERTY} system
+     * property, or in {@value #DEFAULT_CACHE_DIRECTORY} when the property is not set
+     */
+    public static DiscoveryCache ofDefaultDirectory() {
+        return new DiscoveryCache(Paths.get(System.getProperty(CACHE_DIRECTORY_PROPERTY, DEFAULT_CACHE_DIRECTORY)));
+    }
+
+    /**
+     * @return the directory storing the cache files, and the class name indexes of the scanned jars
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Computes the fingerprint of a classpath root restricted to the provided packages.
+     *
+     * @param root         the classpath root, a directory or a jar
+     * @param packagePaths the normalized packages expressed as paths
+     * @return the fingerprint of the root
+     * @throws UncheckedIOException if the root cannot be read
+     */
+    String fingerprint(Path root, Collection<String> packagePaths) {
+        try {
+            if (!Files.isDirectory(root))
+                return "jar:" + Files.size(root) + ":" + Files.getLastModifiedTime(root).toMillis();
+
+            MessageDigest digest = newDigest();
+            for (String packagePath : packagePaths) {
+                Path packageDirectory = packagePath.isEmpty() ? root : root.resolve(packagePath);
+                if (!Files.isDirectory(packageDirectory))
+                    continue;
+
+                try (Stream<Path> files = Files.walk(packageDirectory)) {
+                    List<Path> classFiles = files
+                            .filter(f -> f.getFileName().toString().endsWith(".class"))
+                            .sorted()
+                            .collect(Collectors.toList());
+
+                    for (Path classFile : classFiles) {
+                        String relativePath = root.relativize(classFile).toString().replace(root.getFileSystem().getSeparator(), "/");
+                        digest.update((relativePath + ":" + Files.size(classFile) + ":"
+                                + Files.getLastModifiedTime(classFile).toMillis() + "\n").getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            return "dir:" + toHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot fingerprint classpath root: " + root, e);
+        }
+    }
+
+    /**
+     * Reads the entries cached for a classpath root.
+     *
+     * @param root         the classpath root
+     * @param packagePaths the normalized packages expressed as paths
+     * @param classFilter  the matcher of the class names scanned
+     * @param fingerprint  the current fingerprint of the root
+     * @return the cached entries, empty if nothing is cached or the root changed since
+     */
+    Optional<List<BeanIndexEntry>> read(Path root, Collection<String> packagePaths, ClassNameMatcher classFilter, String fingerprint) {
+        Path file = getFile(root, packagePaths, classFilter);
+        if (!Files.isRegularFile(file))
+            return Optional.empty();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!FORMAT_HEADER.equals(reader.readLine())
+                    || !(ROOT_HEADER + root).equals(reader.readLine())
+                    || !(PACKAGES_HEADER + getScope(packagePaths, classFilter)).equals(reader.readLine())
+                    || !(FINGERPRINT_HEADER + fingerprint).equals(reader.readLine()))
+                return Optional.empty();
+
+            return Optional.of(BeanIndex.read(reader).getEntries(packagePaths));
+        } catch (IOException e) {
+            log.log(Level.FINE, e, () -> "Ignoring unreadable discovery cache file: " + file);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the entries found in a classpath root, replacing the previous ones. A cache that cannot
+     * be written is logged and ignored, the discovery does not depend on it.
+     *
+     * @param root         the classpath root
+     * @param packagePaths the normalized packages expressed as paths
+     * @param classFilter  the matcher of the class names scanned
+     * @param fingerprint  the fingerprint of the root when it was scanned
+     * @param entries      the entries found in the root
+     */
+    void write(Path root, Collection<String> packagePaths, ClassNameMatcher classFilter, String fingerprint, Collection<BeanIndexEntry> entries) {
+        Path file = getFile(root, packagePaths, classFilter);
+        Path temporaryFile = null;
+        try {
+            Files.createDirectories(directory);
+            temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+            try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                writer.write(FORMAT_HEADER + "\n");
+                writer.write(ROOT_HEADER + root + "\n");
+                writer.write(PACKAGES_HEADER + getScope(packagePaths, classFilter) + "\n");
+                writer.write(FINGERPRINT_HEADER + fingerprint + "\n");
+                BeanIndex.of(entries).write(writer);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.log(Level.WARNING, e, () -> "Cannot write discovery cache file: " + file);
+            deleteQuietly(temporaryFile);
+        }
+    }
+
+    private Path getFile(Path root, Collection<String> packagePaths, ClassNameMatcher classFilter) {
+        MessageDigest digest = newDigest();
+        digest.update(root.toString().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        digest.update(getScope(packagePaths, classFilter).getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(toHex(digest.digest()) + ".idx");
+    }
+
+    private static String getScope(Collection<String> packagePaths, ClassNameMatcher classFilter) {
+        String packages = String.join(",", packagePaths);
+        return classFilter.isMatchingAll() ? packages : packages + ";" + classFilter;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null)
+            return;
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.log(Level.FINE, e, () -> "Cannot delete temporary discovery cache file: " + file);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes)
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return hex.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.fabripat.jreflex.generator;
+
+import org.apache.commons.rng.UniformRandomProvider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * The generators of primitives and their wrappers, strings, numbers, dates and times shipped with jReflex.
+ */
+final class BuiltInValueGenerators {
+
+    private static final char[] ALPHANUMERIC = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+
+    private static final long MIN_EPOCH_DAY = LocalDate.MIN.toEpochDay();
+    private static final long MAX_EPOCH_DAY = LocalDate.MAX.toEpochDay();
+    private static final long MIN_EPOCH_SECOND = LocalDateTime.MIN.toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_EPOCH_SECOND = LocalDateTime.MAX.toEpochSecond(ZoneOffset.UTC);
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final int MAX_OFFSET_SECONDS = 18 * 60 * 60;
+
+    private BuiltInValueGenerators() {
+    }
+
+    static List<ValueGenerator<?>> all() {
+        return List.of(
+                immutable(Boolean.class, UniformRandomProvider::nextBoolean),
+                immutable(Byte.class, r -> (byte) r.nextInt()),
+                immutable(Short.class, r -> (short) r.nextInt()),
+                immutable(Integer.class, UniformRandomProvider::nextInt),
+                immutable(Long.class, UniformRandomProvider::nextLong),
+                immutable(Float.class, UniformRandomProvider::nextFloat),
+                immutable(Double.class, UniformRandomProvider::nextDouble),
+                immutable(Character.class, BuiltInValueGenerators::nextChar),
+                immutable(String.class, BuiltInValueGenerators::nextString),
+                immutable(CharSequence.class, BuiltInValueGenerators::nextString),
+                immutable(BigDecimal.class, r -> BigDecimal.valueOf(r.nextLong(), r.nextInt(10))),
+                immutable(BigInteger.class, r -> BigInteger.valueOf(r.nextLong())),
+                immutable(UUID.class, r -> new UUID(r.nextLong(), r.nextLong())),
+                immutable(LocalDate.class, r -> LocalDate.ofEpochDay(r.nextLong(MIN_EPOCH_DAY, MAX_EPOCH_DAY))),
+                immutable(LocalDateTime.class, r -> LocalDateTime.ofEpochSecond(r.nextLong(MIN_EPOCH_SECOND, MAX_EPOCH_SECOND), 0, ZoneOffset.UTC)),
+                immutable(LocalTime.class, r -> LocalTime.ofSecondOfDay(r.nextInt(SECONDS_PER_DAY))),
+                immutable(Instant.class, r -> Instant.ofEpochSecond(r.nextLong(Instant.MIN.getEpochSecond(), Instant.MAX.getEpochSecond()))),
+                immutable(OffsetDateTime.class, BuiltInValueGenerators::nextOffsetDateTime),
+                new SimpleValueGenerator<>(Date.class, false, r -> new Date(r.nextLong()))
+        );
+    }
+
+    private static <T> ValueGenerator<T> immutable(Class<T> type, Function<UniformRandomProvider, T> function) {
+        return new SimpleValueGenerator<>(type, true, function);
+    }
+
+    private static char nextChar(UniformRandomProvider random) {
+        return ALPHANUMERIC[random.nextInt(ALPHANUMERIC.length)];
+    }
+
+    private static String nextString(UniformRandomProvider random) {
+        char[] chars = new char[1 + random.nextInt(16)];
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = nextChar(random);
+        return new String(chars);
+    }
+
+    private static OffsetDateTime nextOffsetDateTime(UniformRandomProvider random) {
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(random.nextInt(-MAX_OFFSET_SECONDS / 900, MAX_OFFSET_SECONDS / 900 + 1) * 900);
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(
+                random.nextLong(MIN_EPOCH_SECOND + MAX_OFFSET_SECONDS, MAX_EPOCH_SECOND - MAX_OFFSET_SECONDS), 0, ZoneOffset.UTC);
+        return OffsetDateTime.of(dateTime, offset);
+    }
+}
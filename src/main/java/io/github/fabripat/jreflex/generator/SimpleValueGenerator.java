@@ -0,0 +1,43 @@
+package io.github.fabripat.jreflex.generator;
+
+import org.apache.commons.rng.UniformRandomProvider;
+
+import java.util.function.Function;
+
+/**
+ * A {@link ValueGenerator} backed by a function of the random provider.
+ *
+ * @param <T> the type of the generated values
+ */
+final class SimpleValueGenerator<T> implements ValueGenerator<T> {
+
+    private final Class<T> type;
+    private final boolean immutable;
+    private final Function<UniformRandomProvider, T> function;
+
+    SimpleValueGenerator(Class<T> type, boolean immutable, Function<UniformRandomProvider, T> function) {
+        this.type = type;
+        this.immutable = immutable;
+        this.function = function;
+    }
+
+    @Override
+    public Class<T> getType() {
+        return type;
+    }
+
+    @Override
+    public T next(UniformRandomProvider random) {
+        return function.apply(random);
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return immutable;
+    }
+
+    @Override
+    public String toString() {
+        return "SimpleValueGenerator{" + type.getName() + "}";
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.fabripat.jreflex.generator;
+
+import org.apache.commons.rng.UniformRandomProvider;
+
+/**
+ * <p>
+ * Service provider interface of the generators of the random values set to the properties of the beans.
+ * </p>
+ * <p>
+ * Implementations are discovered through {@link java.util.ServiceLoader}: declare them in a
+ * {@code META-INF/services/io.github.fabripat.jreflex.generator.ValueGenerator} resource, they must
+ * have a public no-args constructor. A discovered generator replaces the built-in generator of the
+ * same type. The generator of a wrapper type also generates the values of its primitive type.
+ * </p>
+ * <p>
+ * The values of immutable types are generated upfront into a pool of distinct values, recycled for
+ * every subsequent value of the type, so that generating a value does not allocate.
+ * </p>
+ *
+ * @param <T> the type of the generated values
+ * @author Fabrizio Patruno
+ */
+public interface ValueGenerator<T> {
+
+    /**
+     * @return the type of the generated values
+     */
+    Class<T> getType();
+
+    /**
+     * Generates a random value. Implementations must be stateless, the same generator is used
+     * concurrently with different random providers.
+     *
+     * @param random the source of randomness
+     * @return a random value, never {@code null}
+     */
+    T next(UniformRandomProvider random);
+
+    /**
+     * @return {@code true} if the generated values are immutable, so that they can be pooled and shared
+     * across beans, {@code false} by default
+     */
+    default boolean isImmutable() {
+        return false;
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.fabripat.jreflex.generator;
+
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * This class is the registry of the {@link ValueGenerator}s: the built-in generators of primitives and their
+ * wrappers, strings, numbers, dates and times, and the generators discovered through {@link ServiceLoader}
+ * on the class loader of jReflex, which replace the built-in generators of the same type.
+ * </p>
+ * <p>
+ * Generators are discovered once, when this class is initialized.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class ValueGenerators {
+
+    private static final Logger log = Logger.getLogger(ValueGenerators.class.getName());
+
+    private static final Map<Class<?>, Class<?>> PRIMITIVES_BY_WRAPPER = Map.of(
+            Boolean.class, boolean.class,
+            Byte.class, byte.class,
+            Short.class, short.class,
+            Integer.class, int.class,
+            Long.class, long.class,
+            Float.class, float.class,
+            Double.class, double.class,
+            Character.class, char.class
+    );
+
+    private static final Map<Class<?>, ValueGenerator<?>> GENERATORS_BY_TYPE = loadGenerators();
+
+    private ValueGenerators() {
+    }
+
+    /**
+     * @param type the type of the values
+     * @return the generator of the values of the provided type, if any
+     */
+    public static Optional<ValueGenerator<?>> of(Class<?> type) {
+        return Optional.ofNullable(GENERATORS_BY_TYPE.get(type));
+    }
+
+    private static Map<Class<?>, ValueGenerator<?>> loadGenerators() {
+        Map<Class<?>, ValueGenerator<?>> generatorsByType = new HashMap<>();
+        BuiltInValueGenerators.all().forEach(g -> register(generatorsByType, g));
+
+        for (ValueGenerator<?> generator : ServiceLoader.load(ValueGenerator.class, ValueGenerators.class.getClassLoader())) {
+            log.fine(() -> String.format("Registering value generator { %s } of type { %s }",
+                    generator.getClass().getName(), generator.getType().getName()));
+            register(generatorsByType, generator);
+        }
+        return Collections.unmodifiableMap(generatorsByType);
+    }
+
+    private static void register(Map<Class<?>, ValueGenerator<?>> generatorsByType, ValueGenerator<?> generator) {
+        generatorsByType.put(generator.getType(), generator);
+
+        Class<?> primitiveType = PRIMITIVES_BY_WRAPPER.get(generator.getType());
+        if (primitiveType != null)
+            generatorsByType.put(primitiveType, generator);
+    }
+}
@@ -0,0 +1,352 @@
+package io.github.fabripat.jreflex.incremental;
+
+import io.github.fabripat.jreflex.descriptor.BeanDescriptor;
+import io.github.fabripat.jreflex.descriptor.BeanProperty;
+
+import java.io.*;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * This class represents the store of the incremental bean testing: for every tested class it keeps
+ * a hash of its bytecode, together with the bytecode of the classes its verification depends on, and of the
+ * fingerprint of the verifier, and the result of its last verification.
+ * </p>
+ * <p>
+ * The classes a bean depends on are its superclasses, its nested member classes, e.g. its builder, and the
+ * types of its properties, e.g. the nested beans of a graph, with their own dependencies. Classes loaded by
+ * the bootstrap class loader are excluded. The fingerprint of the verifier names its checks and their settings,
+ * so that enabling a check, e.g. the hash code distribution, verifies every bean again.
+ * </p>
+ * <p>
+ * A class is up to date when its current hash equals the stored one and its last verification passed,
+ * so that only changed, new and previously failing classes need to be verified again.
+ * </p>
+ * <p>
+ * Results are recorded in memory and merged into the store file by {@link #flush()}. The merge holds
+ * an exclusive lock on a sibling {@code .lock} file and replaces the store atomically, so that the JVMs
+ * forked by the build can flush concurrently without losing each other's results. Stores are shared
+ * per file within a JVM.
+ * </p>
+ * <p>
+ * The store file is a UTF-8 text file, every line declares a class as
+ * {@code className<TAB>hash<TAB>PASSED|FAILED}, lines starting with {@code #} are comments.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class IncrementalBeanStore {
+
+    /**
+     * The system property overriding the file of the store.
+     */
+    public static final String STORE_FILE_PROPERTY = "jreflex.incremental.store";
+
+    /**
+     * The system property forcing a full run: when {@code true} every class is considered changed,
+     * results are still recorded.
+     */
+    public static final String FULL_RUN_PROPERTY = "jreflex.incremental.full";
+
+    /**
+     * The default file of the store, relative to the working directory of the build.
+     */
+    public static final String DEFAULT_STORE_FILE = "target/jreflex/incremental-store.idx";
+
+    private static final Logger log = Logger.getLogger(IncrementalBeanStore.class.getName());
+
+    private static final Map<Path, IncrementalBeanStore> STORES_BY_FILE = new ConcurrentHashMap<>();
+
+    private static final ClassValue<String> HASHES_BY_CLASS = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return computeHash(type);
+        }
+    };
+
+    private static final String PASSED = "PASSED";
+    private static final String FAILED = "FAILED";
+
+    private final Path file;
+    private final Map<String, Result> storedResults;
+    private final Map<String, Result> recordedResults = new ConcurrentHashMap<>();
+
+    private IncrementalBeanStore(Path file) {
+        this.file = file;
+        this.storedResults = readQuietly(file);
+    }
+
+    /**
+     * @param file the file of the store
+     * @return the store kept in the provided file, read once per JVM
+     */
+    public static IncrementalBeanStore of(Path file) {
+        return STORES_BY_FILE.computeIfAbsent(file.toAbsolutePath().normalize(), IncrementalBeanStore::new);
+    }
+
+    /**
+     * @return the store kept in the file named by the {@value #STORE_FILE_PROPERTY} system property,
+     * or in {@value #DEFAULT_STORE_FILE} when the property is not set
+     */
+    public static IncrementalBeanStore ofDefaultFile() {
+        return of(Paths.get(System.getProperty(STORE_FILE_PROPERTY, DEFAULT_STORE_FILE)));
+    }
+
+    /**
+     * @return {@code true} if a full run is forced through the {@value #FULL_RUN_PROPERTY} system property
+     */
+    public static boolean isFullRunForced() {
+        return Boolean.getBoolean(FULL_RUN_PROPERTY);
+    }
+
+    /**
+     * Returns the hash of the bytecode of a class and of the classes its verification depends on, classes
+     * loaded by the bootstrap class loader excluded. Hashes are computed once per class.
+     *
+     * @param clazz the class
+     * @return the hash of the class
+     * @throws UncheckedIOException if the bytecode of the class cannot be read
+     */
+    public static String hash(Class<?> clazz) {
+        return HASHES_BY_CLASS.get(clazz);
+    }
+
+    /**
+     * @param clazz       the class
+     * @param fingerprint the fingerprint of the verifier, see {@code BeanVerifier#getFingerprint()}
+     * @return the hash stored for the class verified by the verifier of the provided fingerprint
+     * @throws UncheckedIOException if the bytecode of the class cannot be read
+     */
+    public static String hash(Class<?> clazz, String fingerprint) {
+        MessageDigest digest = newDigest();
+        digest.update(hash(clazz).getBytes(StandardCharsets.UTF_8));
+        digest.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @return the file of the store
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Tells whether a class passed its last verification by an equivalent verifier and did not change since,
+     * a forced full run makes every class not up to date.
+     *
+     * @param clazz       the class
+     * @param fingerprint the fingerprint of the verifier
+     * @return {@code true} if the class does not need to be verified again
+     */
+    public boolean isUpToDate(Class<?> clazz, String fingerprint) {
+        if (isFullRunForced())
+            return false;
+
+        Result result = recordedResults.getOrDefault(clazz.getName(), storedResults.get(clazz.getName()));
+        return result != null && result.passed && result.hash.equals(hash(clazz, fingerprint));
+    }
+
+    /**
+     * Records the result of the verification of a class, the result is stored by {@link #flush()}.
+     *
+     * @param clazz       the verified class
+     * @param fingerprint the fingerprint of the verifier
+     * @param passed      whether the verification passed
+     */
+    public void record(Class<?> clazz, String fingerprint, boolean passed) {
+        recordedResults.put(clazz.getName(), new Result(hash(clazz, fingerprint), passed));
+    }
+
+    /**
+     * Merges the recorded results into the store file, results recorded concurrently by other JVMs
+     * for other classes are kept. A store that cannot be written is logged and ignored, the recorded
+     * classes are verified again by the next run.
+     */
+    public void flush() {
+        if (recordedResults.isEmpty())
+            return;
+
+        Map<String, Result> flushedResults = new HashMap<>(recordedResults);
+
+        synchronized (IncrementalBeanStore.class) {
+            Path temporaryFile = null;
+            try {
+                Path directory = file.toAbsolutePath().getParent();
+                Files.createDirectories(directory);
+
+                Path lockFile = directory.resolve(file.getFileName() + ".lock");
+                try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     FileLock ignored = lockChannel.lock()) {
+                    Map<String, Result> results = new TreeMap<>(readQuietly(file));
+                    results.putAll(flushedResults);
+
+                    temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+                    write(temporaryFile, results);
+                    Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                storedResults.putAll(flushedResults);
+                flushedResults.forEach(recordedResults::remove);
+            } catch (IOException e) {
+                log.log(Level.WARNING, e, () -> "Cannot write incremental bean store: " + file);
+                deleteQuietly(temporaryFile);
+            }
+        }
+    }
+
+    private static Map<String, Result> readQuietly(Path file) {
+        Map<String, Result> results = new ConcurrentHashMap<>();
+        if (!Files.isRegularFile(file))
+            return results;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+
+                String[] columns = line.split("\t");
+                if (columns.length == 3)
+                    results.put(columns[0], new Result(columns[1], PASSED.equals(columns[2])));
+            }
+        } catch (IOException e) {
+            log.log(Level.FINE, e, () -> "Ignoring unreadable incremental bean store: " + file);
+            results.clear();
+        }
+        return results;
+    }
+
+    private static void write(Path file, Map<String, Result> results) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# jReflex incremental bean store: do not edit\n");
+            for (Map.Entry<String, Result> result : results.entrySet()) {
+                writer.write(result.getKey());
+                writer.write('\t');
+                writer.write(result.getValue().hash);
+                writer.write('\t');
+                writer.write(result.getValue().passed ? PASSED : FAILED);
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null)
+            return;
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.log(Level.FINE, e, () -> "Cannot delete temporary incremental bean store: " + file);
+        }
+    }
+
+    private static String computeHash(Class<?> clazz) {
+        Map<String, Class<?>> dependencies = new TreeMap<>();
+        addDependencies(clazz, dependencies);
+
+        MessageDigest digest = newDigest();
+        for (Class<?> c : dependencies.values()) {
+            String resourceName = c.getName().replace('.', '/') + ".class";
+            try (InputStream in = c.getClassLoader().getResourceAsStream(resourceName)) {
+                if (in == null)
+                    throw new IOException("Bytecode not found: " + resourceName);
+
+                digest.update(c.getName().getBytes(StandardCharsets.UTF_8));
+                digest.update(in.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot hash class: " + clazz.getName(), e);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Adds a class, its superclasses, its nested member classes and the types of its properties, by name,
+     * with their own dependencies.
+     */
+    private static void addDependencies(Class<?> clazz, Map<String, Class<?>> dependencies) {
+        for (Class<?> c = clazz; c != null && c.getClassLoader() != null; c = c.getSuperclass()) {
+            if (dependencies.putIfAbsent(c.getName(), c) != null)
+                return;
+
+            for (Class<?> member : getMemberClasses(c))
+                addDependencies(member, dependencies);
+            for (Class<?> propertyType : getPropertyTypes(c))
+                addDependencies(propertyType, dependencies);
+        }
+    }
+
+    private static Class<?>[] getMemberClasses(Class<?> clazz) {
+        try {
+            return clazz.getDeclaredClasses();
+        } catch (LinkageError | SecurityException e) {
+            log.log(Level.FINE, e, () -> "Cannot hash the member classes of: " + clazz.getName());
+            return new Class<?>[0];
+        }
+    }
+
+    private static List<Class<?>> getPropertyTypes(Class<?> clazz) {
+        if (clazz.isInterface() || clazz.isAnnotation() || clazz.isEnum())
+            return List.of();
+
+        List<Class<?>> types = new ArrayList<>();
+        try {
+            for (BeanProperty property : BeanDescriptor.of(clazz).getProperties())
+                addTypes(property.getGenericType(), types);
+        } catch (RuntimeException | LinkageError e) {
+            log.log(Level.FINE, e, () -> "Cannot hash the property types of: " + clazz.getName());
+        }
+        return types;
+    }
+
+    private static void addTypes(Type type, List<Class<?>> types) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            while (clazz.isArray())
+                clazz = clazz.getComponentType();
+            types.add(clazz);
+        } else if (type instanceof ParameterizedType) {
+            addTypes(((ParameterizedType) type).getRawType(), types);
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments())
+                addTypes(argument, types);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes)
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return hex.toString();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+    private static final class Result {
+
+        private final String hash;
+        private final boolean passed;
+
+        private Result(String hash, boolean passed) {
+            this.hash = hash;
+            this.passed = passed;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package io.github.fabripat.jreflex.index;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * <p>
+ * This class represents the bean index generated at build time by the {@link BeanIndexProcessor}
+ * and stored in every classpath root as {@value #LOCATION}.
+ * </p>
+ * <p>
+ * The index lists the candidate bean classes grouped by package, together with their excluded
+ * and final fields, so that the discovery of the beans to test becomes a single small file read
+ * instead of a recursive walk of the packages.
+ * </p>
+ * <p>
+ * The index is a UTF-8 text file. Lines starting with {@code #} are comments, every other
+ * non-indented line declares a package as {@code packageName[<TAB>classCount]}, and every line indented
+ * by a tab declares a bean of the last declared package as
+ * {@code SimpleName<TAB>excludedFields<TAB>finalFields[<TAB>kind]}, fields being separated by commas.
+ * The {@link BeanKind} is omitted for mutable beans.
+ * </p>
+ * <p>
+ * The class count of a package is the number of top level classes compiled along with the index, beans
+ * or not, so that an index left stale by an incremental compilation can be told apart from the class
+ * files of its directory, see {@link #isUpToDate(Path, Collection)}.
+ * </p>
+ * <p>
+ * Entries produced by the discovery at runtime can be registered too, together with the class they
+ * were loaded as, so that the verification of the beans reuses the excluded fields computed by the
+ * discovery. Registered entries are held weakly by their class, and never apply to a class of the
+ * same name defined by another class loader.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class BeanIndex {
+
+    /**
+     * The location of the index inside a classpath root.
+     */
+    public static final String LOCATION = "META-INF/jreflex/beans.idx";
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private static final BeanIndex EMPTY = new BeanIndex(Collections.emptyMap(), Collections.emptyMap());
+
+    private static final Map<ClassLoader, BeanIndex> INDEXES_BY_CLASS_LOADER =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final Map<Class<?>, BeanIndexEntry> DISCOVERED_ENTRIES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final ClassValue<BeanIndexEntry> ENTRIES_BY_CLASS = new ClassValue<>() {
+        @Override
+        protected BeanIndexEntry computeValue(Class<?> type) {
+            return load(type.getClassLoader())
+                    .getEntry(type.getName())
+                    .orElseGet(() -> BeanIndexEntry.of(type));
+        }
+    };
+
+    private final Map<String, List<BeanIndexEntry>> entriesByPackage;
+    private final Map<String, Integer> classCountsByPackage;
+
+    private BeanIndex(Map<String, List<BeanIndexEntry>> entriesByPackage, Map<String, Integer> classCountsByPackage) {
+        this.entriesByPackage = entriesByPackage;
+        this.classCountsByPackage = classCountsByPackage;
+    }
+
+    /**
+     * Creates an index listing the provided entries, without class counts.
+     *
+     * @param entries the entries of the index
+     * @return the index
+     */
+    public static BeanIndex of(Collection<BeanIndexEntry> entries) {
+        return of(entries, Collections.emptyMap());
+    }
+
+    /**
+     * Creates an index listing the provided entries, together with the number of top level classes
+     * compiled per package.
+     *
+     * @param entries              the entries of the index
+     * @param classCountsByPackage the number of top level classes of every package, by package name
+     * @return the index
+     */
+    public static BeanIndex of(Collection<BeanIndexEntry> entries, Map<String, Integer> classCountsByPackage) {
+        Map<String, List<BeanIndexEntry>> entriesByPackage = new TreeMap<>();
+        entries.forEach(e -> entriesByPackage.computeIfAbsent(e.getPackageName(), p -> new ArrayList<>()).add(e));
+        entriesByPackage.values().forEach(e -> e.sort(Comparator.comparing(BeanIndexEntry::getClassName)));
+        return new BeanIndex(entriesByPackage, new TreeMap<>(classCountsByPackage));
+    }
+
+    /**
+     * Registers the entry produced by the discovery for the class it was loaded as, it takes precedence
+     * over the index of the class loader when looking up the entry of the class.
+     *
+     * @param clazz the bean class, loaded from the class name of the entry
+     * @param entry the entry produced by the discovery
+     * @throws IllegalArgumentException if the entry does not describe the class
+     */
+    public static void register(Class<?> clazz, BeanIndexEntry entry) {
+        if (!clazz.getName().equals(entry.getClassName()))
+            throw new IllegalArgumentException("Bean index entry " + entry.getClassName() + " does not describe " + clazz.getName());
+
+        DISCOVERED_ENTRIES.put(clazz, entry);
+    }
+
+    /**
+     * Returns the entry of the provided class, taken from the entry registered by the discovery or
+     * from the index of its class loader when present, computed reflecting over the class otherwise.
+     * Entries not registered are computed once per class.
+     *
+     * @param clazz the bean class
+     * @return the entry of the class
+     */
+    public static BeanIndexEntry getEntry(Class<?> clazz) {
+        BeanIndexEntry discoveredEntry = DISCOVERED_ENTRIES.get(clazz);
+        return discoveredEntry != null ? discoveredEntry : ENTRIES_BY_CLASS.get(clazz);
+    }
+
+    /**
+     * Loads and merges every index visible from the provided class loader. Indexes are loaded once
+     * per class loader.
+     *
+     * @param classLoader the class loader, {@code null} for the bootstrap class loader
+     * @return the merged index, empty if no index is visible
+     * @throws UncheckedIOException if an index cannot be read
+     */
+    public static BeanIndex load(ClassLoader classLoader) {
+        if (classLoader == null)
+            return EMPTY;
+
+        return INDEXES_BY_CLASS_LOADER.computeIfAbsent(classLoader, BeanIndex::readAll);
+    }
+
+    /**
+     * Reads the index stored in a classpath root, either a directory or a jar.
+     *
+     * @param root the classpath root
+     * @return the index of the root, empty if the root has no index
+     * @throws UncheckedIOException if the index cannot be read
+     */
+    public static Optional<BeanIndex> read(Path root) {
+        try {
+            if (Files.isDirectory(root)) {
+                Path index = root.resolve(LOCATION);
+                if (!Files.isRegularFile(index))
+                    return Optional.empty();
+
+                try (Reader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+                    return Optional.of(read(reader));
+                }
+            }
+
+            try (ZipFile zipFile = new ZipFile(root.toFile())) {
+                ZipEntry index = zipFile.getEntry(LOCATION);
+                if (index == null)
+                    return Optional.empty();
+
+                try (Reader reader = new InputStreamReader(zipFile.getInputStream(index), StandardCharsets.UTF_8)) {
+                    return Optional.of(read(reader));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read bean index of classpath root: " + root, e);
+        }
+    }
+
+    /**
+     * Reads an index from its textual representation.
+     *
+     * @param reader the reader of the index
+     * @return the index read
+     * @throws IOException if the index cannot be read or is malformed
+     */
+    public static BeanIndex read(Reader reader) throws IOException {
+        List<BeanIndexEntry> entries = new ArrayList<>();
+        Map<String, Integer> classCountsByPackage = new TreeMap<>();
+        BufferedReader bufferedReader = new BufferedReader(reader);
+
+        String packageName = null;
+        for (String line = bufferedReader.readLine(); line != null; line = bufferedReader.readLine()) {
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+
+            if (line.charAt(0) != '\t') {
+                String[] columns = line.split("\t", -1);
+                packageName = columns[0].trim();
+                if (columns.length > 1 && !columns[1].isEmpty())
+                    classCountsByPackage.put(packageName, readClassCount(columns[1], line));
+                continue;
+            }
+
+            if (packageName == null)
+                throw new IOException("Malformed bean index, bean declared before its package: " + line);
+
+            String[] columns = line.substring(1).split("\t", -1);
+            entries.add(new BeanIndexEntry(
+                    packageName + "." + columns[0],
+                    readKind(columns, line),
+                    splitFields(columns, 1),
+                    splitFields(columns, 2)
+            ));
+        }
+        return of(entries, classCountsByPackage);
+    }
+
+    /**
+     * Writes the textual representation of this index.
+     *
+     * @param writer the writer of the index
+     * @throws IOException if the index cannot be written
+     */
+    public void write(Writer writer) throws IOException {
+        writer.write("# jReflex bean index, generated at build time: do not edit\n");
+
+        Set<String> packageNames = new TreeSet<>(entriesByPackage.keySet());
+        packageNames.addAll(classCountsByPackage.keySet());
+        for (String packageName : packageNames) {
+            writer.write(packageName);
+            // the line of the unnamed package would start with a tab, and be read as a bean
+            Integer classCount = classCountsByPackage.get(packageName);
+            if (classCount != null && !packageName.isEmpty()) {
+                writer.write('\t');
+                writer.write(classCount.toString());
+            }
+            writer.write('\n');
+
+            for (BeanIndexEntry entry : entriesByPackage.getOrDefault(packageName, Collections.emptyList())) {
+                writer.write('\t');
+                writer.write(entry.getSimpleName());
+                writer.write('\t');
+                writer.write(String.join(",", entry.getExcludedFields()));
+                writer.write('\t');
+                writer.write(String.join(",", entry.getFinalFields()));
+                if (entry.getKind() != BeanKind.JAVA_BEAN) {
+                    writer.write('\t');
+                    writer.write(entry.getKind().name());
+                }
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Returns the entries of the provided packages and of their sub-packages.
+     *
+     * @param packagePaths the packages expressed as paths, e.g. {@code io/github/fabripat}
+     * @return the entries found, sorted by class name
+     */
+    public List<BeanIndexEntry> getEntries(Collection<String> packagePaths) {
+        List<BeanIndexEntry> entries = new ArrayList<>();
+        for (Map.Entry<String, List<BeanIndexEntry>> packageEntries : entriesByPackage.entrySet()) {
+            if (isInPackages(packageEntries.getKey(), packagePaths))
+                entries.addAll(packageEntries.getValue());
+        }
+        return entries;
+    }
+
+    /**
+     * @param className the binary name of the class
+     * @return the entry of the class, empty if the class is not indexed
+     */
+    public Optional<BeanIndexEntry> getEntry(String className) {
+        int lastDot = className.lastIndexOf('.');
+        String packageName = lastDot < 0 ? "" : className.substring(0, lastDot);
+
+        return entriesByPackage.getOrDefault(packageName, Collections.emptyList()).stream()
+                .filter(e -> e.getClassName().equals(className))
+                .findFirst();
+    }
+
+    /**
+     * @return {@code true} if the index lists no bean
+     */
+    public boolean isEmpty() {
+        return entriesByPackage.isEmpty();
+    }
+
+    /**
+     * Checks this index against the class files of the provided packages of a directory root: the
+     * number of top level class files of every package must match the class count of the index, so that
+     * a class compiled without the {@link BeanIndexProcessor}, or an index rewritten by an incremental
+     * compilation of a part of the classes only, is detected. Only the names of the class files are
+     * listed, the class files are not read. Jar roots are built at once, so their index is always up to date.
+     *
+     * @param root         the classpath root the index was read from
+     * @param packagePaths the packages expressed as paths, e.g. {@code io/github/fabripat}
+     * @return {@code true} if the index matches the class files of the root
+     * @throws UncheckedIOException if the directory of a package cannot be listed
+     */
+    public boolean isUpToDate(Path root, Collection<String> packagePaths) {
+        if (!Files.isDirectory(root))
+            return true;
+
+        Set<Path> classFiles = new HashSet<>();
+        for (String packagePath : packagePaths) {
+            Path directory = root.resolve(packagePath);
+            if (!Files.isDirectory(directory))
+                continue;
+
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.filter(f -> isTopLevelClassFile(f.getFileName()) && Files.isRegularFile(f))
+                        .forEach(classFiles::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot list class files of directory: " + directory, e);
+            }
+        }
+
+        Map<String, Integer> classCounts = classFiles.stream()
+                .collect(Collectors.groupingBy(f -> getPackageName(root, f), TreeMap::new, Collectors.summingInt(f -> 1)));
+        Map<String, Integer> indexedClassCounts = classCountsByPackage.entrySet().stream()
+                .filter(e -> isInPackages(e.getKey(), packagePaths))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Integer::sum, TreeMap::new));
+
+        return classCounts.equals(indexedClassCounts);
+    }
+
+    private static boolean isTopLevelClassFile(Path fileName) {
+        String name = fileName == null ? "" : fileName.toString();
+        return name.endsWith(CLASS_FILE_EXTENSION)
+                && name.indexOf('$') < 0
+                && !name.equals("package-info" + CLASS_FILE_EXTENSION)
+                && !name.equals("module-info" + CLASS_FILE_EXTENSION);
+    }
+
+    private static String getPackageName(Path root, Path classFile) {
+        StringJoiner packageName = new StringJoiner(".");
+        root.relativize(classFile.getParent()).forEach(name -> packageName.add(name.toString()));
+        return packageName.toString();
+    }
+
+    private static boolean isInPackages(String packageName, Collection<String> packagePaths) {
+        for (String packagePath : packagePaths) {
+            String packagePrefix = packagePath.replace('/', '.');
+            if (packagePrefix.isEmpty()
+                    || packageName.equals(packagePrefix)
+                    || packageName.startsWith(packagePrefix + "."))
+                return true;
+        }
+        return false;
+    }
+
+    private static BeanKind readKind(String[] columns, String line) throws IOException {
+        if (columns.length <= 3 || columns[3].isEmpty())
+            return BeanKind.JAVA_BEAN;
+
+        try {
+            return BeanKind.valueOf(columns[3]);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed bean index, unknown bean kind: " + line, e);
+        }
+    }
+
+    private static int readClassCount(String column, String line) throws IOException {
+        try {
+            return Integer.parseInt(column.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed bean index, invalid class count: " + line, e);
+        }
+    }
+
+    private static String[] splitFields(String[] columns, int index) {
+        return columns.length <= index || columns[index].isEmpty()
+                ? new String[0]
+                : columns[index].split(",");
+    }
+
+    private static BeanIndex readAll(ClassLoader classLoader) {
+        try {
+            List<BeanIndexEntry> entries = new ArrayList<>();
+            Enumeration<URL> indexes = classLoader.getResources(LOCATION);
+
+            while (indexes.hasMoreElements()) {
+                try (Reader reader = new InputStreamReader(indexes.nextElement().openStream(), StandardCharsets.UTF_8)) {
+                    BeanIndex index = read(reader);
+                    index.entriesByPackage.values().forEach(entries::addAll);
+                }
+            }
+            return entries.isEmpty() ? EMPTY : of(entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read bean indexes from class loader: " + classLoader, e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.fabripat.jreflex.index;
+
+import io.github.fabripat.jreflex.annotations.ExcludeFieldBeanTesting;
+import io.github.fabripat.jreflex.scanner.ClassFileHeader;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <p>
+ * A candidate bean listed in the {@link BeanIndex}, together with its {@link BeanKind} and the fields
+ * excluded from the verification.
+ * </p>
+ * <p>
+ * Excluded fields are the ones annotated with {@link ExcludeFieldBeanTesting}, and the final ones for
+ * mutable beans, final fields are also kept on their own since they have no setter to verify.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class BeanIndexEntry {
+
+    private static final String[] NO_FIELDS = new String[0];
+
+    private final String className;
+    private final BeanKind kind;
+    private final String[] excludedFields;
+    private final String[] finalFields;
+
+    public BeanIndexEntry(String className, String[] excludedFields, String[] finalFields) {
+        this(className, BeanKind.JAVA_BEAN, excludedFields, finalFields);
+    }
+
+    public BeanIndexEntry(String className, BeanKind kind, String[] excludedFields, String[] finalFields) {
+        this.className = Objects.requireNonNull(className);
+        this.kind = Objects.requireNonNull(kind);
+        this.excludedFields = excludedFields.length == 0 ? NO_FIELDS : excludedFields.clone();
+        this.finalFields = finalFields.length == 0 ? NO_FIELDS : finalFields.clone();
+    }
+
+    /**
+     * Computes the entry of a class reflecting over its declared fields, used when the class
+     * is not listed in any index.
+     *
+     * @param clazz the bean class
+     * @return the entry of the class
+     */
+    public static BeanIndexEntry of(Class<?> clazz) {
+        Field[] declaredFields = clazz.getDeclaredFields();
+        BeanKind kind = BeanKind.of(clazz);
+
+        String[] excludedFields = Arrays.stream(declaredFields)
+                .filter(f -> f.isAnnotationPresent(ExcludeFieldBeanTesting.class)
+                        || !kind.isCreatedAtOnce() && Modifier.isFinal(f.getModifiers()))
+                .map(Field::getName)
+                .toArray(String[]::new);
+
+        String[] finalFields = Arrays.stream(declaredFields)
+                .filter(f -> Modifier.isFinal(f.getModifiers()))
+                .map(Field::getName)
+                .toArray(String[]::new);
+
+        return new BeanIndexEntry(clazz.getName(), kind, excludedFields, finalFields);
+    }
+
+    /**
+     * Computes the entry of a class from the header of its class file, without loading it.
+     *
+     * @param header the header of the class file
+     * @return the entry of the class
+     */
+    public static BeanIndexEntry of(ClassFileHeader header) {
+        BeanKind kind = BeanKind.of(header);
+
+        String[] excludedFields = header.getFields().stream()
+                .filter(f -> f.isAnnotationPresent(ExcludeFieldBeanTesting.class) || !kind.isCreatedAtOnce() && f.isFinal())
+                .map(ClassFileHeader.FieldHeader::getName)
+                .toArray(String[]::new);
+
+        String[] finalFields = header.getFields().stream()
+                .filter(ClassFileHeader.FieldHeader::isFinal)
+                .map(ClassFileHeader.FieldHeader::getName)
+                .toArray(String[]::new);
+
+        return new BeanIndexEntry(header.getClassName(), kind, excludedFields, finalFields);
+    }
+
+    /**
+     * @return the binary name of the bean class
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return the package of the bean class, e.g. {@code io.github.fabripat.jreflex}
+     */
+    public String getPackageName() {
+        int lastDot = className.lastIndexOf('.');
+        return lastDot < 0 ? "" : className.substring(0, lastDot);
+    }
+
+    /**
+     * @return the simple name of the bean class
+     */
+    public String getSimpleName() {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * @return the kind of the bean, deciding how it is created by the verification
+     */
+    public BeanKind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the fields annotated with {@link ExcludeFieldBeanTesting}, and the final fields of mutable beans
+     */
+    public String[] getExcludedFields() {
+        return excludedFields.clone();
+    }
+
+    /**
+     * @return the final fields
+     */
+    public String[] getFinalFields() {
+        return finalFields.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BeanIndexEntry that = (BeanIndexEntry) o;
+        return className.equals(that.className)
+                && kind == that.kind
+                && Arrays.equals(excludedFields, that.excludedFields)
+                && Arrays.equals(finalFields, that.finalFields);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(className, kind);
+        result = 31 * result + Arrays.hashCode(excludedFields);
+        result = 31 * result + Arrays.hashCode(finalFields);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return className;
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.fabripat.jreflex.index;
+
+import io.github.fabripat.jreflex.annotations.ExcludeBeanTesting;
+import io.github.fabripat.jreflex.annotations.ExcludeFieldBeanTesting;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * This annotation processor generates the {@link BeanIndex} of the compiled module, listing the
+ * candidate bean classes with their excluded fields precomputed.
+ * </p>
+ * <p>
+ * Candidates are the top level classes and records which are neither abstract nor annotated with
+ * {@link ExcludeBeanTesting}. The {@link BeanKind} of every candidate is chosen from its source: a
+ * {@code SimpleNameBuilder} member class or the Lombok {@code @Builder} annotation make it a builder,
+ * final instance fields only make it immutable. Excluded fields are the ones annotated with
+ * {@link ExcludeFieldBeanTesting}, and the final ones of mutable beans.
+ * </p>
+ * <p>
+ * The processor is registered as a service, so it runs automatically when jReflex is on the compiler
+ * classpath. When the build declares an explicit processor path (e.g. {@code annotationProcessorPaths}
+ * of the {@code maven-compiler-plugin}) jReflex must be added to it. The index is rewritten on every
+ * compilation and only lists the classes compiled by it, so it records the number of top level classes
+ * compiled per package too: the discovery scans the directories whose class files do not match it, e.g.
+ * after an incremental compilation of a part of the module, or of a class compiled without the processor.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+@SupportedAnnotationTypes("*")
+public class BeanIndexProcessor extends AbstractProcessor {
+
+    private static final String RECORD_KIND = "RECORD";
+    private static final String LOMBOK_BUILDER = "lombok.Builder";
+
+    private final Map<String, BeanIndexEntry> entries = new TreeMap<>();
+    private final Map<String, String> packagesByType = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> types = ElementFilter.typesIn(roundEnv.getRootElements());
+        types.forEach(t -> packagesByType.put(t.getQualifiedName().toString(),
+                processingEnv.getElementUtils().getPackageOf(t).getQualifiedName().toString()));
+
+        types.stream()
+                .filter(BeanIndexProcessor::isCandidate)
+                .map(BeanIndexProcessor::toEntry)
+                .forEach(e -> entries.put(e.getClassName(), e));
+
+        if (roundEnv.processingOver() && !entries.isEmpty())
+            writeIndex();
+
+        return false;
+    }
+
+    /**
+     * Enums have their own element kind, so they are excluded by the kind check. Records are compared by name,
+     * since their element kind does not exist on Java 11.
+     */
+    private static boolean isCandidate(TypeElement type) {
+        return (type.getKind() == ElementKind.CLASS || type.getKind().name().equals(RECORD_KIND))
+                && type.getNestingKind() == NestingKind.TOP_LEVEL
+                && !type.getModifiers().contains(Modifier.ABSTRACT)
+                && type.getAnnotation(ExcludeBeanTesting.class) == null;
+    }
+
+    private static BeanIndexEntry toEntry(TypeElement type) {
+        List<VariableElement> fields = ElementFilter.fieldsIn(type.getEnclosedElements());
+        BeanKind kind = getKind(type, fields);
+
+        String[] excludedFields = fields.stream()
+                .filter(f -> f.getAnnotation(ExcludeFieldBeanTesting.class) != null
+                        || !kind.isCreatedAtOnce() && f.getModifiers().contains(Modifier.FINAL))
+                .map(f -> f.getSimpleName().toString())
+                .toArray(String[]::new);
+
+        String[] finalFields = fields.stream()
+                .filter(f -> f.getModifiers().contains(Modifier.FINAL))
+                .map(f -> f.getSimpleName().toString())
+                .toArray(String[]::new);
+
+        return new BeanIndexEntry(type.getQualifiedName().toString(), kind, excludedFields, finalFields);
+    }
+
+    /**
+     * The builder generated by Lombok is not visible to the processor when both run in the same round, so the
+     * source retained {@code @Builder} annotation is looked up too.
+     */
+    private static BeanKind getKind(TypeElement type, List<VariableElement> fields) {
+        if (type.getKind().name().equals(RECORD_KIND))
+            return BeanKind.RECORD;
+
+        String builderName = type.getSimpleName() + "Builder";
+        boolean builder = ElementFilter.typesIn(type.getEnclosedElements()).stream()
+                .anyMatch(t -> t.getSimpleName().contentEquals(builderName))
+                || type.getAnnotationMirrors().stream()
+                .anyMatch(a -> ((TypeElement) a.getAnnotationType().asElement()).getQualifiedName().contentEquals(LOMBOK_BUILDER));
+        if (builder)
+            return BeanKind.BUILDER;
+
+        List<VariableElement> instanceFields = fields.stream()
+                .filter(f -> !f.getModifiers().contains(Modifier.STATIC))
+                .collect(Collectors.toList());
+
+        boolean immutable = !instanceFields.isEmpty()
+                && instanceFields.stream().allMatch(f -> f.getModifiers().contains(Modifier.FINAL));
+        return immutable ? BeanKind.IMMUTABLE : BeanKind.JAVA_BEAN;
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", BeanIndex.LOCATION);
+
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                Map<String, Integer> classCountsByPackage = packagesByType.values().stream()
+                        .collect(Collectors.toMap(p -> p, p -> 1, Integer::sum));
+                BeanIndex.of(entries.values(), classCountsByPackage).write(writer);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write jReflex bean index " + BeanIndex.LOCATION + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.fabripat.jreflex.index;
+
+import io.github.fabripat.jreflex.annotations.ExcludeFieldBeanTesting;
+import io.github.fabripat.jreflex.scanner.ClassFileHeader;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The kind of a bean, chosen once at discovery time, deciding how the bean is created by the verification.
+ * </p>
+ * <p>
+ * Mutable beans are created by their no-args constructor and set through their setters, all the other kinds
+ * are created with every property set at once: immutable classes and records by the constructor taking
+ * every field, beans with a builder by their builder. Only the fields annotated with
+ * {@link ExcludeFieldBeanTesting} are excluded from the verification of the beans created at once, while
+ * the final fields of mutable beans are excluded too, since they cannot be set.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public enum BeanKind {
+
+    /**
+     * A mutable JavaBean, with a public no-args constructor and setters.
+     */
+    JAVA_BEAN,
+
+    /**
+     * A class whose instance fields are all final, created through the public constructor taking every field
+     * in declaration order.
+     */
+    IMMUTABLE,
+
+    /**
+     * A record, created through its canonical constructor and read through its component accessors.
+     */
+    RECORD,
+
+    /**
+     * A bean declaring a {@code SimpleNameBuilder} member class, e.g. generated by Lombok {@code @Builder},
+     * created through its static {@code builder()} method.
+     */
+    BUILDER;
+
+    private static final String RECORD_CLASS_NAME = "java.lang.Record";
+    private static final String BUILDER_SUFFIX = "Builder";
+
+    /**
+     * @return {@code true} if the beans of this kind are created with every property set at once
+     */
+    public boolean isCreatedAtOnce() {
+        return this != JAVA_BEAN;
+    }
+
+    /**
+     * Chooses the kind of a class from the header of its class file, without loading it.
+     *
+     * @param header the header of the class file
+     * @return the kind of the class
+     */
+    public static BeanKind of(ClassFileHeader header) {
+        if (header.isRecord())
+            return RECORD;
+
+        String builderClassName = header.getClassName() + "$"
+                + header.getClassName().substring(header.getClassName().lastIndexOf('.') + 1) + BUILDER_SUFFIX;
+        if (header.getMemberClassNames().contains(builderClassName))
+            return BUILDER;
+
+        boolean immutable = header.getFields().stream().anyMatch(f -> !f.isStatic())
+                && header.getFields().stream().filter(f -> !f.isStatic()).allMatch(ClassFileHeader.FieldHeader::isFinal);
+        return immutable ? IMMUTABLE : JAVA_BEAN;
+    }
+
+    /**
+     * Chooses the kind of a loaded class reflecting over its declared members, used when the class is not
+     * listed in any index.
+     *
+     * @param clazz the bean class
+     * @return the kind of the class
+     */
+    public static BeanKind of(Class<?> clazz) {
+        if (clazz.getSuperclass() != null && RECORD_CLASS_NAME.equals(clazz.getSuperclass().getName()))
+            return RECORD;
+
+        String builderName = clazz.getSimpleName() + BUILDER_SUFFIX;
+        if (Arrays.stream(clazz.getDeclaredClasses()).anyMatch(c -> c.getSimpleName().equals(builderName)))
+            return BUILDER;
+
+        Field[] instanceFields = Arrays.stream(clazz.getDeclaredFields())
+                .filter(f -> !Modifier.isStatic(f.getModifiers()))
+                .toArray(Field[]::new);
+
+        boolean immutable = instanceFields.length > 0
+                && Arrays.stream(instanceFields).allMatch(f -> Modifier.isFinal(f.getModifiers()));
+        return immutable ? IMMUTABLE : JAVA_BEAN;
+    }
+}
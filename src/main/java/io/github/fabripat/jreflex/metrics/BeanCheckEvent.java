@@ -0,0 +1,26 @@
+package io.github.fabripat.jreflex.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * The run of a check on a bean.
+ */
+@Name("io.github.fabripat.jreflex.BeanCheck")
+@Label("Bean Check")
+@Category("jReflex")
+@StackTrace(false)
+final class BeanCheckEvent extends Event {
+
+    @Label("Bean Class")
+    Class<?> beanClass;
+
+    @Label("Check")
+    String check;
+
+    @Label("Passed")
+    boolean passed;
+
+    @Label("Check Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long checkTime;
+}
@@ -0,0 +1,20 @@
+package io.github.fabripat.jreflex.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * The loading of a testable class discovered on the classpath.
+ */
+@Name("io.github.fabripat.jreflex.BeanClassLoad")
+@Label("Bean Class Load")
+@Category("jReflex")
+@StackTrace(false)
+final class BeanClassLoadEvent extends Event {
+
+    @Label("Class Name")
+    String className;
+
+    @Label("Load Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long loadTime;
+}
@@ -0,0 +1,27 @@
+package io.github.fabripat.jreflex.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * The serialization round trip of the sampled instances of a bean.
+ */
+@Name("io.github.fabripat.jreflex.BeanSerialization")
+@Label("Bean Serialization")
+@Category("jReflex")
+@StackTrace(false)
+final class BeanSerializationEvent extends Event {
+
+    @Label("Bean Class")
+    Class<?> beanClass;
+
+    @Label("Beans")
+    int beans;
+
+    @Label("Total Size")
+    @DataAmount
+    long totalSize;
+
+    @Label("Max Size")
+    @DataAmount
+    long maxSize;
+}
@@ -0,0 +1,444 @@
+package io.github.fabripat.jreflex.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * This class instruments the bean testing: the scan time of every package of every classpath root,
+ * the testable classes loaded, the time taken by every check of every bean, the random values
+ * generated per type and the serialized size of the beans verified through a serialization round trip.
+ * </p>
+ * <p>
+ * Every measure is emitted as a custom JFR event of the {@code jReflex} category, recorded whenever a
+ * flight recording is running, e.g. with {@code -XX:StartFlightRecording}. Value generation events are
+ * disabled by default, since emitted for every value, and must be enabled in the recording settings.
+ * </p>
+ * <p>
+ * Once {@link #enable() enabled}, measures are also aggregated in memory and can be exported by
+ * {@link #writeReport(Path)} as a JSON report, beans sorted by decreasing check time, so that the beans
+ * making the bean testing slow are found first.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class BeanTestMetrics {
+
+    /**
+     * The system property overriding the file of the JSON report.
+     */
+    public static final String REPORT_FILE_PROPERTY = "jreflex.report.file";
+
+    /**
+     * The default file of the JSON report, relative to the working directory of the build.
+     */
+    public static final String DEFAULT_REPORT_FILE = "target/jreflex-report.json";
+
+    private static final Logger log = Logger.getLogger(BeanTestMetrics.class.getName());
+
+    private static final Pattern BEAN_CHECK_TIME =
+            Pattern.compile("\\{\"class\": \"((?:[^\"\\\\]|\\\\.)*)\", \"checkTimeNanos\": (\\d+)");
+
+    private static volatile boolean enabled;
+
+    private static final Queue<ScanMeasure> SCANS = new ConcurrentLinkedQueue<>();
+    private static final LongAdder CLASSES_LOADED = new LongAdder();
+    private static final LongAdder CLASS_LOAD_TIME = new LongAdder();
+    private static final Map<String, Map<String, CheckMeasure>> CHECKS_BY_BEAN = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> VALUES_BY_TYPE = new ConcurrentHashMap<>();
+    private static final Map<String, SerializationMeasure> SERIALIZATIONS_BY_BEAN = new ConcurrentHashMap<>();
+
+    private BeanTestMetrics() {
+    }
+
+    /**
+     * How the testable classes of a classpath root were resolved.
+     */
+    public enum ScanSource {
+
+        /**
+         * The class files of the root were scanned.
+         */
+        SCAN,
+
+        /**
+         * The bean index shipped by the root was read.
+         */
+        INDEX,
+
+        /**
+         * The discovery cache of the root was read.
+         */
+        CACHE
+    }
+
+    /**
+     * Starts aggregating the measures in memory for the JSON report. Aggregation stays enabled until
+     * the JVM exits, JFR events are emitted regardless.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * @return {@code true} if measures are aggregated for the JSON report
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the file named by the {@value #REPORT_FILE_PROPERTY} system property,
+     * or {@value #DEFAULT_REPORT_FILE} when the property is not set
+     */
+    public static Path getReportFile() {
+        return Paths.get(System.getProperty(REPORT_FILE_PROPERTY, DEFAULT_REPORT_FILE));
+    }
+
+    /**
+     * Records the resolution of the testable classes of some packages of a classpath root.
+     *
+     * @param root            the classpath root
+     * @param packagePaths    the packages resolved, expressed as paths
+     * @param source          how the testable classes were resolved
+     * @param classFilesRead  the number of class files read
+     * @param testableClasses the number of testable classes found
+     * @param nanos           the time taken, in nanoseconds
+     */
+    public static void recordScan(Path root, Collection<String> packagePaths, ScanSource source,
+                                  int classFilesRead, int testableClasses, long nanos) {
+        ClasspathScanEvent event = new ClasspathScanEvent();
+        if (event.shouldCommit()) {
+            event.root = root.toString();
+            event.packages = String.join(",", packagePaths);
+            event.source = source.name().toLowerCase(Locale.ROOT);
+            event.classFilesRead = classFilesRead;
+            event.testableClasses = testableClasses;
+            event.scanTime = nanos;
+            event.commit();
+        }
+
+        if (enabled)
+            SCANS.add(new ScanMeasure(root.toString(), List.copyOf(packagePaths), source, classFilesRead, testableClasses, nanos));
+    }
+
+    /**
+     * Records the loading of a testable class.
+     *
+     * @param className the binary name of the class
+     * @param nanos     the time taken, in nanoseconds
+     */
+    public static void recordClassLoad(String className, long nanos) {
+        BeanClassLoadEvent event = new BeanClassLoadEvent();
+        if (event.shouldCommit()) {
+            event.className = className;
+            event.loadTime = nanos;
+            event.commit();
+        }
+
+        if (enabled) {
+            CLASSES_LOADED.increment();
+            CLASS_LOAD_TIME.add(nanos);
+        }
+    }
+
+    /**
+     * Records the run of a check on a bean.
+     *
+     * @param beanClass the bean class
+     * @param check     the name of the check, e.g. {@code hasValidBeanEquals}
+     * @param passed    whether the bean passed the check
+     * @param nanos     the time taken, in nanoseconds
+     */
+    public static void recordCheck(Class<?> beanClass, String check, boolean passed, long nanos) {
+        BeanCheckEvent event = new BeanCheckEvent();
+        if (event.shouldCommit()) {
+            event.beanClass = beanClass;
+            event.check = check;
+            event.passed = passed;
+            event.checkTime = nanos;
+            event.commit();
+        }
+
+        if (enabled)
+            CHECKS_BY_BEAN.computeIfAbsent(beanClass.getName(), name -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(check, CheckMeasure::new)
+                    .add(passed, nanos);
+    }
+
+    /**
+     * Records the generation of a random value.
+     *
+     * @param type the type of the value
+     */
+    public static void recordValue(Class<?> type) {
+        ValueGenerationEvent event = new ValueGenerationEvent();
+        if (event.shouldCommit()) {
+            event.type = type;
+            event.commit();
+        }
+
+        if (enabled)
+            VALUES_BY_TYPE.computeIfAbsent(type.getName(), name -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records the serialization round trip of sampled instances of a bean.
+     *
+     * @param beanClass  the bean class
+     * @param beans      the number of serialized instances
+     * @param totalBytes the total size of the serialized instances, in bytes
+     * @param maxBytes   the size of the largest serialized instance, in bytes
+     */
+    public static void recordSerialization(Class<?> beanClass, int beans, long totalBytes, long maxBytes) {
+        BeanSerializationEvent event = new BeanSerializationEvent();
+        if (event.shouldCommit()) {
+            event.beanClass = beanClass;
+            event.beans = beans;
+            event.totalSize = totalBytes;
+            event.maxSize = maxBytes;
+            event.commit();
+        }
+
+        if (enabled)
+            SERIALIZATIONS_BY_BEAN.computeIfAbsent(beanClass.getName(), SerializationMeasure::new)
+                    .add(beans, totalBytes, maxBytes);
+    }
+
+    /**
+     * Writes the measures aggregated so far as a JSON report, replacing the provided file atomically.
+     * A failure is logged, since the report is not part of the result of the tests.
+     *
+     * @param file the file of the report
+     */
+    public static void writeReport(Path file) {
+        Path temporaryFile = null;
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+            try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                writer.write(toJson());
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.info(() -> "Bean testing report written to: " + file);
+        } catch (IOException e) {
+            log.log(Level.WARNING, e, () -> "Cannot write bean testing report: " + file);
+            deleteQuietly(temporaryFile);
+        }
+    }
+
+    /**
+     * Reads the check time of every bean from a JSON report written by {@link #writeReport(Path)}.
+     *
+     * @param file the file of the report
+     * @return the total check time of every bean in nanoseconds by class name, empty if the report
+     * does not exist or cannot be read
+     */
+    public static Optional<Map<String, Long>> readCheckTimes(Path file) {
+        if (!Files.isRegularFile(file))
+            return Optional.empty();
+
+        try {
+            Map<String, Long> checkTimes = new HashMap<>();
+            Matcher matcher = BEAN_CHECK_TIME.matcher(Files.readString(file, StandardCharsets.UTF_8));
+            while (matcher.find())
+                checkTimes.put(unquote(matcher.group(1)), Long.parseLong(matcher.group(2)));
+
+            return Optional.of(checkTimes);
+        } catch (IOException | NumberFormatException e) {
+            log.log(Level.WARNING, e, () -> "Cannot read bean testing report: " + file);
+            return Optional.empty();
+        }
+    }
+
+    private static String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+
+        json.append("  \"scans\": [");
+        appendAll(json, 1, SCANS, (s, scan) -> s
+                .append("{\"root\": ").append(quote(scan.root))
+                .append(", \"packages\": [").append(scan.packagePaths.stream().map(BeanTestMetrics::quote).collect(Collectors.joining(", "))).append(']')
+                .append(", \"source\": ").append(quote(scan.source.name().toLowerCase(Locale.ROOT)))
+                .append(", \"classFilesRead\": ").append(scan.classFilesRead)
+                .append(", \"testableClasses\": ").append(scan.testableClasses)
+                .append(", \"scanTimeNanos\": ").append(scan.nanos).append('}'));
+        json.append("],\n");
+
+        json.append("  \"classesLoaded\": ").append(CLASSES_LOADED.sum()).append(",\n");
+        json.append("  \"classLoadTimeNanos\": ").append(CLASS_LOAD_TIME.sum()).append(",\n");
+
+        List<Map.Entry<String, List<CheckMeasure>>> beans = CHECKS_BY_BEAN.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().values().stream()
+                        .sorted(Comparator.comparingLong(CheckMeasure::getTotalNanos).reversed())
+                        .collect(Collectors.toList())))
+                .sorted(Comparator.comparingLong((Map.Entry<String, List<CheckMeasure>> e) -> totalNanos(e.getValue())).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .collect(Collectors.toList());
+
+        json.append("  \"beans\": [");
+        appendAll(json, 1, beans, (s, bean) -> {
+            s.append("{\"class\": ").append(quote(bean.getKey()))
+                    .append(", \"checkTimeNanos\": ").append(totalNanos(bean.getValue()))
+                    .append(", \"checks\": [");
+            appendAll(s, 2, bean.getValue(), (c, check) -> c
+                    .append("{\"check\": ").append(quote(check.check))
+                    .append(", \"runs\": ").append(check.runs.sum())
+                    .append(", \"failures\": ").append(check.failures.sum())
+                    .append(", \"totalTimeNanos\": ").append(check.getTotalNanos())
+                    .append(", \"maxTimeNanos\": ").append(check.maxNanos.get()).append('}'));
+            s.append("]}");
+        });
+        json.append("],\n");
+
+        json.append("  \"valuesGenerated\": {");
+        List<Map.Entry<String, Long>> values = VALUES_BY_TYPE.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .collect(Collectors.toList());
+        appendAll(json, 1, values, (s, value) -> s.append(quote(value.getKey())).append(": ").append(value.getValue()));
+        json.append("},\n");
+
+        json.append("  \"serializedSizes\": [");
+        List<SerializationMeasure> serializations = SERIALIZATIONS_BY_BEAN.values().stream()
+                .sorted(Comparator.comparingLong((SerializationMeasure m) -> m.maxBytes.get()).reversed()
+                        .thenComparing(m -> m.beanClass))
+                .collect(Collectors.toList());
+        appendAll(json, 1, serializations, (s, serialization) -> s
+                .append("{\"class\": ").append(quote(serialization.beanClass))
+                .append(", \"beans\": ").append(serialization.beans.sum())
+                .append(", \"totalBytes\": ").append(serialization.totalBytes.sum())
+                .append(", \"maxBytes\": ").append(serialization.maxBytes.get()).append('}'));
+        json.append("]\n}\n");
+
+        return json.toString();
+    }
+
+    private static <T> void appendAll(StringBuilder json, int depth, Collection<T> elements, ElementWriter<T> elementWriter) {
+        String indent = "  ".repeat(depth);
+        String separator = "";
+        for (T element : elements) {
+            json.append(separator).append('\n').append(indent).append("  ");
+            elementWriter.write(json, element);
+            separator = ",";
+        }
+        if (!elements.isEmpty())
+            json.append('\n').append(indent);
+    }
+
+    private static long totalNanos(List<CheckMeasure> checks) {
+        return checks.stream().mapToLong(CheckMeasure::getTotalNanos).sum();
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\')
+                quoted.append('\\').append(c);
+            else if (c < 0x20)
+                quoted.append(String.format("\\u%04x", (int) c));
+            else
+                quoted.append(c);
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static String unquote(String value) {
+        return value.replaceAll("\\\\(.)", "$1");
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null)
+            return;
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.log(Level.FINE, e, () -> "Cannot delete temporary report file: " + file);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ElementWriter<T> {
+        void write(StringBuilder json, T element);
+    }
+
+    private static final class ScanMeasure {
+
+        private final String root;
+        private final List<String> packagePaths;
+        private final ScanSource source;
+        private final int classFilesRead;
+        private final int testableClasses;
+        private final long nanos;
+
+        private ScanMeasure(String root, List<String> packagePaths, ScanSource source,
+                            int classFilesRead, int testableClasses, long nanos) {
+            this.root = root;
+            this.packagePaths = packagePaths;
+            this.source = source;
+            this.classFilesRead = classFilesRead;
+            this.testableClasses = testableClasses;
+            this.nanos = nanos;
+        }
+    }
+
+    private static final class SerializationMeasure {
+
+        private final String beanClass;
+        private final LongAdder beans = new LongAdder();
+        private final LongAdder totalBytes = new LongAdder();
+        private final AtomicLong maxBytes = new AtomicLong();
+
+        private SerializationMeasure(String beanClass) {
+            this.beanClass = beanClass;
+        }
+
+        private void add(int beans, long totalBytes, long maxBytes) {
+            this.beans.add(beans);
+            this.totalBytes.add(totalBytes);
+            this.maxBytes.accumulateAndGet(maxBytes, Math::max);
+        }
+    }
+
+    private static final class CheckMeasure {
+
+        private final String check;
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private CheckMeasure(String check) {
+            this.check = check;
+        }
+
+        private void add(boolean passed, long nanos) {
+            runs.increment();
+            if (!passed)
+                failures.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private long getTotalNanos() {
+            return totalNanos.sum();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.fabripat.jreflex.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * The scan of a package of a classpath root, or its resolution through its bean index or the discovery cache.
+ */
+@Name("io.github.fabripat.jreflex.ClasspathScan")
+@Label("Classpath Scan")
+@Category("jReflex")
+@StackTrace(false)
+final class ClasspathScanEvent extends Event {
+
+    @Label("Root")
+    String root;
+
+    @Label("Packages")
+    String packages;
+
+    @Label("Source")
+    @Description("How the root was resolved: scan, index or cache")
+    String source;
+
+    @Label("Class Files Read")
+    int classFilesRead;
+
+    @Label("Testable Classes")
+    int testableClasses;
+
+    @Label("Scan Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long scanTime;
+}
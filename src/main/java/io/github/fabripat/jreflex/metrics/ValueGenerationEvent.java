@@ -0,0 +1,17 @@
+package io.github.fabripat.jreflex.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * The generation of a random property value, disabled by default since emitted for every value.
+ */
+@Name("io.github.fabripat.jreflex.ValueGeneration")
+@Label("Value Generation")
+@Category("jReflex")
+@Enabled(false)
+@StackTrace(false)
+final class ValueGenerationEvent extends Event {
+
+    @Label("Type")
+    Class<?> type;
+}
@@ -2,16 +2,30 @@ package io.github.fabripat.jreflex.provider;
 
 
 import io.github.fabripat.jreflex.annotations.EnableAutomatedBeanTesting;
-import io.github.fabripat.jreflex.annotations.ExcludeBeanTesting;
+import io.github.fabripat.jreflex.discovery.BeanDiscovery;
+import io.github.fabripat.jreflex.discovery.DiscoveryCache;
+import io.github.fabripat.jreflex.index.BeanIndex;
+import io.github.fabripat.jreflex.incremental.IncrementalBeanStore;
+import io.github.fabripat.jreflex.metrics.BeanTestMetrics;
+import io.github.fabripat.jreflex.scanner.ClassNameMatcher;
+import io.github.fabripat.jreflex.scanner.ClassSource;
+import io.github.fabripat.jreflex.sharding.BeanSharding;
+import io.github.fabripat.jreflex.verification.BeanVerifier;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.ArgumentsProvider;
 import org.junit.platform.commons.PreconditionViolationException;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.lang.reflect.Modifier;
-import java.util.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -32,46 +46,33 @@ public class ClassTestProvider implements ArgumentsProvider {
 
     private static final Logger log = Logger.getLogger(ClassTestProvider.class.getName());
 
-    /**
-     * <p>
-     * This method extracts a specified annotation from the provided test class and composes
-     * the paths of its attributes. The attributes are expected to represent package names
-     * that need to be scanned for tests. The method returns a list of package paths to be
-     * scanned.
-     * </p>
-     * The method serves as a utility for dynamically determining the package paths to be
-     * scanned based on annotations present in the test class.
-     *
-     * @param context the test execution context
-     * @return the list of packages to scan
-     */
-    private static List<String> getPackagesToScanFromSourcePath(ExtensionContext context) {
-        Class<?> testClass = context.getRequiredTestClass();
-
-        EnableAutomatedBeanTesting enableAutomatedBeanTestingAnnotation =
-                getEnableAutomatedBeanTestingAnnotationFromBeanTestClass(testClass);
-
-        return getPathsFromEnableAutomatedBeanTestingAnnotation(enableAutomatedBeanTestingAnnotation);
-    }
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ClassTestProvider.class);
 
     /**
      * The method serves as a utility for dynamically determining the package paths to be
-     * scanned based on annotations present in the test class.
+     * scanned based on annotations present in the test class, every package being resolved
+     * against every root path.
      *
      * @param annotation the test class annotation
      * @return the list of packages to scan
      */
     private static List<String> getPathsFromEnableAutomatedBeanTestingAnnotation(EnableAutomatedBeanTesting annotation) {
-        String rootPathPackageToScan = annotation.sourceRootPath()
-                .replace(".", "/");
+        List<String> rootPathPackagesToScan = Stream.concat(Stream.of(annotation.sourceRootPath()), Arrays.stream(annotation.sourceRootPaths()))
+                .filter(r -> !r.isEmpty())
+                .map(r -> r.replace(".", "/"))
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (rootPathPackagesToScan.isEmpty())
+            rootPathPackagesToScan = List.of("");
 
         String[] packagesToScan = annotation.packagesToScan();
 
         if (Arrays.asList(packagesToScan).isEmpty())
-            return List.of(rootPathPackageToScan);
+            return rootPathPackagesToScan;
 
-        return Arrays.stream(packagesToScan)
-                .map(p -> rootPathPackageToScan.concat("/").concat(p))
+        return rootPathPackagesToScan.stream()
+                .flatMap(r -> Arrays.stream(packagesToScan).map(p -> r.isEmpty() ? p : r.concat("/").concat(p)))
                 .collect(Collectors.toList());
     }
 
@@ -92,7 +93,7 @@ public class ClassTestProvider implements ArgumentsProvider {
      * @throws PreconditionViolationException if the 'EnableAutomatedBeanTesting' annotation is not present
      *                                        in the test class
      */
-    private static EnableAutomatedBeanTesting getEnableAutomatedBeanTestingAnnotationFromBeanTestClass(Class<?> testClass) {
+    static EnableAutomatedBeanTesting getEnableAutomatedBeanTestingAnnotationFromBeanTestClass(Class<?> testClass) {
         EnableAutomatedBeanTesting enableAutomatedBeanTestingAnnotation = testClass.getAnnotation(EnableAutomatedBeanTesting.class);
 
         if (enableAutomatedBeanTestingAnnotation == null) {
@@ -109,141 +110,266 @@ public class ClassTestProvider implements ArgumentsProvider {
     }
 
     /**
-     * <p>
-     * This method takes a list of strings identifying project resources and a string indicating
-     * the root package, and composes a set of subpackages based on the provided resources and root
-     * package. It returns the set of subpackages as a string.
-     * </p>
-     * <p>
-     * The method serves as a utility for dynamically composing subpackages based on project resources
-     * and a specified root package. It is particularly useful for organizing resources and packages
-     * within a project structure.
-     * </p>
+     * This method takes the binary name of a testable class and returns the corresponding class type,
+     * loaded by the provided class source without initializing it.
      *
-     * @param lines       a list of strings identifying project resources
-     * @param rootPackage a string indicating the root package
-     * @return a set of strings representing the set of subpackages derived from the project resources
+     * @param classSource the source of the testable classes
+     * @param className   the binary name of the class
+     * @return the corresponding class type
+     * @throws IllegalStateException if the class is not found
      */
-    private static Set<String> getSubPackagesFromResourcesAsList(final List<String> lines, final String rootPackage) {
-        return lines.stream()
-                .filter(line -> !line.endsWith(".class"))
-                .map(sp -> rootPackage + "/" + sp)
-                .collect(Collectors.toSet());
+    private static Class<?> getTestableClass(ClassSource classSource, final String className) {
+        long start = System.nanoTime();
+        try {
+            Class<?> testableClass = classSource.loadClass(className);
+            BeanTestMetrics.recordClassLoad(className, System.nanoTime() - start);
+            return testableClass;
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot find testable class: " + className + " in class source: " + classSource, e);
+        }
+    }
+
+    /**
+     * This method enables the aggregation of the {@link BeanTestMetrics}, registering the writing of
+     * the JSON report at the end of the test run. A sharded run never writes the report over the costs
+     * of the balanced shards, since it only records the check times of its own shard, and the shards
+     * started after it would read other costs.
+     *
+     * @param context  the test execution context
+     * @param sharding the sharding of the testable classes
+     */
+    private static void enableReport(ExtensionContext context, BeanSharding sharding) {
+        BeanTestMetrics.enable();
+
+        Path reportFile = BeanTestMetrics.getReportFile();
+        Optional<Path> costs = getShardCostsFile();
+        if (sharding.getShardCount() > 1 && costs.isPresent()
+                && costs.get().toAbsolutePath().normalize().equals(reportFile.toAbsolutePath().normalize())) {
+            log.warning(() -> String.format("Not writing the report of %s over the shard costs { %s }", sharding, reportFile));
+            return;
+        }
+
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(
+                reportFile.toAbsolutePath().normalize(),
+                file -> (ExtensionContext.Store.CloseableResource) () -> BeanTestMetrics.writeReport(reportFile),
+                ExtensionContext.Store.CloseableResource.class
+        );
     }
 
     /**
      * <p>
-     * This method takes a list of strings identifying project resources and a string indicating
-     * the package being scanned. It returns a set of testable classes within the specified package.
-     * Inner classes, enums, records, abstract classes, and classes annotated with ExcludeBeanTesting
-     * are excluded from the result set.
+     * This method resolves the sharding of the testable classes from the 'EnableAutomatedBeanTesting'
+     * annotation, overridden by the {@link BeanSharding#SHARD_COUNT_PROPERTY} and
+     * {@link BeanSharding#SHARD_INDEX_PROPERTY} system properties.
      * </p>
      * <p>
-     * The method serves as a utility for dynamically retrieving testable classes within a package
-     * while excluding non-testable classes like (interface, enum, inner class, record, abstract class
-     * and class annotated with {@link ExcludeBeanTesting})
+     * Balanced shards use the check times of the report set by the {@link BeanSharding#SHARD_COSTS_PROPERTY}
+     * system property, which must be the same file for every shard. The default report is never read, since it
+     * is rewritten by the shards completing first. Without report the classes are sharded by the hash of their name.
      * </p>
      *
-     * @param lines         a list of strings identifying project resources
-     * @param packageInScan a string indicating the package being scanned
-     * @return a set of testable classes within the specified package
+     * @param annotation the test class annotation
+     * @return the sharding of the testable classes
+     * @throws IllegalArgumentException if the shard count or index is not valid
      */
-    private static Set<Class<?>> getTestableClassesFromResourcesAsList(final List<String> lines, final String packageInScan) {
-        return lines.stream()
-                .filter(line -> line.endsWith(".class"))
-                .map(line -> getClass(packageInScan, line))
-                .filter(clazz -> !clazz.isInterface()
-                        && !clazz.getName().contains("$" + clazz.getSimpleName())
-                        && !clazz.isEnum()
-                        && !Modifier.isAbstract(clazz.getModifiers())
-                        && !clazz.isAnnotationPresent(ExcludeBeanTesting.class))
-                .collect(Collectors.toSet());
+    static BeanSharding getSharding(EnableAutomatedBeanTesting annotation) {
+        BeanSharding sharding = BeanSharding.of(
+                Integer.getInteger(BeanSharding.SHARD_INDEX_PROPERTY, annotation.shardIndex()),
+                Integer.getInteger(BeanSharding.SHARD_COUNT_PROPERTY, annotation.shardCount())
+        );
+
+        if (!annotation.balanceShards() || sharding.getShardCount() == 1)
+            return sharding;
+
+        Optional<Path> costsFile = getShardCostsFile();
+        if (costsFile.isEmpty()) {
+            log.warning(() -> String.format("Cannot balance shards, the %s system property is not set", BeanSharding.SHARD_COSTS_PROPERTY));
+            return sharding;
+        }
+
+        Path costs = costsFile.get();
+        Optional<Map<String, Long>> checkTimes = BeanTestMetrics.readCheckTimes(costs);
+
+        if (checkTimes.isEmpty()) {
+            log.warning(() -> String.format("Cannot balance shards, no check times found in { %s }", costs));
+            return sharding;
+        }
+        return sharding.balancedBy(checkTimes.get());
+    }
+
+    private static Optional<Path> getShardCostsFile() {
+        return Optional.ofNullable(System.getProperty(BeanSharding.SHARD_COSTS_PROPERTY)).map(Paths::get);
     }
 
     /**
      * <p>
-     * This method takes the name of a class to instantiate and the package name, and returns
-     * the corresponding class type. If the class is not found, a ClassNotFoundException is
-     * thrown.
-     * </p>
-     * <p>
-     * The method serves as a utility for dynamically retrieving the class type based on its
-     * name and package. It is particularly useful for dynamically loading classes at runtime.
+     * This method returns the verifier of the beans of a test class: the {@link BeanVerifier#seeded() seeded}
+     * verifier, also measuring the hash code distribution when the 'EnableAutomatedBeanTesting' annotation sets
+     * a minimum hash code quality, the cost per call of the bean methods when it sets a performance budget, and
+     * the serialization round trip of the beans when it sets serialization samples.
      * </p>
      *
-     * @param className   the name of the class to instantiate
-     * @param packageName the name of the package containing the class
-     * @return the corresponding class type
-     * @throws IllegalStateException if the class is not found
+     * @param annotation the test class annotation, {@code null} if missing
+     * @return the verifier of the beans
+     * @throws IllegalArgumentException if the hash code quality or samples, the performance budget, or the
+     *                                  serialization samples or size, are not valid
      */
-    private static Class<?> getClass(String packageName, final String className) {
-        try {
-            return Class.forName(packageName.replace("/", ".") + "."
-                    + className.substring(0, className.lastIndexOf('.')));
-        } catch (ClassNotFoundException e) {
-            throw new IllegalStateException(
-                    "Cannot find class: " + className + " in specified package: " + packageName, e);
-        }
+    public static BeanVerifier getBeanVerifier(EnableAutomatedBeanTesting annotation) {
+        if (annotation == null)
+            return BeanVerifier.seeded();
+
+        BeanVerifier verifier = BeanVerifier.seeded()
+                .withPerformanceBudget(annotation.maxNanosPerCall(), annotation.maxBytesPerCall())
+                .withSerialization(annotation.serializationSamples(), annotation.maxSerializedBytes());
+        if (annotation.minHashCodeQuality() == 0)
+            return verifier;
+
+        return verifier.withHashCodeDistribution(annotation.minHashCodeQuality(), annotation.hashCodeSamples());
+    }
+
+    /**
+     * This method takes the testable classes and returns the ones that are not up to date in the
+     * {@link IncrementalBeanStore} for the provided verifier, registering the flush of the store at the end of
+     * the test run. The number of changed classes is logged once the returned stream is closed.
+     *
+     * @param classesToTest the lazy stream of the testable classes
+     * @param verifier      the verifier of the beans
+     * @param context       the test execution context
+     * @return the lazy stream of the classes changed since their last successful verification
+     */
+    private static Stream<Class<?>> getChangedClasses(Stream<Class<?>> classesToTest, BeanVerifier verifier, ExtensionContext context) {
+        IncrementalBeanStore store = IncrementalBeanStore.ofDefaultFile();
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(
+                store.getFile(),
+                file -> (ExtensionContext.Store.CloseableResource) store::flush,
+                ExtensionContext.Store.CloseableResource.class
+        );
+
+        AtomicLong changedClasses = new AtomicLong();
+        String fingerprint = verifier.getFingerprint();
+
+        return classesToTest
+                .filter(c -> !store.isUpToDate(c, fingerprint))
+                .peek(c -> changedClasses.incrementAndGet())
+                .onClose(() -> log.info(() -> String.format("Found %d testable classes changed since the last successful run...",
+                        changedClasses.get())));
     }
 
     /**
      * <p>
-     * This method takes the path of a directory to scan and returns a list of strings identifying
-     * the resources found within the directory. If the directory does not exist or is empty, an
-     * empty list is returned.
+     * This method discovers lazily the testable classes of the packages set by the 'EnableAutomatedBeanTesting'
+     * annotation, registering the bean index entry of each class for the verification before returning it.
+     * Only the classes matched by the class patterns, in the classpath roots matched by the root patterns, are
+     * discovered, and only the classes of the shard to verify are loaded.
      * </p>
      * <p>
-     * The method serves as a utility for dynamically scanning directories for project resources.
-     * It is particularly useful for retrieving resource paths for further processing within an
-     * application.
+     * Classes are discovered in the classpath of the class loader of the test class, and in the named modules of
+     * its module layer, and loaded by the class loader of the test class.
+     * </p>
+     * <p>
+     * Classes are returned as soon as they are discovered, so that their verification overlaps with the
+     * discovery of the rest of the classpath. The number of testable classes is logged once the returned
+     * stream is closed.
      * </p>
      *
-     * @param directory the path of the directory to scan
-     * @return a list of strings identifying the resources found within the directory, or an empty
-     * list if the directory does not exist or is empty
+     * @param annotation the test class annotation
+     * @param context    the test execution context
+     * @return the lazy stream of the testable classes, in classpath order
      */
-    private static List<String> getPackageResourcesAsList(final String directory) {
-        return Optional.of(ClassLoader.getSystemClassLoader())
-                .map(cl -> cl.getResourceAsStream(directory))
-                .map(InputStreamReader::new)
-                .map(BufferedReader::new)
-                .map(BufferedReader::lines)
-                .map(e -> e.collect(Collectors.toList()))
-                .orElseGet(Collections::emptyList);
+    private static Stream<Class<?>> discoverClasses(EnableAutomatedBeanTesting annotation, ExtensionContext context) {
+        ClassSource classSource = ClassSource.of(context.getRequiredTestClass());
+
+        BeanSharding sharding = getSharding(annotation);
+        if (sharding.getShardCount() > 1)
+            log.info(() -> "Testing " + sharding);
+
+        if (annotation.report())
+            enableReport(context, sharding);
+
+        ClassNameMatcher classFilter = ClassNameMatcher.compile(Arrays.asList(annotation.classPatterns()));
+
+        List<String> packagesToScan = getPathsFromEnableAutomatedBeanTestingAnnotation(annotation);
+        if (packagesToScan.equals(List.of("")))
+            packagesToScan = classFilter.getBasePackagePaths();
+
+        BeanDiscovery beanDiscovery = new BeanDiscovery(
+                classSource.getScanner()
+                        .filterRootNames(Arrays.asList(annotation.classpathRoots()))
+                        .withClassFilter(classFilter),
+                annotation.parallelism(),
+                annotation.cacheDiscovery() ? DiscoveryCache.ofDefaultDirectory() : null
+        );
+
+        AtomicLong testableClasses = new AtomicLong();
+
+        return sharding.select(beanDiscovery.stream(packagesToScan))
+                .<Class<?>>map(e -> {
+                    Class<?> clazz = getTestableClass(classSource, e.getClassName());
+                    BeanIndex.register(clazz, e);
+                    return clazz;
+                })
+                .peek(c -> testableClasses.incrementAndGet())
+                .onClose(() -> log.info(() -> String.format("Found %d testable classes...", testableClasses.get())));
     }
 
     /**
+     * This method returns lazily the JavaBeans classes to test of the provided test class, according to its
+     * 'EnableAutomatedBeanTesting' annotation. With incremental bean testing enabled only the classes
+     * changed since their last successful verification are returned.
+     *
+     * @param context the test execution context
+     * @return the lazy stream of the classes to test, to be closed once consumed
+     * @throws PreconditionViolationException if the 'EnableAutomatedBeanTesting' annotation is not present
+     *                                        in the test class
+     */
+    static Stream<Class<?>> provideClasses(ExtensionContext context) {
+        EnableAutomatedBeanTesting enableAutomatedBeanTestingAnnotation =
+                getEnableAutomatedBeanTestingAnnotationFromBeanTestClass(context.getRequiredTestClass());
+
+        Stream<Class<?>> classesToTest = discoverClasses(enableAutomatedBeanTestingAnnotation, context);
+
+        if (enableAutomatedBeanTestingAnnotation.incremental())
+            return getChangedClasses(classesToTest, getBeanVerifier(enableAutomatedBeanTestingAnnotation), context);
+
+        return classesToTest;
+    }
+
+    /**
+     * <p>
      * This method is required by the ArgumentsProvider interface and provides
      * arguments for parameterized tests. The provided arguments include the
      * JavaBeans classes to test, automatically retrieved based on the internal
      * behavior of the class.
+     * </p>
+     * <p>
+     * Arguments are provided lazily, as soon as their class is discovered, so that the first
+     * verifications run while the rest of the classpath is still being discovered.
+     * </p>
+     * <p>
+     * Since a parameterized test requires at least one invocation, when incremental bean testing or sharding
+     * leave no class to test the test class itself is provided, and its verification is skipped by the test.
+     * Otherwise no class to test is a misconfiguration, e.g. a wrong source root path, and the test fails.
+     * </p>
      *
      * @param context the test execution context
      * @return a stream of Arguments containing arguments for parameterized tests
      */
     @Override
     public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
-        List<Class<?>> classesToTest = new ArrayList<>();
+        EnableAutomatedBeanTesting annotation = getEnableAutomatedBeanTestingAnnotationFromBeanTestClass(context.getRequiredTestClass());
+        Stream<Class<?>> classesToTest = provideClasses(context);
 
-        List<String> packagesToScan = getPackagesToScanFromSourcePath(context);
+        if (!annotation.incremental() && getSharding(annotation).getShardCount() == 1)
+            return classesToTest.map(Arguments::of);
 
-        packagesToScan.forEach(p -> {
-            Deque<String> subPackagesResultToScan = new ArrayDeque<>();
-
-            for (String packageInScan = p; packageInScan != null; packageInScan = subPackagesResultToScan.poll()) {
-
-                List<String> lines = getPackageResourcesAsList(packageInScan);
-
-                classesToTest.addAll(getTestableClassesFromResourcesAsList(lines, packageInScan));
-
-                getSubPackagesFromResourcesAsList(lines, packageInScan)
-                        .forEach(subPackagesResultToScan::push);
-            }
-        });
+        AtomicBoolean anyClass = new AtomicBoolean();
+        Class<?> testClass = context.getRequiredTestClass();
 
-        log.info(() -> String.format("Found %d testable classes...", (long) classesToTest.size()));
+        Stream<Class<?>> placeholder = Stream.<Supplier<Class<?>>>of(() -> anyClass.get() ? null : testClass)
+                .map(Supplier::get)
+                .filter(Objects::nonNull);
 
-        return classesToTest.stream().map(Arguments::of);
+        return Stream.concat(classesToTest.peek(c -> anyClass.set(true)), placeholder).map(Arguments::of);
     }
 
 }
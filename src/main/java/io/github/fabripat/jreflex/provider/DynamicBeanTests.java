@@ -0,0 +1,147 @@
+package io.github.fabripat.jreflex.provider;
+
+import io.github.fabripat.jreflex.annotations.EnableAutomatedBeanTesting;
+import io.github.fabripat.jreflex.descriptor.BeanDescriptor;
+import io.github.fabripat.jreflex.incremental.IncrementalBeanStore;
+import io.github.fabripat.jreflex.verification.BeanCheck;
+import io.github.fabripat.jreflex.verification.BeanVerifier;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * This class builds the dynamic tests of a test class annotated with {@link EnableAutomatedBeanTesting}
+ * having {@code dynamicTests} enabled: one container per bean, holding one dynamic test per {@link BeanCheck}
+ * run by the {@link BeanVerifier} of the test class.
+ * </p>
+ * <p>
+ * Checks run with the seeded {@link BeanVerifier}, whose values only depend on the bean and the check, so that
+ * they can run concurrently.
+ * Beans are discovered lazily: with a {@code verificationParallelism} of one, the container of a bean is
+ * built when JUnit pulls it, otherwise the checks of every bean are submitted to a dedicated
+ * {@link ForkJoinPool} as soon as the bean is discovered and its dynamic tests wait for their outcome,
+ * the pool being shut down once every check completed.
+ * </p>
+ * <p>
+ * Users should not use this class directly, the dynamic tests are provided by the test factory of
+ * {@link io.github.fabripat.jreflex.AbstractReflectionBeanTest}.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class DynamicBeanTests {
+
+    private DynamicBeanTests() {
+    }
+
+    /**
+     * Discovers the beans of the test class and returns their dynamic tests.
+     *
+     * @param context the test execution context
+     * @return one dynamic container per bean, holding one dynamic test per check
+     * @throws org.junit.platform.commons.PreconditionViolationException if the 'EnableAutomatedBeanTesting'
+     *                                                                   annotation is not present in the test class
+     * @throws IllegalArgumentException                                  if the verification parallelism is negative
+     */
+    public static Stream<DynamicNode> of(ExtensionContext context) {
+        EnableAutomatedBeanTesting annotation =
+                ClassTestProvider.getEnableAutomatedBeanTestingAnnotationFromBeanTestClass(context.getRequiredTestClass());
+
+        int parallelism = annotation.verificationParallelism();
+        if (parallelism < 0)
+            throw new IllegalArgumentException("Verification parallelism must be positive or zero, was: " + parallelism);
+
+        BeanVerifier verifier = ClassTestProvider.getBeanVerifier(annotation);
+        Stream<Class<?>> classesToTest = ClassTestProvider.provideClasses(context);
+        IncrementalBeanStore store = annotation.incremental() ? IncrementalBeanStore.ofDefaultFile() : null;
+
+        if (parallelism == 1)
+            return classesToTest.map(clazz -> newContainer(verifier, clazz, new ClassResult(verifier, clazz, store), null));
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+        List<DynamicNode> containers = new ArrayList<>();
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        try (classesToTest) {
+            classesToTest.forEach(clazz -> {
+                Map<BeanCheck, CompletableFuture<Void>> outcomes = new EnumMap<>(BeanCheck.class);
+                ClassResult result = new ClassResult(verifier, clazz, store);
+
+                for (BeanCheck check : verifier.getChecks())
+                    outcomes.put(check, CompletableFuture.runAsync(() -> runCheck(verifier, clazz, check, result), pool));
+
+                futures.addAll(outcomes.values());
+                containers.add(newContainer(verifier, clazz, result, outcomes));
+            });
+        } finally {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).whenComplete((v, e) -> pool.shutdown());
+        }
+        return containers.stream();
+    }
+
+    private static DynamicContainer newContainer(BeanVerifier verifier, Class<?> clazz, ClassResult result,
+                                                 Map<BeanCheck, CompletableFuture<Void>> outcomes) {
+        return DynamicContainer.dynamicContainer(clazz.getName(), verifier.getChecks().stream()
+                .map(check -> DynamicTest.dynamicTest(check.getDisplayName(), outcomes == null
+                        ? () -> runCheck(verifier, clazz, check, result)
+                        : awaitOutcome(outcomes.get(check)))));
+    }
+
+    private static Executable awaitOutcome(CompletableFuture<Void> outcome) {
+        return () -> {
+            try {
+                outcome.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private static void runCheck(BeanVerifier verifier, Class<?> clazz, BeanCheck check, ClassResult result) {
+        boolean passed = false;
+        try {
+            check.verify(verifier, BeanDescriptor.of(clazz));
+            passed = true;
+        } finally {
+            result.complete(passed);
+        }
+    }
+
+    /**
+     * The outcome of the checks of a bean, recorded in the incremental store once every check completed.
+     */
+    private static final class ClassResult {
+
+        private final Class<?> clazz;
+        private final String fingerprint;
+        private final IncrementalBeanStore store;
+        private final AtomicInteger remainingChecks;
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        private ClassResult(BeanVerifier verifier, Class<?> clazz, IncrementalBeanStore store) {
+            this.clazz = clazz;
+            this.fingerprint = verifier.getFingerprint();
+            this.store = store;
+            this.remainingChecks = new AtomicInteger(verifier.getChecks().size());
+        }
+
+        private void complete(boolean passed) {
+            if (!passed)
+                failed.set(true);
+
+            if (remainingChecks.decrementAndGet() == 0 && store != null)
+                store.record(clazz, fingerprint, !failed.get());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.fabripat.jreflex.provider;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * <p>
+ * This class implements the ParameterResolver interface of JUnit Jupiter, resolving parameters of
+ * type {@link ExtensionContext} with the context of the running test.
+ * </p>
+ * <p>
+ * It lets the test factory of {@link io.github.fabripat.jreflex.AbstractReflectionBeanTest} share the
+ * discovery of the {@link ClassTestProvider}, and is not intended to be used directly.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class ExtensionContextParameterResolver implements ParameterResolver {
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == ExtensionContext.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return extensionContext;
+    }
+}
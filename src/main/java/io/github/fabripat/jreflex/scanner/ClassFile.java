@@ -0,0 +1,116 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * <p>
+ * This class represents a single {@code .class} resource found by the {@link ClasspathScanner}
+ * inside a classpath root (an exploded directory or a jar).
+ * </p>
+ * <p>
+ * The resource name is always expressed with {@code '/'} separators, regardless of the
+ * underlying root, e.g. {@code io/github/fabripat/jreflex/Dto.class}.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class ClassFile {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final Path root;
+    private final String resourceName;
+    private final ContentSupplier contentSupplier;
+
+    ClassFile(Path root, String resourceName, ContentSupplier contentSupplier) {
+        this.root = root;
+        this.resourceName = resourceName;
+        this.contentSupplier = contentSupplier;
+    }
+
+    /**
+     * @return the path of the classpath root containing the class file, a directory or a jar
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * @return the resource name of the class file, e.g. {@code io/github/fabripat/jreflex/Dto.class}
+     */
+    public String getResourceName() {
+        return resourceName;
+    }
+
+    /**
+     * @return the package of the class file expressed as a path, e.g. {@code io/github/fabripat/jreflex}
+     */
+    public String getPackagePath() {
+        int lastSlash = resourceName.lastIndexOf('/');
+        return lastSlash < 0 ? "" : resourceName.substring(0, lastSlash);
+    }
+
+    /**
+     * @return the simple file name of the class file, e.g. {@code Dto.class}
+     */
+    public String getFileName() {
+        return resourceName.substring(resourceName.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * @return the binary name of the class, e.g. {@code io.github.fabripat.jreflex.Dto}
+     */
+    public String getClassName() {
+        return resourceName.substring(0, resourceName.length() - CLASS_SUFFIX.length())
+                .replace('/', '.');
+    }
+
+    /**
+     * <p>
+     * Opens a stream over the bytecode of the class file.
+     * </p>
+     * <p>
+     * The stream can only be opened while the scanner is visiting the root owning this class file,
+     * the caller is responsible for closing it.
+     * </p>
+     *
+     * @return a stream over the bytecode of the class file
+     * @throws IOException if the class file cannot be read
+     */
+    public InputStream openStream() throws IOException {
+        return contentSupplier.open();
+    }
+
+    static boolean isClassFile(String resourceName) {
+        return resourceName.endsWith(CLASS_SUFFIX)
+                && !resourceName.endsWith("/module-info.class")
+                && !resourceName.endsWith("/package-info.class")
+                && !"module-info.class".equals(resourceName)
+                && !resourceName.startsWith("META-INF/");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return resourceName.equals(((ClassFile) o).resourceName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(resourceName);
+    }
+
+    @Override
+    public String toString() {
+        return resourceName;
+    }
+
+    @FunctionalInterface
+    interface ContentSupplier {
+        InputStream open() throws IOException;
+    }
+}
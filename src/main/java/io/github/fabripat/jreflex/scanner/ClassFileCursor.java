@@ -0,0 +1,22 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * <p>
+ * Incremental traversal of the class files of a single {@link ClasspathRoot}.
+ * </p>
+ * <p>
+ * The root is only read as far as needed to return the next class file, so that the class files
+ * returned so far can be processed while the rest of the root is still unread.
+ * </p>
+ */
+interface ClassFileCursor extends Closeable {
+
+    /**
+     * @return the next class file of the root, {@code null} once every class file has been returned
+     * @throws IOException if the root cannot be read
+     */
+    ClassFile next() throws IOException;
+}
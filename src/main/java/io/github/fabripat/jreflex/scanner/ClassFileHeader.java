@@ -0,0 +1,497 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * <p>
+ * This class reads the header of a class file, as described by the chapter 4 of the
+ * Java Virtual Machine Specification, without defining the class in any class loader.
+ * </p>
+ * <p>
+ * Only the information needed to decide whether a class is a testable bean is decoded:
+ * access flags, this and super class, the {@code InnerClasses} attribute, the type of the
+ * annotations declared in the {@code RuntimeVisibleAnnotations} attribute and the name, access flags
+ * and annotation types of the declared fields. Methods are skipped and {@code CONSTANT_Utf8} entries
+ * are decoded lazily, only when referenced by one of those structures.
+ * </p>
+ * <p>
+ * Reading a header never runs static initializers and never allocates metaspace, so it is the
+ * preferred way to filter the classes found by the {@link ClasspathScanner} before loading them.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class ClassFileHeader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int ACC_SYNTHETIC = 0x1000;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+    private static final int ACC_MODULE = 0x8000;
+
+    private static final String RECORD_CLASS_NAME = "java.lang.Record";
+
+    private final String className;
+    private final String superClassName;
+    private final int accessFlags;
+    private final boolean nestedClass;
+    private final Set<String> memberClassNames;
+    private final Set<String> annotations;
+    private final List<FieldHeader> fields;
+
+    private ClassFileHeader(String className, String superClassName, int accessFlags, boolean nestedClass,
+                            Set<String> memberClassNames, Set<String> annotations, List<FieldHeader> fields) {
+        this.className = className;
+        this.superClassName = superClassName;
+        this.accessFlags = accessFlags;
+        this.nestedClass = nestedClass;
+        this.memberClassNames = memberClassNames;
+        this.annotations = annotations;
+        this.fields = fields;
+    }
+
+    /**
+     * Reads the header of the class file provided as input. The stream is fully consumed but not closed.
+     *
+     * @param inputStream the stream over the bytecode of the class
+     * @return the header of the class
+     * @throws IOException if the stream cannot be read or does not contain a valid class file
+     */
+    public static ClassFileHeader read(InputStream inputStream) throws IOException {
+        return new Parser(inputStream.readAllBytes()).parse();
+    }
+
+    /**
+     * Reads the header of the provided class file.
+     *
+     * @param classFile the class file found by the scanner
+     * @return the header of the class
+     * @throws IOException if the class file cannot be read or is not valid
+     */
+    public static ClassFileHeader read(ClassFile classFile) throws IOException {
+        try (InputStream inputStream = classFile.openStream()) {
+            return read(inputStream);
+        }
+    }
+
+    /**
+     * @return the binary name of the class, e.g. {@code io.github.fabripat.jreflex.Dto}
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return the binary name of the super class, or {@code null} for {@code java.lang.Object} and modules
+     */
+    public String getSuperClassName() {
+        return superClassName;
+    }
+
+    /**
+     * @return the access flags of the class as stored in the class file
+     */
+    public int getAccessFlags() {
+        return accessFlags;
+    }
+
+    public boolean isInterface() {
+        return Modifier.isInterface(accessFlags);
+    }
+
+    public boolean isAnnotation() {
+        return (accessFlags & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isEnum() {
+        return (accessFlags & ACC_ENUM) != 0;
+    }
+
+    public boolean isAbstract() {
+        return Modifier.isAbstract(accessFlags);
+    }
+
+    public boolean isSynthetic() {
+        return (accessFlags & ACC_SYNTHETIC) != 0;
+    }
+
+    public boolean isModule() {
+        return (accessFlags & ACC_MODULE) != 0;
+    }
+
+    /**
+     * @return {@code true} if the class directly extends {@code java.lang.Record}
+     */
+    public boolean isRecord() {
+        return RECORD_CLASS_NAME.equals(superClassName);
+    }
+
+    /**
+     * @return {@code true} if the class is a member, local or anonymous class according to
+     * its {@code InnerClasses} attribute
+     */
+    public boolean isNestedClass() {
+        return nestedClass;
+    }
+
+    /**
+     * @return the binary names of the member classes declared by the class according to its
+     * {@code InnerClasses} attribute, e.g. {@code io.github.fabripat.jreflex.Dto$DtoBuilder}
+     */
+    public Set<String> getMemberClassNames() {
+        return memberClassNames;
+    }
+
+    /**
+     * @return the binary names of the annotations visible at runtime declared on the class
+     */
+    public Set<String> getAnnotations() {
+        return annotations;
+    }
+
+    /**
+     * @param annotationType the annotation type to look for
+     * @return {@code true} if the class declares the annotation, inherited annotations are not considered
+     */
+    public boolean isAnnotationPresent(Class<? extends Annotation> annotationType) {
+        return annotations.contains(annotationType.getName());
+    }
+
+    /**
+     * @return the fields declared by the class, in declaration order
+     */
+    public List<FieldHeader> getFields() {
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return className;
+    }
+
+    /**
+     * The header of a field declared by a class file.
+     */
+    public static final class FieldHeader {
+
+        private final String name;
+        private final int accessFlags;
+        private final Set<String> annotations;
+
+        private FieldHeader(String name, int accessFlags, Set<String> annotations) {
+            this.name = name;
+            this.accessFlags = accessFlags;
+            this.annotations = annotations;
+        }
+
+        /**
+         * @return the name of the field
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the access flags of the field as stored in the class file
+         */
+        public int getAccessFlags() {
+            return accessFlags;
+        }
+
+        public boolean isFinal() {
+            return Modifier.isFinal(accessFlags);
+        }
+
+        public boolean isStatic() {
+            return Modifier.isStatic(accessFlags);
+        }
+
+        /**
+         * @param annotationType the annotation type to look for
+         * @return {@code true} if the field declares the annotation
+         */
+        public boolean isAnnotationPresent(Class<? extends Annotation> annotationType) {
+            return annotations.contains(annotationType.getName());
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Single use parser over the bytes of a class file.
+     */
+    private static final class Parser {
+
+        private static final int CONSTANT_UTF8 = 1;
+        private static final int CONSTANT_INTEGER = 3;
+        private static final int CONSTANT_FLOAT = 4;
+        private static final int CONSTANT_LONG = 5;
+        private static final int CONSTANT_DOUBLE = 6;
+        private static final int CONSTANT_CLASS = 7;
+        private static final int CONSTANT_STRING = 8;
+        private static final int CONSTANT_FIELDREF = 9;
+        private static final int CONSTANT_METHODREF = 10;
+        private static final int CONSTANT_INTERFACE_METHODREF = 11;
+        private static final int CONSTANT_NAME_AND_TYPE = 12;
+        private static final int CONSTANT_METHOD_HANDLE = 15;
+        private static final int CONSTANT_METHOD_TYPE = 16;
+        private static final int CONSTANT_DYNAMIC = 17;
+        private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+        private static final int CONSTANT_MODULE = 19;
+        private static final int CONSTANT_PACKAGE = 20;
+
+        private final byte[] bytes;
+        private int position;
+        private int[] constantOffsets;
+
+        Parser(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        ClassFileHeader parse() throws IOException {
+            try {
+                if (readInt() != MAGIC)
+                    throw new IOException("Not a class file: bad magic number");
+
+                position += 4; // minor and major version
+                readConstantPool();
+
+                int accessFlags = readUnsignedShort();
+                int thisClassIndex = readUnsignedShort();
+                int superClassIndex = readUnsignedShort();
+                int interfacesCount = readUnsignedShort();
+                position += 2 * interfacesCount;
+
+                List<FieldHeader> fields = readFields();
+                skipMembers(); // methods
+
+                boolean nestedClass = false;
+                Set<String> memberClassNames = Collections.emptySet();
+                Set<String> annotations = Collections.emptySet();
+
+                int attributesCount = readUnsignedShort();
+                for (int i = 0; i < attributesCount; i++) {
+                    String attributeName = readUtf8(readUnsignedShort());
+                    int attributeLength = readInt();
+                    int attributeEnd = position + attributeLength;
+
+                    if ("InnerClasses".equals(attributeName)) {
+                        memberClassNames = new HashSet<>();
+                        nestedClass = readInnerClasses(thisClassIndex, memberClassNames);
+                    } else if ("RuntimeVisibleAnnotations".equals(attributeName))
+                        annotations = readAnnotationTypes();
+
+                    position = attributeEnd;
+                }
+
+                return new ClassFileHeader(
+                        readClassName(thisClassIndex),
+                        superClassIndex == 0 ? null : readClassName(superClassIndex),
+                        accessFlags,
+                        nestedClass,
+                        Collections.unmodifiableSet(memberClassNames),
+                        annotations,
+                        fields
+                );
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new IOException("Not a class file: truncated content", e);
+            }
+        }
+
+        private void readConstantPool() throws IOException {
+            int constantPoolCount = readUnsignedShort();
+            constantOffsets = new int[constantPoolCount];
+
+            for (int i = 1; i < constantPoolCount; i++) {
+                int tag = bytes[position++] & 0xFF;
+                constantOffsets[i] = position;
+
+                switch (tag) {
+                    case CONSTANT_UTF8:
+                        position += 2 + readUnsignedShort(position);
+                        break;
+                    case CONSTANT_CLASS:
+                    case CONSTANT_STRING:
+                    case CONSTANT_METHOD_TYPE:
+                    case CONSTANT_MODULE:
+                    case CONSTANT_PACKAGE:
+                        position += 2;
+                        break;
+                    case CONSTANT_METHOD_HANDLE:
+                        position += 3;
+                        break;
+                    case CONSTANT_INTEGER:
+                    case CONSTANT_FLOAT:
+                    case CONSTANT_FIELDREF:
+                    case CONSTANT_METHODREF:
+                    case CONSTANT_INTERFACE_METHODREF:
+                    case CONSTANT_NAME_AND_TYPE:
+                    case CONSTANT_DYNAMIC:
+                    case CONSTANT_INVOKE_DYNAMIC:
+                        position += 4;
+                        break;
+                    case CONSTANT_LONG:
+                    case CONSTANT_DOUBLE:
+                        position += 8;
+                        i++; // takes two entries
+                        break;
+                    default:
+                        throw new IOException("Not a class file: unknown constant pool tag " + tag);
+                }
+            }
+        }
+
+        private List<FieldHeader> readFields() throws IOException {
+            int fieldsCount = readUnsignedShort();
+            if (fieldsCount == 0)
+                return Collections.emptyList();
+
+            List<FieldHeader> fields = new ArrayList<>(fieldsCount);
+            for (int i = 0; i < fieldsCount; i++) {
+                int fieldAccessFlags = readUnsignedShort();
+                int nameIndex = readUnsignedShort();
+                position += 2; // descriptor
+
+                Set<String> fieldAnnotations = Collections.emptySet();
+                int attributesCount = readUnsignedShort();
+                for (int j = 0; j < attributesCount; j++) {
+                    String attributeName = readUtf8(readUnsignedShort());
+                    int attributeLength = readInt();
+                    int attributeEnd = position + attributeLength;
+
+                    if ("RuntimeVisibleAnnotations".equals(attributeName))
+                        fieldAnnotations = readAnnotationTypes();
+
+                    position = attributeEnd;
+                }
+                fields.add(new FieldHeader(readUtf8(nameIndex), fieldAccessFlags, fieldAnnotations));
+            }
+            return Collections.unmodifiableList(fields);
+        }
+
+        private void skipMembers() {
+            int membersCount = readUnsignedShort();
+            for (int i = 0; i < membersCount; i++) {
+                position += 6; // access flags, name and descriptor
+                int attributesCount = readUnsignedShort();
+                for (int j = 0; j < attributesCount; j++) {
+                    position += 2; // attribute name
+                    int attributeLength = readInt();
+                    position += attributeLength;
+                }
+            }
+        }
+
+        /**
+         * Reads the {@code InnerClasses} attribute, collecting the member classes of this class.
+         *
+         * @return {@code true} if this class is itself nested
+         */
+        private boolean readInnerClasses(int thisClassIndex, Set<String> memberClassNames) throws IOException {
+            boolean nestedClass = false;
+            int numberOfClasses = readUnsignedShort();
+            for (int i = 0; i < numberOfClasses; i++) {
+                int innerClassInfoIndex = readUnsignedShort();
+                int outerClassInfoIndex = readUnsignedShort();
+                position += 4; // inner name and inner access flags
+
+                if (innerClassInfoIndex == thisClassIndex)
+                    nestedClass = true;
+                else if (outerClassInfoIndex == thisClassIndex)
+                    memberClassNames.add(readClassName(innerClassInfoIndex));
+            }
+            return nestedClass;
+        }
+
+        private Set<String> readAnnotationTypes() throws IOException {
+            Set<String> annotationTypes = new HashSet<>();
+            int numAnnotations = readUnsignedShort();
+            for (int i = 0; i < numAnnotations; i++) {
+                String descriptor = readUtf8(readUnsignedShort());
+                annotationTypes.add(descriptor.substring(1, descriptor.length() - 1).replace('/', '.'));
+                skipElementValuePairs();
+            }
+            return annotationTypes;
+        }
+
+        private void skipElementValuePairs() {
+            int numPairs = readUnsignedShort();
+            for (int i = 0; i < numPairs; i++) {
+                position += 2; // element name
+                skipElementValue();
+            }
+        }
+
+        private void skipElementValue() {
+            int tag = bytes[position++] & 0xFF;
+            switch (tag) {
+                case 'e':
+                    position += 4;
+                    break;
+                case '@':
+                    position += 2;
+                    skipElementValuePairs();
+                    break;
+                case '[':
+                    int numValues = readUnsignedShort();
+                    for (int i = 0; i < numValues; i++)
+                        skipElementValue();
+                    break;
+                default: // const_value_index or class_info_index
+                    position += 2;
+            }
+        }
+
+        private String readClassName(int classIndex) throws IOException {
+            return readUtf8(readUnsignedShort(constantOffsets[classIndex])).replace('/', '.');
+        }
+
+        @SuppressWarnings("deprecation") // ASCII fast path, avoids the modified UTF-8 decoder
+        private String readUtf8(int utf8Index) throws IOException {
+            int offset = constantOffsets[utf8Index];
+            int length = readUnsignedShort(offset);
+
+            if (isAscii(offset + 2, length))
+                return new String(bytes, 0, offset + 2, length);
+
+            return new DataInputStream(new ByteArrayInputStream(bytes, offset, length + 2)).readUTF();
+        }
+
+        private boolean isAscii(int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] <= 0)
+                    return false;
+            }
+            return true;
+        }
+
+        private int readUnsignedShort() {
+            int value = readUnsignedShort(position);
+            position += 2;
+            return value;
+        }
+
+        private int readUnsignedShort(int offset) {
+            return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+        }
+
+        private int readInt() {
+            int value = ((bytes[position] & 0xFF) << 24)
+                    | ((bytes[position + 1] & 0xFF) << 16)
+                    | ((bytes[position + 2] & 0xFF) << 8)
+                    | (bytes[position + 3] & 0xFF);
+            position += 4;
+            return value;
+        }
+    }
+}
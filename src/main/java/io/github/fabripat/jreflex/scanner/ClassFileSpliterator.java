@@ -0,0 +1,100 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Sequential spliterator over the class files of a list of {@link ClasspathRoot}s, in classpath order.
+ * </p>
+ * <p>
+ * Roots are opened one at a time, when the class files of the previous roots have all been consumed,
+ * and each root is read through its {@link ClassFileCursor} only as far as the next class file.
+ * The cursor of the current root is closed when the root is exhausted or the spliterator is closed.
+ * </p>
+ */
+final class ClassFileSpliterator implements Spliterator<ClassFile> {
+
+    private final Deque<ClasspathRoot> roots;
+    private final Collection<String> packagePaths;
+    private final ClassNameMatcher matcher;
+
+    private ClasspathRoot currentRoot;
+    private ClassFileCursor cursor;
+
+    ClassFileSpliterator(List<ClasspathRoot> roots, Collection<String> packagePaths, ClassNameMatcher matcher) {
+        this.roots = new ArrayDeque<>(roots);
+        this.packagePaths = packagePaths;
+        this.matcher = matcher;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ClassFile> action) {
+        try {
+            while (true) {
+                if (cursor == null) {
+                    if (roots.isEmpty())
+                        return false;
+
+                    currentRoot = roots.pop();
+                    cursor = currentRoot.open(packagePaths, matcher);
+                }
+
+                ClassFile classFile = cursor.next();
+                if (classFile != null) {
+                    action.accept(classFile);
+                    return true;
+                }
+                closeCursor();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot scan classpath root: " + currentRoot, e);
+        }
+    }
+
+    @Override
+    public Spliterator<ClassFile> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * Closes the cursor of the current root, leaving the remaining roots unread.
+     *
+     * @throws UncheckedIOException if the current root cannot be closed
+     */
+    void close() {
+        roots.clear();
+        try {
+            closeCursor();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close classpath root: " + currentRoot, e);
+        }
+    }
+
+    private void closeCursor() throws IOException {
+        if (cursor == null)
+            return;
+
+        try {
+            cursor.close();
+        } finally {
+            cursor = null;
+        }
+    }
+}
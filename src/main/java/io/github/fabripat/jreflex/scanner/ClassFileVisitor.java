@@ -0,0 +1,23 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * Callback notified by the {@link ClasspathScanner} for every {@code .class} resource found
+ * under the packages being scanned.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+@FunctionalInterface
+public interface ClassFileVisitor {
+
+    /**
+     * Visits a class file found by the scanner.
+     *
+     * @param classFile the class file found
+     * @throws IOException if the class file content cannot be read
+     */
+    void visitClassFile(ClassFile classFile) throws IOException;
+}
@@ -0,0 +1,460 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * <p>
+ * This class represents a compact index of the class files of a classpath root, so that the class files of a
+ * very large classpath are filtered without creating a {@link String} for every resource name.
+ * </p>
+ * <p>
+ * Packages are interned in a trie, laid out breadth first so that the sub-packages of a package are
+ * contiguous, and every package lists the range of its classes. Package segments and simple class names are
+ * stored once, as UTF-8 offsets into a single byte buffer. The requested packages are located walking the trie,
+ * the packages pruned by the {@link ClassNameMatcher} are skipped with their sub-packages, and the simple names
+ * are matched in place: only the resource names of the matching class files are created.
+ * </p>
+ * <p>
+ * The index can be written to a file and memory-mapped back, so that the index of a jar is built once, reading
+ * its central directory, and then shared by every JVM of the build until the size or the last modified time of
+ * the jar changes. An index is immutable and thread-safe.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class ClassNameIndex {
+
+    private static final Logger log = Logger.getLogger(ClassNameIndex.class.getName());
+
+    private static final int MAGIC = 0x4A52434E;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * 4 + 2 * 8 + 4;
+    private static final int PACKAGE_INTS = 6;
+    private static final int CLASS_INTS = 2;
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String FILE_SUFFIX = ".cni";
+
+    private static final int NAME_OFFSET = 0;
+    private static final int NAME_LENGTH = 1;
+    private static final int FIRST_CHILD = 2;
+    private static final int CHILD_COUNT = 3;
+    private static final int FIRST_CLASS = 4;
+    private static final int CLASS_COUNT = 5;
+
+    private final ByteBuffer buffer;
+    private final int packageCount;
+    private final int classCount;
+    private final int packagesStart;
+    private final int classesStart;
+    private final int namesStart;
+
+    private ClassNameIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            throw new IOException("Not a class name index, or written by another version of jReflex");
+
+        this.packageCount = buffer.getInt(24);
+        this.classCount = buffer.getInt(28);
+        int namesLength = buffer.getInt(32);
+
+        this.packagesStart = HEADER_SIZE;
+        this.classesStart = packagesStart + packageCount * PACKAGE_INTS * 4;
+        this.namesStart = classesStart + classCount * CLASS_INTS * 4;
+
+        if (packageCount < 1 || classCount < 0 || namesLength < 0 || namesStart + namesLength != buffer.capacity())
+            throw new IOException("Malformed class name index");
+    }
+
+    /**
+     * Creates the index of the provided resources, only the class files are indexed.
+     *
+     * @param resourceNames the resource names, e.g. {@code io/github/fabripat/jreflex/Dto.class}
+     * @return the index of the class files
+     */
+    public static ClassNameIndex of(Collection<String> resourceNames) {
+        return build(resourceNames, 0, 0);
+    }
+
+    /**
+     * Creates the index of the class files of a jar, reading its central directory.
+     *
+     * @param jar the jar
+     * @return the index of the class files of the jar
+     * @throws IOException if the jar cannot be read
+     */
+    public static ClassNameIndex of(Path jar) throws IOException {
+        long size = Files.size(jar);
+        long lastModified = Files.getLastModifiedTime(jar).toMillis();
+
+        List<String> resourceNames = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory())
+                    resourceNames.add(entry.getName());
+            }
+        }
+        return build(resourceNames, size, lastModified);
+    }
+
+    /**
+     * Memory-maps an index written by {@link #write(Path)}.
+     *
+     * @param file the index file
+     * @return the index mapped from the file
+     * @throws IOException if the file cannot be read or is not a valid index
+     */
+    public static ClassNameIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ClassNameIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * <p>
+     * Returns the index of a jar persisted in the provided directory, building and writing it when it is
+     * missing or the jar changed since it was built.
+     * </p>
+     * <p>
+     * The index is written to a temporary file first and then atomically moved in place, so that concurrent
+     * JVMs never map a partially written file. An index that cannot be written is logged and kept in memory.
+     * </p>
+     *
+     * @param directory the directory of the persisted indexes, created when missing
+     * @param jar       the jar
+     * @return the index of the class files of the jar
+     * @throws IOException if the jar cannot be read
+     */
+    static ClassNameIndex load(Path directory, Path jar) throws IOException {
+        Path file = directory.resolve(getFileName(jar));
+        long size = Files.size(jar);
+        long lastModified = Files.getLastModifiedTime(jar).toMillis();
+
+        if (Files.isRegularFile(file)) {
+            try {
+                ClassNameIndex index = open(file);
+                if (index.buffer.getLong(8) == size && index.buffer.getLong(16) == lastModified)
+                    return index;
+            } catch (IOException e) {
+                log.log(Level.FINE, e, () -> "Ignoring unreadable class name index: " + file);
+            }
+        }
+
+        ClassNameIndex index = of(jar);
+        Path temporaryFile = null;
+        try {
+            Files.createDirectories(directory);
+            temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            index.write(temporaryFile);
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return open(file);
+        } catch (IOException e) {
+            log.log(Level.WARNING, e, () -> "Cannot write class name index: " + file);
+            if (temporaryFile != null)
+                Files.deleteIfExists(temporaryFile);
+            return index;
+        }
+    }
+
+    /**
+     * Writes this index to a file, replacing it.
+     *
+     * @param file the index file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        ByteBuffer content = buffer.duplicate();
+        content.clear();
+
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] chunk = new byte[8192];
+            while (content.hasRemaining()) {
+                int length = Math.min(chunk.length, content.remaining());
+                content.get(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+    }
+
+    /**
+     * @return the number of class files indexed
+     */
+    public int size() {
+        return classCount;
+    }
+
+    /**
+     * Returns the class files contained in one of the provided packages, or in their sub-packages, and matched
+     * by the provided matcher. No string is created for the class files not returned.
+     *
+     * @param packagePaths the normalized packages expressed as paths, e.g. {@code io/github/fabripat}
+     * @param matcher      the matcher of the class names
+     * @return the resource names of the class files found, e.g. {@code io/github/fabripat/jreflex/Dto.class}
+     */
+    public List<String> getResourceNames(Collection<String> packagePaths, ClassNameMatcher matcher) {
+        List<String> resourceNames = new ArrayList<>();
+        NameSequence simpleName = new NameSequence();
+
+        for (String packagePath : packagePaths) {
+            int node = findPackage(packagePath);
+            if (node >= 0)
+                collect(node, packagePath, matcher.isMatchingAll() ? null : matcher.enter(packagePath), simpleName, resourceNames);
+        }
+        return resourceNames;
+    }
+
+    private void collect(int node, String packagePath, ClassNameMatcher.State state, NameSequence simpleName, List<String> resourceNames) {
+        if (state != null && state.isPruned())
+            return;
+
+        int firstClass = getPackageInt(node, FIRST_CLASS);
+        for (int c = firstClass; c < firstClass + getPackageInt(node, CLASS_COUNT); c++) {
+            simpleName.reset(getClassInt(c, NAME_OFFSET), getClassInt(c, NAME_LENGTH));
+
+            if (state == null || state.matches(simpleName.isAscii() ? simpleName : simpleName.toString()))
+                resourceNames.add(packagePath.isEmpty()
+                        ? simpleName + CLASS_SUFFIX
+                        : packagePath + "/" + simpleName + CLASS_SUFFIX);
+        }
+
+        int firstChild = getPackageInt(node, FIRST_CHILD);
+        for (int child = firstChild; child < firstChild + getPackageInt(node, CHILD_COUNT); child++) {
+            String segment = getName(getPackageInt(child, NAME_OFFSET), getPackageInt(child, NAME_LENGTH));
+            collect(child,
+                    packagePath.isEmpty() ? segment : packagePath + "/" + segment,
+                    state == null ? null : state.enter(segment),
+                    simpleName,
+                    resourceNames);
+        }
+    }
+
+    /**
+     * @return the node of the provided package, {@code -1} if no class file is indexed in it nor in its sub-packages
+     */
+    private int findPackage(String packagePath) {
+        int node = 0;
+        if (packagePath.isEmpty())
+            return node;
+
+        for (String segment : packagePath.split("/")) {
+            byte[] segmentBytes = segment.getBytes(StandardCharsets.UTF_8);
+            int firstChild = getPackageInt(node, FIRST_CHILD);
+            int found = -1;
+
+            for (int child = firstChild; child < firstChild + getPackageInt(node, CHILD_COUNT) && found < 0; child++) {
+                if (nameEquals(getPackageInt(child, NAME_OFFSET), getPackageInt(child, NAME_LENGTH), segmentBytes))
+                    found = child;
+            }
+            if (found < 0)
+                return -1;
+
+            node = found;
+        }
+        return node;
+    }
+
+    private boolean nameEquals(int offset, int length, byte[] bytes) {
+        if (length != bytes.length)
+            return false;
+
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(namesStart + offset + i) != bytes[i])
+                return false;
+        }
+        return true;
+    }
+
+    private String getName(int offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+            bytes[i] = buffer.get(namesStart + offset + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int getPackageInt(int node, int field) {
+        return buffer.getInt(packagesStart + (node * PACKAGE_INTS + field) * 4);
+    }
+
+    private int getClassInt(int classIndex, int field) {
+        return buffer.getInt(classesStart + (classIndex * CLASS_INTS + field) * 4);
+    }
+
+    private static ClassNameIndex build(Collection<String> resourceNames, long rootSize, long rootLastModified) {
+        PackageNode root = new PackageNode("");
+        for (String resourceName : resourceNames) {
+            if (!ClassFile.isClassFile(resourceName))
+                continue;
+
+            PackageNode node = root;
+            String[] segments = resourceName.substring(0, resourceName.length() - CLASS_SUFFIX.length()).split("/");
+            for (int i = 0; i < segments.length - 1; i++)
+                node = node.children.computeIfAbsent(segments[i], PackageNode::new);
+
+            node.classNames.add(segments[segments.length - 1]);
+        }
+
+        List<PackageNode> packages = new ArrayList<>();
+        Deque<PackageNode> pending = new ArrayDeque<>(List.of(root));
+        while (!pending.isEmpty()) {
+            PackageNode node = pending.poll();
+            packages.add(node);
+            pending.addAll(node.children.values());
+        }
+
+        Map<String, Integer> nameOffsets = new HashMap<>();
+        ByteArrayBuilder names = new ByteArrayBuilder();
+        int classCount = packages.stream().mapToInt(p -> p.classNames.size()).sum();
+
+        ByteBuffer packageTable = ByteBuffer.allocate(packages.size() * PACKAGE_INTS * 4);
+        ByteBuffer classTable = ByteBuffer.allocate(classCount * CLASS_INTS * 4);
+        int nextChild = 1;
+        int nextClass = 0;
+
+        for (PackageNode node : packages) {
+            byte[] nameBytes = node.name.getBytes(StandardCharsets.UTF_8);
+            packageTable.putInt(nameOffsets.computeIfAbsent(node.name, n -> names.append(nameBytes)))
+                    .putInt(nameBytes.length)
+                    .putInt(nextChild)
+                    .putInt(node.children.size())
+                    .putInt(nextClass)
+                    .putInt(node.classNames.size());
+            nextChild += node.children.size();
+
+            for (String className : node.classNames) {
+                byte[] classNameBytes = className.getBytes(StandardCharsets.UTF_8);
+                classTable.putInt(nameOffsets.computeIfAbsent(className, n -> names.append(classNameBytes)))
+                        .putInt(classNameBytes.length);
+            }
+            nextClass += node.classNames.size();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + packageTable.capacity() + classTable.capacity() + names.size());
+        buffer.putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(rootSize)
+                .putLong(rootLastModified)
+                .putInt(packages.size())
+                .putInt(classCount)
+                .putInt(names.size())
+                .put(packageTable.array())
+                .put(classTable.array())
+                .put(names.bytes, 0, names.size());
+
+        try {
+            return new ClassNameIndex(buffer);
+        } catch (IOException e) {
+            throw new IllegalStateException("Built a malformed class name index", e);
+        }
+    }
+
+    private static String getFileName(Path jar) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(jar.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest)
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            return hex.append(FILE_SUFFIX).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ClassNameIndex[%d packages, %d classes]", packageCount, classCount);
+    }
+
+    /**
+     * A package of the index being built, its sub-packages and classes sorted by name.
+     */
+    private static final class PackageNode {
+
+        private final String name;
+        private final Map<String, PackageNode> children = new TreeMap<>();
+        private final SortedSet<String> classNames = new TreeSet<>();
+
+        PackageNode(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class ByteArrayBuilder {
+
+        private byte[] bytes = new byte[1024];
+        private int size;
+
+        int append(byte[] appended) {
+            if (size + appended.length > bytes.length)
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + appended.length));
+
+            System.arraycopy(appended, 0, bytes, size, appended.length);
+            size += appended.length;
+            return size - appended.length;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A reusable view of a simple class name stored in the index, read in place when the name is ASCII.
+     */
+    private final class NameSequence implements CharSequence {
+
+        private int offset;
+        private int length;
+
+        void reset(int offset, int length) {
+            this.offset = namesStart + offset;
+            this.length = length;
+        }
+
+        boolean isAscii() {
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(offset + i) < 0)
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) buffer.get(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return getName(offset - namesStart, length);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * This class matches binary class names, e.g. {@code com.acme.order.dto.OrderDto}, against include and
+ * exclude glob patterns: {@code **} matches any number of packages, {@code *} any characters within a
+ * package or class name, {@code ?} a single one. Exclude patterns start with {@code !}, e.g.
+ * {@code !**.internal.**}. A class matches when it matches an include pattern, or there are no include
+ * patterns, and no exclude pattern.
+ * </p>
+ * <p>
+ * Patterns are compiled once into a trie of name segments, one for the includes and one for the excludes,
+ * and matched segment by segment: a {@link State} is the set of trie nodes reached by a package, so that the
+ * traversal of a classpath root computes the state of a sub-package from the state of its parent, and prunes
+ * the sub-packages no class of which can match.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class ClassNameMatcher {
+
+    private static final ClassNameMatcher ALL = compile(List.of());
+
+    private final List<String> patterns;
+    private final Node includes;
+    private final Node excludes;
+    private final List<String> basePackagePaths;
+
+    private ClassNameMatcher(List<String> patterns, Node includes, Node excludes, List<String> basePackagePaths) {
+        this.patterns = patterns;
+        this.includes = includes;
+        this.excludes = excludes;
+        this.basePackagePaths = basePackagePaths;
+    }
+
+    /**
+     * @return the matcher of every class
+     */
+    public static ClassNameMatcher all() {
+        return ALL;
+    }
+
+    /**
+     * @param patterns the include patterns, and the exclude patterns starting with {@code !}
+     * @return the matcher of the classes matching the provided patterns
+     * @throws IllegalArgumentException if a pattern is empty
+     */
+    public static ClassNameMatcher compile(Collection<String> patterns) {
+        Node includes = new Node();
+        Node excludes = new Node();
+        List<String> basePackagePaths = new ArrayList<>();
+        List<String> compiledPatterns = new ArrayList<>();
+
+        for (String pattern : patterns) {
+            String trimmedPattern = pattern.trim();
+            boolean exclude = trimmedPattern.startsWith("!");
+            String glob = exclude ? trimmedPattern.substring(1).trim() : trimmedPattern;
+
+            if (glob.isEmpty() || glob.startsWith(".") || glob.endsWith(".") || glob.contains(".."))
+                throw new IllegalArgumentException("Invalid class name pattern: " + pattern);
+
+            String[] segments = glob.split("\\.");
+            (exclude ? excludes : includes).add(segments);
+            compiledPatterns.add(trimmedPattern);
+
+            if (!exclude)
+                basePackagePaths.add(getBasePackagePath(segments));
+        }
+
+        if (basePackagePaths.isEmpty()) {
+            includes.add(new String[]{"**"});
+            basePackagePaths.add("");
+        }
+
+        return new ClassNameMatcher(List.copyOf(compiledPatterns), includes, excludes,
+                List.copyOf(ClasspathScanner.normalizePackagePaths(basePackagePaths)));
+    }
+
+    /**
+     * @return {@code true} if this matcher matches every class
+     */
+    public boolean isMatchingAll() {
+        return patterns.isEmpty();
+    }
+
+    /**
+     * @return the deepest packages containing every class matching the include patterns, expressed as paths
+     */
+    public List<String> getBasePackagePaths() {
+        return basePackagePaths;
+    }
+
+    /**
+     * @return the state of the unnamed package, the root of every class name
+     */
+    public State start() {
+        return new State(closure(List.of(includes)), excludes.hasChildren() ? closure(List.of(excludes)) : List.of());
+    }
+
+    /**
+     * @param packagePath a package expressed as a path, e.g. {@code com/acme/order}
+     * @return the state of the provided package
+     */
+    public State enter(String packagePath) {
+        State state = start();
+        if (packagePath.isEmpty())
+            return state;
+
+        for (String segment : packagePath.split("/")) {
+            if (state.isPruned())
+                return state;
+            state = state.enter(segment);
+        }
+        return state;
+    }
+
+    /**
+     * @param className the binary name of a class, e.g. {@code com.acme.order.dto.OrderDto}
+     * @return {@code true} if the class matches the patterns
+     */
+    public boolean matches(String className) {
+        int lastDot = className.lastIndexOf('.');
+        String packagePath = lastDot < 0 ? "" : className.substring(0, lastDot).replace('.', '/');
+
+        return enter(packagePath).matches(className.substring(lastDot + 1));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return patterns.equals(((ClassNameMatcher) o).patterns);
+    }
+
+    @Override
+    public int hashCode() {
+        return patterns.hashCode();
+    }
+
+    /**
+     * @return the patterns of this matcher, separated by commas, empty if it matches every class
+     */
+    @Override
+    public String toString() {
+        return String.join(",", patterns);
+    }
+
+    private static String getBasePackagePath(String[] segments) {
+        List<String> literalPackages = new ArrayList<>();
+        for (int i = 0; i < segments.length - 1 && !Node.isWildcard(segments[i]); i++)
+            literalPackages.add(segments[i]);
+
+        return String.join("/", literalPackages);
+    }
+
+    private static List<Node> closure(List<Node> nodes) {
+        List<Node> closure = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            for (Node n = node; n != null; n = n.anySegments) {
+                if (!closure.contains(n))
+                    closure.add(n);
+            }
+        }
+        return closure;
+    }
+
+    private static List<Node> step(List<Node> nodes, CharSequence segment) {
+        List<Node> next = new ArrayList<>(2);
+        for (Node node : nodes) {
+            if (node.loop)
+                next.add(node);
+
+            Node literal = node.getLiteral(segment);
+            if (literal != null)
+                next.add(literal);
+
+            for (int i = 0; i < node.globs.size(); i++) {
+                if (node.globs.get(i).matcher(segment).matches())
+                    next.add(node.globChildren.get(i));
+            }
+        }
+        return closure(next);
+    }
+
+    private static boolean anyTerminal(List<Node> nodes) {
+        for (Node node : nodes) {
+            if (node.terminal)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * The trie nodes reached by a package in the include and exclude tries.
+     */
+    public static final class State {
+
+        private final List<Node> includeNodes;
+        private final List<Node> excludeNodes;
+
+        private State(List<Node> includeNodes, List<Node> excludeNodes) {
+            this.includeNodes = includeNodes;
+            this.excludeNodes = excludeNodes;
+        }
+
+        /**
+         * @param segment the name of a sub-package
+         * @return the state of the sub-package
+         */
+        public State enter(String segment) {
+            return new State(step(includeNodes, segment), excludeNodes.isEmpty() ? excludeNodes : step(excludeNodes, segment));
+        }
+
+        /**
+         * @return {@code true} if no class of this package, nor of its sub-packages, can match
+         */
+        public boolean isPruned() {
+            if (includeNodes.stream().noneMatch(Node::hasChildren))
+                return true;
+
+            for (Node node : excludeNodes) {
+                if (node.loop && node.terminal)
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * @param simpleName the simple binary name of a class of this package, e.g. {@code OrderDto}, which may
+         *                   be a view over the bytes of a {@link ClassNameIndex}
+         * @return {@code true} if the class matches the patterns
+         */
+        public boolean matches(CharSequence simpleName) {
+            return anyTerminal(step(includeNodes, simpleName))
+                    && (excludeNodes.isEmpty() || !anyTerminal(step(excludeNodes, simpleName)));
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> literals = new HashMap<>();
+        private final List<Pattern> globs = new ArrayList<>();
+        private final List<Node> globChildren = new ArrayList<>();
+        private Node anySegments;
+        private boolean loop;
+        private boolean terminal;
+
+        private static boolean isWildcard(String segment) {
+            return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0;
+        }
+
+        /**
+         * Looks up a literal child by content, so that a name read in place is never copied into a string.
+         */
+        private Node getLiteral(CharSequence segment) {
+            if (segment instanceof String)
+                return literals.get(segment);
+
+            for (Map.Entry<String, Node> literal : literals.entrySet()) {
+                if (literal.getKey().contentEquals(segment))
+                    return literal.getValue();
+            }
+            return null;
+        }
+
+        private boolean hasChildren() {
+            return loop || anySegments != null || !literals.isEmpty() || !globs.isEmpty();
+        }
+
+        private void add(String[] segments) {
+            Node node = this;
+            for (String segment : segments)
+                node = node.child(segment);
+
+            node.terminal = true;
+        }
+
+        private Node child(String segment) {
+            if ("**".equals(segment)) {
+                if (anySegments == null) {
+                    anySegments = new Node();
+                    anySegments.loop = true;
+                }
+                return anySegments;
+            }
+
+            if (!isWildcard(segment))
+                return literals.computeIfAbsent(segment, s -> new Node());
+
+            String regex = Arrays.stream(segment.split("((?<=[*?])|(?=[*?]))"))
+                    .map(t -> "*".equals(t) ? "[^.]*" : "?".equals(t) ? "[^.]" : Pattern.quote(t))
+                    .collect(Collectors.joining());
+
+            for (int i = 0; i < globs.size(); i++) {
+                if (globs.get(i).pattern().equals(regex))
+                    return globChildren.get(i);
+            }
+
+            Node child = new Node();
+            globs.add(Pattern.compile(regex));
+            globChildren.add(child);
+            return child;
+        }
+    }
+}
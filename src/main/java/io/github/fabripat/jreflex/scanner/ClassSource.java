@@ -0,0 +1,104 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * <p>
+ * This interface represents the source of the bean classes: the {@link ClasspathScanner} over the roots their
+ * class files are discovered in, and the class loader they are loaded by.
+ * </p>
+ * <p>
+ * The source of a class scans the classpath of its own class loader, together with the named modules of its
+ * {@link ModuleLayer}, so that the beans are found and loaded in the same way as the class, whether it runs on
+ * the system classpath, on the module path, or in the isolated class loader of a build tool worker or an IDE
+ * runner.
+ * </p>
+ * <p>
+ * An indexed source reads the resources of its roots once, keeping its jars open, and defines the classes of
+ * its roots in its own class loader, so that every class is resolved by a single lookup in the index instead of
+ * a linear search of the classpath.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public interface ClassSource extends Closeable {
+
+    /**
+     * @return the scanner over the roots of the class files of this source
+     */
+    ClasspathScanner getScanner();
+
+    /**
+     * @return the class loader of the classes of this source
+     */
+    ClassLoader getClassLoader();
+
+    /**
+     * Loads a class of this source, without initializing it.
+     *
+     * @param className the binary name of the class, e.g. {@code io.github.fabripat.jreflex.Dto}
+     * @return the class
+     * @throws ClassNotFoundException if the class is not found
+     */
+    default Class<?> loadClass(String className) throws ClassNotFoundException {
+        return Class.forName(className, false, getClassLoader());
+    }
+
+    /**
+     * Releases the resources held by this source, the classes already loaded can still be used.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Creates the source of the classes visible to the provided class: the classpath of its class loader and the
+     * named modules of its module layer, if any.
+     *
+     * @param anchor the class, e.g. a test class
+     * @return the source of the classes visible to the class
+     */
+    static ClassSource of(Class<?> anchor) {
+        ClassLoader classLoader = anchor.getClassLoader() != null ? anchor.getClassLoader() : ClassLoader.getSystemClassLoader();
+        ModuleLayer layer = anchor.getModule().getLayer();
+
+        ClasspathScanner scanner = layer != null
+                ? ClasspathScanner.of(layer).concat(ClasspathScanner.of(classLoader))
+                : ClasspathScanner.of(classLoader);
+
+        return new LoaderClassSource(scanner, classLoader);
+    }
+
+    /**
+     * Creates the source of the classes of the provided class loader.
+     *
+     * @param classLoader the class loader
+     * @return the source of the classes of the classpath of the class loader
+     */
+    static ClassSource of(ClassLoader classLoader) {
+        return new LoaderClassSource(ClasspathScanner.of(classLoader), classLoader);
+    }
+
+    /**
+     * <p>
+     * Creates an indexed source over the provided roots, reading the resources of every root once.
+     * </p>
+     * <p>
+     * The classes of the roots are defined by the class loader of the source, looking them up in the index
+     * before delegating to the parent class loader. Only the classes of the platform and the jReflex annotations
+     * are looked up in the parent class loader first, so that the beans share the annotations with the verifier.
+     * The source must be closed to release its jars.
+     * </p>
+     *
+     * @param rootPaths the paths of the roots, directories or jars
+     * @param parent    the parent of the class loader of the source
+     * @return the indexed source of the roots
+     * @throws UncheckedIOException if a root cannot be read
+     */
+    static ClassSource indexed(Collection<Path> rootPaths, ClassLoader parent) {
+        return new IndexedClassSource(ClasspathScanner.of(rootPaths), parent);
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * <p>
+ * A single entry of the classpath, either an exploded directory, a jar archive or a named module.
+ * </p>
+ * <p>
+ * Every root is visited in a single pass, notifying the visitor of each {@code .class}
+ * resource contained in one of the requested packages and matched by the {@link ClassNameMatcher}.
+ * </p>
+ */
+abstract class ClasspathRoot {
+
+    private final Path path;
+
+    ClasspathRoot(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Creates the root matching the kind of the provided path.
+     *
+     * @param path the path of the classpath entry
+     * @return the root for the path
+     */
+    static ClasspathRoot of(Path path) {
+        return Files.isDirectory(path)
+                ? new DirectoryClasspathRoot(path)
+                : new JarClasspathRoot(path);
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * @param indexDirectory the directory of the persisted {@link ClassNameIndex}es
+     * @return this root reading its class names through a persisted index, if supported, or this root
+     */
+    ClasspathRoot withClassNameIndexes(Path indexDirectory) {
+        return this;
+    }
+
+    /**
+     * Visits every class file of this root contained in one of the provided packages (or their sub-packages).
+     *
+     * @param packagePaths the packages to visit expressed as paths, e.g. {@code io/github/fabripat}
+     * @param matcher      the matcher of the class names to visit
+     * @param visitor      the visitor to notify
+     * @throws IOException if the root cannot be read
+     */
+    abstract void visit(Collection<String> packagePaths, ClassNameMatcher matcher, ClassFileVisitor visitor) throws IOException;
+
+    /**
+     * Visits every class file of this root contained in one of the provided packages (or their sub-packages),
+     * splitting the work in fork-join tasks. Must be called from a {@link java.util.concurrent.ForkJoinPool} worker,
+     * the visitor must be thread-safe.
+     *
+     * @param packagePaths the packages to visit expressed as paths, e.g. {@code io/github/fabripat}
+     * @param matcher      the matcher of the class names to visit
+     * @param visitor      the thread-safe visitor to notify
+     * @return the number of class files visited
+     * @throws IOException if the root cannot be read
+     */
+    abstract int visitInParallel(Collection<String> packagePaths, ClassNameMatcher matcher, ClassFileVisitor visitor) throws IOException;
+
+    /**
+     * Opens a cursor over the class files of this root contained in one of the provided packages (or their
+     * sub-packages), reading the root incrementally as the cursor advances. The caller is responsible for
+     * closing the cursor.
+     *
+     * @param packagePaths the packages to traverse expressed as paths, e.g. {@code io/github/fabripat}
+     * @param matcher      the matcher of the class names to traverse
+     * @return the cursor over the class files of the packages
+     * @throws IOException if the root cannot be opened
+     */
+    abstract ClassFileCursor open(Collection<String> packagePaths, ClassNameMatcher matcher) throws IOException;
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
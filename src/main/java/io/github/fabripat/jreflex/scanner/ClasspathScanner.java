@@ -0,0 +1,480 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.module.ResolvedModule;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.*;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>
+ * This class scans the roots of a classpath looking for {@code .class} resources contained
+ * in a set of packages.
+ * </p>
+ * <p>
+ * Both exploded directories and jar archives are supported. Directories are walked through
+ * {@link java.nio.file.Files#walkFileTree}, while jars are enumerated reading their central
+ * directory once. Jars declaring a {@code Class-Path} manifest attribute (e.g. the manifest-only
+ * jar used by surefire to launch forked JVMs) are expanded into the roots they reference.
+ * </p>
+ * <p>
+ * Every root is visited in a single pass, regardless of the number of packages requested. Class files
+ * can also be streamed lazily, reading the roots incrementally as the stream is consumed.
+ * </p>
+ * <p>
+ * Roots are resolved from the entries of a classpath, from the ancestors of a class loader, or from the named
+ * modules of a {@link ModuleLayer}.
+ * </p>
+ * <p>
+ * Roots can be filtered, e.g. by the glob patterns of their file names, and class files by a
+ * {@link ClassNameMatcher}, which prunes the packages no class of which can match while the roots are read.
+ * </p>
+ * <p>
+ * The class files of jars can be filtered through persisted {@link ClassNameIndex}es instead of their central
+ * directory, so that very large classpaths are scanned without creating a string for every entry.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class ClasspathScanner {
+
+    private static final Logger log = Logger.getLogger(ClasspathScanner.class.getName());
+
+    private final List<ClasspathRoot> roots;
+    private final ClassNameMatcher classFilter;
+
+    private ClasspathScanner(List<ClasspathRoot> roots, ClassNameMatcher classFilter) {
+        this.roots = roots;
+        this.classFilter = classFilter;
+    }
+
+    /**
+     * Creates a scanner over the roots of the {@code java.class.path} system property.
+     *
+     * @return the scanner of the system classpath
+     */
+    public static ClasspathScanner ofSystemClasspath() {
+        return of(getSystemClasspathEntries());
+    }
+
+    /**
+     * Creates a scanner over the provided roots. Jars referencing other roots through
+     * the {@code Class-Path} manifest attribute are expanded, missing roots are ignored.
+     *
+     * @param rootPaths the paths of the classpath roots, directories or jars
+     * @return the scanner of the provided roots
+     */
+    public static ClasspathScanner of(Collection<Path> rootPaths) {
+        Set<Path> resolvedRoots = new LinkedHashSet<>();
+        rootPaths.forEach(root -> resolveRoot(root, resolvedRoots));
+
+        return new ClasspathScanner(resolvedRoots.stream()
+                .map(ClasspathRoot::of)
+                .collect(Collectors.toList()), ClassNameMatcher.all());
+    }
+
+    /**
+     * <p>
+     * Creates a scanner over the roots the provided class loader, and its ancestors up to the platform class
+     * loader, load classes from, in delegation order.
+     * </p>
+     * <p>
+     * The roots of a {@link URLClassLoader} are its {@code file} URLs, the roots of the system class loader the
+     * {@code java.class.path} system property. The roots of any other class loader, e.g. the isolated class
+     * loader of a build tool worker or an IDE runner, are the directories and jars of the resources it finds for
+     * the unnamed package and for {@code META-INF/MANIFEST.MF}.
+     * </p>
+     *
+     * @param classLoader the class loader
+     * @return the scanner of the classpath of the class loader
+     * @throws UncheckedIOException if the resources of the class loader cannot be listed
+     */
+    public static ClasspathScanner of(ClassLoader classLoader) {
+        Deque<ClassLoader> classLoaders = new ArrayDeque<>();
+        for (ClassLoader l = classLoader; l != null && l != ClassLoader.getPlatformClassLoader(); l = l.getParent())
+            classLoaders.push(l);
+
+        Set<Path> rootPaths = new LinkedHashSet<>();
+        for (ClassLoader l : classLoaders) {
+            if (l instanceof URLClassLoader) {
+                Arrays.stream(((URLClassLoader) l).getURLs())
+                        .map(ClasspathScanner::toPath)
+                        .filter(Objects::nonNull)
+                        .forEach(rootPaths::add);
+            } else if (l == ClassLoader.getSystemClassLoader()) {
+                rootPaths.addAll(getSystemClasspathEntries());
+            } else {
+                rootPaths.addAll(getResourceRoots(l));
+            }
+        }
+        return of(rootPaths);
+    }
+
+    /**
+     * <p>
+     * Creates a scanner over the named modules of the provided layer, and of its parent layers, read through
+     * their {@link java.lang.module.ModuleReader}.
+     * </p>
+     * <p>
+     * Only the modules located in the file system, e.g. the modules of the module path, are scanned: the modules
+     * of the run-time image are not.
+     * </p>
+     *
+     * @param layer the module layer
+     * @return the scanner of the modules of the layer
+     */
+    public static ClasspathScanner of(ModuleLayer layer) {
+        Map<Path, ClasspathRoot> roots = new LinkedHashMap<>();
+
+        for (ModuleLayer l : getLayers(layer)) {
+            l.configuration().modules().stream()
+                    .sorted(Comparator.comparing(ResolvedModule::name))
+                    .forEach(module -> module.reference().location()
+                            .filter(location -> "file".equals(location.getScheme()))
+                            .map(location -> Paths.get(location).toAbsolutePath().normalize())
+                            .ifPresent(path -> roots.putIfAbsent(path, new ModuleClasspathRoot(path, module.reference()))));
+        }
+        return new ClasspathScanner(new ArrayList<>(roots.values()), ClassNameMatcher.all());
+    }
+
+    /**
+     * Creates a scanner over the roots of this scanner followed by the roots of the provided scanner, a root of
+     * both scanners being visited once, in the position of this scanner.
+     *
+     * @param other the scanner whose roots follow the roots of this scanner
+     * @return the concatenated scanner, reading the class files matched by the class filter of this scanner
+     */
+    public ClasspathScanner concat(ClasspathScanner other) {
+        Map<Path, ClasspathRoot> concatenatedRoots = new LinkedHashMap<>();
+        roots.forEach(root -> concatenatedRoots.putIfAbsent(root.getPath(), root));
+        other.roots.forEach(root -> concatenatedRoots.putIfAbsent(root.getPath(), root));
+
+        return new ClasspathScanner(new ArrayList<>(concatenatedRoots.values()), classFilter);
+    }
+
+    /**
+     * @return the paths of the roots visited by this scanner, in classpath order
+     */
+    public List<Path> getRoots() {
+        return roots.stream()
+                .map(ClasspathRoot::getPath)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates a scanner over the roots of this scanner accepted by the provided filter.
+     *
+     * @param rootFilter the filter of the roots to keep
+     * @return the filtered scanner
+     */
+    public ClasspathScanner filter(Predicate<Path> rootFilter) {
+        return new ClasspathScanner(roots.stream()
+                .filter(root -> rootFilter.test(root.getPath()))
+                .collect(Collectors.toList()), classFilter);
+    }
+
+    /**
+     * Creates a scanner over the roots of this scanner whose file name matches one of the provided glob patterns,
+     * e.g. {@code acme-*-model-*.jar} or {@code classes}.
+     *
+     * @param rootNamePatterns the glob patterns of the file names of the roots to keep, empty to keep every root
+     * @return the filtered scanner
+     * @throws IllegalArgumentException if a pattern is not a valid glob
+     */
+    public ClasspathScanner filterRootNames(Collection<String> rootNamePatterns) {
+        if (rootNamePatterns.isEmpty())
+            return this;
+
+        List<PathMatcher> matchers = rootNamePatterns.stream()
+                .map(p -> FileSystems.getDefault().getPathMatcher("glob:" + p))
+                .collect(Collectors.toList());
+
+        return filter(root -> root.getFileName() != null
+                && matchers.stream().anyMatch(m -> m.matches(root.getFileName())));
+    }
+
+    /**
+     * Creates a scanner over the roots of this scanner reading only the class files matched by the provided matcher.
+     *
+     * @param classFilter the matcher of the class names of the class files to read
+     * @return the filtered scanner
+     */
+    public ClasspathScanner withClassFilter(ClassNameMatcher classFilter) {
+        return new ClasspathScanner(roots, Objects.requireNonNull(classFilter));
+    }
+
+    /**
+     * Creates a scanner over the roots of this scanner filtering the class files of the jars through their
+     * compact {@link ClassNameIndex}, built once per jar and memory-mapped from the provided directory.
+     *
+     * @param indexDirectory the directory of the persisted indexes, created when missing
+     * @return the scanner reading the class names of the jars through their indexes
+     */
+    public ClasspathScanner withClassNameIndexes(Path indexDirectory) {
+        Objects.requireNonNull(indexDirectory);
+        return new ClasspathScanner(roots.stream()
+                .map(root -> root.withClassNameIndexes(indexDirectory))
+                .collect(Collectors.toList()), classFilter);
+    }
+
+    /**
+     * @return the matcher of the class names of the class files read by this scanner
+     */
+    public ClassNameMatcher getClassFilter() {
+        return classFilter;
+    }
+
+    /**
+     * <p>
+     * Visits every class file contained in the provided packages, or in their sub-packages,
+     * of every root of the classpath.
+     * </p>
+     * <p>
+     * The same class may be found in more than one root: the visitor is notified once per occurrence.
+     * </p>
+     *
+     * @param packagePaths the packages to scan expressed as paths, e.g. {@code io/github/fabripat}
+     * @param visitor      the visitor notified for each class file
+     * @throws UncheckedIOException if a root cannot be read
+     */
+    public void scan(Collection<String> packagePaths, ClassFileVisitor visitor) {
+        Collection<String> normalizedPackagePaths = normalizePackagePaths(packagePaths);
+
+        for (ClasspathRoot root : roots) {
+            try {
+                root.visit(normalizedPackagePaths, classFilter, visitor);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot scan classpath root: " + root, e);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Visits every class file contained in the provided packages, or in their sub-packages,
+     * of every root of the classpath, using the provided fork-join pool.
+     * </p>
+     * <p>
+     * Every root, every package directory and every chunk of jar entries becomes a fork-join task,
+     * so the visitor is notified concurrently and must be thread-safe. No ordering is guaranteed.
+     * </p>
+     *
+     * @param packagePaths the packages to scan expressed as paths, e.g. {@code io/github/fabripat}
+     * @param visitor      the thread-safe visitor notified for each class file
+     * @param pool         the pool running the scan
+     * @return the number of class files visited
+     * @throws UncheckedIOException if a root cannot be read
+     */
+    public int scan(Collection<String> packagePaths, ClassFileVisitor visitor, ForkJoinPool pool) {
+        Collection<String> normalizedPackagePaths = normalizePackagePaths(packagePaths);
+
+        List<RecursiveTask<Integer>> rootTasks = roots.stream()
+                .map(root -> new RecursiveTask<Integer>() {
+                    @Override
+                    protected Integer compute() {
+                        try {
+                            return root.visitInParallel(normalizedPackagePaths, classFilter, visitor);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("Cannot scan classpath root: " + root, e);
+                        }
+                    }
+                })
+                .collect(Collectors.toList());
+
+        return pool.invoke(new RecursiveTask<Integer>() {
+            @Override
+            protected Integer compute() {
+                return invokeAll(rootTasks).stream()
+                        .mapToInt(ForkJoinTask::join)
+                        .sum();
+            }
+        });
+    }
+
+    /**
+     * Returns every class file contained in the provided packages, or in their sub-packages.
+     * When the same class is found in more than one root only the first occurrence, in classpath order,
+     * is kept.
+     *
+     * @param packagePaths the packages to scan expressed as paths, e.g. {@code io/github/fabripat}
+     * @return the class files found, in classpath order
+     * @throws UncheckedIOException if a root cannot be read
+     */
+    public List<ClassFile> scan(Collection<String> packagePaths) {
+        Set<ClassFile> classFiles = new LinkedHashSet<>();
+        scan(packagePaths, classFiles::add);
+        return new ArrayList<>(classFiles);
+    }
+
+    /**
+     * <p>
+     * Returns a lazy stream of the class files contained in the provided packages, or in their sub-packages,
+     * of every root of the classpath, in classpath order.
+     * </p>
+     * <p>
+     * Roots are read while the stream is consumed: a package directory is listed, and a jar is opened,
+     * only once the class files before it have been consumed, so that they can be processed while the rest
+     * of the classpath is still unread. Class files of a jar can only be opened until the stream moves past
+     * the jar, and the stream must be closed to release the jar being read when it is not fully consumed.
+     * </p>
+     * <p>
+     * The same class may be found in more than one root: the stream contains one class file per occurrence.
+     * </p>
+     *
+     * @param packagePaths the packages to scan expressed as paths, e.g. {@code io/github/fabripat}
+     * @return the sequential stream of the class files found
+     * @throws UncheckedIOException while consuming the stream, if a root cannot be read
+     */
+    public Stream<ClassFile> stream(Collection<String> packagePaths) {
+        ClassFileSpliterator spliterator = new ClassFileSpliterator(roots, normalizePackagePaths(packagePaths), classFilter);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Removes trailing separators and packages already covered by one of their parent packages,
+     * so that the same sub-tree is never visited twice.
+     *
+     * @param packagePaths the packages to normalize
+     * @return the normalized packages
+     */
+    public static Collection<String> normalizePackagePaths(Collection<String> packagePaths) {
+        List<String> sortedPaths = packagePaths.stream()
+                .map(p -> p.replace('.', '/'))
+                .map(p -> p.replaceAll("^/+|/+$", ""))
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+
+        List<String> normalizedPaths = new ArrayList<>();
+        for (String path : sortedPaths) {
+            boolean coveredByParent = normalizedPaths.stream()
+                    .anyMatch(parent -> parent.isEmpty() || path.startsWith(parent + "/"));
+
+            if (!coveredByParent)
+                normalizedPaths.add(path);
+        }
+        return normalizedPaths;
+    }
+
+    private static void resolveRoot(Path root, Set<Path> resolvedRoots) {
+        Path normalizedRoot = root.toAbsolutePath().normalize();
+
+        if (!Files.exists(normalizedRoot) || resolvedRoots.contains(normalizedRoot))
+            return;
+
+        if (Files.isDirectory(normalizedRoot)) {
+            resolvedRoots.add(normalizedRoot);
+            return;
+        }
+
+        try (JarFile jarFile = new JarFile(normalizedRoot.toFile(), false)) {
+            resolvedRoots.add(normalizedRoot);
+
+            getManifestClassPath(normalizedRoot, jarFile.getManifest())
+                    .forEach(e -> resolveRoot(e, resolvedRoots));
+        } catch (IOException e) {
+            log.warning(() -> String.format("Cannot read { %s } as a jar, skipping it: %s", normalizedRoot, e.getMessage()));
+        }
+    }
+
+    private static List<Path> getManifestClassPath(Path jar, Manifest manifest) {
+        String classPath = Optional.ofNullable(manifest)
+                .map(Manifest::getMainAttributes)
+                .map(a -> a.getValue(Attributes.Name.CLASS_PATH))
+                .orElse("");
+
+        return Arrays.stream(classPath.trim().split("\\s+"))
+                .filter(e -> !e.isEmpty())
+                .map(e -> resolveManifestEntry(jar, e))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static Path resolveManifestEntry(Path jar, String entry) {
+        try {
+            URI uri = jar.getParent().toUri().resolve(entry);
+
+            if ("file".equals(uri.getScheme()))
+                return Paths.get(uri);
+        } catch (IllegalArgumentException e) {
+            // not a valid URI, logged below
+        }
+        log.warning(() -> String.format("Cannot resolve manifest Class-Path entry { %s } of { %s }, skipping it", entry, jar));
+        return null;
+    }
+
+    private static List<Path> getSystemClasspathEntries() {
+        return Arrays.stream(System.getProperty("java.class.path", "").split(File.pathSeparator))
+                .filter(e -> !e.isEmpty())
+                .map(ClasspathScanner::toPath)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static List<ModuleLayer> getLayers(ModuleLayer layer) {
+        Set<ModuleLayer> layers = new LinkedHashSet<>();
+        Deque<ModuleLayer> pending = new ArrayDeque<>(List.of(layer));
+
+        while (!pending.isEmpty()) {
+            ModuleLayer l = pending.poll();
+            if (layers.add(l))
+                pending.addAll(l.parents());
+        }
+        return new ArrayList<>(layers);
+    }
+
+    private static Set<Path> getResourceRoots(ClassLoader classLoader) {
+        Set<Path> rootPaths = new LinkedHashSet<>();
+        try {
+            for (URL directory : Collections.list(classLoader.getResources("")))
+                Optional.ofNullable(toPath(directory)).ifPresent(rootPaths::add);
+
+            for (URL manifest : Collections.list(classLoader.getResources(JarFile.MANIFEST_NAME))) {
+                String url = manifest.toString();
+                int separator = url.lastIndexOf("!/");
+
+                if (url.startsWith("jar:") && separator > 0)
+                    Optional.ofNullable(toPath(new URL(url.substring("jar:".length(), separator)))).ifPresent(rootPaths::add);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list the classpath roots of class loader: " + classLoader, e);
+        }
+        return rootPaths;
+    }
+
+    private static Path toPath(URL url) {
+        try {
+            if ("file".equals(url.getProtocol()))
+                return Paths.get(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            // not a valid path, logged below
+        }
+        log.warning(() -> String.format("Cannot resolve classpath URL { %s }, skipping it", url));
+        return null;
+    }
+
+    private static Path toPath(String entry) {
+        try {
+            return Paths.get(entry);
+        } catch (InvalidPathException e) {
+            log.warning(() -> String.format("Cannot resolve classpath entry { %s }, skipping it", entry));
+            return null;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Classpath root backed by an exploded directory, e.g. {@code target/classes}.
+ * </p>
+ * <p>
+ * Only the sub-trees of the requested packages are walked through {@link Files#walkFileTree}.
+ * When visited in parallel, every package directory becomes a {@link RecursiveTask} forking
+ * a sub-task for each of its sub-packages. When traversed incrementally, package directories are
+ * listed one at a time, in name order, as the cursor advances.
+ * </p>
+ * <p>
+ * Every package directory carries the {@link ClassNameMatcher.State} of its package, computed from the
+ * state of its parent: the sub-trees no class of which can match are never listed.
+ * </p>
+ */
+class DirectoryClasspathRoot extends ClasspathRoot {
+
+    DirectoryClasspathRoot(Path path) {
+        super(path);
+    }
+
+    @Override
+    void visit(Collection<String> packagePaths, ClassNameMatcher matcher, ClassFileVisitor visitor) throws IOException {
+        for (PackageDirectory packageDirectory : getPackageDirectories(packagePaths, matcher))
+            Files.walkFileTree(packageDirectory.path, new ClassFileTreeVisitor(packageDirectory, visitor));
+    }
+
+    @Override
+    int visitInParallel(Collection<String> packagePaths, ClassNameMatcher matcher, ClassFileVisitor visitor) {
+        List<PackageDirectoryTask> tasks = getPackageDirectories(packagePaths, matcher).stream()
+                .map(d -> new PackageDirectoryTask(d, visitor))
+                .collect(Collectors.toList());
+
+        return ForkJoinTask.invokeAll(tasks).stream()
+                .mapToInt(ForkJoinTask::join)
+                .sum();
+    }
+
+    @Override
+    ClassFileCursor open(Collection<String> packagePaths, ClassNameMatcher matcher) {
+        return new PackageDirectoryCursor(new ArrayDeque<>(getPackageDirectories(packagePaths, matcher)));
+    }
+
+    private List<PackageDirectory> getPackageDirectories(Collection<String> packagePaths, ClassNameMatcher matcher) {
+        List<PackageDirectory> packageDirectories = new ArrayList<>();
+        for (String packagePath : packagePaths) {
+            Path directory = packagePath.isEmpty() ? getPath() : getPath().resolve(packagePath);
+            ClassNameMatcher.State state = matcher.enter(packagePath);
+
+            if (!state.isPruned() && Files.isDirectory(directory))
+                packageDirectories.add(new PackageDirectory(directory, state));
+        }
+        return packageDirectories;
+    }
+
+    private String toResourceName(Path file) {
+        return getPath().relativize(file).toString()
+                .replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    private static boolean matches(ClassNameMatcher.State state, Path classFile) {
+        String fileName = classFile.getFileName().toString();
+        return state.matches(fileName.substring(0, fileName.length() - ".class".length()));
+    }
+
+    private static final class PackageDirectory {
+
+        private final Path path;
+        private final ClassNameMatcher.State state;
+
+        PackageDirectory(Path path, ClassNameMatcher.State state) {
+            this.path = path;
+            this.state = state;
+        }
+
+        /**
+         * @return the sub-package directory, {@code null} if no class of its sub-tree can match
+         */
+        PackageDirectory enter(Path subPackagePath) {
+            ClassNameMatcher.State subPackageState = state.enter(subPackagePath.getFileName().toString());
+            return subPackageState.isPruned() ? null : new PackageDirectory(subPackagePath, subPackageState);
+        }
+    }
+
+    private class PackageDirectoryTask extends RecursiveTask<Integer> {
+
+        private final PackageDirectory packageDirectory;
+        private final ClassFileVisitor visitor;
+
+        PackageDirectoryTask(PackageDirectory packageDirectory, ClassFileVisitor visitor) {
+            this.packageDirectory = packageDirectory;
+            this.visitor = visitor;
+        }
+
+        @Override
+        protected Integer compute() {
+            List<PackageDirectoryTask> subPackageTasks = new ArrayList<>();
+            int visitedClassFiles = 0;
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(packageDirectory.path)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                    String resourceName = toResourceName(entry);
+
+                    if (attrs.isDirectory()) {
+                        PackageDirectory subPackageDirectory = packageDirectory.enter(entry);
+                        if (subPackageDirectory == null)
+                            continue;
+
+                        PackageDirectoryTask subPackageTask = new PackageDirectoryTask(subPackageDirectory, visitor);
+                        subPackageTask.fork();
+                        subPackageTasks.add(subPackageTask);
+                    } else if (attrs.isRegularFile() && ClassFile.isClassFile(resourceName) && matches(packageDirectory.state, entry)) {
+                        visitor.visitClassFile(new ClassFile(getPath(), resourceName, () -> Files.newInputStream(entry)));
+                        visitedClassFiles++;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot scan package directory: " + packageDirectory.path, e);
+            }
+
+            for (PackageDirectoryTask subPackageTask : subPackageTasks)
+                visitedClassFiles += subPackageTask.join();
+
+            return visitedClassFiles;
+        }
+    }
+
+    private class PackageDirectoryCursor implements ClassFileCursor {
+
+        private final Deque<PackageDirectory> packageDirectories;
+        private final Deque<ClassFile> classFiles = new ArrayDeque<>();
+
+        PackageDirectoryCursor(Deque<PackageDirectory> packageDirectories) {
+            this.packageDirectories = packageDirectories;
+        }
+
+        @Override
+        public ClassFile next() throws IOException {
+            while (classFiles.isEmpty() && !packageDirectories.isEmpty())
+                list(packageDirectories.pop());
+
+            return classFiles.poll();
+        }
+
+        private void list(PackageDirectory packageDirectory) throws IOException {
+            List<PackageDirectory> subPackageDirectories = new ArrayList<>();
+            List<ClassFile> packageClassFiles = new ArrayList<>();
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(packageDirectory.path)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                    String resourceName = toResourceName(entry);
+
+                    if (attrs.isDirectory()) {
+                        PackageDirectory subPackageDirectory = packageDirectory.enter(entry);
+                        if (subPackageDirectory != null)
+                            subPackageDirectories.add(subPackageDirectory);
+                    } else if (attrs.isRegularFile() && ClassFile.isClassFile(resourceName) && matches(packageDirectory.state, entry)) {
+                        packageClassFiles.add(new ClassFile(getPath(), resourceName, () -> Files.newInputStream(entry)));
+                    }
+                }
+            }
+
+            packageClassFiles.sort(Comparator.comparing(ClassFile::getResourceName));
+            classFiles.addAll(packageClassFiles);
+
+            subPackageDirectories.sort(Comparator.comparing((PackageDirectory d) -> d.path).reversed());
+            subPackageDirectories.forEach(packageDirectories::push);
+        }
+
+        @Override
+        public void close() {
+            packageDirectories.clear();
+            classFiles.clear();
+        }
+    }
+
+    private class ClassFileTreeVisitor extends SimpleFileVisitor<Path> {
+
+        private final PackageDirectory startDirectory;
+        private final ClassFileVisitor visitor;
+        private final Deque<PackageDirectory> packageDirectories = new ArrayDeque<>();
+
+        ClassFileTreeVisitor(PackageDirectory startDirectory, ClassFileVisitor visitor) {
+            this.startDirectory = startDirectory;
+            this.visitor = visitor;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            PackageDirectory packageDirectory = packageDirectories.isEmpty() ? startDirectory : packageDirectories.peek().enter(dir);
+            if (packageDirectory == null)
+                return FileVisitResult.SKIP_SUBTREE;
+
+            packageDirectories.push(packageDirectory);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+            String resourceName = toResourceName(file);
+
+            if (attrs.isRegularFile() && ClassFile.isClassFile(resourceName) && matches(packageDirectories.peek().state, file))
+                visitor.visitClassFile(new ClassFile(getPath(), resourceName, () -> Files.newInputStream(file)));
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+            if (exc != null)
+                throw exc;
+
+            packageDirectories.pop();
+            return FileVisitResult.CONTINUE;
+        }
+    }
+}
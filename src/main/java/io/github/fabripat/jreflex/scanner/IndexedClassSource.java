@@ -0,0 +1,237 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+/**
+ * <p>
+ * Source of the classes of a set of roots, indexing every resource of the roots by name once.
+ * </p>
+ * <p>
+ * Jars are opened once, multi-release jars in their runtime version, and stay open until the source is closed.
+ * The first root containing a resource wins, as on a classpath.
+ * </p>
+ */
+final class IndexedClassSource implements ClassSource {
+
+    private static final Logger log = Logger.getLogger(IndexedClassSource.class.getName());
+
+    private final ClasspathScanner scanner;
+    private final List<JarFile> jars = new ArrayList<>();
+    private final Map<String, IndexedResource> resources = new HashMap<>();
+    private final IndexedClassLoader classLoader;
+
+    IndexedClassSource(ClasspathScanner scanner, ClassLoader parent) {
+        this.scanner = scanner;
+
+        for (Path root : scanner.getRoots()) {
+            try {
+                index(root);
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException("Cannot index classpath root: " + root, e);
+            } catch (UncheckedIOException e) {
+                close();
+                throw e;
+            }
+        }
+        this.classLoader = new IndexedClassLoader(parent, resources);
+    }
+
+    @Override
+    public ClasspathScanner getScanner() {
+        return scanner;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    @Override
+    public void close() {
+        for (JarFile jar : jars) {
+            try {
+                jar.close();
+            } catch (IOException e) {
+                log.log(Level.FINE, e, () -> "Cannot close indexed jar: " + jar.getName());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s", classLoader, scanner.getRoots());
+    }
+
+    private void index(Path root) throws IOException {
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(Files::isRegularFile).forEach(file -> {
+                    String name = root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+                    resources.putIfAbsent(name, new IndexedResource(root, name, file, null, null));
+                });
+            }
+            return;
+        }
+
+        JarFile jar = new JarFile(root.toFile(), false, ZipFile.OPEN_READ, JarFile.runtimeVersion());
+        jars.add(jar);
+        jar.versionedStream()
+                .filter(entry -> !entry.isDirectory())
+                .forEach(entry -> resources.putIfAbsent(entry.getName(), new IndexedResource(root, entry.getName(), null, jar, entry)));
+    }
+
+    /**
+     * A resource of a root, either a file of a directory or an entry of a jar.
+     */
+    private static final class IndexedResource {
+
+        private final Path root;
+        private final String name;
+        private final Path file;
+        private final JarFile jar;
+        private final JarEntry entry;
+
+        IndexedResource(Path root, String name, Path file, JarFile jar, JarEntry entry) {
+            this.root = root;
+            this.name = name;
+            this.file = file;
+            this.jar = jar;
+            this.entry = entry;
+        }
+
+        InputStream open() throws IOException {
+            return jar != null ? jar.getInputStream(entry) : Files.newInputStream(file);
+        }
+
+        URL toURL() throws MalformedURLException {
+            return jar != null ? new URL("jar:" + root.toUri() + "!/" + name) : file.toUri().toURL();
+        }
+    }
+
+    /**
+     * Class loader defining the classes of the index, looking up the classes of the platform and the jReflex
+     * annotations in its parent first.
+     */
+    private static final class IndexedClassLoader extends ClassLoader {
+
+        private static final List<String> PARENT_FIRST_PACKAGES = List.of(
+                "java.", "javax.", "jdk.", "sun.", "io.github.fabripat.jreflex.annotations.");
+
+        static {
+            registerAsParallelCapable();
+        }
+
+        private final Map<String, IndexedResource> resources;
+        private final Map<Path, ProtectionDomain> protectionDomains = new ConcurrentHashMap<>();
+
+        IndexedClassLoader(ClassLoader parent, Map<String, IndexedResource> resources) {
+            super("jreflex-indexed", parent);
+            this.resources = resources;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (isParentFirst(name) || !resources.containsKey(toResourceName(name)))
+                return super.loadClass(name, resolve);
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loadedClass = findLoadedClass(name);
+                if (loadedClass == null)
+                    loadedClass = findClass(name);
+
+                if (resolve)
+                    resolveClass(loadedClass);
+                return loadedClass;
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            IndexedResource resource = resources.get(toResourceName(name));
+            if (resource == null)
+                throw new ClassNotFoundException(name);
+
+            byte[] bytecode;
+            try (InputStream in = resource.open()) {
+                bytecode = in.readAllBytes();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+
+            definePackageOf(name);
+            return defineClass(name, bytecode, 0, bytecode.length, getProtectionDomain(resource.root));
+        }
+
+        @Override
+        protected URL findResource(String name) {
+            IndexedResource resource = resources.get(name);
+            try {
+                return resource != null ? resource.toURL() : null;
+            } catch (MalformedURLException e) {
+                log.log(Level.FINE, e, () -> "Cannot resolve the URL of indexed resource: " + name);
+                return null;
+            }
+        }
+
+        @Override
+        protected Enumeration<URL> findResources(String name) {
+            URL url = findResource(name);
+            return url != null ? Collections.enumeration(List.of(url)) : Collections.emptyEnumeration();
+        }
+
+        private void definePackageOf(String className) {
+            int lastDot = className.lastIndexOf('.');
+            if (lastDot < 0)
+                return;
+
+            String packageName = className.substring(0, lastDot);
+            if (getDefinedPackage(packageName) == null) {
+                try {
+                    definePackage(packageName, null, null, null, null, null, null, null);
+                } catch (IllegalArgumentException e) {
+                    // defined concurrently by another class of the package
+                }
+            }
+        }
+
+        private ProtectionDomain getProtectionDomain(Path root) {
+            return protectionDomains.computeIfAbsent(root, r -> {
+                try {
+                    return new ProtectionDomain(new CodeSource(r.toUri().toURL(), (Certificate[]) null), null, this, null);
+                } catch (MalformedURLException e) {
+                    throw new IllegalStateException("Cannot resolve the URL of classpath root: " + r, e);
+                }
+            });
+        }
+
+        private static boolean isParentFirst(String className) {
+            for (String packagePrefix : PARENT_FIRST_PACKAGES) {
+                if (className.startsWith(packagePrefix))
+                    return true;
+            }
+            return false;
+        }
+
+        private static String toResourceName(String className) {
+            return className.replace('.', '/').concat(".class");
+        }
+    }
+}
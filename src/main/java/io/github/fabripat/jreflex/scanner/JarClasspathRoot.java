@@ -0,0 +1,256 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * <p>
+ * Classpath root backed by a jar archive.
+ * </p>
+ * <p>
+ * The central directory of the archive is read once and every entry is matched against
+ * all the requested packages in the same pass. When visited in parallel, the matching entries
+ * are split in fork-join tasks sharing the same open archive. When traversed incrementally, the
+ * archive stays open until the cursor is closed.
+ * </p>
+ * <p>
+ * Entries are matched against the {@link ClassNameMatcher} through the state of their package, computed
+ * once for every run of entries of the same package.
+ * </p>
+ * <p>
+ * With a directory of persisted {@link ClassNameIndex}es, the class files are instead filtered through the
+ * memory-mapped index of the jar, loaded once, and only the matching entries are looked up in the archive.
+ * </p>
+ */
+class JarClasspathRoot extends ClasspathRoot {
+
+    private final Path indexDirectory;
+    private ClassNameIndex index;
+
+    JarClasspathRoot(Path path) {
+        this(path, null);
+    }
+
+    private JarClasspathRoot(Path path, Path indexDirectory) {
+        super(path);
+        this.indexDirectory = indexDirectory;
+    }
+
+    @Override
+    ClasspathRoot withClassNameIndexes(Path indexDirectory) {
+        return new JarClasspathRoot(getPath(), indexDirectory);
+    }
+
+    @Override
+    void visit(Collection<String> packagePaths, ClassNameMatcher matcher, ClassFileVisitor visitor) throws IOException {
+        if (indexDirectory != null) {
+            try (ZipFile zipFile = new ZipFile(getPath().toFile())) {
+                for (ZipEntry entry : getIndexedEntries(zipFile, packagePaths, matcher))
+                    visitor.visitClassFile(new ClassFile(getPath(), entry.getName(), () -> zipFile.getInputStream(entry)));
+            }
+            return;
+        }
+
+        PackageStates packageStates = new PackageStates(matcher);
+
+        try (ZipFile zipFile = new ZipFile(getPath().toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String resourceName = entry.getName();
+
+                if (!entry.isDirectory()
+                        && ClassFile.isClassFile(resourceName)
+                        && isInPackages(resourceName, packagePaths)
+                        && packageStates.matches(resourceName)) {
+                    visitor.visitClassFile(new ClassFile(getPath(), resourceName, () -> zipFile.getInputStream(entry)));
+                }
+            }
+        }
+    }
+
+    @Override
+    int visitInParallel(Collection<String> packagePaths, ClassNameMatcher matcher, ClassFileVisitor visitor) throws IOException {
+        PackageStates packageStates = new PackageStates(matcher);
+
+        try (ZipFile zipFile = new ZipFile(getPath().toFile())) {
+            List<ZipEntry> classEntries = indexDirectory != null
+                    ? getIndexedEntries(zipFile, packagePaths, matcher)
+                    : zipFile.stream()
+                    .filter(e -> !e.isDirectory()
+                            && ClassFile.isClassFile(e.getName())
+                            && isInPackages(e.getName(), packagePaths)
+                            && packageStates.matches(e.getName()))
+                    .collect(Collectors.toList());
+
+            new ZipEntriesTask(getPath(), zipFile, classEntries, visitor).invoke();
+
+            return classEntries.size();
+        }
+    }
+
+    @Override
+    ClassFileCursor open(Collection<String> packagePaths, ClassNameMatcher matcher) throws IOException {
+        if (indexDirectory != null)
+            return openIndexed(packagePaths, matcher);
+
+        PackageStates packageStates = new PackageStates(matcher);
+        ZipFile zipFile = new ZipFile(getPath().toFile());
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+        return new ClassFileCursor() {
+            @Override
+            public ClassFile next() {
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    String resourceName = entry.getName();
+
+                    if (!entry.isDirectory()
+                            && ClassFile.isClassFile(resourceName)
+                            && isInPackages(resourceName, packagePaths)
+                            && packageStates.matches(resourceName))
+                        return new ClassFile(getPath(), resourceName, () -> zipFile.getInputStream(entry));
+                }
+                return null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                zipFile.close();
+            }
+        };
+    }
+
+    private ClassFileCursor openIndexed(Collection<String> packagePaths, ClassNameMatcher matcher) throws IOException {
+        ZipFile zipFile = new ZipFile(getPath().toFile());
+        Iterator<ZipEntry> entries;
+        try {
+            entries = getIndexedEntries(zipFile, packagePaths, matcher).iterator();
+        } catch (IOException | RuntimeException e) {
+            zipFile.close();
+            throw e;
+        }
+
+        return new ClassFileCursor() {
+            @Override
+            public ClassFile next() {
+                if (!entries.hasNext())
+                    return null;
+
+                ZipEntry entry = entries.next();
+                return new ClassFile(getPath(), entry.getName(), () -> zipFile.getInputStream(entry));
+            }
+
+            @Override
+            public void close() throws IOException {
+                zipFile.close();
+            }
+        };
+    }
+
+    /**
+     * @return the entries of the class files matched by the index of this jar, in the order of the index
+     */
+    private List<ZipEntry> getIndexedEntries(ZipFile zipFile, Collection<String> packagePaths, ClassNameMatcher matcher) throws IOException {
+        List<ZipEntry> entries = new ArrayList<>();
+        for (String resourceName : getIndex().getResourceNames(packagePaths, matcher)) {
+            ZipEntry entry = zipFile.getEntry(resourceName);
+            if (entry == null)
+                throw new IOException("Stale class name index, entry not found: " + resourceName);
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private synchronized ClassNameIndex getIndex() throws IOException {
+        if (index == null)
+            index = ClassNameIndex.load(indexDirectory, getPath());
+        return index;
+    }
+
+    static boolean isInPackages(String resourceName, Collection<String> packagePaths) {
+        for (String packagePath : packagePaths) {
+            if (packagePath.isEmpty()
+                    || resourceName.length() > packagePath.length()
+                    && resourceName.startsWith(packagePath)
+                    && resourceName.charAt(packagePath.length()) == '/')
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Matches the class files of a jar, reusing the state of the package of the previous class file, since
+     * the entries of a package are usually contiguous.
+     */
+    private static final class PackageStates {
+
+        private final ClassNameMatcher matcher;
+        private String packagePath;
+        private ClassNameMatcher.State state;
+
+        PackageStates(ClassNameMatcher matcher) {
+            this.matcher = matcher;
+        }
+
+        boolean matches(String resourceName) {
+            if (matcher.isMatchingAll())
+                return true;
+
+            int lastSlash = resourceName.lastIndexOf('/');
+            String classPackagePath = lastSlash < 0 ? "" : resourceName.substring(0, lastSlash);
+
+            if (!classPackagePath.equals(packagePath)) {
+                packagePath = classPackagePath;
+                state = matcher.enter(classPackagePath);
+            }
+
+            return !state.isPruned()
+                    && state.matches(resourceName.substring(lastSlash + 1, resourceName.length() - ".class".length()));
+        }
+    }
+
+    private static class ZipEntriesTask extends RecursiveAction {
+
+        private static final int THRESHOLD = 64;
+
+        private final Path root;
+        private final ZipFile zipFile;
+        private final List<ZipEntry> entries;
+        private final ClassFileVisitor visitor;
+
+        ZipEntriesTask(Path root, ZipFile zipFile, List<ZipEntry> entries, ClassFileVisitor visitor) {
+            this.root = root;
+            this.zipFile = zipFile;
+            this.entries = entries;
+            this.visitor = visitor;
+        }
+
+        @Override
+        protected void compute() {
+            if (entries.size() > THRESHOLD) {
+                int middle = entries.size() / 2;
+                invokeAll(
+                        new ZipEntriesTask(root, zipFile, entries.subList(0, middle), visitor),
+                        new ZipEntriesTask(root, zipFile, entries.subList(middle, entries.size()), visitor)
+                );
+                return;
+            }
+
+            for (ZipEntry entry : entries) {
+                try {
+                    visitor.visitClassFile(new ClassFile(root, entry.getName(), () -> zipFile.getInputStream(entry)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read " + entry.getName() + " from jar: " + zipFile.getName(), e);
+                }
+            }
+        }
+    }
+}
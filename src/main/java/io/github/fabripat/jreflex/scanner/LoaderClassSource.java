@@ -0,0 +1,30 @@
+package io.github.fabripat.jreflex.scanner;
+
+/**
+ * Source of the classes of an existing class loader, scanning the provided roots.
+ */
+final class LoaderClassSource implements ClassSource {
+
+    private final ClasspathScanner scanner;
+    private final ClassLoader classLoader;
+
+    LoaderClassSource(ClasspathScanner scanner, ClassLoader classLoader) {
+        this.scanner = scanner;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public ClasspathScanner getScanner() {
+        return scanner;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    @Override
+    public String toString() {
+        return classLoader.toString();
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.fabripat.jreflex.scanner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.module.ModuleReader;
+import java.lang.module.ModuleReference;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * Classpath root backed by a named module of a {@link ModuleLayer}, e.g. a modular jar or an exploded module
+ * of the module path.
+ * </p>
+ * <p>
+ * The packages of the module are known from its descriptor, so that a module containing none of the requested
+ * packages, or only packages pruned by the {@link ClassNameMatcher}, is never opened. The content of the other
+ * modules is listed once through their {@link ModuleReader}. When visited in parallel, the class files of every
+ * package become a fork-join task sharing the same open reader. When traversed incrementally, the reader stays
+ * open until the cursor is closed.
+ * </p>
+ */
+class ModuleClasspathRoot extends ClasspathRoot {
+
+    private final ModuleReference reference;
+
+    ModuleClasspathRoot(Path path, ModuleReference reference) {
+        super(path);
+        this.reference = reference;
+    }
+
+    @Override
+    void visit(Collection<String> packagePaths, ClassNameMatcher matcher, ClassFileVisitor visitor) throws IOException {
+        Map<String, ClassNameMatcher.State> packageStates = getPackageStates(packagePaths, matcher);
+        if (packageStates.isEmpty())
+            return;
+
+        try (ModuleReader reader = reference.open();
+             Stream<String> resourceNames = reader.list()) {
+            for (Iterator<String> it = resourceNames.iterator(); it.hasNext(); ) {
+                String resourceName = it.next();
+                if (matches(resourceName, packageStates))
+                    visitor.visitClassFile(newClassFile(reader, resourceName));
+            }
+        }
+    }
+
+    @Override
+    int visitInParallel(Collection<String> packagePaths, ClassNameMatcher matcher, ClassFileVisitor visitor) throws IOException {
+        Map<String, ClassNameMatcher.State> packageStates = getPackageStates(packagePaths, matcher);
+        if (packageStates.isEmpty())
+            return 0;
+
+        try (ModuleReader reader = reference.open();
+             Stream<String> resourceNames = reader.list()) {
+            Map<String, List<String>> classFilesByPackage = resourceNames
+                    .filter(r -> matches(r, packageStates))
+                    .collect(Collectors.groupingBy(ModuleClasspathRoot::getPackagePath));
+
+            List<RecursiveTask<Integer>> packageTasks = classFilesByPackage.values().stream()
+                    .map(classFiles -> new RecursiveTask<Integer>() {
+                        @Override
+                        protected Integer compute() {
+                            for (String resourceName : classFiles) {
+                                try {
+                                    visitor.visitClassFile(newClassFile(reader, resourceName));
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException("Cannot read " + resourceName + " from module: " + getModuleName(), e);
+                                }
+                            }
+                            return classFiles.size();
+                        }
+                    })
+                    .collect(Collectors.toList());
+
+            return ForkJoinTask.invokeAll(packageTasks).stream()
+                    .mapToInt(ForkJoinTask::join)
+                    .sum();
+        }
+    }
+
+    @Override
+    ClassFileCursor open(Collection<String> packagePaths, ClassNameMatcher matcher) throws IOException {
+        Map<String, ClassNameMatcher.State> packageStates = getPackageStates(packagePaths, matcher);
+        if (packageStates.isEmpty())
+            return EmptyCursor.INSTANCE;
+
+        ModuleReader reader = reference.open();
+        Stream<String> resourceNames = reader.list();
+        Iterator<String> it = resourceNames.iterator();
+
+        return new ClassFileCursor() {
+            @Override
+            public ClassFile next() {
+                while (it.hasNext()) {
+                    String resourceName = it.next();
+                    if (matches(resourceName, packageStates))
+                        return newClassFile(reader, resourceName);
+                }
+                return null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try (reader) {
+                    resourceNames.close();
+                }
+            }
+        };
+    }
+
+    private String getModuleName() {
+        return reference.descriptor().name();
+    }
+
+    /**
+     * @return the state of every package of the module contained in the provided packages and not pruned,
+     * by package path
+     */
+    private Map<String, ClassNameMatcher.State> getPackageStates(Collection<String> packagePaths, ClassNameMatcher matcher) {
+        Map<String, ClassNameMatcher.State> packageStates = new HashMap<>();
+        for (String packageName : reference.descriptor().packages()) {
+            String packagePath = packageName.replace('.', '/');
+            if (!isInPackages(packagePath, packagePaths))
+                continue;
+
+            ClassNameMatcher.State state = matcher.enter(packagePath);
+            if (!state.isPruned())
+                packageStates.put(packagePath, state);
+        }
+        return packageStates;
+    }
+
+    private ClassFile newClassFile(ModuleReader reader, String resourceName) {
+        return new ClassFile(getPath(), resourceName, () -> reader.open(resourceName)
+                .orElseThrow(() -> new IOException("Class file not found in module " + getModuleName() + ": " + resourceName)));
+    }
+
+    private static boolean matches(String resourceName, Map<String, ClassNameMatcher.State> packageStates) {
+        if (!ClassFile.isClassFile(resourceName))
+            return false;
+
+        ClassNameMatcher.State state = packageStates.get(getPackagePath(resourceName));
+        return state != null && state.matches(resourceName.substring(
+                resourceName.lastIndexOf('/') + 1, resourceName.length() - ".class".length()));
+    }
+
+    private static boolean isInPackages(String packagePath, Collection<String> packagePaths) {
+        for (String requestedPath : packagePaths) {
+            if (requestedPath.isEmpty()
+                    || packagePath.equals(requestedPath)
+                    || packagePath.startsWith(requestedPath + "/"))
+                return true;
+        }
+        return false;
+    }
+
+    private static String getPackagePath(String resourceName) {
+        int lastSlash = resourceName.lastIndexOf('/');
+        return lastSlash < 0 ? "" : resourceName.substring(0, lastSlash);
+    }
+
+    private enum EmptyCursor implements ClassFileCursor {
+
+        INSTANCE;
+
+        @Override
+        public ClassFile next() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
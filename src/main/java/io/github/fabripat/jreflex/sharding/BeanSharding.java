@@ -0,0 +1,191 @@
+package io.github.fabripat.jreflex.sharding;
+
+import io.github.fabripat.jreflex.index.BeanIndexEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * This class splits the testable classes in a number of shards, so that every JVM fork or CI node
+ * verifies only its own slice of the beans.
+ * </p>
+ * <p>
+ * By default a class belongs to the shard given by a stable hash of its name modulo the number of
+ * shards: every node assigns the classes the same way without coordination, and classes are selected
+ * lazily as they are discovered.
+ * </p>
+ * <p>
+ * When balanced by the costs of the classes, e.g. the check times recorded by a previous run, classes are
+ * assigned greedily, costliest first, to the shard with the lowest total cost. Every node must discover the
+ * same classes and use the same costs, and the whole discovery completes before the first class of the shard
+ * is selected. When a discovered class has no recorded cost, e.g. a bean added since the costs were recorded,
+ * every node falls back to the hash of the class names, so that no class is skipped nor verified twice.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class BeanSharding {
+
+    /**
+     * The system property overriding the number of shards.
+     */
+    public static final String SHARD_COUNT_PROPERTY = "jreflex.shard.count";
+
+    /**
+     * The system property overriding the index of the shard to verify, from {@code 0} to the number of
+     * shards excluded.
+     */
+    public static final String SHARD_INDEX_PROPERTY = "jreflex.shard.index";
+
+    /**
+     * The system property setting the report of a previous run holding the costs of the classes
+     * of a balanced sharding, required to balance the shards.
+     */
+    public static final String SHARD_COSTS_PROPERTY = "jreflex.shard.costs";
+
+    private static final Logger log = Logger.getLogger(BeanSharding.class.getName());
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int shardIndex;
+    private final int shardCount;
+    private final Map<String, Long> costs;
+
+    private BeanSharding(int shardIndex, int shardCount, Map<String, Long> costs) {
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+        this.costs = costs;
+    }
+
+    /**
+     * @param shardIndex the index of the shard to verify, from {@code 0} to {@code shardCount} excluded
+     * @param shardCount the number of shards
+     * @return the sharding assigning the classes by the hash of their name
+     * @throws IllegalArgumentException if the number of shards is not positive or the index is out of range
+     */
+    public static BeanSharding of(int shardIndex, int shardCount) {
+        if (shardCount < 1)
+            throw new IllegalArgumentException("Shard count must be positive, was: " + shardCount);
+        if (shardIndex < 0 || shardIndex >= shardCount)
+            throw new IllegalArgumentException(String.format("Shard index must be between 0 and %d, was: %d", shardCount - 1, shardIndex));
+
+        return new BeanSharding(shardIndex, shardCount, null);
+    }
+
+    /**
+     * @return the sharding of a single shard, selecting every class
+     */
+    public static BeanSharding none() {
+        return of(0, 1);
+    }
+
+    /**
+     * @param costs the costs of the classes by class name, e.g. their check time in nanoseconds
+     * @return a sharding of the same shard balancing the classes by their costs
+     */
+    public BeanSharding balancedBy(Map<String, Long> costs) {
+        return new BeanSharding(shardIndex, shardCount, Map.copyOf(costs));
+    }
+
+    /**
+     * @return the index of the shard to verify
+     */
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    /**
+     * @return the number of shards
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @return {@code true} if the classes are balanced by their costs
+     */
+    public boolean isBalanced() {
+        return costs != null;
+    }
+
+    /**
+     * Selects the entries of the classes of the shard to verify, in their original order.
+     *
+     * @param entries the entries of every testable class
+     * @return the entries of the classes of the shard, selected lazily unless balanced
+     */
+    public Stream<BeanIndexEntry> select(Stream<BeanIndexEntry> entries) {
+        if (shardCount == 1)
+            return entries;
+
+        if (!isBalanced())
+            return entries.filter(e -> shardOf(e.getClassName(), shardCount) == shardIndex);
+
+        List<BeanIndexEntry> allEntries;
+        try (entries) {
+            allEntries = entries.collect(Collectors.toList());
+        }
+
+        List<String> classNames = allEntries.stream().map(BeanIndexEntry::getClassName).collect(Collectors.toList());
+        List<String> classNamesWithoutCost = classNames.stream()
+                .filter(c -> !costs.containsKey(c))
+                .collect(Collectors.toList());
+
+        if (!classNamesWithoutCost.isEmpty()) {
+            log.warning(() -> String.format("Cannot balance shards, %d classes have no recorded cost, e.g. { %s }: sharding by the hash of the class names",
+                    classNamesWithoutCost.size(), classNamesWithoutCost.get(0)));
+            return allEntries.stream().filter(e -> shardOf(e.getClassName(), shardCount) == shardIndex);
+        }
+
+        Set<String> shardClassNames = assign(classNames);
+        return allEntries.stream().filter(e -> shardClassNames.contains(e.getClassName()));
+    }
+
+    /**
+     * @param className  the binary name of a class
+     * @param shardCount the number of shards
+     * @return the shard of the class by the hash of its name, the same on every JVM
+     */
+    public static int shardOf(String className, int shardCount) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : className.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return (int) Long.remainderUnsigned(hash, shardCount);
+    }
+
+    private Set<String> assign(List<String> classNames) {
+        List<String> costliestFirst = classNames.stream()
+                .distinct()
+                .sorted(Comparator.comparingLong((String c) -> costs.get(c)).reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .collect(Collectors.toList());
+
+        long[] shardCosts = new long[shardCount];
+        Set<String> shardClassNames = new HashSet<>();
+
+        for (String className : costliestFirst) {
+            int cheapestShard = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (shardCosts[shard] < shardCosts[cheapestShard])
+                    cheapestShard = shard;
+            }
+
+            shardCosts[cheapestShard] += costs.get(className);
+            if (cheapestShard == shardIndex)
+                shardClassNames.add(className);
+        }
+        return shardClassNames;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("shard %d of %d%s", shardIndex + 1, shardCount, isBalanced() ? " balanced by cost" : "");
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.fabripat.jreflex.verification;
+
+import io.github.fabripat.jreflex.descriptor.BeanDescriptor;
+import io.github.fabripat.jreflex.metrics.BeanTestMetrics;
+
+/**
+ * <p>
+ * The checks run by the {@link BeanVerifier} on every bean, in the order they are run. Optional checks are
+ * only run when enabled on the verifier, see {@link BeanVerifier#getChecks()}.
+ * </p>
+ * <p>
+ * Every check is independent of the others, so that the checks of a bean can be reported and run
+ * on their own, e.g. as dynamic tests executed concurrently. The time taken by every check is recorded
+ * in the {@link BeanTestMetrics}.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public enum BeanCheck {
+
+    /**
+     * The bean has a public no-args constructor, or a creator setting every property at once.
+     */
+    CONSTRUCTOR("hasValidBeanConstructor") {
+        @Override
+        void run(BeanVerifier verifier, BeanDescriptor descriptor) {
+            verifier.verifyConstructor(descriptor);
+        }
+    },
+
+    /**
+     * The getters of the non-final properties return the values passed to their setters, the getters of
+     * a created bean return the values it was created from.
+     */
+    GETTERS_AND_SETTERS("hasValidGettersAndSetters") {
+        @Override
+        void run(BeanVerifier verifier, BeanDescriptor descriptor) {
+            verifier.verifyGettersAndSetters(descriptor);
+        }
+    },
+
+    /**
+     * {@code equals} depends on every non-excluded property and only on them.
+     */
+    EQUALS("hasValidBeanEquals") {
+        @Override
+        void run(BeanVerifier verifier, BeanDescriptor descriptor) {
+            verifier.verifyEquals(descriptor);
+        }
+    },
+
+    /**
+     * {@code hashCode} depends on every non-excluded property and only on them.
+     */
+    HASH_CODE("hasValidBeanHashCode") {
+        @Override
+        void run(BeanVerifier verifier, BeanDescriptor descriptor) {
+            verifier.verifyHashCode(descriptor);
+        }
+    },
+
+    /**
+     * {@code toString} contains the value of every non-excluded property.
+     */
+    TO_STRING("hasValidBeanToString") {
+        @Override
+        void run(BeanVerifier verifier, BeanDescriptor descriptor) {
+            verifier.verifyToString(descriptor);
+        }
+    },
+
+    /**
+     * The hash codes of distinct beans spread over the buckets of a {@code HashMap} as well as the threshold
+     * of the verifier requires. Only run by verifiers {@link BeanVerifier#withHashCodeDistribution(double, int)
+     * measuring the hash code distribution}.
+     */
+    HASH_CODE_DISTRIBUTION("hasWellDistributedHashCode") {
+        @Override
+        void run(BeanVerifier verifier, BeanDescriptor descriptor) {
+            verifier.verifyHashCodeDistribution(descriptor);
+        }
+    },
+
+    /**
+     * {@code toString}, {@code equals} and {@code hashCode} stay within the time and allocated bytes per call of
+     * the budget of the bean or of the verifier. Only run by verifiers {@link BeanVerifier#withPerformanceBudget(long, long)
+     * with a performance budget}.
+     */
+    PERFORMANCE_BUDGET("staysWithinPerformanceBudget") {
+        @Override
+        void run(BeanVerifier verifier, BeanDescriptor descriptor) {
+            verifier.verifyPerformanceBudget(descriptor);
+        }
+    },
+
+    /**
+     * {@code Serializable} beans are equal to themselves once serialized and deserialized, and serialize to no
+     * more bytes than the limit of the verifier. Only run by verifiers {@link BeanVerifier#withSerialization(int, long)
+     * with serialization}.
+     */
+    SERIALIZATION("survivesSerialization") {
+        @Override
+        void run(BeanVerifier verifier, BeanDescriptor descriptor) {
+            verifier.verifySerialization(descriptor);
+        }
+    };
+
+    private final String displayName;
+
+    BeanCheck(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * @return the name of the check as displayed in test reports, e.g. {@code hasValidBeanEquals}
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Runs this check on the provided bean, recording its time in the {@link BeanTestMetrics}.
+     *
+     * @param verifier   the verifier running the check
+     * @param descriptor the descriptor of the bean
+     * @throws AssertionError if the bean fails the check
+     */
+    public void verify(BeanVerifier verifier, BeanDescriptor descriptor) {
+        long start = System.nanoTime();
+        boolean passed = false;
+        try {
+            run(verifier, descriptor);
+            passed = true;
+        } finally {
+            BeanTestMetrics.recordCheck(descriptor.getBeanClass(), displayName, passed, System.nanoTime() - start);
+        }
+    }
+
+    abstract void run(BeanVerifier verifier, BeanDescriptor descriptor);
+}
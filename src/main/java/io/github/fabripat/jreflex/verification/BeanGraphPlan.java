@@ -0,0 +1,143 @@
+package io.github.fabripat.jreflex.verification;
+
+import io.github.fabripat.jreflex.descriptor.BeanCreator;
+import io.github.fabripat.jreflex.descriptor.BeanDescriptor;
+import io.github.fabripat.jreflex.descriptor.BeanProperty;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * The plan building a nested bean of a given type, e.g. the {@code ProductDto} of a {@code LineDto} of an
+ * {@code OrderDto}: the {@link BeanCreator} of the type with the generic types of its parameters, or its
+ * public no-args constructor with the writers and generic types of its writable properties.
+ * </p>
+ * <p>
+ * Plans are computed once per type from its {@link BeanDescriptor} and cached in a {@link ClassValue}, so that
+ * building a bean costs a constructor call and a setter call per property, whatever the number of beans built.
+ * Types without a plan, i.e. interfaces, abstract classes, classes of the JDK and classes without creator nor
+ * writable properties, are mocked by the {@link RandomValues} as before.
+ * </p>
+ */
+final class BeanGraphPlan {
+
+    private static final Logger log = Logger.getLogger(BeanGraphPlan.class.getName());
+
+    private static final ClassValue<Optional<BeanGraphPlan>> PLANS_BY_CLASS = new ClassValue<>() {
+        @Override
+        protected Optional<BeanGraphPlan> computeValue(Class<?> type) {
+            return Optional.ofNullable(compute(type));
+        }
+    };
+
+    private final Class<?> beanClass;
+    private final BeanCreator creator;
+    private final Supplier<Object> instantiator;
+    private final BiConsumer<Object, Object>[] writers;
+    private final Type[] types;
+
+    private BeanGraphPlan(Class<?> beanClass, BeanCreator creator, Supplier<Object> instantiator,
+                          BiConsumer<Object, Object>[] writers, Type[] types) {
+        this.beanClass = beanClass;
+        this.creator = creator;
+        this.instantiator = instantiator;
+        this.writers = writers;
+        this.types = types;
+    }
+
+    /**
+     * @param type the type of a property value
+     * @return the plan building beans of the type, empty if the type is not a bean
+     */
+    static Optional<BeanGraphPlan> of(Class<?> type) {
+        return PLANS_BY_CLASS.get(type);
+    }
+
+    /**
+     * Builds a bean, generating the value of every property through the provided values. Nested values cut by
+     * the values, to break a cycle or to cap the depth of the graph, are left unset.
+     *
+     * @param values the generator of the property values
+     * @return the new bean
+     */
+    Object build(RandomValues values) {
+        if (creator != null) {
+            Object[] arguments = new Object[types.length];
+            for (int i = 0; i < arguments.length; i++)
+                arguments[i] = values.nextNested(types[i]);
+            return creator.create(arguments);
+        }
+
+        Object bean = instantiator.get();
+        for (int i = 0; i < writers.length; i++) {
+            Object value = values.nextNested(types[i]);
+            if (value != null)
+                writers[i].accept(bean, value);
+        }
+        return bean;
+    }
+
+    /**
+     * @return the type of the beans built by this plan
+     */
+    Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BeanGraphPlan compute(Class<?> type) {
+        if (type.isInterface() || type.isPrimitive() || type.isArray() || type.isEnum()
+                || Modifier.isAbstract(type.getModifiers()) || isJdkClass(type))
+            return null;
+
+        BeanDescriptor descriptor;
+        try {
+            descriptor = BeanDescriptor.of(type);
+        } catch (RuntimeException | LinkageError e) {
+            log.fine(() -> String.format("Cannot plan nested beans of { %s }: %s", type.getName(), e));
+            return null;
+        }
+
+        Optional<BeanCreator> creator = descriptor.getCreator();
+        if (creator.isPresent()) {
+            List<BeanProperty> parameters = creator.get().getParameters();
+            if (parameters.isEmpty())
+                return null;
+
+            Type[] types = parameters.stream().map(BeanProperty::getGenericType).toArray(Type[]::new);
+            return new BeanGraphPlan(type, creator.get(), null, null, types);
+        }
+
+        Optional<Supplier<Object>> instantiator = descriptor.getInstantiator();
+        List<BeanProperty> properties = descriptor.getProperties().stream()
+                .filter(p -> !p.isFinal() && p.getWriter().isPresent())
+                .collect(Collectors.toList());
+        if (instantiator.isEmpty() || properties.isEmpty())
+            return null;
+
+        return new BeanGraphPlan(
+                type,
+                null,
+                instantiator.get(),
+                properties.stream().map(p -> p.getWriter().orElseThrow()).toArray(BiConsumer[]::new),
+                properties.stream().map(BeanProperty::getGenericType).toArray(Type[]::new)
+        );
+    }
+
+    private static boolean isJdkClass(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.");
+    }
+
+    @Override
+    public String toString() {
+        return beanClass.getName() + List.of(types);
+    }
+}
@@ -0,0 +1,759 @@
+package io.github.fabripat.jreflex.verification;
+
+import io.github.fabripat.jreflex.annotations.BeanPerformanceBudget;
+import io.github.fabripat.jreflex.descriptor.BeanCreator;
+import io.github.fabripat.jreflex.descriptor.BeanDescriptor;
+import io.github.fabripat.jreflex.descriptor.BeanProperty;
+import io.github.fabripat.jreflex.metrics.BeanTestMetrics;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>
+ * This class verifies the JavaBeans contract of a class through its {@link BeanDescriptor}: a public
+ * no-args constructor, getters returning the values passed to the setters, and {@code equals},
+ * {@code hashCode} and {@code toString} depending on every property but the excluded ones.
+ * </p>
+ * <p>
+ * Records, immutable classes and beans with a builder are verified through their {@link BeanCreator} instead:
+ * beans are created with every property set at once, getters must return the values the bean was created from,
+ * and two beans created from values differing in a single non-excluded property must differ. The setters of
+ * a bean with a builder and a public no-args constructor are verified too.
+ * </p>
+ * <p>
+ * Beans are created, read and written through the accessors linked once by the descriptor, so that
+ * the verification never goes through reflective invocations. Each check fails with an
+ * {@link AssertionError} naming the bean and the property at fault.
+ * </p>
+ * <p>
+ * The {@link #seeded()} verifier generates the values of every check of a bean from its own
+ * {@link RandomStreams stream}, derived from the logged root seed: it is thread-safe and its verifications
+ * are reproducible. Verifiers created with their own {@link RandomValues} are not thread-safe, since the
+ * values are not.
+ * </p>
+ * <p>
+ * A verifier {@link #withHashCodeDistribution(double, int) measuring the hash code distribution} also fails
+ * beans whose hash codes, although consistent with {@code equals}, crowd the buckets of a {@code HashMap}.
+ * A verifier {@link #withPerformanceBudget(long, long) with a performance budget} fails beans whose
+ * {@code toString}, {@code equals} or {@code hashCode} take too long or allocate too much per call, and a
+ * verifier {@link #withSerialization(int, long) with serialization} fails {@link Serializable} beans which do not
+ * survive a serialization round trip or serialize to too many bytes.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class BeanVerifier {
+
+    /**
+     * The default number of values each property is set to when verifying getters and setters.
+     */
+    public static final int DEFAULT_ITERATIONS = 10;
+
+    /**
+     * The default number of beans sampled when measuring the hash code distribution.
+     */
+    public static final int DEFAULT_HASH_CODE_SAMPLES = 4096;
+
+    /**
+     * The number of sampled beans whose properties are changed one at a time when measuring how often a change
+     * moves a bean to another bucket.
+     */
+    private static final int MOVED_BEAN_SAMPLES = 256;
+
+    /**
+     * The number of calls of a method before measuring its cost, enough for the JIT to compile it.
+     */
+    private static final int WARMUP_CALLS = 5_000;
+
+    /**
+     * The number of calls the cost of a method is averaged over.
+     */
+    private static final int MEASURED_CALLS = 1_000;
+
+    /**
+     * The number of values drawn for a property until the text of one is absent from the {@code toString} of the
+     * bean, before verifying that setting it makes the text present.
+     */
+    private static final int MAX_TO_STRING_DRAWS = 16;
+
+    private static final BeanVerifier SEEDED = new BeanVerifier(null, DEFAULT_ITERATIONS, 0, DEFAULT_HASH_CODE_SAMPLES, 0, 0, 0, 0);
+
+    private final RandomValues sharedValues;
+    private final int iterations;
+    private final double minHashCodeQuality;
+    private final int hashCodeSamples;
+    private final long maxNanosPerCall;
+    private final long maxBytesPerCall;
+    private final int serializationSamples;
+    private final long maxSerializedBytes;
+    private final List<BeanCheck> checks;
+
+    /**
+     * Returns the verifier generating the values of every check of a bean from the {@link RandomStreams}
+     * of the check, so that the values only depend on the root seed, the bean and the check.
+     *
+     * @return the thread-safe seeded verifier
+     */
+    public static BeanVerifier seeded() {
+        return SEEDED;
+    }
+
+    private BeanVerifier(RandomValues sharedValues, int iterations, double minHashCodeQuality, int hashCodeSamples,
+                         long maxNanosPerCall, long maxBytesPerCall, int serializationSamples, long maxSerializedBytes) {
+        this.sharedValues = sharedValues;
+        this.iterations = iterations;
+        this.minHashCodeQuality = minHashCodeQuality;
+        this.hashCodeSamples = hashCodeSamples;
+        this.maxNanosPerCall = maxNanosPerCall;
+        this.maxBytesPerCall = maxBytesPerCall;
+        this.serializationSamples = serializationSamples;
+        this.maxSerializedBytes = maxSerializedBytes;
+        this.checks = getChecks(minHashCodeQuality, maxNanosPerCall, maxBytesPerCall, serializationSamples);
+    }
+
+    /**
+     * @param values     the generator of the property values of every check
+     * @param iterations the number of values each property is set to when verifying getters and setters
+     * @throws IllegalArgumentException if the number of iterations is not positive
+     */
+    public BeanVerifier(RandomValues values, int iterations) {
+        if (iterations < 1)
+            throw new IllegalArgumentException("Iterations must be positive, was: " + iterations);
+
+        this.sharedValues = Objects.requireNonNull(values);
+        this.iterations = iterations;
+        this.minHashCodeQuality = 0;
+        this.hashCodeSamples = DEFAULT_HASH_CODE_SAMPLES;
+        this.maxNanosPerCall = 0;
+        this.maxBytesPerCall = 0;
+        this.serializationSamples = 0;
+        this.maxSerializedBytes = 0;
+        this.checks = getChecks(0, 0, 0, 0);
+    }
+
+    /**
+     * <p>
+     * Returns a verifier also running the {@link BeanCheck#HASH_CODE_DISTRIBUTION} check, failing the beans whose
+     * hash code quality is below the provided one.
+     * </p>
+     * <p>
+     * The quality is the lowest of the bucket occupancy of the distinct sampled beans, relative to the occupancy
+     * expected from random hash codes, over the table sizes of a {@code HashMap} growing to hold them, and of the
+     * rate at which changing a single non-excluded property moves a bean to another bucket, relative to the rate
+     * expected from random hash codes. Hash codes as good as random ones have a quality close to {@code 1}.
+     * </p>
+     *
+     * @param minQuality the minimum quality, from {@code 0} to {@code 1}, {@code 0} disabling the check
+     * @param samples    the number of beans created from random values, equal beans being counted once
+     * @return the verifier measuring the hash code distribution, this verifier if nothing changes
+     * @throws IllegalArgumentException if the quality is not between {@code 0} and {@code 1}, or the number of
+     *                                  samples is not positive
+     */
+    public BeanVerifier withHashCodeDistribution(double minQuality, int samples) {
+        if (!(minQuality >= 0 && minQuality <= 1))
+            throw new IllegalArgumentException("Hash code quality must be between 0 and 1, was: " + minQuality);
+        if (samples < 1)
+            throw new IllegalArgumentException("Hash code samples must be positive, was: " + samples);
+
+        if (minQuality == minHashCodeQuality && samples == hashCodeSamples)
+            return this;
+        return new BeanVerifier(sharedValues, iterations, minQuality, samples, maxNanosPerCall, maxBytesPerCall,
+                serializationSamples, maxSerializedBytes);
+    }
+
+    /**
+     * <p>
+     * Returns a verifier also running the {@link BeanCheck#PERFORMANCE_BUDGET} check, failing the beans whose
+     * {@code toString}, {@code equals} or {@code hashCode} exceed the provided budget per call.
+     * </p>
+     * <p>
+     * Every method is called on a bean created from random values, compared to an equal bean, until warmed up,
+     * then its average time and allocated bytes are measured over repeated calls on the current thread. Beans
+     * annotated with {@link BeanPerformanceBudget} are measured against their own budget instead. Times depend on
+     * the machine running the verification, budgets should leave room for the slowest one.
+     * </p>
+     *
+     * @param maxNanosPerCall the maximum average time of a call, in nanoseconds, {@code 0} for no limit
+     * @param maxBytesPerCall the maximum average number of bytes allocated by a call, {@code 0} for no limit
+     * @return the verifier checking the performance budget, disabled if both limits are {@code 0}, this verifier
+     * if nothing changes
+     * @throws IllegalArgumentException if a limit is negative
+     */
+    public BeanVerifier withPerformanceBudget(long maxNanosPerCall, long maxBytesPerCall) {
+        if (maxNanosPerCall < 0)
+            throw new IllegalArgumentException("Nanoseconds per call must not be negative, was: " + maxNanosPerCall);
+        if (maxBytesPerCall < 0)
+            throw new IllegalArgumentException("Bytes per call must not be negative, was: " + maxBytesPerCall);
+
+        if (maxNanosPerCall == this.maxNanosPerCall && maxBytesPerCall == this.maxBytesPerCall)
+            return this;
+        return new BeanVerifier(sharedValues, iterations, minHashCodeQuality, hashCodeSamples, maxNanosPerCall, maxBytesPerCall,
+                serializationSamples, maxSerializedBytes);
+    }
+
+    /**
+     * <p>
+     * Returns a verifier also running the {@link BeanCheck#SERIALIZATION} check on {@link Serializable} beans:
+     * beans created from random values must be equal to themselves once serialized and deserialized, and must not
+     * serialize to more than the provided number of bytes, e.g. because of a heavy field which is not transient.
+     * </p>
+     * <p>
+     * The beans of a check are serialized in a single batch through an {@code ObjectOutputStream} pooled by the
+     * current thread and reused across beans, and read back through a single {@code ObjectInputStream}. The size
+     * of the serialized beans is recorded in the {@link BeanTestMetrics}.
+     * </p>
+     *
+     * @param samples  the number of beans created from random values, {@code 0} disabling the check
+     * @param maxBytes the maximum size of a serialized bean, in bytes, {@code 0} for no limit
+     * @return the verifier checking the serialization, this verifier if nothing changes
+     * @throws IllegalArgumentException if the number of samples or the maximum size is negative
+     */
+    public BeanVerifier withSerialization(int samples, long maxBytes) {
+        if (samples < 0)
+            throw new IllegalArgumentException("Serialization samples must not be negative, was: " + samples);
+        if (maxBytes < 0)
+            throw new IllegalArgumentException("Serialized bytes must not be negative, was: " + maxBytes);
+
+        if (samples == serializationSamples && maxBytes == maxSerializedBytes)
+            return this;
+        return new BeanVerifier(sharedValues, iterations, minHashCodeQuality, hashCodeSamples, maxNanosPerCall, maxBytesPerCall,
+                samples, maxBytes);
+    }
+
+    /**
+     * @return the checks run by this verifier, in the order they are run
+     */
+    public List<BeanCheck> getChecks() {
+        return checks;
+    }
+
+    /**
+     * Returns the checks run by this verifier and their settings, so that a bean which passed the checks of a
+     * verifier is verified again by a verifier with other checks or settings, e.g. by the incremental bean testing.
+     * The values generated by the verifier, which depend on the root seed, are not part of the fingerprint.
+     *
+     * @return the fingerprint of this verifier
+     */
+    public String getFingerprint() {
+        return String.format(Locale.ROOT, "%s;iterations=%d;minHashCodeQuality=%s;hashCodeSamples=%d;maxNanosPerCall=%d;"
+                        + "maxBytesPerCall=%d;serializationSamples=%d;maxSerializedBytes=%d",
+                checks, iterations, minHashCodeQuality, hashCodeSamples, maxNanosPerCall, maxBytesPerCall,
+                serializationSamples, maxSerializedBytes);
+    }
+
+    private static List<BeanCheck> getChecks(double minHashCodeQuality, long maxNanosPerCall, long maxBytesPerCall,
+                                             int serializationSamples) {
+        return List.of(Arrays.stream(BeanCheck.values())
+                .filter(check -> check != BeanCheck.HASH_CODE_DISTRIBUTION || minHashCodeQuality > 0)
+                .filter(check -> check != BeanCheck.PERFORMANCE_BUDGET || maxNanosPerCall > 0 || maxBytesPerCall > 0)
+                .filter(check -> check != BeanCheck.SERIALIZATION || serializationSamples > 0)
+                .toArray(BeanCheck[]::new));
+    }
+
+    /**
+     * Verifies constructor, getters and setters, {@code equals}, {@code hashCode} and {@code toString}
+     * of the provided class, and the hash code distribution, performance budget and serialization if enabled.
+     *
+     * @param clazz the bean class
+     * @throws AssertionError if the class breaks the JavaBeans contract
+     */
+    public void verify(Class<?> clazz) {
+        BeanDescriptor descriptor = BeanDescriptor.of(clazz);
+
+        for (BeanCheck check : getChecks())
+            check.verify(this, descriptor);
+    }
+
+    /**
+     * @param descriptor the descriptor of the bean
+     * @throws AssertionError if the bean has no public no-args constructor or creator, or they fail
+     */
+    public void verifyConstructor(BeanDescriptor descriptor) {
+        Optional<BeanCreator> creator = descriptor.getCreator();
+        if (creator.isPresent()) {
+            Object[] values = nextValues(creator.get(), valuesOf(descriptor, BeanCheck.CONSTRUCTOR));
+            assertNotNull(creator.get().create(values), () -> String.format("{ %s } creator returned null", descriptor.getBeanClass().getName()));
+            return;
+        }
+
+        assertNotNull(newBean(descriptor), () -> String.format("{ %s } constructor returned null", descriptor.getBeanClass().getName()));
+    }
+
+    /**
+     * @param descriptor the descriptor of the bean
+     * @throws AssertionError if a getter of a non-final property does not return the value passed to its setter,
+     *                        or a getter of a created bean does not return the value it was created from
+     */
+    public void verifyGettersAndSetters(BeanDescriptor descriptor) {
+        RandomValues values = valuesOf(descriptor, BeanCheck.GETTERS_AND_SETTERS);
+        Optional<BeanCreator> creator = descriptor.getCreator();
+        if (creator.isPresent()) {
+            verifyCreatedGetters(descriptor, creator.get(), values);
+            if (descriptor.getInstantiator().isEmpty())
+                return;
+        }
+
+        Object bean = newBean(descriptor);
+
+        for (BeanProperty property : getWritableProperties(descriptor, true)) {
+            BiConsumer<Object, Object> writer = property.getWriter().orElseThrow();
+
+            for (int i = 0; i < iterations; i++) {
+                Object value = values.next(property.getGenericType());
+                writer.accept(bean, value);
+
+                Object read = property.getReader().apply(bean);
+                if (!Objects.deepEquals(value, read))
+                    fail(String.format("{ %s } getter of property { %s } returned { %s } after setting { %s }",
+                            descriptor.getBeanClass().getName(), property.getName(), read, value));
+            }
+        }
+    }
+
+    /**
+     * @param descriptor the descriptor of the bean
+     * @throws AssertionError if {@code equals} is not reflexive, or does not depend on exactly the non-excluded properties
+     */
+    public void verifyEquals(BeanDescriptor descriptor) {
+        RandomValues values = valuesOf(descriptor, BeanCheck.EQUALS);
+        String beanName = descriptor.getBeanClass().getName();
+        Optional<BeanCreator> creator = descriptor.getCreator();
+        if (creator.isPresent()) {
+            verifyCreatedEquals(descriptor, creator.get(), values, false);
+            return;
+        }
+
+        Object bean = newBean(descriptor);
+        Object other = newBean(descriptor);
+
+        assertEquals(bean, bean, () -> String.format("{ %s } equals is not reflexive", beanName));
+        assertEquals(bean, other, () -> String.format("{ %s } new beans are not equal", beanName));
+        assertNotEquals(null, bean, () -> String.format("{ %s } is equal to null", beanName));
+        assertNotEquals(bean, new Object(), () -> String.format("{ %s } is equal to an instance of another class", beanName));
+
+        for (BeanProperty property : getWritableProperties(descriptor, true)) {
+            BiConsumer<Object, Object> writer = property.getWriter().orElseThrow();
+            Object value = values.next(property.getGenericType());
+            Object differentValue = values.nextDifferent(property.getGenericType(), value);
+
+            writer.accept(bean, value);
+            writer.accept(other, value);
+            assertEquals(bean, other, () -> String.format("{ %s } beans with equal property { %s } are not equal",
+                    beanName, property.getName()));
+
+            writer.accept(other, differentValue);
+            if (property.isExcluded())
+                assertEquals(bean, other, () -> String.format("{ %s } equals depends on excluded property { %s }",
+                        beanName, property.getName()));
+            else
+                assertNotEquals(bean, other, () -> String.format("{ %s } equals does not depend on property { %s }",
+                        beanName, property.getName()));
+
+            writer.accept(other, value);
+        }
+    }
+
+    /**
+     * @param descriptor the descriptor of the bean
+     * @throws AssertionError if {@code hashCode} differs for equal beans, or does not depend on exactly the
+     *                        non-excluded properties
+     */
+    public void verifyHashCode(BeanDescriptor descriptor) {
+        RandomValues values = valuesOf(descriptor, BeanCheck.HASH_CODE);
+        String beanName = descriptor.getBeanClass().getName();
+        Optional<BeanCreator> creator = descriptor.getCreator();
+        if (creator.isPresent()) {
+            verifyCreatedEquals(descriptor, creator.get(), values, true);
+            return;
+        }
+
+        Object bean = newBean(descriptor);
+        Object other = newBean(descriptor);
+
+        assertEquals(bean.hashCode(), other.hashCode(), () -> String.format("{ %s } new beans have different hash codes", beanName));
+
+        for (BeanProperty property : getWritableProperties(descriptor, true)) {
+            BiConsumer<Object, Object> writer = property.getWriter().orElseThrow();
+            Object value = values.next(property.getGenericType());
+            Object differentValue = values.nextDifferent(property.getGenericType(), value);
+
+            writer.accept(bean, value);
+            writer.accept(other, value);
+            assertEquals(bean.hashCode(), other.hashCode(), () -> String.format(
+                    "{ %s } beans with equal property { %s } have different hash codes", beanName, property.getName()));
+
+            writer.accept(other, differentValue);
+            if (property.isExcluded())
+                assertEquals(bean.hashCode(), other.hashCode(), () -> String.format(
+                        "{ %s } hash code depends on excluded property { %s }", beanName, property.getName()));
+            else
+                assertNotEquals(bean.hashCode(), other.hashCode(), () -> String.format(
+                        "{ %s } hash code does not depend on property { %s }", beanName, property.getName()));
+
+            writer.accept(other, value);
+        }
+    }
+
+    /**
+     * Sets every non-excluded property, one at a time, to a value whose text is absent from the {@code toString}
+     * of the bean, and expects the text in the {@code toString} once set, so that a value cannot be found by
+     * accident, e.g. in the class name or in another property. String properties are set to a token made of the
+     * property name and a random number, other values are drawn again while their text is already present, and
+     * arrays are formatted as {@link Arrays#deepToString(Object[])} does.
+     *
+     * @param descriptor the descriptor of the bean
+     * @throws AssertionError if {@code toString} does not contain the value of every non-excluded property
+     */
+    public void verifyToString(BeanDescriptor descriptor) {
+        RandomValues values = valuesOf(descriptor, BeanCheck.TO_STRING);
+        Optional<BeanCreator> creator = descriptor.getCreator();
+        if (creator.isPresent()) {
+            Object[] createdValues = nextValues(creator.get(), values);
+
+            List<BeanProperty> parameters = creator.get().getParameters();
+            for (int i = 0; i < createdValues.length; i++) {
+                BeanProperty parameter = parameters.get(i);
+                if (parameter.isExcluded())
+                    continue;
+
+                createdValues[i] = nextToStringValue(parameter, creator.get().create(createdValues).toString(), values);
+                verifyToStringContains(descriptor, parameter, creator.get().create(createdValues).toString(), createdValues[i]);
+            }
+            return;
+        }
+
+        Object bean = newBean(descriptor);
+
+        for (BeanProperty property : getWritableProperties(descriptor, false)) {
+            Object value = nextToStringValue(property, bean.toString(), values);
+            property.getWriter().orElseThrow().accept(bean, value);
+
+            verifyToStringContains(descriptor, property, bean.toString(), value);
+        }
+    }
+
+    /**
+     * Creates {@code hashCodeSamples} beans from {@link RandomValues#nextIndependent(Class) independent} random
+     * values, generated into a single reused array, and measures the {@link HashCodeDistribution} of their hash codes. The first beans are then created
+     * again with one property changed at a time, to measure how often the change moves them to another bucket.
+     * Beans with too few distinct values to be measured, e.g. with a single boolean property, pass.
+     *
+     * @param descriptor the descriptor of the bean
+     * @throws AssertionError if the hash code quality is below the threshold of this verifier
+     */
+    public void verifyHashCodeDistribution(BeanDescriptor descriptor) {
+        if (minHashCodeQuality == 0)
+            return;
+
+        RandomValues values = valuesOf(descriptor, BeanCheck.HASH_CODE_DISTRIBUTION);
+        Optional<BeanCreator> creator = descriptor.getCreator();
+        List<BeanProperty> properties = creator.isPresent()
+                ? creator.get().getParameters()
+                : getWritableProperties(descriptor, true);
+
+        Object[] beans = new Object[hashCodeSamples];
+        int[] hashCodes = new int[hashCodeSamples];
+        Object[][] movedValues = new Object[Math.min(MOVED_BEAN_SAMPLES, hashCodeSamples)][];
+        Object[] beanValues = new Object[properties.size()];
+
+        for (int i = 0; i < beans.length; i++) {
+            for (int j = 0; j < beanValues.length; j++)
+                beanValues[j] = values.nextIndependent(properties.get(j).getGenericType());
+
+            beans[i] = newBean(descriptor, creator, properties, beanValues);
+            hashCodes[i] = beans[i].hashCode();
+            if (i < movedValues.length)
+                movedValues[i] = beanValues.clone();
+        }
+
+        HashCodeDistribution distribution = HashCodeDistribution.of(beans, hashCodes);
+        if (!distribution.isMeasurable())
+            return;
+
+        String weakestProperty = null;
+        double weakestMoveRate = 1;
+        for (int j = 0; j < beanValues.length; j++) {
+            BeanProperty property = properties.get(j);
+            if (property.isExcluded())
+                continue;
+
+            int changedBeans = 0;
+            int movedBeans = 0;
+            for (int i = 0; i < movedValues.length; i++) {
+                Object value = movedValues[i][j];
+                movedValues[i][j] = values.nextDifferent(property.getGenericType(), value);
+                Object changed = newBean(descriptor, creator, properties, movedValues[i]);
+                movedValues[i][j] = value;
+
+                if (changed.equals(beans[i]))
+                    continue;
+                changedBeans++;
+                if (distribution.bucketOf(changed.hashCode()) != distribution.bucketOf(hashCodes[i]))
+                    movedBeans++;
+            }
+
+            double moveRate = changedBeans == 0 ? 1 : movedBeans / (changedBeans * distribution.getExpectedMoveRate());
+            if (weakestProperty == null || moveRate < weakestMoveRate) {
+                weakestMoveRate = moveRate;
+                weakestProperty = property.getName();
+            }
+        }
+
+        double quality = Math.min(distribution.getOccupancy(), Math.min(weakestMoveRate, 1));
+        if (quality < minHashCodeQuality)
+            fail(String.format("{ %s } hash code quality { %.2f } is below { %.2f }: %d distinct beans have %d distinct hash codes, "
+                            + "occupy %.0f%% of the expected buckets with up to %d beans per bucket in a table of %d, "
+                            + "and changing property { %s } moves a bean to another bucket %.0f%% of the expected times",
+                    descriptor.getBeanClass().getName(), quality, minHashCodeQuality, distribution.getDistinctBeans(),
+                    distribution.getDistinctHashCodes(), distribution.getOccupancy() * 100, distribution.getLongestBucket(),
+                    distribution.getTableSize(), weakestProperty, weakestMoveRate * 100));
+    }
+
+    /**
+     * Measures the cost per call of {@code toString}, {@code equals} and {@code hashCode} on a bean created from
+     * random values, {@code equals} comparing it to an equal bean so that every property is compared.
+     *
+     * @param descriptor the descriptor of the bean
+     * @throws AssertionError if a method exceeds the budget of the bean, or the global budget of this verifier
+     */
+    public void verifyPerformanceBudget(BeanDescriptor descriptor) {
+        if (maxNanosPerCall == 0 && maxBytesPerCall == 0)
+            return;
+
+        BeanPerformanceBudget budget = descriptor.getBeanClass().getAnnotation(BeanPerformanceBudget.class);
+        long maxNanos = budget != null ? budget.maxNanosPerCall() : maxNanosPerCall;
+        long maxBytes = budget != null ? budget.maxBytesPerCall() : maxBytesPerCall;
+        if (maxNanos == 0 && maxBytes == 0)
+            return;
+
+        RandomValues values = valuesOf(descriptor, BeanCheck.PERFORMANCE_BUDGET);
+        Optional<BeanCreator> creator = descriptor.getCreator();
+        List<BeanProperty> properties = creator.isPresent()
+                ? creator.get().getParameters()
+                : getWritableProperties(descriptor, true);
+
+        Object[] beanValues = new Object[properties.size()];
+        for (int i = 0; i < beanValues.length; i++)
+            beanValues[i] = values.next(properties.get(i).getGenericType());
+
+        Object bean = newBean(descriptor, creator, properties, beanValues);
+        Object other = newBean(descriptor, creator, properties, beanValues.clone());
+
+        List<String> overruns = new ArrayList<>();
+        measure("toString", () -> bean.toString().length(), maxNanos, maxBytes, overruns);
+        measure("equals", () -> bean.equals(other) ? 1 : 0, maxNanos, maxBytes, overruns);
+        measure("hashCode", bean::hashCode, maxNanos, maxBytes, overruns);
+
+        if (!overruns.isEmpty())
+            fail(String.format("{ %s } exceeds its performance budget: %s",
+                    descriptor.getBeanClass().getName(), String.join(", ", overruns)));
+    }
+
+    /**
+     * Serializes beans created from random values and reads them back in a single {@link SerializationRoundTrip}.
+     * Properties whose values are mocked, or plain objects, are left {@code null}, since the serializability of
+     * their actual values cannot be known. Beans which are not {@link Serializable} pass.
+     *
+     * @param descriptor the descriptor of the bean
+     * @throws AssertionError if a bean cannot be serialized, is not equal to itself once deserialized, or
+     *                        serializes to more bytes than the limit of this verifier
+     */
+    public void verifySerialization(BeanDescriptor descriptor) {
+        Class<?> beanClass = descriptor.getBeanClass();
+        if (serializationSamples == 0 || !Serializable.class.isAssignableFrom(beanClass))
+            return;
+
+        RandomValues values = valuesOf(descriptor, BeanCheck.SERIALIZATION);
+        Optional<BeanCreator> creator = descriptor.getCreator();
+        List<BeanProperty> properties = creator.isPresent()
+                ? creator.get().getParameters()
+                : getWritableProperties(descriptor, true);
+
+        Object[] beans = new Object[serializationSamples];
+        Object[] beanValues = new Object[properties.size()];
+        for (int i = 0; i < beans.length; i++) {
+            for (int j = 0; j < beanValues.length; j++) {
+                Object value = values.next(properties.get(j).getGenericType());
+                beanValues[j] = value == null || value.getClass() == Object.class || Mockito.mockingDetails(value).isMock() ? null : value;
+            }
+            beans[i] = newBean(descriptor, creator, properties, beanValues);
+        }
+
+        int[] sizes = new int[beans.length];
+        Object[] deserializedBeans;
+        try {
+            deserializedBeans = SerializationRoundTrip.of(beans, sizes, beanClass.getClassLoader());
+        } catch (NotSerializableException e) {
+            throw new AssertionError(String.format("{ %s } is not serializable, it holds an instance of { %s }",
+                    beanClass.getName(), e.getMessage()), e);
+        } catch (IOException | ClassNotFoundException e) {
+            throw new AssertionError(String.format("{ %s } serialization round trip failed: %s", beanClass.getName(), e), e);
+        }
+
+        long totalBytes = 0;
+        int largest = 0;
+        for (int i = 0; i < beans.length; i++) {
+            totalBytes += sizes[i];
+            if (sizes[i] > sizes[largest])
+                largest = i;
+
+            if (!beans[i].equals(deserializedBeans[i]))
+                fail(String.format("{ %s } deserialized bean { %s } is not equal to the serialized bean { %s }",
+                        beanClass.getName(), deserializedBeans[i], beans[i]));
+        }
+        BeanTestMetrics.recordSerialization(beanClass, beans.length, totalBytes, sizes[largest]);
+
+        if (maxSerializedBytes > 0 && sizes[largest] > maxSerializedBytes)
+            fail(String.format("{ %s } serializes to %d bytes, over %d bytes, e.g. { %s }",
+                    beanClass.getName(), sizes[largest], maxSerializedBytes, beans[largest]));
+    }
+
+    private static void measure(String method, IntSupplier call, long maxNanos, long maxBytes, List<String> overruns) {
+        CallCost cost = CallCost.measure(call, WARMUP_CALLS, MEASURED_CALLS);
+
+        if (maxNanos > 0 && cost.getNanosPerCall() > maxNanos)
+            overruns.add(String.format("%s takes %.0f ns per call, over %d ns", method, cost.getNanosPerCall(), maxNanos));
+        if (maxBytes > 0 && cost.getBytesPerCall() > maxBytes)
+            overruns.add(String.format("%s allocates %.0f bytes per call, over %d bytes", method, cost.getBytesPerCall(), maxBytes));
+    }
+
+    private static Object nextToStringValue(BeanProperty property, String string, RandomValues values) {
+        Object value = null;
+        for (int i = 0; i < MAX_TO_STRING_DRAWS; i++) {
+            value = property.getType() == String.class
+                    ? String.format("%s#%08x", property.getName(), values.next(int.class))
+                    : values.next(property.getGenericType());
+            if (!string.contains(toStringOf(value)))
+                break;
+        }
+        return value;
+    }
+
+    private static void verifyToStringContains(BeanDescriptor descriptor, BeanProperty property, String string, Object value) {
+        String expected = toStringOf(value);
+        if (!string.contains(expected))
+            fail(String.format("{ %s } toString { %s } does not contain property { %s } value { %s }",
+                    descriptor.getBeanClass().getName(), string, property.getName(), expected));
+    }
+
+    /**
+     * @return the text of a value in a {@code toString}, arrays being formatted as {@link Arrays#deepToString(Object[])} does
+     */
+    private static String toStringOf(Object value) {
+        if (value == null || !value.getClass().isArray())
+            return String.valueOf(value);
+
+        String string = Arrays.deepToString(new Object[]{value});
+        return string.substring(1, string.length() - 1);
+    }
+
+    private void verifyCreatedGetters(BeanDescriptor descriptor, BeanCreator creator, RandomValues values) {
+        List<BeanProperty> parameters = creator.getParameters();
+
+        for (int i = 0; i < iterations; i++) {
+            Object[] createdValues = nextValues(creator, values);
+            Object bean = creator.create(createdValues);
+
+            for (int j = 0; j < createdValues.length; j++) {
+                BeanProperty parameter = parameters.get(j);
+                Object read = parameter.getReader().apply(bean);
+                if (!Objects.deepEquals(createdValues[j], read))
+                    fail(String.format("{ %s } getter of property { %s } returned { %s } after creating the bean with { %s }",
+                            descriptor.getBeanClass().getName(), parameter.getName(), read, createdValues[j]));
+            }
+        }
+    }
+
+    /**
+     * Verifies {@code equals}, or {@code hashCode}, creating a bean for every property, from values differing
+     * from the reference values only in that property.
+     */
+    private static void verifyCreatedEquals(BeanDescriptor descriptor, BeanCreator creator, RandomValues values, boolean hashCode) {
+        String beanName = descriptor.getBeanClass().getName();
+        String contract = hashCode ? "hash code" : "equals";
+        List<BeanProperty> parameters = creator.getParameters();
+
+        Object[] createdValues = nextValues(creator, values);
+        Object bean = creator.create(createdValues);
+        Object other = creator.create(createdValues.clone());
+
+        if (hashCode) {
+            assertEquals(bean.hashCode(), other.hashCode(), () -> String.format("{ %s } beans created from equal values have different hash codes", beanName));
+        } else {
+            assertEquals(bean, bean, () -> String.format("{ %s } equals is not reflexive", beanName));
+            assertEquals(bean, other, () -> String.format("{ %s } beans created from equal values are not equal", beanName));
+            assertNotEquals(null, bean, () -> String.format("{ %s } is equal to null", beanName));
+            assertNotEquals(bean, new Object(), () -> String.format("{ %s } is equal to an instance of another class", beanName));
+        }
+
+        for (int i = 0; i < createdValues.length; i++) {
+            BeanProperty parameter = parameters.get(i);
+            Object[] differentValues = createdValues.clone();
+            differentValues[i] = values.nextDifferent(parameter.getGenericType(), createdValues[i]);
+            Object different = creator.create(differentValues);
+
+            boolean equal = hashCode ? bean.hashCode() == different.hashCode() : bean.equals(different);
+            if (parameter.isExcluded() && !equal)
+                fail(String.format("{ %s } %s depends on excluded property { %s }", beanName, contract, parameter.getName()));
+            if (!parameter.isExcluded() && equal)
+                fail(String.format("{ %s } %s does not depend on property { %s }", beanName, contract, parameter.getName()));
+        }
+    }
+
+    private static Object[] nextValues(BeanCreator creator, RandomValues values) {
+        List<BeanProperty> parameters = creator.getParameters();
+        Object[] createdValues = new Object[parameters.size()];
+        for (int i = 0; i < createdValues.length; i++)
+            createdValues[i] = values.next(parameters.get(i).getGenericType());
+        return createdValues;
+    }
+
+    private RandomValues valuesOf(BeanDescriptor descriptor, BeanCheck check) {
+        return sharedValues != null
+                ? sharedValues
+                : new RandomValues(RandomStreams.of(descriptor.getBeanClass(), check));
+    }
+
+    private static Object newBean(BeanDescriptor descriptor) {
+        Supplier<Object> instantiator = descriptor.getInstantiator().orElseThrow(() -> new AssertionError(
+                String.format("{ %s } has no public no-args constructor", descriptor.getBeanClass().getName())));
+
+        return instantiator.get();
+    }
+
+    /**
+     * Creates a bean from the values of the provided properties, through its creator if present or its setters.
+     */
+    private static Object newBean(BeanDescriptor descriptor, Optional<BeanCreator> creator,
+                                  List<BeanProperty> properties, Object[] values) {
+        if (creator.isPresent())
+            return creator.get().create(values);
+
+        Object bean = newBean(descriptor);
+        for (int i = 0; i < values.length; i++)
+            properties.get(i).getWriter().orElseThrow().accept(bean, values[i]);
+        return bean;
+    }
+
+    private static List<BeanProperty> getWritableProperties(BeanDescriptor descriptor, boolean includeExcluded) {
+        return descriptor.getProperties().stream()
+                .filter(p -> !p.isFinal() && p.getWriter().isPresent())
+                .filter(p -> includeExcluded || !p.isExcluded())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.fabripat.jreflex.verification;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.IntSupplier;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * The average time and allocated bytes of a call, e.g. of the {@code toString} of a bean, measured on the
+ * current thread over repeated calls once warmed up, so that the measure reflects the compiled code rather
+ * than the interpreter.
+ * </p>
+ * <p>
+ * Allocations are read from the {@code com.sun.management.ThreadMXBean} of the JVM, less the bytes allocated by
+ * reading them. JVMs without thread allocation accounting only measure the time, the allocated bytes being
+ * unknown.
+ * </p>
+ */
+final class CallCost {
+
+    /**
+     * The allocated bytes of a call when the JVM cannot measure them.
+     */
+    static final long UNKNOWN_BYTES = -1;
+
+    private static final Logger log = Logger.getLogger(CallCost.class.getName());
+
+    private static final com.sun.management.ThreadMXBean THREADS = getAllocationThreadMXBean();
+
+    /**
+     * Written once per measure, so that the JIT cannot eliminate the measured calls.
+     */
+    @SuppressWarnings("unused")
+    private static volatile int sink;
+
+    private final double nanosPerCall;
+    private final double bytesPerCall;
+
+    private CallCost(double nanosPerCall, double bytesPerCall) {
+        this.nanosPerCall = nanosPerCall;
+        this.bytesPerCall = bytesPerCall;
+    }
+
+    /**
+     * Measures the provided call, reducing its result to keep it alive.
+     *
+     * @param call          the measured call
+     * @param warmupCalls   the number of calls before the measure
+     * @param measuredCalls the number of measured calls
+     * @return the average cost of a measured call
+     */
+    static CallCost measure(IntSupplier call, int warmupCalls, int measuredCalls) {
+        int result = 0;
+        for (int i = 0; i < warmupCalls; i++)
+            result += call.getAsInt();
+
+        long threadId = Thread.currentThread().getId();
+        long overhead = allocatedBytes(threadId);
+        long startBytes = allocatedBytes(threadId);
+        overhead = startBytes - overhead;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < measuredCalls; i++)
+            result += call.getAsInt();
+
+        long nanos = System.nanoTime() - start;
+        long endBytes = allocatedBytes(threadId);
+        sink = result;
+
+        double bytesPerCall = THREADS == null
+                ? UNKNOWN_BYTES
+                : Math.max(0, endBytes - startBytes - overhead) / (double) measuredCalls;
+        return new CallCost(nanos / (double) measuredCalls, bytesPerCall);
+    }
+
+    private static long allocatedBytes(long threadId) {
+        return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(threadId);
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationThreadMXBean() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try {
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean allocationThreads = (com.sun.management.ThreadMXBean) threads;
+                if (allocationThreads.isThreadAllocatedMemorySupported()) {
+                    if (!allocationThreads.isThreadAllocatedMemoryEnabled())
+                        allocationThreads.setThreadAllocatedMemoryEnabled(true);
+                    return allocationThreads;
+                }
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            log.fine(() -> "Cannot enable thread allocation accounting: " + e);
+        }
+
+        log.info("Thread allocation accounting is not supported by the JVM, only the time of the calls is measured");
+        return null;
+    }
+
+    /**
+     * @return the average time of a call, in nanoseconds
+     */
+    double getNanosPerCall() {
+        return nanosPerCall;
+    }
+
+    /**
+     * @return the average number of bytes allocated by a call, {@link #UNKNOWN_BYTES} if the JVM cannot measure them
+     */
+    double getBytesPerCall() {
+        return bytesPerCall;
+    }
+}
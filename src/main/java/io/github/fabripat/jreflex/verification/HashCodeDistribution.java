@@ -0,0 +1,175 @@
+package io.github.fabripat.jreflex.verification;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The distribution of the hash codes of a sample of beans over the buckets of a {@code HashMap} holding them.
+ * </p>
+ * <p>
+ * Beans equal to each other are counted once, so that the occupancy of the buckets only depends on the
+ * hash codes of the distinct beans. The occupancy is measured for every power-of-two table size, from the
+ * smallest one of a {@code HashMap} to the one of a map holding every distinct bean, and compared to the
+ * occupancy expected from uniformly random hash codes: the worst ratio is kept, so that hash codes whose high
+ * or low bits are constant fail at the table sizes where it matters.
+ * </p>
+ * <p>
+ * Hash codes are spread and masked as {@code HashMap} does and buckets are counted in a primitive histogram
+ * reused across table sizes, so that measuring thousands of beans allocates nothing but a few arrays.
+ * </p>
+ */
+final class HashCodeDistribution {
+
+    /**
+     * The minimum number of distinct beans whose distribution is measured, fewer beans cannot tell a poor
+     * hash code from the randomness of the sample.
+     */
+    static final int MIN_DISTINCT_BEANS = 32;
+
+    private static final int MIN_TABLE_SIZE = 16;
+    private static final int MAX_TABLE_SIZE = 1 << 30;
+
+    private final int distinctBeans;
+    private final int distinctHashCodes;
+    private final int tableSize;
+    private final int longestBucket;
+    private final double occupancy;
+
+    private HashCodeDistribution(int distinctBeans, int distinctHashCodes, int tableSize, int longestBucket, double occupancy) {
+        this.distinctBeans = distinctBeans;
+        this.distinctHashCodes = distinctHashCodes;
+        this.tableSize = tableSize;
+        this.longestBucket = longestBucket;
+        this.occupancy = occupancy;
+    }
+
+    /**
+     * Measures the distribution of the hash codes of the provided beans.
+     *
+     * @param beans     the sampled beans, possibly equal to each other
+     * @param hashCodes the hash codes of the beans, in the same order
+     * @return the distribution of the hash codes of the distinct beans
+     */
+    static HashCodeDistribution of(Object[] beans, int[] hashCodes) {
+        int[] distinctBeanHashCodes = new int[beans.length];
+        int distinctBeans = 0;
+        int distinctHashCodes = 0;
+
+        // Sorts the beans by hash code, so that only beans with the same hash code are compared through equals
+        long[] keys = new long[beans.length];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = (long) hashCodes[i] << 32 | i;
+        Arrays.sort(keys);
+
+        int[] representatives = new int[16];
+        for (int start = 0, end; start < keys.length; start = end) {
+            int hashCode = (int) (keys[start] >> 32);
+            int representativeCount = 0;
+            for (end = start; end < keys.length && (int) (keys[end] >> 32) == hashCode; end++) {
+                int index = (int) keys[end];
+                if (!isEqualToAny(beans, index, representatives, representativeCount)) {
+                    if (representativeCount == representatives.length)
+                        representatives = Arrays.copyOf(representatives, representativeCount * 2);
+                    representatives[representativeCount++] = index;
+                    distinctBeanHashCodes[distinctBeans++] = hashCode;
+                }
+            }
+            distinctHashCodes++;
+        }
+
+        int tableSize = tableSizeFor(distinctBeans);
+        int[] histogram = new int[tableSize];
+        double occupancy = 1;
+        int longestBucket = 0;
+
+        for (int size = MIN_TABLE_SIZE; size <= tableSize; size <<= 1) {
+            Arrays.fill(histogram, 0, size, 0);
+            for (int i = 0; i < distinctBeans; i++)
+                histogram[bucketOf(distinctBeanHashCodes[i], size)]++;
+
+            int occupiedBuckets = 0;
+            longestBucket = 0;
+            for (int i = 0; i < size; i++) {
+                if (histogram[i] != 0)
+                    occupiedBuckets++;
+                longestBucket = Math.max(longestBucket, histogram[i]);
+            }
+
+            double expectedBuckets = size * (1 - Math.pow(1 - 1.0 / size, distinctBeans));
+            occupancy = Math.min(occupancy, occupiedBuckets / expectedBuckets);
+        }
+
+        return new HashCodeDistribution(distinctBeans, distinctHashCodes, tableSize, longestBucket, occupancy);
+    }
+
+    private static boolean isEqualToAny(Object[] beans, int index, int[] representatives, int representativeCount) {
+        for (int i = 0; i < representativeCount; i++) {
+            if (beans[representatives[i]].equals(beans[index]))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the table size of a {@code HashMap} with the default load factor holding the provided number of entries
+     */
+    private static int tableSizeFor(int entries) {
+        int size = MIN_TABLE_SIZE;
+        while (size < MAX_TABLE_SIZE && size * 3L / 4 < entries)
+            size <<= 1;
+        return size;
+    }
+
+    private static int bucketOf(int hashCode, int tableSize) {
+        return (hashCode ^ (hashCode >>> 16)) & (tableSize - 1);
+    }
+
+    /**
+     * @return whether enough distinct beans were sampled for the distribution to be meaningful
+     */
+    boolean isMeasurable() {
+        return distinctBeans >= MIN_DISTINCT_BEANS;
+    }
+
+    /**
+     * @param hashCode the hash code of a bean
+     * @return the bucket of the bean in a map holding every distinct bean
+     */
+    int bucketOf(int hashCode) {
+        return bucketOf(hashCode, tableSize);
+    }
+
+    /**
+     * @return the probability that two random hash codes fall in different buckets of a map holding every distinct bean
+     */
+    double getExpectedMoveRate() {
+        return 1 - 1.0 / tableSize;
+    }
+
+    int getDistinctBeans() {
+        return distinctBeans;
+    }
+
+    int getDistinctHashCodes() {
+        return distinctHashCodes;
+    }
+
+    int getTableSize() {
+        return tableSize;
+    }
+
+    /**
+     * @return the number of distinct beans in the longest bucket of a map holding every distinct bean
+     */
+    int getLongestBucket() {
+        return longestBucket;
+    }
+
+    /**
+     * @return the lowest ratio, over the table sizes, of the occupied buckets to the buckets expected to be
+     * occupied by random hash codes
+     */
+    double getOccupancy() {
+        return occupancy;
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.fabripat.jreflex.verification;
+
+import org.apache.commons.rng.JumpableUniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * This class derives the random streams the values of the beans are generated from, all of them from a
+ * single root seed logged once per JVM. A failed verification is replayed by setting the logged seed through
+ * the {@value #SEED_PROPERTY} system property.
+ * </p>
+ * <p>
+ * Every bean class has its own stream, seeded by the root seed and the name of the class, and every check
+ * of the bean draws its values from its own jump of the stream of the class. Streams never depend on the
+ * order the beans and checks are run in, nor on the thread running them, so that concurrent verifications
+ * are reproducible and share no generator.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class RandomStreams {
+
+    /**
+     * The system property setting the root seed, to replay the values of a previous run.
+     */
+    public static final String SEED_PROPERTY = "jreflex.seed";
+
+    private static final Logger log = Logger.getLogger(RandomStreams.class.getName());
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private static final long SEED = initSeed();
+
+    private RandomStreams() {
+    }
+
+    /**
+     * @return the root seed of every stream
+     */
+    public static long getSeed() {
+        return SEED;
+    }
+
+    /**
+     * @param name the name of the stream, e.g. the name of a bean class
+     * @return a new stream derived from the root seed and the provided name, the same on every run with the same seed
+     */
+    public static JumpableUniformRandomProvider of(String name) {
+        long nameSeed = SEED ^ mix(name.hashCode() * GOLDEN_GAMMA);
+
+        return (JumpableUniformRandomProvider) RandomSource.XO_RO_SHI_RO_128_PP.create(
+                new long[]{mix(nameSeed + GOLDEN_GAMMA), mix(nameSeed + 2 * GOLDEN_GAMMA)});
+    }
+
+    /**
+     * @param beanClass the bean class
+     * @param check     the check of the bean
+     * @return a new stream of the provided check of the bean, not overlapping the streams of the other checks
+     */
+    public static JumpableUniformRandomProvider of(Class<?> beanClass, BeanCheck check) {
+        JumpableUniformRandomProvider stream = of(beanClass.getName());
+        for (int jump = 0; jump < check.ordinal(); jump++)
+            stream.jump();
+
+        return stream;
+    }
+
+    private static long initSeed() {
+        String seedProperty = System.getProperty(SEED_PROPERTY);
+        if (seedProperty == null) {
+            long seed = RandomSource.createLong();
+            log.info(() -> String.format("Generating bean values from seed { %d }, replay with -D%s=%d", seed, SEED_PROPERTY, seed));
+            return seed;
+        }
+
+        try {
+            long seed = Long.parseLong(seedProperty.trim());
+            log.info(() -> String.format("Replaying bean values from seed { %d }", seed));
+            return seed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid %s system property: %s", SEED_PROPERTY, seedProperty), e);
+        }
+    }
+
+    /**
+     * The finalizer of SplitMix64, spreading close seeds over distinct states.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
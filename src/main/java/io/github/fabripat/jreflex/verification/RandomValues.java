@@ -0,0 +1,345 @@
+package io.github.fabripat.jreflex.verification;
+
+import io.github.fabripat.jreflex.generator.ValueGenerator;
+import io.github.fabripat.jreflex.generator.ValueGenerators;
+import io.github.fabripat.jreflex.metrics.BeanTestMetrics;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.mockito.Mockito;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * This class generates random values of the property types of the beans to verify.
+ * </p>
+ * <p>
+ * Values are generated by the {@link ValueGenerators} when a generator of the type is registered. The values
+ * of immutable types are drawn once per JVM from the {@link RandomStreams stream} of the type into a pool of
+ * up to {@value #POOL_SIZE} distinct values, shared by every instance, and the constants of enums are shuffled
+ * once per instance. Every instance recycles the pools in a ring from a random start, so that generating
+ * them does not allocate. Arrays and the common
+ * collection interfaces are generated directly, with elements of their generic type argument if any.
+ * </p>
+ * <p>
+ * Beans nested in the property values, e.g. the {@code List<LineDto>} of an {@code OrderDto}, are built as
+ * graphs through the {@link BeanGraphPlan} of their type, computed once per type. A nested bean whose type is
+ * already being built, closing a cycle, or nested deeper than {@value #MAX_GRAPH_DEPTH} beans, is left unset.
+ * Any other non-final type is mocked, so that every value is a distinct instance.
+ * </p>
+ * <p>
+ * Every generated value is recorded in the {@link BeanTestMetrics}. Instances are not thread-safe,
+ * since the underlying random provider is not.
+ * </p>
+ *
+ * @author Fabrizio Patruno
+ */
+public final class RandomValues {
+
+    /**
+     * The maximum number of distinct values pooled per type.
+     */
+    public static final int POOL_SIZE = 64;
+
+    /**
+     * The maximum number of beans nested in each other in a generated value.
+     */
+    public static final int MAX_GRAPH_DEPTH = 4;
+
+    private static final int MAX_ATTEMPTS = 100;
+    private static final int MAX_COLLECTION_SIZE = 3;
+
+    private static final Map<Class<?>, Object[]> POOLS = new ConcurrentHashMap<>();
+
+    private final UniformRandomProvider random;
+    private final Map<Class<?>, ValueSource> sourcesByType = new IdentityHashMap<>();
+    private final Map<Type, ValueSource> sourcesByGenericType = new HashMap<>();
+    private final Set<Class<?>> graphPath = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * @param random the source of randomness
+     */
+    public RandomValues(UniformRandomProvider random) {
+        this.random = Objects.requireNonNull(random);
+    }
+
+    /**
+     * @param type the type of the value
+     * @return a random value of the provided type, never {@code null}
+     * @throws IllegalStateException if no value can be generated for the type
+     */
+    public Object next(Class<?> type) {
+        BeanTestMetrics.recordValue(type);
+        return sourceOf(type).next();
+    }
+
+    /**
+     * @param type the generic type of the value, e.g. {@code List<LineDto>}
+     * @return a random value of the provided type, never {@code null}
+     * @throws IllegalStateException if no value can be generated for the type
+     */
+    public Object next(Type type) {
+        if (type instanceof Class)
+            return next((Class<?>) type);
+
+        BeanTestMetrics.recordValue(rawTypeOf(type));
+        return genericSourceOf(type).next();
+    }
+
+    /**
+     * Returns a random value drawn independently of the previous values: pooled values are drawn at a random
+     * position of the pool instead of following the ring, so that the values of the properties of many beans
+     * combine into distinct beans, still without allocating.
+     *
+     * @param type the type of the value
+     * @return a random value of the provided type, never {@code null}
+     * @throws IllegalStateException if no value can be generated for the type
+     */
+    public Object nextIndependent(Class<?> type) {
+        BeanTestMetrics.recordValue(type);
+        return sourceOf(type).nextIndependent(random);
+    }
+
+    /**
+     * @param type the generic type of the value, e.g. {@code List<LineDto>}
+     * @return a random value of the provided type drawn independently of the previous values, never {@code null}
+     * @throws IllegalStateException if no value can be generated for the type
+     * @see #nextIndependent(Class)
+     */
+    public Object nextIndependent(Type type) {
+        return type instanceof Class ? nextIndependent((Class<?>) type) : next(type);
+    }
+
+    /**
+     * @param type  the type of the value
+     * @param value the value to differ from
+     * @return a random value of the provided type, not equal to the provided value
+     * @throws IllegalStateException if no different value can be generated for the type
+     */
+    public Object nextDifferent(Class<?> type, Object value) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Object different = next(type);
+            if (!Objects.deepEquals(different, value))
+                return different;
+        }
+        throw new IllegalStateException("Cannot generate two different values of type: " + type.getName());
+    }
+
+    /**
+     * @param type  the generic type of the value, e.g. {@code List<LineDto>}
+     * @param value the value to differ from
+     * @return a random value of the provided type, not equal to the provided value
+     * @throws IllegalStateException if no different value can be generated for the type
+     */
+    public Object nextDifferent(Type type, Object value) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Object different = next(type);
+            if (!Objects.deepEquals(different, value))
+                return different;
+        }
+        throw new IllegalStateException("Cannot generate two different values of type: " + type.getTypeName());
+    }
+
+    /**
+     * Generates a value nested in a bean being built.
+     *
+     * @param type the generic type of the value
+     * @return a random value of the provided type, {@code null} if it is a bean closing a cycle or too deep
+     */
+    Object nextNested(Type type) {
+        BeanTestMetrics.recordValue(rawTypeOf(type));
+        return type instanceof Class ? sourceOf((Class<?>) type).next() : genericSourceOf(type).next();
+    }
+
+    private ValueSource sourceOf(Class<?> type) {
+        ValueSource source = sourcesByType.get(type);
+        if (source == null) {
+            source = newSource(type);
+            sourcesByType.put(type, source);
+        }
+        return source;
+    }
+
+    private ValueSource newSource(Class<?> type) {
+        Optional<ValueGenerator<?>> generator = ValueGenerators.of(type);
+        if (generator.isPresent()) {
+            ValueGenerator<?> valueGenerator = generator.get();
+            return valueGenerator.isImmutable()
+                    ? new ValuePool(POOLS.computeIfAbsent(type, t -> drawDistinctValues(t, valueGenerator)), random.nextInt(POOL_SIZE))
+                    : () -> valueGenerator.next(random);
+        }
+
+        if (type.isEnum())
+            return newEnumSource(type);
+        if (type.isArray())
+            return () -> nextArray(type.getComponentType());
+        if (type == List.class || type == Collection.class || type == Iterable.class)
+            return () -> new ArrayList<>(List.of(next(String.class)));
+        if (type == Set.class)
+            return () -> new HashSet<>(Set.of(next(String.class)));
+        if (type == Map.class)
+            return () -> new HashMap<>(Map.of(next(String.class), next(String.class)));
+        if (type == Object.class)
+            return Object::new;
+
+        Optional<BeanGraphPlan> plan = BeanGraphPlan.of(type);
+        if (plan.isPresent())
+            return new BeanGraphSource(plan.get());
+        if (!type.isPrimitive() && !Modifier.isFinal(type.getModifiers()))
+            return () -> Mockito.mock(type);
+
+        throw new IllegalStateException("Cannot generate a value of type: " + type.getName());
+    }
+
+    private ValueSource genericSourceOf(Type type) {
+        ValueSource source = sourcesByGenericType.get(type);
+        if (source == null) {
+            source = newGenericSource(type);
+            sourcesByGenericType.put(type, source);
+        }
+        return source;
+    }
+
+    private ValueSource newGenericSource(Type type) {
+        if (type instanceof WildcardType)
+            return genericSourceOf(((WildcardType) type).getUpperBounds()[0]);
+        if (type instanceof TypeVariable)
+            return genericSourceOf(((TypeVariable<?>) type).getBounds()[0]);
+        if (!(type instanceof ParameterizedType))
+            return sourceOf(rawTypeOf(type));
+
+        Class<?> rawType = rawTypeOf(type);
+        Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+        if (rawType == List.class || rawType == Collection.class || rawType == Iterable.class)
+            return () -> nextElements(new ArrayList<>(), arguments[0]);
+        if (rawType == Set.class)
+            return () -> nextElements(new HashSet<>(), arguments[0]);
+        if (rawType == Map.class)
+            return () -> nextEntries(new HashMap<>(), arguments[0], arguments[1]);
+
+        return sourceOf(rawType);
+    }
+
+    private Collection<Object> nextElements(Collection<Object> elements, Type elementType) {
+        for (int i = 1 + random.nextInt(MAX_COLLECTION_SIZE); i > 0; i--) {
+            Object element = nextNested(elementType);
+            if (element != null)
+                elements.add(element);
+        }
+        return elements;
+    }
+
+    private Map<Object, Object> nextEntries(Map<Object, Object> entries, Type keyType, Type valueType) {
+        for (int i = 1 + random.nextInt(MAX_COLLECTION_SIZE); i > 0; i--) {
+            Object key = nextNested(keyType);
+            Object value = nextNested(valueType);
+            if (key != null && value != null)
+                entries.put(key, value);
+        }
+        return entries;
+    }
+
+    private static Class<?> rawTypeOf(Type type) {
+        if (type instanceof Class)
+            return (Class<?>) type;
+        if (type instanceof ParameterizedType)
+            return rawTypeOf(((ParameterizedType) type).getRawType());
+        if (type instanceof GenericArrayType)
+            return Array.newInstance(rawTypeOf(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        if (type instanceof WildcardType)
+            return rawTypeOf(((WildcardType) type).getUpperBounds()[0]);
+        if (type instanceof TypeVariable)
+            return rawTypeOf(((TypeVariable<?>) type).getBounds()[0]);
+
+        throw new IllegalStateException("Cannot generate a value of type: " + type.getTypeName());
+    }
+
+    private static Object[] drawDistinctValues(Class<?> type, ValueGenerator<?> generator) {
+        UniformRandomProvider typeRandom = RandomStreams.of(type.getName());
+
+        Set<Object> values = new LinkedHashSet<>();
+        for (int attempt = 0; attempt < POOL_SIZE * 2 && values.size() < POOL_SIZE; attempt++)
+            values.add(Objects.requireNonNull(generator.next(typeRandom),
+                    () -> "Value generator returned null: " + generator.getClass().getName()));
+
+        return values.toArray();
+    }
+
+    private ValueSource newEnumSource(Class<?> type) {
+        Object[] constants = type.getEnumConstants();
+        if (constants.length == 0)
+            throw new IllegalStateException("Cannot generate a value of enum without constants: " + type.getName());
+
+        List<Object> shuffledConstants = Arrays.asList(constants);
+        Collections.shuffle(shuffledConstants, new Random(random.nextLong()));
+        return new ValuePool(shuffledConstants.toArray(), 0);
+    }
+
+    private Object nextArray(Class<?> componentType) {
+        Object array = Array.newInstance(componentType, 1);
+        Array.set(array, 0, next(componentType));
+        return array;
+    }
+
+    @FunctionalInterface
+    private interface ValueSource {
+        Object next();
+
+        default Object nextIndependent(UniformRandomProvider random) {
+            return next();
+        }
+    }
+
+    /**
+     * Builds the beans of a type through its plan, cutting the beans that would close a cycle or nest too deep.
+     */
+    private final class BeanGraphSource implements ValueSource {
+
+        private final BeanGraphPlan plan;
+
+        private BeanGraphSource(BeanGraphPlan plan) {
+            this.plan = plan;
+        }
+
+        @Override
+        public Object next() {
+            Class<?> beanClass = plan.getBeanClass();
+            if (graphPath.size() >= MAX_GRAPH_DEPTH || !graphPath.add(beanClass))
+                return null;
+
+            try {
+                return plan.build(RandomValues.this);
+            } finally {
+                graphPath.remove(beanClass);
+            }
+        }
+    }
+
+    /**
+     * A ring of distinct immutable values, consecutive values always differ when it holds more than one value.
+     */
+    private static final class ValuePool implements ValueSource {
+
+        private final Object[] values;
+        private int cursor;
+
+        private ValuePool(Object[] values, int start) {
+            this.values = values;
+            this.cursor = start % values.length;
+        }
+
+        @Override
+        public Object next() {
+            Object value = values[cursor];
+            if (++cursor == values.length)
+                cursor = 0;
+            return value;
+        }
+
+        @Override
+        public Object nextIndependent(UniformRandomProvider random) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.fabripat.jreflex.verification;
+
+import java.io.*;
+
+/**
+ * <p>
+ * The round trip of beans through Java serialization, writing them to a growable byte buffer and reading
+ * them back, measuring the size of every serialized bean.
+ * </p>
+ * <p>
+ * Every thread holds its own {@link ObjectOutputStream} over its own buffer, created once and reused across
+ * beans: the stream header is written once, and the stream is reset before every bean, so that every bean is
+ * serialized as if alone, its class descriptors included, and its size does not depend on the beans written
+ * before. The beans of a round trip are read back through a single {@link ObjectInputStream}. Streams failing
+ * mid-write, or whose buffer grew beyond {@value #MAX_POOLED_CAPACITY} bytes, are discarded rather than pooled.
+ * </p>
+ */
+final class SerializationRoundTrip {
+
+    private static final int INITIAL_CAPACITY = 8192;
+    private static final int MAX_POOLED_CAPACITY = 1 << 20;
+
+    private static final ThreadLocal<SerializationRoundTrip> POOL = ThreadLocal.withInitial(SerializationRoundTrip::new);
+
+    private final SerializationBuffer buffer = new SerializationBuffer();
+    private final ObjectOutputStream output;
+    private final int headerLength;
+
+    private SerializationRoundTrip() {
+        try {
+            output = new ObjectOutputStream(buffer);
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        headerLength = buffer.size();
+    }
+
+    /**
+     * Serializes the provided beans and reads them back, through the stream pooled by the current thread.
+     *
+     * @param beans       the serialized beans
+     * @param sizes       the array receiving the size of every serialized bean, in bytes
+     * @param classLoader the class loader resolving the classes of the deserialized beans
+     * @return the deserialized beans, in the same order
+     * @throws NotSerializableException if the graph of a bean holds an instance of a class not serializable
+     * @throws IOException              if a bean cannot be serialized or deserialized
+     * @throws ClassNotFoundException   if the class of a deserialized object cannot be resolved
+     */
+    static Object[] of(Object[] beans, int[] sizes, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        SerializationRoundTrip roundTrip = POOL.get();
+        boolean reusable = false;
+        try {
+            roundTrip.write(beans, sizes);
+            reusable = roundTrip.buffer.capacity() <= MAX_POOLED_CAPACITY;
+            return roundTrip.read(beans.length, classLoader);
+        } finally {
+            if (!reusable)
+                POOL.remove();
+        }
+    }
+
+    private void write(Object[] beans, int[] sizes) throws IOException {
+        buffer.truncate(headerLength);
+        for (int i = 0; i < beans.length; i++) {
+            output.reset();
+            int start = buffer.size();
+            output.writeObject(beans[i]);
+            output.flush();
+            sizes[i] = buffer.size() - start;
+        }
+    }
+
+    private Object[] read(int count, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        Object[] beans = new Object[count];
+        try (ObjectInputStream input = new BeanObjectInputStream(buffer.toInputStream(), classLoader)) {
+            for (int i = 0; i < count; i++)
+                beans[i] = input.readObject();
+        }
+        return beans;
+    }
+
+    /**
+     * A byte buffer read in place and truncated between round trips, so that its array is reused.
+     */
+    private static final class SerializationBuffer extends ByteArrayOutputStream {
+
+        private SerializationBuffer() {
+            super(INITIAL_CAPACITY);
+        }
+
+        private void truncate(int size) {
+            count = size;
+        }
+
+        private int capacity() {
+            return buf.length;
+        }
+
+        private InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+
+    /**
+     * Resolves the classes of the beans through their own class loader, which may be a child of the loader of
+     * jReflex, e.g. the one of the bean index of a build plugin.
+     */
+    private static final class BeanObjectInputStream extends ObjectInputStream {
+
+        private final ClassLoader classLoader;
+
+        private BeanObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+            super(in);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+            if (classLoader != null) {
+                try {
+                    return Class.forName(descriptor.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    // primitive types and classes the bean loader cannot see
+                }
+            }
+            return super.resolveClass(descriptor);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.descriptor.BeanCreator;
+import io.github.fabripat.jreflex.descriptor.BeanDescriptor;
+import io.github.fabripat.jreflex.descriptor.BeanProperty;
+import io.github.fabripat.jreflex.index.BeanKind;
+import io.github.fabripat.jreflex.testdomain.dto.Dto;
+import io.github.fabripat.jreflex.testdomain.dto.DtoWithBuilder;
+import io.github.fabripat.jreflex.testdomain.dto.ImmutableDto;
+import io.github.fabripat.jreflex.testdomain.entity.EntityWithFieldExcluded;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanDescriptorTest {
+
+    private static List<String> names(List<BeanProperty> properties) {
+        return properties.stream().map(BeanProperty::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    void shouldDescribePropertiesSortedByName() {
+        BeanDescriptor descriptor = BeanDescriptor.of(Dto.class);
+
+        assertEquals(List.of("doubleField", "integerField", "localDateField", "localDateTimeField"),
+                names(descriptor.getProperties()));
+        assertTrue(descriptor.getConstructor().isPresent());
+    }
+
+    @Test
+    void shouldRoundTripPropertyThroughHandles() throws Throwable {
+        BeanDescriptor descriptor = BeanDescriptor.of(Dto.class);
+        BeanProperty property = descriptor.getProperty("integerField").orElseThrow();
+
+        Dto dto = (Dto) descriptor.getConstructor().orElseThrow().invoke();
+        property.getSetter().orElseThrow().invoke(dto, 42);
+
+        assertEquals(42, (Integer) property.getGetter().invoke(dto));
+    }
+
+    @Test
+    void shouldFlagExcludedAndFinalProperties() {
+        BeanDescriptor excludedFieldDescriptor = BeanDescriptor.of(EntityWithFieldExcluded.class);
+        assertTrue(excludedFieldDescriptor.getProperty("integerField").orElseThrow().isExcluded());
+        assertFalse(excludedFieldDescriptor.getProperty("doubleField").orElseThrow().isExcluded());
+
+        BeanProperty finalProperty = BeanDescriptor.of(ImmutableDto.class).getProperty("integerField").orElseThrow();
+        assertTrue(finalProperty.isFinal());
+        assertFalse(finalProperty.isExcluded());
+        assertTrue(finalProperty.getSetter().isEmpty());
+    }
+
+    @Test
+    void shouldLinkCreatorOfImmutableBeanAndBeanWithBuilder() {
+        assertEquals(BeanKind.JAVA_BEAN, BeanDescriptor.of(Dto.class).getKind());
+        assertTrue(BeanDescriptor.of(Dto.class).getCreator().isEmpty());
+
+        BeanDescriptor immutableDescriptor = BeanDescriptor.of(BeanVerifierTest.CreatedImmutableBean.class);
+        assertEquals(BeanKind.IMMUTABLE, immutableDescriptor.getKind());
+        BeanVerifierTest.CreatedImmutableBean immutableDto = (BeanVerifierTest.CreatedImmutableBean) immutableDescriptor.getCreator().orElseThrow()
+                .create(42, 4.2, LocalDate.of(2024, 1, 1), null);
+        assertEquals(new BeanVerifierTest.CreatedImmutableBean(42, 4.2, LocalDate.of(2024, 1, 1), null), immutableDto);
+
+        BeanDescriptor builderDescriptor = BeanDescriptor.of(DtoWithBuilder.class);
+        assertEquals(BeanKind.BUILDER, builderDescriptor.getKind());
+        BeanCreator builder = builderDescriptor.getCreator().orElseThrow();
+        assertEquals(List.of("integerField", "doubleField", "localDateField", "localDateTimeField"),
+                names(builder.getParameters()));
+        assertEquals(DtoWithBuilder.builder().integerField(42).build(), builder.create(42, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> builder.create(42));
+    }
+
+    @Test
+    void shouldComputeDescriptorOncePerClass() {
+        assertSame(BeanDescriptor.of(Dto.class), BeanDescriptor.of(Dto.class));
+    }
+
+}
@@ -0,0 +1,199 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.discovery.BeanDiscovery;
+import io.github.fabripat.jreflex.discovery.DiscoveryCache;
+import io.github.fabripat.jreflex.index.BeanIndex;
+import io.github.fabripat.jreflex.index.BeanIndexEntry;
+import io.github.fabripat.jreflex.scanner.ClasspathScanner;
+import io.github.fabripat.jreflex.testdomain.dto.Dto;
+import io.github.fabripat.jreflex.testdomain.dto.DtoWithBuilder;
+import io.github.fabripat.jreflex.testdomain.dto.ImmutableDto;
+import io.github.fabripat.jreflex.testdomain.entity.EntityWithFieldExcluded;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BeanDiscoveryTest {
+
+    private static final List<String> TEST_DOMAIN = List.of("io/github/fabripat/jreflex/testdomain");
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 8})
+    void shouldDiscoverTestableClassesSortedWhateverTheParallelism(int parallelism) {
+        List<String> result = new BeanDiscovery(ClasspathScanner.ofSystemClasspath(), parallelism)
+                .discover(TEST_DOMAIN).stream()
+                .map(BeanIndexEntry::getClassName)
+                .collect(Collectors.toList());
+
+        assertEquals(
+                List.of(
+                        Dto.class.getName(),
+                        DtoWithBuilder.class.getName(),
+                        ImmutableDto.class.getName(),
+                        EntityWithFieldExcluded.class.getName()
+                ),
+                result
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2})
+    void shouldStreamTheDiscoveredClasses(int parallelism) {
+        BeanDiscovery discovery = new BeanDiscovery(ClasspathScanner.ofSystemClasspath(), parallelism);
+
+        try (Stream<BeanIndexEntry> entries = discovery.stream(TEST_DOMAIN)) {
+            assertEquals(
+                    discovery.discover(TEST_DOMAIN).stream().map(BeanIndexEntry::getClassName).collect(Collectors.toSet()),
+                    entries.map(BeanIndexEntry::getClassName).collect(Collectors.toSet())
+            );
+        }
+    }
+
+    @Test
+    void shouldComputeFieldsFromClassFileAsReflectionDoes() {
+        List<BeanIndexEntry> result = new BeanDiscovery(ClasspathScanner.ofSystemClasspath(), 1)
+                .discover(TEST_DOMAIN);
+
+        for (Class<?> clazz : List.of(Dto.class, ImmutableDto.class, EntityWithFieldExcluded.class)) {
+            BeanIndexEntry expected = BeanIndexEntry.of(clazz);
+            BeanIndexEntry actual = result.stream()
+                    .filter(e -> e.getClassName().equals(clazz.getName()))
+                    .findFirst()
+                    .orElseThrow();
+
+            assertEquals(Set.of(expected.getExcludedFields()), Set.of(actual.getExcludedFields()));
+            assertEquals(Set.of(expected.getFinalFields()), Set.of(actual.getFinalFields()));
+        }
+    }
+
+    @Nested
+    class discoveryCache {
+
+        @TempDir
+        Path tempDir;
+
+        private Path dtoClassFile;
+        private DiscoveryCache cache;
+        private ClasspathScanner scanner;
+
+        @BeforeEach
+        void setup() throws IOException, URISyntaxException {
+            Path classes = tempDir.resolve("classes");
+            String resourceName = Dto.class.getName().replace('.', '/') + ".class";
+            dtoClassFile = Files.createDirectories(classes.resolve(resourceName).getParent()).resolve("Dto.class");
+            Files.copy(Path.of(Dto.class.getResource("Dto.class").toURI()), dtoClassFile);
+
+            cache = new DiscoveryCache(tempDir.resolve("cache"));
+            scanner = ClasspathScanner.of(List.of(classes));
+        }
+
+        private List<String> discover() {
+            return new BeanDiscovery(scanner, 1, cache).discover(TEST_DOMAIN).stream()
+                    .map(BeanIndexEntry::getClassName)
+                    .collect(Collectors.toList());
+        }
+
+        private Path getCacheFile() throws IOException {
+            try (Stream<Path> files = Files.list(cache.getDirectory())) {
+                return files.collect(Collectors.toList()).get(0);
+            }
+        }
+
+        @Test
+        void shouldReadCachedRootWithoutScanningIt() throws IOException {
+            assertEquals(List.of(Dto.class.getName()), discover());
+
+            Path cacheFile = getCacheFile();
+            Files.writeString(cacheFile, Files.readString(cacheFile).replace("\tDto\t", "\tCachedDto\t"));
+
+            assertEquals(List.of(Dto.class.getPackageName() + ".CachedDto"), discover());
+        }
+
+        @Test
+        void shouldScanAgainChangedRoot() throws IOException {
+            assertEquals(List.of(Dto.class.getName()), discover());
+
+            Path cacheFile = getCacheFile();
+            Files.writeString(cacheFile, Files.readString(cacheFile).replace("\tDto\t", "\tCachedDto\t"));
+            Files.setLastModifiedTime(dtoClassFile, FileTime.fromMillis(Files.getLastModifiedTime(dtoClassFile).toMillis() + 1000));
+
+            assertEquals(List.of(Dto.class.getName()), discover());
+        }
+
+        @Test
+        void shouldIgnoreMalformedCacheFile() throws IOException {
+            assertEquals(List.of(Dto.class.getName()), discover());
+
+            Files.writeString(getCacheFile(), "garbage");
+
+            assertEquals(List.of(Dto.class.getName()), discover());
+        }
+    }
+
+    @Nested
+    class beanIndex {
+
+        @TempDir
+        Path classes;
+
+        private Path packageDirectory;
+
+        @BeforeEach
+        void setup() throws IOException, URISyntaxException {
+            packageDirectory = Files.createDirectories(classes.resolve(Dto.class.getPackageName().replace('.', '/')));
+            Files.copy(Path.of(Dto.class.getResource("Dto.class").toURI()), packageDirectory.resolve("Dto.class"));
+
+            Path index = Files.createDirectories(classes.resolve(BeanIndex.LOCATION).getParent()).resolve("beans.idx");
+            try (Writer writer = Files.newBufferedWriter(index)) {
+                BeanIndex.of(
+                        List.of(new BeanIndexEntry(Dto.class.getPackageName() + ".IndexedDto", new String[0], new String[0])),
+                        Map.of(Dto.class.getPackageName(), 1)
+                ).write(writer);
+            }
+        }
+
+        private List<String> discover() {
+            return new BeanDiscovery(ClasspathScanner.of(List.of(classes)), 1).discover(TEST_DOMAIN).stream()
+                    .map(BeanIndexEntry::getClassName)
+                    .collect(Collectors.toList());
+        }
+
+        @Test
+        void shouldReadIndexMatchingClassFilesWithoutScanningRoot() {
+            assertEquals(List.of(Dto.class.getPackageName() + ".IndexedDto"), discover());
+        }
+
+        @Test
+        void shouldScanRootWithClassFilesNotMatchingIndex() throws IOException, URISyntaxException {
+            Files.copy(Path.of(DtoWithBuilder.class.getResource("DtoWithBuilder.class").toURI()), packageDirectory.resolve("DtoWithBuilder.class"));
+
+            assertEquals(List.of(Dto.class.getName(), DtoWithBuilder.class.getName()), discover());
+        }
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWithNegativeParallelism() {
+        ClasspathScanner scanner = ClasspathScanner.ofSystemClasspath();
+
+        assertThrows(IllegalArgumentException.class, () -> new BeanDiscovery(scanner, -1));
+    }
+
+}
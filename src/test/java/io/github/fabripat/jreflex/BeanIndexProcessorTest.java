@@ -0,0 +1,204 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.index.BeanIndex;
+import io.github.fabripat.jreflex.index.BeanIndexEntry;
+import io.github.fabripat.jreflex.index.BeanIndexProcessor;
+import io.github.fabripat.jreflex.index.BeanKind;
+import io.github.fabripat.jreflex.testdomain.entity.EntityWithFieldExcluded;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanIndexProcessorTest {
+
+    @TempDir
+    Path outputDir;
+
+    private static JavaFileObject source(String className, String content) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+
+    private void compile(JavaFileObject... sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, null,
+                List.of("-proc:only", "-d", outputDir.toString(), "-classpath", System.getProperty("java.class.path")),
+                null, List.of(sources));
+        task.setProcessors(List.of(new BeanIndexProcessor()));
+
+        assertTrue(task.call());
+    }
+
+    @Test
+    void shouldIndexCandidateBeansWithTheirExcludedFields() {
+        compile(
+                source("com.my.test.dto.Dto", "package com.my.test.dto;\n" +
+                        "public class Dto {\n" +
+                        "    private Integer integerField;\n" +
+                        "    @io.github.fabripat.jreflex.annotations.ExcludeFieldBeanTesting\n" +
+                        "    private Double excludedField;\n" +
+                        "    private final String finalField = null;\n" +
+                        "    public static class Nested {}\n" +
+                        "}"),
+                source("com.my.test.dto.AbstractDto", "package com.my.test.dto;\n" +
+                        "public abstract class AbstractDto {}"),
+                source("com.my.test.dto.ExcludedDto", "package com.my.test.dto;\n" +
+                        "@io.github.fabripat.jreflex.annotations.ExcludeBeanTesting\n" +
+                        "public class ExcludedDto {}"),
+                source("com.my.test.util.Enum", "package com.my.test.util;\n" +
+                        "public enum Enum {}"),
+                source("com.my.test.util.Interface", "package com.my.test.util;\n" +
+                        "public interface Interface {}")
+        );
+
+        BeanIndex index = BeanIndex.read(outputDir).orElseThrow();
+
+        assertEquals(
+                List.of(new BeanIndexEntry("com.my.test.dto.Dto",
+                        new String[]{"excludedField", "finalField"},
+                        new String[]{"finalField"})),
+                index.getEntries(List.of("com/my/test"))
+        );
+    }
+
+    @Test
+    void shouldIndexKindOfImmutableBeansAndBeansWithBuilder() {
+        compile(
+                source("com.my.test.ImmutableDto", "package com.my.test;\n" +
+                        "public class ImmutableDto {\n" +
+                        "    private static final long serialVersionUID = 1L;\n" +
+                        "    private final Integer integerField;\n" +
+                        "    public ImmutableDto(Integer integerField) { this.integerField = integerField; }\n" +
+                        "}"),
+                source("com.my.test.DtoWithBuilder", "package com.my.test;\n" +
+                        "public class DtoWithBuilder {\n" +
+                        "    private Integer integerField;\n" +
+                        "    public static class DtoWithBuilderBuilder {}\n" +
+                        "}")
+        );
+
+        BeanIndex index = BeanIndex.read(outputDir).orElseThrow();
+
+        BeanIndexEntry immutableEntry = index.getEntry("com.my.test.ImmutableDto").orElseThrow();
+        assertEquals(BeanKind.IMMUTABLE, immutableEntry.getKind());
+        assertArrayEquals(new String[0], immutableEntry.getExcludedFields());
+        assertEquals(BeanKind.BUILDER, index.getEntry("com.my.test.DtoWithBuilder").orElseThrow().getKind());
+    }
+
+    @Test
+    void shouldRecordClassCountOfEveryCompiledPackage() throws IOException {
+        compile(
+                source("com.my.test.dto.Dto", "package com.my.test.dto;\n" +
+                        "public class Dto {\n" +
+                        "    private Integer integerField;\n" +
+                        "    public static class Nested {}\n" +
+                        "}"),
+                source("com.my.test.dto.AbstractDto", "package com.my.test.dto;\n" +
+                        "public abstract class AbstractDto {}"),
+                source("com.my.test.util.Interface", "package com.my.test.util;\n" +
+                        "public interface Interface {}")
+        );
+
+        List<String> lines = Files.readAllLines(outputDir.resolve(BeanIndex.LOCATION));
+
+        assertTrue(lines.contains("com.my.test.dto\t2"));
+        assertTrue(lines.contains("com.my.test.util\t1"));
+    }
+
+    @Test
+    void shouldNotWriteIndexWithoutCandidates() {
+        compile(source("com.my.test.util.Interface", "package com.my.test.util;\n" +
+                "public interface Interface {}"));
+
+        assertFalse(BeanIndex.read(outputDir).isPresent());
+    }
+
+    @Test
+    void shouldReadWrittenIndex() throws IOException {
+        BeanIndex index = BeanIndex.of(List.of(
+                new BeanIndexEntry("com.my.test.Dto", new String[]{"a", "b"}, new String[]{"b"}),
+                new BeanIndexEntry("com.my.test.dto.OtherDto", new String[0], new String[0]),
+                new BeanIndexEntry("com.my.testing.Excluded", new String[0], new String[0])
+        ));
+
+        StringWriter writer = new StringWriter();
+        index.write(writer);
+        BeanIndex result = BeanIndex.read(new StringReader(writer.toString()));
+
+        assertEquals(
+                List.of("com.my.test.Dto", "com.my.test.dto.OtherDto"),
+                result.getEntries(List.of("com/my/test")).stream()
+                        .map(BeanIndexEntry::getClassName)
+                        .collect(Collectors.toList())
+        );
+        assertArrayEquals(new String[]{"a", "b"}, result.getEntry("com.my.test.Dto").orElseThrow().getExcludedFields());
+    }
+
+    @Test
+    void shouldComputeEntryOfNotIndexedClass() {
+        BeanIndexEntry entry = BeanIndex.getEntry(EntityWithFieldExcluded.class);
+
+        assertArrayEquals(new String[]{"integerField"}, entry.getExcludedFields());
+        assertArrayEquals(new String[0], entry.getFinalFields());
+    }
+
+    @Test
+    void shouldPreferRegisteredEntryOfTheSameClassOnly() throws Exception {
+        BeanIndexEntry computedEntry = BeanIndex.getEntry(RegisteredBean.class);
+        BeanIndexEntry registeredEntry = new BeanIndexEntry(RegisteredBean.class.getName(), BeanKind.JAVA_BEAN, new String[]{"value"}, new String[0]);
+
+        BeanIndex.register(RegisteredBean.class, registeredEntry);
+
+        assertArrayEquals(new String[0], computedEntry.getExcludedFields());
+        assertSame(registeredEntry, BeanIndex.getEntry(RegisteredBean.class));
+
+        URL testClasses = RegisteredBean.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader otherLoader = new URLClassLoader(new URL[]{testClasses}, ClassLoader.getPlatformClassLoader())) {
+            Class<?> otherClass = Class.forName(RegisteredBean.class.getName(), false, otherLoader);
+
+            assertNotSame(RegisteredBean.class, otherClass);
+            assertArrayEquals(new String[0], BeanIndex.getEntry(otherClass).getExcludedFields());
+        }
+    }
+
+    @Test
+    void shouldNotRegisterEntryOfAnotherClass() {
+        BeanIndexEntry entry = BeanIndexEntry.of(EntityWithFieldExcluded.class);
+
+        assertThrows(IllegalArgumentException.class, () -> BeanIndex.register(RegisteredBean.class, entry));
+    }
+
+    public static class RegisteredBean {
+
+        private String value;
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.index.BeanIndexEntry;
+import io.github.fabripat.jreflex.metrics.BeanTestMetrics;
+import io.github.fabripat.jreflex.sharding.BeanSharding;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanShardingTest {
+
+    private static final List<String> CLASS_NAMES = IntStream.range(0, 100)
+            .mapToObj(i -> "com.my.test.dto.Dto" + i)
+            .collect(Collectors.toList());
+
+    @TempDir
+    Path tempDir;
+
+    private static List<String> select(BeanSharding sharding) {
+        return sharding.select(CLASS_NAMES.stream().map(c -> new BeanIndexEntry(c, new String[0], new String[0])))
+                .map(BeanIndexEntry::getClassName)
+                .collect(Collectors.toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldPartitionClassesAcrossShards(boolean balanced) {
+        Map<String, Long> costs = new HashMap<>();
+        for (int i = 0; i < CLASS_NAMES.size(); i++)
+            costs.put(CLASS_NAMES.get(i), 10L + i % 7);
+        costs.put(CLASS_NAMES.get(0), 1_000L);
+        Set<String> selectedClassNames = new HashSet<>();
+        int selected = 0;
+
+        for (int shard = 0; shard < 3; shard++) {
+            BeanSharding sharding = balanced ? BeanSharding.of(shard, 3).balancedBy(costs) : BeanSharding.of(shard, 3);
+            List<String> shardClassNames = select(sharding);
+            assertFalse(shardClassNames.isEmpty());
+
+            selectedClassNames.addAll(shardClassNames);
+            selected += shardClassNames.size();
+        }
+
+        assertEquals(CLASS_NAMES.size(), selected);
+        assertEquals(new HashSet<>(CLASS_NAMES), selectedClassNames);
+    }
+
+    @Test
+    void shouldAssignClassToSameShardOnEveryRun() {
+        assertEquals(BeanSharding.shardOf("com.my.test.dto.Dto", 7), BeanSharding.shardOf("com.my.test.dto.Dto", 7));
+        assertEquals(0, BeanSharding.shardOf("com.my.test.dto.Dto", 1));
+    }
+
+    @Test
+    void shouldBalanceShardsByCost() {
+        Map<String, Long> costs = new HashMap<>();
+        CLASS_NAMES.forEach(c -> costs.put(c, 1L));
+        costs.put(CLASS_NAMES.get(0), 99L);
+
+        List<String> costliestShard = select(BeanSharding.of(0, 2).balancedBy(costs));
+        List<String> otherShard = select(BeanSharding.of(1, 2).balancedBy(costs));
+
+        assertEquals(List.of(CLASS_NAMES.get(0)), costliestShard);
+        assertEquals(CLASS_NAMES.size() - 1, otherShard.size());
+    }
+
+    @Test
+    void shouldShardByHashWhenCostsDoNotCoverEveryClass() {
+        Map<String, Long> costs = new HashMap<>();
+        CLASS_NAMES.subList(1, CLASS_NAMES.size()).forEach(c -> costs.put(c, 1L));
+        costs.put(CLASS_NAMES.get(1), 99L);
+
+        for (int shard = 0; shard < 2; shard++)
+            assertEquals(select(BeanSharding.of(shard, 2)), select(BeanSharding.of(shard, 2).balancedBy(costs)));
+    }
+
+    @Test
+    void shouldReadCheckTimesOfReport() throws IOException {
+        Path report = tempDir.resolve("report.json");
+        Files.writeString(report, "{\n  \"beans\": [\n    {\"class\": \"com.my.test.dto.Dto\", \"checkTimeNanos\": 42, \"checks\": []}\n  ]\n}\n");
+
+        assertEquals(Map.of("com.my.test.dto.Dto", 42L), BeanTestMetrics.readCheckTimes(report).orElseThrow());
+        assertTrue(BeanTestMetrics.readCheckTimes(tempDir.resolve("missing.json")).isEmpty());
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionForShardIndexOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> BeanSharding.of(2, 2));
+        assertThrows(IllegalArgumentException.class, () -> BeanSharding.of(0, 0));
+    }
+
+}
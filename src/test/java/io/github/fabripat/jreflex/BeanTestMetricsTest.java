@@ -0,0 +1,81 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.discovery.BeanDiscovery;
+import io.github.fabripat.jreflex.metrics.BeanTestMetrics;
+import io.github.fabripat.jreflex.scanner.ClasspathScanner;
+import io.github.fabripat.jreflex.testdomain.dto.Dto;
+import io.github.fabripat.jreflex.verification.BeanCheck;
+import io.github.fabripat.jreflex.verification.BeanVerifier;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeanTestMetricsTest {
+
+    private static final List<String> TEST_DOMAIN = List.of("io/github/fabripat/jreflex/testdomain");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldEmitJfrEventsOfScansAndChecks() throws IOException {
+        Path dump = tempDir.resolve("recording.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("io.github.fabripat.jreflex.ClasspathScan");
+            recording.enable("io.github.fabripat.jreflex.BeanCheck");
+            recording.start();
+
+            new BeanDiscovery(ClasspathScanner.ofSystemClasspath(), 1).discover(TEST_DOMAIN);
+            BeanVerifier.seeded().verify(Dto.class);
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("io.github.fabripat.jreflex.ClasspathScan")
+                && "scan".equals(e.getString("source"))
+                && e.getInt("testableClasses") > 0));
+
+        Set<String> dtoChecks = events.stream()
+                .filter(e -> e.getEventType().getName().equals("io.github.fabripat.jreflex.BeanCheck"))
+                .filter(e -> e.getClass("beanClass").getName().equals(Dto.class.getName()))
+                .map(e -> e.getString("check"))
+                .collect(Collectors.toSet());
+
+        assertEquals(BeanVerifier.seeded().getChecks().stream().map(BeanCheck::getDisplayName).collect(Collectors.toSet()), dtoChecks);
+    }
+
+    @Test
+    void shouldWriteAggregatedReport() throws IOException {
+        Path report = tempDir.resolve("report/jreflex-report.json");
+        BeanTestMetrics.enable();
+
+        new BeanDiscovery(ClasspathScanner.ofSystemClasspath(), 1).discover(TEST_DOMAIN);
+        BeanVerifier.seeded().verify(Dto.class);
+        BeanVerifier.seeded().withSerialization(4, 0).verify(BeanVerifierTest.SerializableBean.class);
+        BeanTestMetrics.writeReport(report);
+
+        String json = Files.readString(report);
+
+        assertTrue(json.contains("\"source\": \"scan\""));
+        assertTrue(json.contains("\"class\": \"" + Dto.class.getName() + "\""));
+        assertTrue(json.contains("\"check\": \"" + BeanCheck.TO_STRING.getDisplayName() + "\""));
+        assertTrue(json.contains("\"" + Integer.class.getName() + "\": "));
+        assertTrue(json.contains("{\"class\": \"" + BeanVerifierTest.SerializableBean.class.getName() + "\", \"beans\": 4"));
+    }
+
+}
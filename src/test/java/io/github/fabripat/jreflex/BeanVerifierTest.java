@@ -0,0 +1,495 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.annotations.BeanPerformanceBudget;
+import io.github.fabripat.jreflex.descriptor.BeanDescriptor;
+import io.github.fabripat.jreflex.index.BeanKind;
+import io.github.fabripat.jreflex.testdomain.dto.Dto;
+import io.github.fabripat.jreflex.testdomain.dto.DtoWithBuilder;
+import io.github.fabripat.jreflex.testdomain.dto.ImmutableDto;
+import io.github.fabripat.jreflex.testdomain.entity.EntityWithFieldExcluded;
+import io.github.fabripat.jreflex.verification.BeanCheck;
+import io.github.fabripat.jreflex.verification.BeanVerifier;
+import io.github.fabripat.jreflex.verification.RandomStreams;
+import io.github.fabripat.jreflex.verification.RandomValues;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BeanVerifierTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final long SEED = 20240601L;
+
+    private final BeanVerifier verifier = new BeanVerifier(new RandomValues(RandomSource.XO_RO_SHI_RO_128_PP.create(SEED)), 10);
+
+    @ParameterizedTest
+    @ValueSource(classes = {Dto.class, DtoWithBuilder.class, ImmutableDto.class, CreatedImmutableBean.class, EntityWithFieldExcluded.class})
+    void shouldVerifyValidBeans(Class<?> clazz) {
+        assertDoesNotThrow(() -> verifier.verify(clazz));
+    }
+
+    @Test
+    void shouldVerifyBeanLoadedByChildClassLoader() throws ClassNotFoundException {
+        Class<?> childDto = Class.forName(Dto.class.getName(), false, new ChildFirstClassLoader(Dto.class.getName()));
+
+        assertNotSame(Dto.class, childDto);
+        assertDoesNotThrow(() -> verifier.verify(childDto));
+    }
+
+    @Test
+    void shouldFailOnGetterNotReturningSetValue() {
+        BeanDescriptor descriptor = BeanDescriptor.of(BrokenGetterBean.class);
+
+        assertThrows(AssertionError.class, () -> verifier.verifyGettersAndSetters(descriptor));
+    }
+
+    @Test
+    void shouldFailOnEqualsIgnoringProperty() {
+        BeanDescriptor descriptor = BeanDescriptor.of(BrokenEqualsBean.class);
+
+        assertThrows(AssertionError.class, () -> verifier.verifyEquals(descriptor));
+        assertThrows(AssertionError.class, () -> verifier.verifyHashCode(descriptor));
+        assertThrows(AssertionError.class, () -> verifier.verifyToString(descriptor));
+    }
+
+    @Test
+    void shouldVerifyRecordThroughCanonicalConstructor() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 16, "Records require Java 16");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path source = Files.writeString(tempDir.resolve("RecordDto.java"), "package com.my.test;\n" +
+                "public record RecordDto(Integer integerField, String stringField, java.time.LocalDate localDateField) {}");
+        assertEquals(0, compiler.run(null, null, null,
+                "--release", String.valueOf(Runtime.version().feature()), "-d", tempDir.toString(), source.toString()));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> recordDto = classLoader.loadClass("com.my.test.RecordDto");
+            BeanDescriptor descriptor = BeanDescriptor.of(recordDto);
+
+            assertEquals(BeanKind.RECORD, descriptor.getKind());
+            assertEquals(3, descriptor.getCreator().orElseThrow().getParameters().size());
+            assertDoesNotThrow(() -> verifier.verify(recordDto));
+        }
+    }
+
+    @Test
+    void shouldFailOnImmutableEqualsIgnoringProperty() {
+        BeanDescriptor descriptor = BeanDescriptor.of(BrokenEqualsImmutableBean.class);
+
+        assertEquals(BeanKind.IMMUTABLE, descriptor.getKind());
+        assertDoesNotThrow(() -> verifier.verifyConstructor(descriptor));
+        assertDoesNotThrow(() -> verifier.verifyGettersAndSetters(descriptor));
+        assertThrows(AssertionError.class, () -> verifier.verifyEquals(descriptor));
+        assertThrows(AssertionError.class, () -> verifier.verifyHashCode(descriptor));
+        assertThrows(AssertionError.class, () -> verifier.verifyToString(descriptor));
+    }
+
+    @Test
+    void shouldVerifyToStringOfArrayProperties() {
+        assertDoesNotThrow(() -> verifier.verifyToString(BeanDescriptor.of(ArrayPropertiesBean.class)));
+    }
+
+    @Test
+    void shouldFailOnToStringIgnoringShortStringProperty() {
+        for (int i = 0; i < 20; i++)
+            assertThrows(AssertionError.class, () -> verifier.verifyToString(BeanDescriptor.of(BrokenToStringBean.class)));
+    }
+
+    @Test
+    void shouldFailOnMissingNoArgsConstructor() {
+        BeanDescriptor descriptor = BeanDescriptor.of(NoArgsConstructorMissingBean.class);
+
+        assertThrows(AssertionError.class, () -> verifier.verifyConstructor(descriptor));
+    }
+
+    @Test
+    void shouldVerifyConcurrentlyWithSeededVerifier() {
+        CompletableFuture<?>[] verifications = Stream.of(Dto.class, DtoWithBuilder.class, ImmutableDto.class, EntityWithFieldExcluded.class)
+                .map(c -> CompletableFuture.runAsync(() -> BeanVerifier.seeded().verify(c)))
+                .toArray(CompletableFuture[]::new);
+
+        assertDoesNotThrow(() -> CompletableFuture.allOf(verifications).get());
+    }
+
+    @Test
+    void shouldDeriveReproducibleStreamPerBeanAndCheck() {
+        long equalsValue = RandomStreams.of(Dto.class, BeanCheck.EQUALS).nextLong();
+
+        assertEquals(equalsValue, RandomStreams.of(Dto.class, BeanCheck.EQUALS).nextLong());
+        assertNotEquals(equalsValue, RandomStreams.of(Dto.class, BeanCheck.HASH_CODE).nextLong());
+        assertNotEquals(equalsValue, RandomStreams.of(ImmutableDto.class, BeanCheck.EQUALS).nextLong());
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWithNoIterations() {
+        RandomValues values = new RandomValues(RandomSource.XO_RO_SHI_RO_128_PP.create());
+
+        assertThrows(IllegalArgumentException.class, () -> new BeanVerifier(values, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(classes = {Dto.class, DtoWithBuilder.class, ImmutableDto.class, CreatedImmutableBean.class, EntityWithFieldExcluded.class})
+    void shouldVerifyHashCodeDistributionOfValidBeans(Class<?> clazz) {
+        BeanVerifier distributionVerifier = BeanVerifier.seeded().withHashCodeDistribution(0.8, 2048);
+
+        assertTrue(distributionVerifier.getChecks().contains(BeanCheck.HASH_CODE_DISTRIBUTION));
+        assertDoesNotThrow(() -> distributionVerifier.verify(clazz));
+    }
+
+    @Test
+    void shouldFailOnCrowdedHashCode() {
+        BeanDescriptor descriptor = BeanDescriptor.of(CrowdedHashCodeBean.class);
+
+        assertDoesNotThrow(() -> verifier.verifyHashCodeDistribution(descriptor));
+        assertThrows(AssertionError.class, () -> verifier.withHashCodeDistribution(0.8, 2048).verifyHashCodeDistribution(descriptor));
+    }
+
+    @Test
+    void shouldNotMeasureHashCodeDistributionByDefault() {
+        assertFalse(BeanVerifier.seeded().getChecks().contains(BeanCheck.HASH_CODE_DISTRIBUTION));
+        assertSame(BeanVerifier.seeded(), BeanVerifier.seeded().withHashCodeDistribution(0, BeanVerifier.DEFAULT_HASH_CODE_SAMPLES));
+        assertThrows(IllegalArgumentException.class, () -> verifier.withHashCodeDistribution(1.5, 2048));
+        assertThrows(IllegalArgumentException.class, () -> verifier.withHashCodeDistribution(0.8, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(classes = {Dto.class, DtoWithBuilder.class, ImmutableDto.class, CreatedImmutableBean.class, EntityWithFieldExcluded.class})
+    void shouldVerifyPerformanceBudgetOfValidBeans(Class<?> clazz) {
+        BeanVerifier budgetVerifier = BeanVerifier.seeded().withPerformanceBudget(1_000_000, 1 << 20);
+
+        assertTrue(budgetVerifier.getChecks().contains(BeanCheck.PERFORMANCE_BUDGET));
+        assertDoesNotThrow(() -> budgetVerifier.verify(clazz));
+    }
+
+    @Test
+    void shouldFailOnMethodsOverTimeBudget() {
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> verifier.withPerformanceBudget(1, 0).verifyPerformanceBudget(BeanDescriptor.of(Dto.class)));
+
+        assertTrue(error.getMessage().contains("toString takes"), error::getMessage);
+    }
+
+    @Test
+    void shouldFailOnToStringOverAllocationBudgetUnlessAnnotated() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).isThreadAllocatedMemorySupported());
+        BeanVerifier budgetVerifier = verifier.withPerformanceBudget(0, 4096);
+
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> budgetVerifier.verifyPerformanceBudget(BeanDescriptor.of(PaddedToStringBean.class)));
+        assertTrue(error.getMessage().contains("toString allocates"), error::getMessage);
+        assertFalse(error.getMessage().contains("hashCode"), error::getMessage);
+        assertDoesNotThrow(() -> budgetVerifier.verifyPerformanceBudget(BeanDescriptor.of(BudgetedPaddedToStringBean.class)));
+    }
+
+    @Test
+    void shouldNotCheckPerformanceBudgetByDefault() {
+        assertFalse(BeanVerifier.seeded().getChecks().contains(BeanCheck.PERFORMANCE_BUDGET));
+        assertSame(BeanVerifier.seeded(), BeanVerifier.seeded().withPerformanceBudget(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> verifier.withPerformanceBudget(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> verifier.withPerformanceBudget(0, -1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(classes = {SerializableBean.class, Dto.class, ImmutableDto.class})
+    void shouldVerifySerializationOfValidBeans(Class<?> clazz) {
+        BeanVerifier serializationVerifier = BeanVerifier.seeded().withSerialization(16, 4096);
+
+        assertTrue(serializationVerifier.getChecks().contains(BeanCheck.SERIALIZATION));
+        assertDoesNotThrow(() -> serializationVerifier.verify(clazz));
+    }
+
+    @Test
+    void shouldFailOnBeanNotEqualOnceDeserialized() {
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> verifier.withSerialization(4, 0).verifySerialization(BeanDescriptor.of(TransientEqualsBean.class)));
+
+        assertTrue(error.getMessage().contains("is not equal to the serialized bean"), error::getMessage);
+    }
+
+    @Test
+    void shouldFailOnBeanHoldingNotSerializableValue() {
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> verifier.withSerialization(4, 0).verifySerialization(BeanDescriptor.of(NotSerializableValueBean.class)));
+
+        assertTrue(error.getMessage().contains(NotSerializableValue.class.getName()), error::getMessage);
+    }
+
+    @Test
+    void shouldFailOnSerializedSizeOverLimit() {
+        BeanDescriptor descriptor = BeanDescriptor.of(HeavySerializableBean.class);
+
+        assertDoesNotThrow(() -> verifier.withSerialization(4, 0).verifySerialization(descriptor));
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> verifier.withSerialization(4, 4096).verifySerialization(descriptor));
+        assertTrue(error.getMessage().contains("over 4096 bytes"), error::getMessage);
+    }
+
+    @Test
+    void shouldNotVerifySerializationByDefault() {
+        assertFalse(BeanVerifier.seeded().getChecks().contains(BeanCheck.SERIALIZATION));
+        assertSame(BeanVerifier.seeded(), BeanVerifier.seeded().withSerialization(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> verifier.withSerialization(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> verifier.withSerialization(4, -1));
+    }
+
+    public static class BrokenGetterBean {
+        private Integer value;
+
+        public Integer getValue() {
+            return value == null ? null : value + 1;
+        }
+
+        public void setValue(Integer value) {
+            this.value = value;
+        }
+    }
+
+    public static class BrokenEqualsBean {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BrokenEqualsBean;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(BrokenEqualsBean.class);
+        }
+
+        @Override
+        public String toString() {
+            return "BrokenEqualsBean";
+        }
+    }
+
+    public static class NoArgsConstructorMissingBean {
+        private String name;
+
+        public NoArgsConstructorMissingBean(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * An immutable bean created through its all-args constructor, while {@link ImmutableDto} has none.
+     */
+    @Data
+    @NoArgsConstructor(force = true)
+    @AllArgsConstructor
+    public static class CreatedImmutableBean {
+        private final Integer integerField;
+        private final Double doubleField;
+        private final LocalDate localDateField;
+        private final LocalDateTime localDateTimeField;
+    }
+
+    @Data
+    public static class ArrayPropertiesBean {
+        private String[] tags;
+        private int[] scores;
+    }
+
+    /**
+     * A toString ignoring a property whose values could be found in the class name.
+     */
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @ToString(exclude = "code")
+    public static class BrokenToStringBean {
+        private Integer id;
+        private String code;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @EqualsAndHashCode(exclude = "name")
+    @ToString(exclude = "name")
+    public static class BrokenEqualsImmutableBean {
+        private final Integer id;
+        private final String name;
+    }
+
+    /**
+     * A hash code consistent with equals and depending on every property, but taking 64 values only.
+     */
+    @Getter
+    @Setter
+    public static class CrowdedHashCodeBean {
+        private Integer id;
+        private String name;
+        private Long version;
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CrowdedHashCodeBean))
+                return false;
+            CrowdedHashCodeBean other = (CrowdedHashCodeBean) o;
+            return Objects.equals(id, other.id) && Objects.equals(name, other.name) && Objects.equals(version, other.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return (Objects.hashCode(id) & 3) | (Objects.hashCode(name) & 3) << 2 | (Objects.hashCode(version) & 3) << 4;
+        }
+    }
+
+    /**
+     * A toString allocating a string of 64K characters per call.
+     */
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class PaddedToStringBean {
+        private Integer id;
+
+        @Override
+        public String toString() {
+            return "PaddedToStringBean(id=" + id + ")" + " ".repeat(1 << 16);
+        }
+    }
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @BeanPerformanceBudget(maxBytesPerCall = 1 << 20)
+    public static class BudgetedPaddedToStringBean {
+        private Integer id;
+
+        @Override
+        public String toString() {
+            return "BudgetedPaddedToStringBean(id=" + id + ")" + " ".repeat(1 << 16);
+        }
+    }
+
+    @Data
+    public static class SerializableBean implements Serializable {
+        private Integer id;
+        private String name;
+        private List<String> tags;
+    }
+
+    /**
+     * A transient field lost by the serialization, but compared by equals.
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class TransientEqualsBean implements Serializable {
+        private Integer id;
+        private transient String cache;
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TransientEqualsBean))
+                return false;
+            TransientEqualsBean other = (TransientEqualsBean) o;
+            return Objects.equals(id, other.id) && Objects.equals(cache, other.cache);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, cache);
+        }
+    }
+
+    @Data
+    public static class NotSerializableValue {
+        private String name;
+    }
+
+    @Data
+    public static class NotSerializableValueBean implements Serializable {
+        private Integer id;
+        private NotSerializableValue value;
+    }
+
+    /**
+     * A buffer which is not a property, but is not transient either.
+     */
+    @Data
+    public static class HeavySerializableBean implements Serializable {
+        private Integer id;
+        @ToString.Exclude
+        @EqualsAndHashCode.Exclude
+        @Getter(lombok.AccessLevel.NONE)
+        private final byte[] buffer = new byte[1 << 16];
+    }
+
+    private static class ChildFirstClassLoader extends ClassLoader {
+
+        private final String className;
+
+        private ChildFirstClassLoader(String className) {
+            super(BeanVerifierTest.class.getClassLoader());
+            this.className = className;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(className))
+                return super.loadClass(name, resolve);
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loadedClass = findLoadedClass(name);
+                return loadedClass != null ? loadedClass : findClass(name);
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(String name) {
+            try (InputStream classFile = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                byte[] bytes = Objects.requireNonNull(classFile).readAllBytes();
+                return defineClass(name, bytes, 0, bytes.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
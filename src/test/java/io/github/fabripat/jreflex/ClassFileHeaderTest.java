@@ -0,0 +1,88 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.annotations.ExcludeBeanTesting;
+import io.github.fabripat.jreflex.scanner.ClassFileHeader;
+import io.github.fabripat.jreflex.testdomain.dto.Dto;
+import io.github.fabripat.jreflex.testdomain.dto.DtoWithBuilder;
+import io.github.fabripat.jreflex.testdomain.entity.AbstractEntity;
+import io.github.fabripat.jreflex.testdomain.entity.EntityExcluded;
+import io.github.fabripat.jreflex.testdomain.util.Enum;
+import io.github.fabripat.jreflex.testdomain.util.Interface;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassFileHeaderTest {
+
+    private static ClassFileHeader readHeader(Class<?> clazz) throws IOException {
+        String resourceName = clazz.getName().replace('.', '/') + ".class";
+        try (InputStream inputStream = clazz.getClassLoader().getResourceAsStream(resourceName)) {
+            assertNotNull(inputStream);
+            return ClassFileHeader.read(inputStream);
+        }
+    }
+
+    @Test
+    void shouldReadNameAndSuperClassOfConcreteClass() throws IOException {
+        ClassFileHeader header = readHeader(Dto.class);
+
+        assertEquals(Dto.class.getName(), header.getClassName());
+        assertEquals(Object.class.getName(), header.getSuperClassName());
+        assertFalse(header.isInterface());
+        assertFalse(header.isEnum());
+        assertFalse(header.isAbstract());
+        assertFalse(header.isNestedClass());
+        assertFalse(header.isRecord());
+    }
+
+    @Test
+    void shouldDetectInterface() throws IOException {
+        assertTrue(readHeader(Interface.class).isInterface());
+    }
+
+    @Test
+    void shouldDetectEnum() throws IOException {
+        assertTrue(readHeader(Enum.class).isEnum());
+    }
+
+    @Test
+    void shouldDetectAbstractClass() throws IOException {
+        assertTrue(readHeader(AbstractEntity.class).isAbstract());
+    }
+
+    @Test
+    void shouldDetectNestedClass() throws IOException {
+        assertTrue(readHeader(NestedClass.class).isNestedClass());
+        assertTrue(readHeader(new Object() {
+        }.getClass()).isNestedClass());
+    }
+
+    @Test
+    void shouldReadMemberClassNames() throws IOException {
+        assertEquals(Set.of(DtoWithBuilder.class.getName() + "$DtoWithBuilderBuilder"),
+                readHeader(DtoWithBuilder.class).getMemberClassNames());
+        assertEquals(Set.of(NestedClass.class.getName()), readHeader(ClassFileHeaderTest.class).getMemberClassNames());
+        assertTrue(readHeader(Dto.class).getMemberClassNames().isEmpty());
+    }
+
+    @Test
+    void shouldDetectRuntimeVisibleAnnotations() throws IOException {
+        assertTrue(readHeader(EntityExcluded.class).isAnnotationPresent(ExcludeBeanTesting.class));
+        assertFalse(readHeader(Dto.class).isAnnotationPresent(ExcludeBeanTesting.class));
+    }
+
+    @Test
+    void shouldThrowIOExceptionReadingInvalidClassFile() {
+        assertThrows(IOException.class,
+                () -> ClassFileHeader.read(new ByteArrayInputStream(new byte[]{(byte) 0xCA, (byte) 0xFE})));
+    }
+
+    static class NestedClass {
+    }
+
+}
@@ -0,0 +1,82 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.scanner.ClassNameIndex;
+import io.github.fabripat.jreflex.scanner.ClassNameMatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassNameIndexTest {
+
+    private final ClassNameIndex index = ClassNameIndex.of(List.of(
+            "com/acme/OrderA.class",
+            "com/acme/OrderAB.class",
+            "com/acme/order/dto/OrderDto.class",
+            "com/acme/order/dto/OrderDto$Line.class",
+            "com/acme/order/internal/dto/InternalDto.class",
+            "com/acme/order/package-info.class",
+            "com/acme/order/notes.txt",
+            "org/vendor/dto/VendorDto.class",
+            "META-INF/versions/11/com/acme/OrderA.class",
+            "module-info.class",
+            "Unnamed.class"
+    ));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldIndexClassFilesOnly() {
+        assertEquals(7, index.size());
+    }
+
+    @Test
+    void shouldListClassFilesOfPackagesAndSubPackages() {
+        assertEquals(
+                List.of("com/acme/order/dto/OrderDto.class",
+                        "com/acme/order/dto/OrderDto$Line.class",
+                        "com/acme/order/internal/dto/InternalDto.class"),
+                index.getResourceNames(List.of("com/acme/order"), ClassNameMatcher.all())
+        );
+        assertEquals(List.of("Unnamed.class"), index.getResourceNames(List.of(""), ClassNameMatcher.compile(List.of("Unnamed"))));
+        assertTrue(index.getResourceNames(List.of("com/acme/missing"), ClassNameMatcher.all()).isEmpty());
+    }
+
+    @Test
+    void shouldMatchClassNamesInPlace() {
+        ClassNameMatcher matcher = ClassNameMatcher.compile(List.of("com.acme.**.dto.*", "com.acme.OrderA", "!**.internal.**"));
+
+        assertEquals(
+                List.of("com/acme/OrderA.class",
+                        "com/acme/order/dto/OrderDto.class",
+                        "com/acme/order/dto/OrderDto$Line.class"),
+                index.getResourceNames(List.of("com", "org"), matcher)
+        );
+    }
+
+    @Test
+    void shouldMemoryMapWrittenIndex() throws IOException {
+        Path file = tempDir.resolve("classes.cni");
+        index.write(file);
+
+        ClassNameIndex mappedIndex = ClassNameIndex.open(file);
+
+        assertEquals(index.size(), mappedIndex.size());
+        assertEquals(index.getResourceNames(List.of(""), ClassNameMatcher.all()),
+                mappedIndex.getResourceNames(List.of(""), ClassNameMatcher.all()));
+    }
+
+    @Test
+    void shouldThrowIOExceptionOpeningInvalidIndex() throws IOException {
+        Path file = Files.write(tempDir.resolve("invalid.cni"), new byte[]{(byte) 0xCA, (byte) 0xFE});
+
+        assertThrows(IOException.class, () -> ClassNameIndex.open(file));
+    }
+
+}
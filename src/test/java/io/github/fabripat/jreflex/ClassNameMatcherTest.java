@@ -0,0 +1,59 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.scanner.ClassNameMatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassNameMatcherTest {
+
+    private final ClassNameMatcher matcher = ClassNameMatcher.compile(List.of("com.acme.**.dto.*", "com.acme.Order?", "!**.internal.**"));
+
+    @ParameterizedTest
+    @CsvSource({
+            "com.acme.dto.OrderDto, true",
+            "com.acme.order.dto.OrderDto, true",
+            "com.acme.order.line.dto.LineDto, true",
+            "com.acme.order.dto.nested.NestedDto, false",
+            "com.acme.order.internal.dto.InternalDto, false",
+            "com.acme.OrderA, true",
+            "com.acme.OrderAB, false",
+            "org.vendor.dto.VendorDto, false"
+    })
+    void shouldMatchClassNamesAgainstPatterns(String className, boolean matches) {
+        assertEquals(matches, matcher.matches(className));
+    }
+
+    @Test
+    void shouldPrunePackagesWithoutMatchingClasses() {
+        assertFalse(matcher.enter("com/acme/order").isPruned());
+        assertTrue(matcher.enter("com/acme/order/internal").isPruned());
+        assertTrue(matcher.enter("org/vendor").isPruned());
+    }
+
+    @Test
+    void shouldResolveBasePackagesOfIncludePatterns() {
+        assertEquals(List.of("com/acme"), matcher.getBasePackagePaths());
+        assertEquals(List.of(""), ClassNameMatcher.compile(List.of("**.dto.*")).getBasePackagePaths());
+    }
+
+    @Test
+    void shouldMatchEveryClassWithoutIncludePatterns() {
+        ClassNameMatcher excludeOnly = ClassNameMatcher.compile(List.of("!**.internal.**"));
+
+        assertTrue(ClassNameMatcher.all().matches("com.acme.Anything"));
+        assertTrue(excludeOnly.matches("com.acme.Order"));
+        assertFalse(excludeOnly.matches("com.acme.internal.Order"));
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionForInvalidPattern() {
+        assertThrows(IllegalArgumentException.class, () -> ClassNameMatcher.compile(List.of("com..acme")));
+        assertThrows(IllegalArgumentException.class, () -> ClassNameMatcher.compile(List.of("!")));
+    }
+
+}
@@ -0,0 +1,57 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.scanner.ClassFile;
+import io.github.fabripat.jreflex.scanner.ClassSource;
+import io.github.fabripat.jreflex.testdomain.dto.Dto;
+import io.github.fabripat.jreflex.verification.BeanVerifier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldDiscoverAndLoadClassesOfTestClassLoader() throws ClassNotFoundException {
+        ClassSource classSource = ClassSource.of(ClassSourceTest.class);
+
+        List<String> classNames = classSource.getScanner().scan(List.of(Dto.class.getPackageName())).stream()
+                .map(ClassFile::getClassName)
+                .collect(Collectors.toList());
+
+        assertTrue(classNames.contains(Dto.class.getName()));
+        assertSame(Dto.class, classSource.loadClass(Dto.class.getName()));
+    }
+
+    @Test
+    void shouldDefineClassesOfIndexedRoots() throws IOException, ClassNotFoundException {
+        String resourceName = Dto.class.getName().replace('.', '/') + ".class";
+        Path root = tempDir.resolve("classes");
+        Files.createDirectories(root.resolve(resourceName).getParent());
+        try (InputStream classFile = Dto.class.getClassLoader().getResourceAsStream(resourceName)) {
+            Files.copy(classFile, root.resolve(resourceName));
+        }
+
+        try (ClassSource classSource = ClassSource.indexed(List.of(root), ClassSourceTest.class.getClassLoader())) {
+            Class<?> indexedDto = classSource.loadClass(Dto.class.getName());
+
+            assertEquals(List.of(root), classSource.getScanner().getRoots());
+            assertNotSame(Dto.class, indexedDto);
+            assertSame(classSource.getClassLoader(), indexedDto.getClassLoader());
+            assertNotNull(classSource.getClassLoader().getResource(resourceName));
+            assertSame(String.class, classSource.loadClass(String.class.getName()));
+            assertDoesNotThrow(() -> BeanVerifier.seeded().verify(indexedDto));
+        }
+    }
+
+}
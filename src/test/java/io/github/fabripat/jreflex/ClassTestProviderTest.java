@@ -1,7 +1,6 @@
 package io.github.fabripat.jreflex;
 
 import io.github.fabripat.jreflex.annotations.EnableAutomatedBeanTesting;
-import io.github.fabripat.jreflex.testdomain.dto.Dto;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -15,9 +14,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Stream;
 
 import static io.github.fabripat.jreflex.util.TestUtils.getPrivateMethod;
@@ -27,30 +24,6 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class ClassTestProviderTest {
 
-    @Nested
-    class getClassMethod {
-        @Test
-        void shouldThrowClassNotFoundExceptionTryingGetNonExistentClass() {
-            Method getClassMethod = getPrivateMethod("getClass", String.class, String.class);
-
-            assertThrows(
-                    IllegalStateException.class,
-                    () -> invokeStaticMethod(getClassMethod, "package", "NonExistentClass.class")
-            );
-        }
-
-        @Test
-        void shouldReturnExpectedClassTryingGeExistentClass() throws Throwable {
-            Method getClassMethod = getPrivateMethod("getClass", String.class, String.class);
-
-            @SuppressWarnings("unchecked")
-            Class<Dto> result = (Class<Dto>) invokeStaticMethod(getClassMethod, Dto.class.getPackageName(), Dto.class.getSimpleName() + ".class");
-
-            assertEquals(Dto.class, result);
-        }
-
-    }
-
     @TestInstance(TestInstance.Lifecycle.PER_CLASS)
     @Nested
     class getPathsFromEnableAutomatedBeanTestingAnnotationMethod {
@@ -75,10 +48,100 @@ class ClassTestProviderTest {
                     return packageRoot;
                 }
 
+                @Override
+                public String[] sourceRootPaths() {
+                    return new String[0];
+                }
+
                 @Override
                 public String[] packagesToScan() {
                     return subPackages;
                 }
+
+                @Override
+                public String[] classPatterns() {
+                    return new String[0];
+                }
+
+                @Override
+                public String[] classpathRoots() {
+                    return new String[0];
+                }
+
+                @Override
+                public int parallelism() {
+                    return 1;
+                }
+
+                @Override
+                public boolean cacheDiscovery() {
+                    return false;
+                }
+
+                @Override
+                public boolean incremental() {
+                    return false;
+                }
+
+                @Override
+                public boolean dynamicTests() {
+                    return false;
+                }
+
+                @Override
+                public int verificationParallelism() {
+                    return 1;
+                }
+
+                @Override
+                public boolean report() {
+                    return false;
+                }
+
+                @Override
+                public int shardCount() {
+                    return 1;
+                }
+
+                @Override
+                public int shardIndex() {
+                    return 0;
+                }
+
+                @Override
+                public boolean balanceShards() {
+                    return false;
+                }
+
+                @Override
+                public double minHashCodeQuality() {
+                    return 0;
+                }
+
+                @Override
+                public int hashCodeSamples() {
+                    return 4096;
+                }
+
+                @Override
+                public long maxNanosPerCall() {
+                    return 0;
+                }
+
+                @Override
+                public long maxBytesPerCall() {
+                    return 0;
+                }
+
+                @Override
+                public int serializationSamples() {
+                    return 0;
+                }
+
+                @Override
+                public long maxSerializedBytes() {
+                    return 0;
+                }
             };
         }
 
@@ -137,48 +200,4 @@ class ClassTestProviderTest {
 
     }
 
-    @Nested
-    class getSubPackagesFromResourcesAsListMethod {
-        @Test
-        void shouldReturnRootPackageConcatenatedWithEveryLinesNotEndsWithClass() throws Throwable {
-            Method getSubPackagesFromResourcesAsList = getPrivateMethod("getSubPackagesFromResourcesAsList",
-                    List.class, String.class
-            );
-
-            List<String> lines = List.of(
-                    "element1.class",
-                    "element2",
-                    "element3",
-                    "element3",
-                    "element4.class"
-            );
-
-            @SuppressWarnings("unchecked")
-            Set<String> result = (Set<String>) invokeStaticMethod(getSubPackagesFromResourcesAsList, lines, "com.mydomain.myproject");
-
-            assertEquals(result, Set.of("com.mydomain.myproject/element2", "com.mydomain.myproject/element3"));
-        }
-
-        @Test
-        void shouldReturnEmptySet() throws Throwable {
-            Method getSubPackagesFromResourcesAsList = getPrivateMethod("getSubPackagesFromResourcesAsList",
-                    List.class, String.class
-            );
-
-            List<String> lines = List.of(
-                    "element1.class",
-                    "element2.class",
-                    "element3.class",
-                    "element3.class",
-                    "element4.class"
-            );
-
-            @SuppressWarnings("unchecked")
-            Set<String> result = (Set<String>) invokeStaticMethod(getSubPackagesFromResourcesAsList, lines, "com.mydomain.myproject");
-
-            assertEquals(Collections.EMPTY_SET, result);
-        }
-
-    }
-
 }
@@ -0,0 +1,345 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.scanner.ClassFile;
+import io.github.fabripat.jreflex.scanner.ClassNameMatcher;
+import io.github.fabripat.jreflex.scanner.ClasspathScanner;
+import io.github.fabripat.jreflex.testdomain.dto.Dto;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.module.Configuration;
+import java.lang.module.ModuleFinder;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClasspathScannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path createDirectoryRoot(String... resourceNames) throws IOException {
+        Path root = Files.createDirectories(tempDir.resolve("classes"));
+        for (String resourceName : resourceNames) {
+            Path file = root.resolve(resourceName);
+            Files.createDirectories(file.getParent());
+            Files.write(file, new byte[]{(byte) 0xCA, (byte) 0xFE});
+        }
+        return root;
+    }
+
+    private Path createJarRoot(String jarName, Manifest manifest, String... resourceNames) throws IOException {
+        Path jar = tempDir.resolve(jarName);
+        try (OutputStream out = Files.newOutputStream(jar);
+             JarOutputStream jarOut = manifest == null ? new JarOutputStream(out) : new JarOutputStream(out, manifest)) {
+            for (String resourceName : resourceNames) {
+                jarOut.putNextEntry(new JarEntry(resourceName));
+                jarOut.write(new byte[]{(byte) 0xCA, (byte) 0xFE});
+                jarOut.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static Set<String> classNames(List<ClassFile> classFiles) {
+        return classFiles.stream().map(ClassFile::getClassName).collect(Collectors.toSet());
+    }
+
+    @Nested
+    class directoryRoot {
+
+        @Test
+        void shouldReturnClassFilesOfPackageAndSubPackages() throws IOException {
+            Path root = createDirectoryRoot(
+                    "com/my/test/Dto.class",
+                    "com/my/test/dto/OtherDto.class",
+                    "com/my/test/dto/notes.txt",
+                    "com/my/test/package-info.class",
+                    "com/my/testing/Excluded.class"
+            );
+
+            List<ClassFile> result = ClasspathScanner.of(List.of(root)).scan(List.of("com/my/test"));
+
+            assertEquals(Set.of("com.my.test.Dto", "com.my.test.dto.OtherDto"), classNames(result));
+        }
+
+        @Test
+        void shouldVisitOverlappingPackagesOnce() throws IOException {
+            Path root = createDirectoryRoot("com/my/test/dto/Dto.class");
+
+            List<ClassFile> result = ClasspathScanner.of(List.of(root)).scan(List.of("com/my/test", "com/my/test/dto"));
+
+            assertEquals(1, result.size());
+        }
+
+        @Test
+        void shouldReturnEmptyListForMissingPackage() throws IOException {
+            Path root = createDirectoryRoot("com/my/test/Dto.class");
+
+            List<ClassFile> result = ClasspathScanner.of(List.of(root)).scan(List.of("org/other"));
+
+            assertTrue(result.isEmpty());
+        }
+    }
+
+    @Nested
+    class jarRoot {
+
+        @Test
+        void shouldReturnClassFilesOfPackageAndSubPackages() throws IOException {
+            Path jar = createJarRoot("model.jar", null,
+                    "com/my/test/Dto.class",
+                    "com/my/test/dto/OtherDto.class",
+                    "com/my/testing/Excluded.class",
+                    "META-INF/versions/11/com/my/test/Dto.class",
+                    "module-info.class"
+            );
+
+            List<ClassFile> result = ClasspathScanner.of(List.of(jar)).scan(List.of("com.my.test"));
+
+            assertEquals(Set.of("com.my.test.Dto", "com.my.test.dto.OtherDto"), classNames(result));
+        }
+
+        @Test
+        void shouldExpandManifestClassPath() throws IOException {
+            Path directoryRoot = createDirectoryRoot("com/my/test/Dto.class");
+            Path modelJar = createJarRoot("model.jar", null, "com/my/test/dto/OtherDto.class");
+
+            Manifest manifest = new Manifest();
+            manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+            manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH,
+                    directoryRoot.toUri() + " " + modelJar.getFileName() + " missing.jar");
+            Path manifestOnlyJar = createJarRoot("surefirebooter.jar", manifest);
+
+            ClasspathScanner scanner = ClasspathScanner.of(List.of(manifestOnlyJar));
+
+            assertEquals(List.of(manifestOnlyJar, directoryRoot, modelJar), scanner.getRoots());
+            assertEquals(Set.of("com.my.test.Dto", "com.my.test.dto.OtherDto"),
+                    classNames(scanner.scan(List.of("com/my/test"))));
+        }
+
+        @Test
+        void shouldKeepFirstOccurrenceOfDuplicatedClass() throws IOException {
+            Path directoryRoot = createDirectoryRoot("com/my/test/Dto.class");
+            Path jar = createJarRoot("model.jar", null, "com/my/test/Dto.class");
+
+            List<ClassFile> result = ClasspathScanner.of(List.of(directoryRoot, jar)).scan(List.of("com/my/test"));
+
+            assertEquals(1, result.size());
+        }
+
+        @Test
+        void shouldScanThroughPersistedClassNameIndex() throws IOException {
+            Path jar = createJarRoot("model.jar", null, "com/my/test/Dto.class", "com/my/testing/Excluded.class");
+            Path indexDirectory = tempDir.resolve("indexes");
+
+            ClasspathScanner scanner = ClasspathScanner.of(List.of(jar))
+                    .withClassFilter(ClassNameMatcher.compile(List.of("com.my.**.*Dto")))
+                    .withClassNameIndexes(indexDirectory);
+
+            assertEquals(Set.of("com.my.test.Dto"), classNames(scanner.scan(List.of("com/my"))));
+            try (Stream<Path> indexes = Files.list(indexDirectory)) {
+                assertEquals(1, indexes.filter(f -> f.toString().endsWith(".cni")).count());
+            }
+
+            createJarRoot("model.jar", null, "com/my/test/Dto.class", "com/my/test/OtherDto.class");
+            Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 1000));
+
+            ClasspathScanner rebuiltScanner = ClasspathScanner.of(List.of(jar)).withClassNameIndexes(indexDirectory);
+            try (Stream<ClassFile> classFiles = rebuiltScanner.stream(List.of("com/my/test"))) {
+                assertEquals(Set.of("com.my.test.Dto", "com.my.test.OtherDto"),
+                        classFiles.map(ClassFile::getClassName).collect(Collectors.toSet()));
+            }
+        }
+    }
+
+    @Test
+    void shouldVisitEveryClassFileInParallel() throws IOException {
+        String[] resourceNames = IntStream.range(0, 300)
+                .mapToObj(i -> "com/my/test/p" + (i % 7) + "/Dto" + i + ".class")
+                .toArray(String[]::new);
+        Path directoryRoot = createDirectoryRoot(resourceNames);
+        Path jar = createJarRoot("model.jar", null, resourceNames);
+
+        Set<String> visited = ConcurrentHashMap.newKeySet();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int visitedClassFiles = ClasspathScanner.of(List.of(directoryRoot, jar))
+                    .scan(List.of("com/my/test"), classFile -> visited.add(classFile.getClassName()), pool);
+
+            assertEquals(600, visitedClassFiles);
+            assertEquals(300, visited.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Nested
+    class stream {
+
+        @Test
+        void shouldStreamClassFilesInClasspathOrder() throws IOException {
+            Path directoryRoot = createDirectoryRoot("com/my/test/b/B.class", "com/my/test/A.class", "com/my/test/a/Z.class");
+            Path jar = createJarRoot("model.jar", null, "com/my/test/C.class", "org/other/D.class");
+
+            try (Stream<ClassFile> classFiles = ClasspathScanner.of(List.of(directoryRoot, jar)).stream(List.of("com/my/test"))) {
+                assertEquals(List.of("com.my.test.A", "com.my.test.a.Z", "com.my.test.b.B", "com.my.test.C"),
+                        classFiles.map(ClassFile::getClassName).collect(Collectors.toList()));
+            }
+        }
+
+        @Test
+        void shouldListPackageDirectoriesOnlyWhenReached() throws IOException {
+            Path root = createDirectoryRoot("com/my/test/a/A.class", "com/my/test/b/B.class");
+
+            try (Stream<ClassFile> classFiles = ClasspathScanner.of(List.of(root)).stream(List.of("com/my/test"))) {
+                Iterator<ClassFile> iterator = classFiles.iterator();
+                assertEquals("com.my.test.a.A", iterator.next().getClassName());
+
+                Files.delete(root.resolve("com/my/test/b/B.class"));
+                assertFalse(iterator.hasNext());
+            }
+        }
+    }
+
+    @Nested
+    class classFilter {
+
+        private final ClassNameMatcher matcher = ClassNameMatcher.compile(List.of("**.dto.*", "!**.internal.**"));
+        private final String[] resourceNames = {
+                "com/acme/order/dto/OrderDto.class",
+                "com/acme/order/OrderService.class",
+                "com/acme/order/internal/dto/InternalDto.class",
+                "com/acme/customer/dto/CustomerDto.class"
+        };
+        private final Set<String> expectedClassNames = Set.of("com.acme.order.dto.OrderDto", "com.acme.customer.dto.CustomerDto");
+
+        @Test
+        void shouldReturnOnlyMatchingClassFilesOfDirectory() throws IOException {
+            ClasspathScanner scanner = ClasspathScanner.of(List.of(createDirectoryRoot(resourceNames))).withClassFilter(matcher);
+
+            assertEquals(expectedClassNames, classNames(scanner.scan(matcher.getBasePackagePaths())));
+            try (Stream<ClassFile> classFiles = scanner.stream(matcher.getBasePackagePaths())) {
+                assertEquals(expectedClassNames, classNames(classFiles.collect(Collectors.toList())));
+            }
+        }
+
+        @Test
+        void shouldReturnOnlyMatchingClassFilesOfJar() throws IOException {
+            ClasspathScanner scanner = ClasspathScanner.of(List.of(createJarRoot("acme-order-model-1.0.jar", null, resourceNames)))
+                    .withClassFilter(matcher);
+
+            Set<String> visited = ConcurrentHashMap.newKeySet();
+            ForkJoinPool pool = new ForkJoinPool(2);
+            try {
+                scanner.scan(List.of("com"), classFile -> visited.add(classFile.getClassName()), pool);
+            } finally {
+                pool.shutdown();
+            }
+
+            assertEquals(expectedClassNames, visited);
+            assertEquals(expectedClassNames, classNames(scanner.scan(List.of("com"))));
+        }
+
+        @Test
+        void shouldKeepOnlyRootsMatchingFileNamePatterns() throws IOException {
+            Path model = createJarRoot("acme-order-model-1.0.jar", null, resourceNames);
+            Path vendor = createJarRoot("vendor-lib-2.0.jar", null, "org/vendor/dto/VendorDto.class");
+
+            ClasspathScanner scanner = ClasspathScanner.of(List.of(model, vendor)).filterRootNames(List.of("acme-*-model-*.jar"));
+
+            assertEquals(List.of(model.toAbsolutePath().normalize()), scanner.getRoots());
+        }
+    }
+
+    @Nested
+    class classLoaderRoots {
+
+        @Test
+        void shouldResolveRootsOfUrlClassLoaderAndItsAncestors() throws IOException {
+            Path directoryRoot = createDirectoryRoot("com/my/test/Dto.class");
+            Path jar = createJarRoot("model.jar", null, "com/my/test/dto/OtherDto.class");
+
+            try (URLClassLoader parent = new URLClassLoader(new URL[]{directoryRoot.toUri().toURL()}, null);
+                 URLClassLoader child = new URLClassLoader(new URL[]{jar.toUri().toURL()}, parent)) {
+                ClasspathScanner scanner = ClasspathScanner.of(child);
+
+                assertEquals(List.of(directoryRoot, jar), scanner.getRoots());
+                assertEquals(Set.of("com.my.test.Dto", "com.my.test.dto.OtherDto"),
+                        classNames(scanner.scan(List.of("com/my/test"))));
+            }
+        }
+
+        @Test
+        void shouldResolveRootsOfIsolatedClassLoaderFromItsResources() throws IOException {
+            Path directoryRoot = createDirectoryRoot("com/my/test/Dto.class");
+            Manifest manifest = new Manifest();
+            manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+            Path jar = createJarRoot("model.jar", manifest, "com/my/test/dto/OtherDto.class");
+
+            try (URLClassLoader delegate = new URLClassLoader(new URL[]{directoryRoot.toUri().toURL(), jar.toUri().toURL()}, null)) {
+                ClassLoader isolatedClassLoader = new ClassLoader(null) {
+                    @Override
+                    protected Enumeration<URL> findResources(String name) throws IOException {
+                        return delegate.findResources(name);
+                    }
+                };
+
+                assertEquals(List.of(directoryRoot, jar), ClasspathScanner.of(isolatedClassLoader).getRoots());
+            }
+        }
+
+        @Test
+        void shouldReadNamedModulesOfLayer() throws IOException {
+            Path jar = createJarRoot("acme-model-1.0.jar", null,
+                    "com/acme/model/Dto.class",
+                    "com/acme/model/internal/Helper.class",
+                    "org/vendor/Vendor.class");
+
+            Configuration configuration = ModuleLayer.boot().configuration()
+                    .resolve(ModuleFinder.of(jar), ModuleFinder.of(), Set.of("acme.model"));
+            ModuleLayer layer = ModuleLayer.boot().defineModulesWithOneLoader(configuration, null);
+
+            ClasspathScanner scanner = ClasspathScanner.of(layer)
+                    .withClassFilter(ClassNameMatcher.compile(List.of("!**.internal.*")));
+
+            assertEquals(List.of(jar), scanner.getRoots());
+            assertEquals(Set.of("com.acme.model.Dto"), classNames(scanner.scan(List.of("com/acme"))));
+            try (Stream<ClassFile> classFiles = scanner.stream(List.of("com/acme"))) {
+                assertEquals(Set.of("com.acme.model.Dto"), classNames(classFiles.collect(Collectors.toList())));
+            }
+            assertTrue(scanner.scan(List.of("org/other")).isEmpty());
+        }
+    }
+
+    @Test
+    void shouldFindTestDomainInSystemClasspath() {
+        List<ClassFile> result = ClasspathScanner.ofSystemClasspath()
+                .scan(List.of(Dto.class.getPackageName()));
+
+        assertTrue(classNames(result).contains(Dto.class.getName()));
+    }
+
+}
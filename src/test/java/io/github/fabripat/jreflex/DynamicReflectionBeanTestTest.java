@@ -0,0 +1,12 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.annotations.EnableAutomatedBeanTesting;
+
+@EnableAutomatedBeanTesting(
+        sourceRootPath = "io.github.fabripat.jreflex.testdomain",
+        dynamicTests = true,
+        verificationParallelism = 4,
+        report = true
+)
+class DynamicReflectionBeanTestTest extends AbstractReflectionBeanTest {
+}
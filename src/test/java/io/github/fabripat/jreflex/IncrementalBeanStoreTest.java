@@ -0,0 +1,128 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.incremental.IncrementalBeanStore;
+import io.github.fabripat.jreflex.testdomain.dto.Dto;
+import io.github.fabripat.jreflex.testdomain.dto.ImmutableDto;
+import io.github.fabripat.jreflex.testdomain.entity.AbstractEntity;
+import io.github.fabripat.jreflex.testdomain.entity.EntityWithFieldExcluded;
+import io.github.fabripat.jreflex.verification.BeanVerifier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalBeanStoreTest {
+
+    private static final String FINGERPRINT = BeanVerifier.seeded().getFingerprint();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldConsiderUpToDateOnlyPassedClasses() {
+        IncrementalBeanStore store = IncrementalBeanStore.of(tempDir.resolve("store.idx"));
+
+        assertFalse(store.isUpToDate(Dto.class, FINGERPRINT));
+
+        store.record(Dto.class, FINGERPRINT, true);
+        store.record(ImmutableDto.class, FINGERPRINT, false);
+
+        assertTrue(store.isUpToDate(Dto.class, FINGERPRINT));
+        assertFalse(store.isUpToDate(ImmutableDto.class, FINGERPRINT));
+    }
+
+    @Test
+    void shouldNotConsiderUpToDateClassesOfForcedFullRun() {
+        IncrementalBeanStore store = IncrementalBeanStore.of(tempDir.resolve("store.idx"));
+        store.record(Dto.class, FINGERPRINT, true);
+
+        System.setProperty(IncrementalBeanStore.FULL_RUN_PROPERTY, "true");
+        try {
+            assertFalse(store.isUpToDate(Dto.class, FINGERPRINT));
+        } finally {
+            System.clearProperty(IncrementalBeanStore.FULL_RUN_PROPERTY);
+        }
+    }
+
+    @Test
+    void shouldNotConsiderUpToDateClassesVerifiedWithOtherChecks() {
+        IncrementalBeanStore store = IncrementalBeanStore.of(tempDir.resolve("store.idx"));
+        store.record(Dto.class, FINGERPRINT, true);
+
+        String distributionFingerprint = BeanVerifier.seeded().withHashCodeDistribution(0.8, 2048).getFingerprint();
+        String serializationFingerprint = BeanVerifier.seeded().withSerialization(16, 0).getFingerprint();
+
+        assertNotEquals(FINGERPRINT, distributionFingerprint);
+        assertFalse(store.isUpToDate(Dto.class, distributionFingerprint));
+        assertFalse(store.isUpToDate(Dto.class, serializationFingerprint));
+        assertTrue(store.isUpToDate(Dto.class, BeanVerifier.seeded().getFingerprint()));
+    }
+
+    @Test
+    void shouldHashSuperclassChain() {
+        assertNotEquals(IncrementalBeanStore.hash(EntityWithFieldExcluded.class), IncrementalBeanStore.hash(AbstractEntity.class));
+        assertEquals(IncrementalBeanStore.hash(Dto.class), IncrementalBeanStore.hash(Dto.class));
+    }
+
+    @Test
+    void shouldHashNestedMemberClassesAndPropertyTypes() throws Exception {
+        String bean = "package com.my.test;\n" +
+                "public class OrderDto {\n" +
+                "    private LineDto line;\n" +
+                "    public LineDto getLine() { return line; }\n" +
+                "    public void setLine(LineDto line) { this.line = line; }\n" +
+                "    public static class Builder { %s }\n" +
+                "}";
+        String line = "package com.my.test;\npublic class LineDto { %s }";
+
+        String hash = hashCompiled("base", String.format(bean, ""), String.format(line, ""));
+
+        assertEquals(hash, hashCompiled("same", String.format(bean, ""), String.format(line, "")));
+        assertNotEquals(hash, hashCompiled("builder", String.format(bean, "int size;"), String.format(line, "")));
+        assertNotEquals(hash, hashCompiled("line", String.format(bean, ""), String.format(line, "int quantity;")));
+    }
+
+    private String hashCompiled(String name, String orderSource, String lineSource) throws Exception {
+        Path directory = Files.createDirectories(tempDir.resolve(name));
+        Path order = Files.writeString(directory.resolve("OrderDto.java"), orderSource);
+        Path line = Files.writeString(directory.resolve("LineDto.java"), lineSource);
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                "-proc:none", "-d", directory.toString(), order.toString(), line.toString()));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader())) {
+            return IncrementalBeanStore.hash(classLoader.loadClass("com.my.test.OrderDto"));
+        }
+    }
+
+    @Test
+    void shouldMergeResultsFlushedConcurrently() throws IOException {
+        Path file = tempDir.resolve("store.idx");
+        Files.writeString(file, "io.github.fabripat.jreflex.Other\tcafe\tPASSED\n");
+
+        IncrementalBeanStore store = IncrementalBeanStore.of(file);
+        List<Class<?>> classes = List.of(Dto.class, ImmutableDto.class, EntityWithFieldExcluded.class);
+
+        CompletableFuture.allOf(classes.stream()
+                .map(c -> CompletableFuture.runAsync(() -> {
+                    store.record(c, FINGERPRINT, true);
+                    store.flush();
+                }))
+                .toArray(CompletableFuture[]::new)
+        ).join();
+
+        String content = Files.readString(file);
+        assertTrue(content.contains("io.github.fabripat.jreflex.Other\tcafe\tPASSED"));
+        for (Class<?> c : classes)
+            assertTrue(content.contains(c.getName() + "\t" + IncrementalBeanStore.hash(c, FINGERPRINT) + "\tPASSED"));
+    }
+
+}
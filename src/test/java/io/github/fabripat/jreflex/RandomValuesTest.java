@@ -0,0 +1,140 @@
+package io.github.fabripat.jreflex;
+
+import io.github.fabripat.jreflex.generator.ValueGenerators;
+import io.github.fabripat.jreflex.util.CurrencyValueGenerator;
+import io.github.fabripat.jreflex.verification.BeanVerifier;
+import io.github.fabripat.jreflex.verification.RandomValues;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomValuesTest {
+
+    private final RandomValues values = new RandomValues(RandomSource.XO_RO_SHI_RO_128_PP.create());
+
+    @ParameterizedTest
+    @ValueSource(classes = {String.class, BigDecimal.class, UUID.class, Instant.class, LocalDate.class, LocalDateTime.class, OffsetDateTime.class})
+    void shouldRecyclePoolOfDistinctValues(Class<?> type) {
+        Object first = values.next(type);
+        Object previous = first;
+
+        for (int i = 1; i < RandomValues.POOL_SIZE; i++) {
+            Object value = values.next(type);
+            assertInstanceOf(type, value);
+            assertNotEquals(previous, value);
+            previous = value;
+        }
+
+        assertSame(first, values.next(type));
+    }
+
+    @Test
+    void shouldDrawIndependentValuesFromPool() {
+        Set<Object> pool = new HashSet<>();
+        for (int i = 0; i < RandomValues.POOL_SIZE; i++)
+            pool.add(values.next(String.class));
+
+        Set<List<Object>> pairs = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            Object value = values.nextIndependent(String.class);
+            assertTrue(pool.contains(value));
+            pairs.add(List.of(value, values.nextIndependent(UUID.class)));
+        }
+
+        assertTrue(pairs.size() > RandomValues.POOL_SIZE, "Pairs of independent values should not follow the rings in lockstep");
+    }
+
+    @Test
+    void shouldGeneratePrimitivesThroughTheirWrapperGenerator() {
+        assertInstanceOf(Integer.class, values.next(int.class));
+        assertInstanceOf(Long.class, values.next(long.class));
+        assertInstanceOf(Double.class, values.next(double.class));
+        assertNotEquals(values.next(boolean.class), values.next(boolean.class));
+    }
+
+    @Test
+    void shouldAlternateConstantsOfEnum() {
+        Object constant = values.next(TimeUnit.class);
+
+        assertNotEquals(constant, values.nextDifferent(TimeUnit.class, constant));
+    }
+
+    @Test
+    void shouldUseGeneratorDiscoveredThroughServiceLoader() {
+        assertInstanceOf(CurrencyValueGenerator.class, ValueGenerators.of(Currency.class).orElseThrow());
+        assertInstanceOf(Currency.class, values.next(Currency.class));
+    }
+
+    @Test
+    void shouldThrowIllegalStateExceptionForFinalTypeWithoutGenerator() {
+        assertThrows(IllegalStateException.class, () -> values.next(Year.class));
+    }
+
+    @Test
+    void shouldBuildNestedBeanGraphs() {
+        OrderDto order = (OrderDto) values.next(OrderDto.class);
+
+        assertFalse(Mockito.mockingDetails(order).isMock());
+        assertNotNull(order.getCode());
+        assertFalse(order.getLines().isEmpty());
+        for (LineDto line : order.getLines()) {
+            assertInstanceOf(ProductDto.class, line.getProduct());
+            assertNotNull(line.getProduct().getName());
+        }
+        order.getProductsByCode().forEach((code, product) -> {
+            assertInstanceOf(String.class, code);
+            assertInstanceOf(ProductDto.class, product);
+        });
+        assertDoesNotThrow(() -> new BeanVerifier(values, 10).verify(OrderDto.class));
+    }
+
+    @Test
+    void shouldCutCyclesOfNestedBeans() {
+        LineDto line = (LineDto) values.next(LineDto.class);
+
+        assertNotNull(line.getProduct());
+        assertNotNull(line.getOrder());
+        assertNotNull(line.getOrder().getCode());
+        assertTrue(line.getOrder().getLines().isEmpty(), "Lines of the order would close a cycle");
+    }
+
+    @Data
+    public static class OrderDto {
+        private String code;
+        private List<LineDto> lines;
+        private Map<String, ProductDto> productsByCode;
+    }
+
+    @Data
+    public static class LineDto {
+        @ToString.Exclude
+        @EqualsAndHashCode.Exclude
+        private OrderDto order;
+        private ProductDto product;
+        private int quantity;
+    }
+
+    @Data
+    public static class ProductDto {
+        private String name;
+        private BigDecimal price;
+    }
+
+}
@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -43,4 +44,32 @@ class ReflectionBeanTestTest extends AbstractReflectionBeanTest {
         assertTrue(providedList.containsAll(expectedList));
     }
 
+    @Test
+    void shouldProvideNoArgumentsWhenNoClassIsFound() {
+        assertEquals(List.of(), provideArguments(MisconfiguredBeanTest.class));
+    }
+
+    @Test
+    void shouldProvideTestClassWhenShardHasNoClass() {
+        assertEquals(List.of(EmptyShardBeanTest.class), provideArguments(EmptyShardBeanTest.class));
+    }
+
+    private static List<Object> provideArguments(Class<?> testClass) {
+        ExtensionContext extensionContextMock = mock(ExtensionContext.class);
+        doReturn(testClass).when(extensionContextMock).getRequiredTestClass();
+
+        return new ClassTestProvider().provideArguments(extensionContextMock)
+                .map(Arguments::get)
+                .flatMap(Stream::of)
+                .collect(Collectors.toList());
+    }
+
+    @EnableAutomatedBeanTesting(sourceRootPath = "io.github.fabripat.jreflex.nonexistent")
+    static class MisconfiguredBeanTest {
+    }
+
+    @EnableAutomatedBeanTesting(sourceRootPath = "io.github.fabripat.jreflex.nonexistent", shardCount = 2)
+    static class EmptyShardBeanTest {
+    }
+
 }
\ No newline at end of file
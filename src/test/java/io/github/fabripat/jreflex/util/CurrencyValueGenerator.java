@@ -0,0 +1,27 @@
+package io.github.fabripat.jreflex.util;
+
+import io.github.fabripat.jreflex.generator.ValueGenerator;
+import org.apache.commons.rng.UniformRandomProvider;
+
+import java.util.Currency;
+import java.util.List;
+
+public class CurrencyValueGenerator implements ValueGenerator<Currency> {
+
+    private static final List<Currency> CURRENCIES = List.copyOf(Currency.getAvailableCurrencies());
+
+    @Override
+    public Class<Currency> getType() {
+        return Currency.class;
+    }
+
+    @Override
+    public Currency next(UniformRandomProvider random) {
+        return CURRENCIES.get(random.nextInt(CURRENCIES.size()));
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
+}